@@ -1,4 +1,14 @@
 import complex_events_generator.CEG_DeadCpu;
+import events.complex_events.CE_Cpu_Dead;
+import events.primitive_events.PE_Cpu;
+import events.primitive_events.PE_Disk;
+import events.primitive_events.PE_Ram;
+import events.primitive_events.PE_ResponseTime;
+import events.simple_events.SE_Cpu_Drop;
+import events.simple_events.SE_Ram_Drop;
+import events.symptoms.SY_Cpu_Drop;
+import events.symptoms.SY_Cpu_Overload;
+import events.symptoms.SY_Ram_Drop;
 import perception.pluginManager.PerceptionPlugin;
 import primitive_events_generator.*;
 import simple_events_generator.SEG_Cpu_Drop;
@@ -34,6 +44,18 @@ public class MainPerceptionPlugin extends PerceptionPlugin {
 
         //Register CEGs
         this.registerCEG(CEG_DeadCpu.class);
+
+        //Register event codecs
+        this.registerEventCodec(PE_Cpu.class, PE_Cpu.CODEC);
+        this.registerEventCodec(PE_Disk.class, PE_Disk.CODEC);
+        this.registerEventCodec(PE_Ram.class, PE_Ram.CODEC);
+        this.registerEventCodec(PE_ResponseTime.class, PE_ResponseTime.CODEC);
+        this.registerEventCodec(SE_Cpu_Drop.class, SE_Cpu_Drop.CODEC);
+        this.registerEventCodec(SE_Ram_Drop.class, SE_Ram_Drop.CODEC);
+        this.registerEventCodec(CE_Cpu_Dead.class, CE_Cpu_Dead.CODEC);
+        this.registerEventCodec(SY_Cpu_Drop.class, SY_Cpu_Drop.CODEC);
+        this.registerEventCodec(SY_Cpu_Overload.class, SY_Cpu_Overload.CODEC);
+        this.registerEventCodec(SY_Ram_Drop.class, SY_Ram_Drop.CODEC);
     }
 
 }
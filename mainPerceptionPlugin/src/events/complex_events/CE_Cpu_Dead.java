@@ -1,13 +1,30 @@
 package events.complex_events;
 
 import graph.CloudResourceType;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
 import perception.events.ComplexEvent;
+import perception.events.serialization.ComplexEventCodec;
+import perception.events.serialization.EventCodec;
+import perception.events.serialization.EventSerializer;
 import utils.Triplet;
 
 import java.util.Deque;
 
 public class CE_Cpu_Dead extends ComplexEvent {
 
+    public static final EventCodec<CE_Cpu_Dead> CODEC = new ComplexEventCodec<CE_Cpu_Dead>() {
+        @Override
+        protected void writeFields(CE_Cpu_Dead event, EventSerializer<?> serializer, DataOutputView target) {
+        }
+
+        @Override
+        protected CE_Cpu_Dead readFields(Deque<Triplet<CloudResourceType, String, Integer>> resources,
+                EventSerializer<?> serializer, DataInputView source) {
+            return new CE_Cpu_Dead(resources);
+        }
+    };
+
 
     public CE_Cpu_Dead(Deque<Triplet<CloudResourceType, String, Integer>> resources) {
         super(resources);
@@ -1,10 +1,31 @@
 package events.primitive_events;
 
 import graph.CloudResourceType;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
 import perception.events.PrimitiveEvent;
+import perception.events.serialization.EventCodec;
+import perception.events.serialization.EventSerializer;
+import perception.events.serialization.PrimitiveEventCodec;
+
+import java.io.IOException;
 
 public class PE_Cpu extends PrimitiveEvent {
 
+    public static final EventCodec<PE_Cpu> CODEC = new PrimitiveEventCodec<PE_Cpu>() {
+        @Override
+        protected void writeFields(PE_Cpu event, EventSerializer<?> serializer, DataOutputView target)
+                throws IOException {
+            target.writeInt(event.getCpuValue());
+        }
+
+        @Override
+        protected PE_Cpu readFields(int cloudResourceId, String cloudResourceName, CloudResourceType type,
+                int score, EventSerializer<?> serializer, DataInputView source) throws IOException {
+            return new PE_Cpu(cloudResourceId, cloudResourceName, type, score, source.readInt());
+        }
+    };
+
     final private int cpuValue;
 
     public PE_Cpu(String cloudResourceName,
@@ -16,6 +37,16 @@ public class PE_Cpu extends PrimitiveEvent {
         this.cpuValue = cpuValue;
     }
 
+    public PE_Cpu(int cloudResourceId,
+                  String cloudResourceName,
+                  CloudResourceType cloudResourceType,
+                  int score,
+                  int cpuValue)
+    {
+        super(cloudResourceId, cloudResourceName, cloudResourceType, score);
+        this.cpuValue = cpuValue;
+    }
+
     public int getCpuValue() {
         return cpuValue;
     }
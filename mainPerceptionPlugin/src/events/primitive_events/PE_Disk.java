@@ -1,10 +1,31 @@
 package events.primitive_events;
 
 import graph.CloudResourceType;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
 import perception.events.PrimitiveEvent;
+import perception.events.serialization.EventCodec;
+import perception.events.serialization.EventSerializer;
+import perception.events.serialization.PrimitiveEventCodec;
+
+import java.io.IOException;
 
 public class PE_Disk extends PrimitiveEvent {
 
+    public static final EventCodec<PE_Disk> CODEC = new PrimitiveEventCodec<PE_Disk>() {
+        @Override
+        protected void writeFields(PE_Disk event, EventSerializer<?> serializer, DataOutputView target)
+                throws IOException {
+            target.writeInt(event.getDiskValue());
+        }
+
+        @Override
+        protected PE_Disk readFields(int cloudResourceId, String cloudResourceName, CloudResourceType type,
+                int score, EventSerializer<?> serializer, DataInputView source) throws IOException {
+            return new PE_Disk(cloudResourceId, cloudResourceName, type, score, source.readInt());
+        }
+    };
+
     final private int diskValue;
 
     public PE_Disk(String cloudResourceName,
@@ -16,6 +37,16 @@ public class PE_Disk extends PrimitiveEvent {
         this.diskValue = diskValue;
     }
 
+    public PE_Disk(int cloudResourceId,
+                   String cloudResourceName,
+                   CloudResourceType cloudResourceType,
+                   int score,
+                   int diskValue)
+    {
+        super(cloudResourceId, cloudResourceName, cloudResourceType, score);
+        this.diskValue = diskValue;
+    }
+
     public int getDiskValue() {
         return diskValue;
     }
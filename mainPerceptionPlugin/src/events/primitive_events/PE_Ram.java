@@ -1,10 +1,31 @@
 package events.primitive_events;
 
 import graph.CloudResourceType;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
 import perception.events.PrimitiveEvent;
+import perception.events.serialization.EventCodec;
+import perception.events.serialization.EventSerializer;
+import perception.events.serialization.PrimitiveEventCodec;
+
+import java.io.IOException;
 
 public class PE_Ram extends PrimitiveEvent {
 
+    public static final EventCodec<PE_Ram> CODEC = new PrimitiveEventCodec<PE_Ram>() {
+        @Override
+        protected void writeFields(PE_Ram event, EventSerializer<?> serializer, DataOutputView target)
+                throws IOException {
+            target.writeInt(event.getRamValue());
+        }
+
+        @Override
+        protected PE_Ram readFields(int cloudResourceId, String cloudResourceName, CloudResourceType type,
+                int score, EventSerializer<?> serializer, DataInputView source) throws IOException {
+            return new PE_Ram(cloudResourceId, cloudResourceName, type, score, source.readInt());
+        }
+    };
+
     final private int ramValue;
 
     public PE_Ram(String cloudResourceName,
@@ -16,6 +37,16 @@ public class PE_Ram extends PrimitiveEvent {
         this.ramValue = ramValue;
     }
 
+    public PE_Ram(int cloudResourceId,
+                  String cloudResourceName,
+                  CloudResourceType cloudResourceType,
+                  int score,
+                  int ramValue)
+    {
+        super(cloudResourceId, cloudResourceName, cloudResourceType, score);
+        this.ramValue = ramValue;
+    }
+
     public int getRamValue() {
         return ramValue;
     }
@@ -1,10 +1,31 @@
 package events.primitive_events;
 
 import graph.CloudResourceType;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
 import perception.events.PrimitiveEvent;
+import perception.events.serialization.EventCodec;
+import perception.events.serialization.EventSerializer;
+import perception.events.serialization.PrimitiveEventCodec;
+
+import java.io.IOException;
 
 public class PE_ResponseTime extends PrimitiveEvent {
 
+    public static final EventCodec<PE_ResponseTime> CODEC = new PrimitiveEventCodec<PE_ResponseTime>() {
+        @Override
+        protected void writeFields(PE_ResponseTime event, EventSerializer<?> serializer, DataOutputView target)
+                throws IOException {
+            target.writeInt(event.getResponseTime());
+        }
+
+        @Override
+        protected PE_ResponseTime readFields(int cloudResourceId, String cloudResourceName, CloudResourceType type,
+                int score, EventSerializer<?> serializer, DataInputView source) throws IOException {
+            return new PE_ResponseTime(cloudResourceId, cloudResourceName, type, score, source.readInt());
+        }
+    };
+
     final private int responseTime;
 
     public PE_ResponseTime(String cloudResourceName, CloudResourceType cloudResourceType, int score, int responseTime) {
@@ -12,6 +33,12 @@ public class PE_ResponseTime extends PrimitiveEvent {
         this.responseTime = responseTime;
     }
 
+    public PE_ResponseTime(int cloudResourceId, String cloudResourceName, CloudResourceType cloudResourceType,
+                           int score, int responseTime) {
+        super(cloudResourceId, cloudResourceName, cloudResourceType, score);
+        this.responseTime = responseTime;
+    }
+
     public int getResponseTime() {
         return responseTime;
     }
@@ -1,10 +1,33 @@
 package events.simple_events;
 
 import graph.CloudResourceType;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
 import perception.events.SimpleEvent;
+import perception.events.serialization.EventCodec;
+import perception.events.serialization.EventSerializer;
+import perception.events.serialization.SimpleEventCodec;
+
+import java.io.IOException;
 
 public class SE_Cpu_Drop extends SimpleEvent {
 
+    public static final EventCodec<SE_Cpu_Drop> CODEC = new SimpleEventCodec<SE_Cpu_Drop>() {
+        @Override
+        protected void writeFields(SE_Cpu_Drop event, EventSerializer<?> serializer, DataOutputView target)
+                throws IOException {
+            target.writeInt(event.getCpuValueBeforeDrop());
+            target.writeInt(event.getCpuValueAfterDrop());
+        }
+
+        @Override
+        protected SE_Cpu_Drop readFields(int cloudResourceId, String cloudResourceName, CloudResourceType type,
+                int score, EventSerializer<?> serializer, DataInputView source) throws IOException {
+            return new SE_Cpu_Drop(cloudResourceId, cloudResourceName, type, score, source.readInt(),
+                    source.readInt());
+        }
+    };
+
     final private int cpuValueBeforeDrop;
     final private int cpuValueAfterDrop;
 
@@ -19,6 +42,18 @@ public class SE_Cpu_Drop extends SimpleEvent {
         this.cpuValueAfterDrop = cpuValueAfterDrop;
     }
 
+    public SE_Cpu_Drop(int cloudResourceId,
+                       String cloudResourceName,
+                       CloudResourceType cloudResourceType,
+                       int score,
+                       int cpuValueBeforeDrop,
+                       int cpuValueAfterDrop)
+    {
+        super(cloudResourceId, cloudResourceName, cloudResourceType, score);
+        this.cpuValueBeforeDrop = cpuValueBeforeDrop;
+        this.cpuValueAfterDrop = cpuValueAfterDrop;
+    }
+
     public int getCpuValueBeforeDrop() {
         return cpuValueBeforeDrop;
     }
@@ -1,10 +1,33 @@
 package events.simple_events;
 
 import graph.CloudResourceType;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
 import perception.events.SimpleEvent;
+import perception.events.serialization.EventCodec;
+import perception.events.serialization.EventSerializer;
+import perception.events.serialization.SimpleEventCodec;
+
+import java.io.IOException;
 
 public class SE_Ram_Drop extends SimpleEvent {
 
+    public static final EventCodec<SE_Ram_Drop> CODEC = new SimpleEventCodec<SE_Ram_Drop>() {
+        @Override
+        protected void writeFields(SE_Ram_Drop event, EventSerializer<?> serializer, DataOutputView target)
+                throws IOException {
+            target.writeInt(event.getRamValueBeforeDrop());
+            target.writeInt(event.getRamValueAfterDrop());
+        }
+
+        @Override
+        protected SE_Ram_Drop readFields(int cloudResourceId, String cloudResourceName, CloudResourceType type,
+                int score, EventSerializer<?> serializer, DataInputView source) throws IOException {
+            return new SE_Ram_Drop(cloudResourceId, cloudResourceName, type, score, source.readInt(),
+                    source.readInt());
+        }
+    };
+
     final private int ramValueBeforeDrop;
     final private int ramValueAfterDrop;
 
@@ -19,6 +42,26 @@ public class SE_Ram_Drop extends SimpleEvent {
         this.ramValueAfterDrop = ramValueAfterDrop;
     }
 
+    public SE_Ram_Drop(int cloudResourceId,
+                       String cloudResourceName,
+                       CloudResourceType cloudResourceType,
+                       int score,
+                       int ramValueBeforeDrop,
+                       int ramValueAfterDrop)
+    {
+        super(cloudResourceId, cloudResourceName, cloudResourceType, score);
+        this.ramValueBeforeDrop = ramValueBeforeDrop;
+        this.ramValueAfterDrop = ramValueAfterDrop;
+    }
+
+    public int getRamValueBeforeDrop() {
+        return ramValueBeforeDrop;
+    }
+
+    public int getRamValueAfterDrop() {
+        return ramValueAfterDrop;
+    }
+
     @Override
     public String toString() {
         return "SE_Ram_Drop{" +
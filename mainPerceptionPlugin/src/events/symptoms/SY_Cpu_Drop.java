@@ -1,10 +1,34 @@
 package events.symptoms;
 
 import graph.CloudResourceType;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
 import perception.events.Symptom;
+import perception.events.serialization.EventCodec;
+import perception.events.serialization.EventSerializer;
+import perception.events.serialization.SymptomCodec;
+import utils.Triplet;
+
+import java.io.IOException;
+import java.util.Deque;
 
 public class SY_Cpu_Drop extends Symptom {
 
+    public static final EventCodec<SY_Cpu_Drop> CODEC = new SymptomCodec<SY_Cpu_Drop>() {
+        @Override
+        protected void writeFields(SY_Cpu_Drop symptom, EventSerializer<?> serializer, DataOutputView target)
+                throws IOException {
+            target.writeInt(symptom.getCpuInitValue());
+            target.writeInt(symptom.getCpuDropValue());
+        }
+
+        @Override
+        protected SY_Cpu_Drop readFields(Deque<Triplet<CloudResourceType, String, Integer>> resources,
+                EventSerializer<?> serializer, DataInputView source) throws IOException {
+            return new SY_Cpu_Drop(resources, source.readInt(), source.readInt());
+        }
+    };
+
     final int cpuInitValue;
     final int cpuDropValue;
 
@@ -18,6 +42,14 @@ public class SY_Cpu_Drop extends Symptom {
         this.cpuDropValue = cpuDropValue;
     }
 
+    public SY_Cpu_Drop(Deque<Triplet<CloudResourceType, String, Integer>> resources,
+                       int cpuInitValue,
+                       int cpuDropValue) {
+        super(resources);
+        this.cpuInitValue = cpuInitValue;
+        this.cpuDropValue = cpuDropValue;
+    }
+
     public int getCpuInitValue() {
         return cpuInitValue;
     }
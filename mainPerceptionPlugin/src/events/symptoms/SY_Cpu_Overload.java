@@ -1,13 +1,36 @@
 package events.symptoms;
 
 import graph.CloudResourceType;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
 import perception.events.Symptom;
+import perception.events.serialization.EventCodec;
+import perception.events.serialization.EventSerializer;
+import perception.events.serialization.SymptomCodec;
+import utils.Triplet;
+
+import java.io.IOException;
+import java.util.Deque;
 
 /**
  * Created by asus on 06/06/2017.
  */
 public class SY_Cpu_Overload extends Symptom {
 
+    public static final EventCodec<SY_Cpu_Overload> CODEC = new SymptomCodec<SY_Cpu_Overload>() {
+        @Override
+        protected void writeFields(SY_Cpu_Overload symptom, EventSerializer<?> serializer, DataOutputView target)
+                throws IOException {
+            target.writeInt(symptom.getCpuHighValue());
+        }
+
+        @Override
+        protected SY_Cpu_Overload readFields(Deque<Triplet<CloudResourceType, String, Integer>> resources,
+                EventSerializer<?> serializer, DataInputView source) throws IOException {
+            return new SY_Cpu_Overload(resources, source.readInt());
+        }
+    };
+
     final int cpuHighValue;
 
     public SY_Cpu_Overload(String cloudResourceName,
@@ -18,6 +41,12 @@ public class SY_Cpu_Overload extends Symptom {
         this.cpuHighValue = cpuHighValue;
     }
 
+    public SY_Cpu_Overload(Deque<Triplet<CloudResourceType, String, Integer>> resources,
+                           int cpuHighValue) {
+        super(resources);
+        this.cpuHighValue = cpuHighValue;
+    }
+
     public int getCpuHighValue() {
         return cpuHighValue;
     }
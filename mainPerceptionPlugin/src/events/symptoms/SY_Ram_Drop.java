@@ -1,10 +1,34 @@
 package events.symptoms;
 
 import graph.CloudResourceType;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
 import perception.events.Symptom;
+import perception.events.serialization.EventCodec;
+import perception.events.serialization.EventSerializer;
+import perception.events.serialization.SymptomCodec;
+import utils.Triplet;
+
+import java.io.IOException;
+import java.util.Deque;
 
 public class SY_Ram_Drop extends Symptom {
 
+    public static final EventCodec<SY_Ram_Drop> CODEC = new SymptomCodec<SY_Ram_Drop>() {
+        @Override
+        protected void writeFields(SY_Ram_Drop symptom, EventSerializer<?> serializer, DataOutputView target)
+                throws IOException {
+            target.writeInt(symptom.getRamInitValue());
+            target.writeInt(symptom.getRamDropValue());
+        }
+
+        @Override
+        protected SY_Ram_Drop readFields(Deque<Triplet<CloudResourceType, String, Integer>> resources,
+                EventSerializer<?> serializer, DataInputView source) throws IOException {
+            return new SY_Ram_Drop(resources, source.readInt(), source.readInt());
+        }
+    };
+
     final int ramInitValue;
     final int ramDropValue;
 
@@ -18,6 +42,14 @@ public class SY_Ram_Drop extends Symptom {
         this.ramDropValue = ramDropValue;
     }
 
+    public SY_Ram_Drop(Deque<Triplet<CloudResourceType, String, Integer>> resources,
+                       int ramInitValue,
+                       int ramDropValue) {
+        super(resources);
+        this.ramInitValue = ramInitValue;
+        this.ramDropValue = ramDropValue;
+    }
+
     public int getRamInitValue() {
         return ramInitValue;
     }
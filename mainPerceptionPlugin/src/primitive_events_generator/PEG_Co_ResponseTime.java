@@ -7,7 +7,9 @@ import graph.Co;
 import perception.events.PrimitiveEvent;
 import perception.primitive_events_generator.PrimitiveEventGenerator;
 
+import java.util.EnumSet;
 import java.util.Optional;
+import java.util.Set;
 
 public class PEG_Co_ResponseTime extends PrimitiveEventGenerator {
 
@@ -19,10 +21,20 @@ public class PEG_Co_ResponseTime extends PrimitiveEventGenerator {
         super("PEG_Co_ResponseTime", msRefreshingRate);
     }
 
+    @Override
+    protected Set<CloudResourceType> getHandledResourceTypes() {
+        return EnumSet.of(CloudResourceType.CO);
+    }
+
+    @Override
+    protected int getEventValue(PrimitiveEvent event) {
+        return ((PE_ResponseTime) event).getResponseTime();
+    }
+
     @Override
     protected Optional<PrimitiveEvent> processResource(CloudResource cr) {
         if(cr.getType() == CloudResourceType.CO) {
-            PE_ResponseTime pe_responseTime = new PE_ResponseTime(cr.getName(), cr.getType(), cr.getScore(), ((Co)cr).getResponseTime());
+            PE_ResponseTime pe_responseTime = new PE_ResponseTime(cr.getId(), cr.getName(), cr.getType(), cr.getScore(), ((Co)cr).getResponseTime());
             return Optional.of(pe_responseTime);
         }
         return Optional.empty();
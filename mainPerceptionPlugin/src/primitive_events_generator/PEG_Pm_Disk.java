@@ -7,7 +7,9 @@ import graph.PM;
 import perception.events.PrimitiveEvent;
 import perception.primitive_events_generator.PrimitiveEventGenerator;
 
+import java.util.EnumSet;
 import java.util.Optional;
+import java.util.Set;
 
 public class PEG_Pm_Disk extends PrimitiveEventGenerator {
 
@@ -20,10 +22,20 @@ public class PEG_Pm_Disk extends PrimitiveEventGenerator {
     }
 
 
+    @Override
+    protected Set<CloudResourceType> getHandledResourceTypes() {
+        return EnumSet.of(CloudResourceType.PM);
+    }
+
+    @Override
+    protected int getEventValue(PrimitiveEvent event) {
+        return ((PE_Disk) event).getDiskValue();
+    }
+
     @Override
     protected Optional<PrimitiveEvent> processResource(CloudResource cr) {
         if(cr.getType() == CloudResourceType.PM) {
-            PE_Disk pe_Disk = new PE_Disk(cr.getName(), cr.getType(), cr.getScore(), ((PM)cr).getDiskConsumption());
+            PE_Disk pe_Disk = new PE_Disk(cr.getId(), cr.getName(), cr.getType(), cr.getScore(), ((PM)cr).getDiskConsumption());
             return Optional.of(pe_Disk);
         }
         return Optional.empty();
@@ -7,7 +7,9 @@ import graph.VM;
 import perception.events.PrimitiveEvent;
 import perception.primitive_events_generator.PrimitiveEventGenerator;
 
+import java.util.EnumSet;
 import java.util.Optional;
+import java.util.Set;
 
 public class PEG_Vm_Cpu extends PrimitiveEventGenerator {
 
@@ -19,10 +21,20 @@ public class PEG_Vm_Cpu extends PrimitiveEventGenerator {
         super("PEG_Vm_Cpu", msRefreshingRate);
     }
 
+    @Override
+    protected Set<CloudResourceType> getHandledResourceTypes() {
+        return EnumSet.of(CloudResourceType.VM);
+    }
+
+    @Override
+    protected int getEventValue(PrimitiveEvent event) {
+        return ((PE_Cpu) event).getCpuValue();
+    }
+
     @Override
     protected Optional<PrimitiveEvent>  processResource(CloudResource cr) {
         if(cr.getType() == CloudResourceType.VM) {
-            PE_Cpu pe_cpu = new PE_Cpu(cr.getName(), cr.getType(), cr.getScore(), ((VM)cr).getCpu_consumption());
+            PE_Cpu pe_cpu = new PE_Cpu(cr.getId(), cr.getName(), cr.getType(), cr.getScore(), ((VM)cr).getCpu_consumption());
             return Optional.of(pe_cpu);
         }
         return Optional.empty();
@@ -7,7 +7,9 @@ import graph.VM;
 import perception.events.PrimitiveEvent;
 import perception.primitive_events_generator.PrimitiveEventGenerator;
 
+import java.util.EnumSet;
 import java.util.Optional;
+import java.util.Set;
 
 public class PEG_Vm_Disk extends PrimitiveEventGenerator {
 
@@ -19,10 +21,20 @@ public class PEG_Vm_Disk extends PrimitiveEventGenerator {
         super("PEG_Vm_Disk", msRefreshingRate);
     }
 
+    @Override
+    protected Set<CloudResourceType> getHandledResourceTypes() {
+        return EnumSet.of(CloudResourceType.VM);
+    }
+
+    @Override
+    protected int getEventValue(PrimitiveEvent event) {
+        return ((PE_Disk) event).getDiskValue();
+    }
+
     @Override
     protected Optional<PrimitiveEvent>  processResource(CloudResource cr) {
         if(cr.getType() == CloudResourceType.VM) {
-            PE_Disk pe_Disk = new PE_Disk(cr.getName(), cr.getType(), cr.getScore(), ((VM)cr).getDiskConsumption());
+            PE_Disk pe_Disk = new PE_Disk(cr.getId(), cr.getName(), cr.getType(), cr.getScore(), ((VM)cr).getDiskConsumption());
             return Optional.of(pe_Disk);
         }
         return Optional.empty();
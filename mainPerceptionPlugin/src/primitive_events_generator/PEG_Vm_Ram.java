@@ -7,7 +7,9 @@ import graph.VM;
 import perception.events.PrimitiveEvent;
 import perception.primitive_events_generator.PrimitiveEventGenerator;
 
+import java.util.EnumSet;
 import java.util.Optional;
+import java.util.Set;
 
 public class PEG_Vm_Ram extends PrimitiveEventGenerator {
 
@@ -19,10 +21,20 @@ public class PEG_Vm_Ram extends PrimitiveEventGenerator {
         super("PEG_Vm_Ram", msRefreshingRate);
     }
 
+    @Override
+    protected Set<CloudResourceType> getHandledResourceTypes() {
+        return EnumSet.of(CloudResourceType.VM);
+    }
+
+    @Override
+    protected int getEventValue(PrimitiveEvent event) {
+        return ((PE_Ram) event).getRamValue();
+    }
+
     @Override
     protected Optional<PrimitiveEvent>  processResource(CloudResource cr) {
         if(cr.getType() == CloudResourceType.VM) {
-            PE_Ram pe_Ram = new PE_Ram(cr.getName(), cr.getType(), cr.getScore(), ((VM)cr).getRamConsumption());
+            PE_Ram pe_Ram = new PE_Ram(cr.getId(), cr.getName(), cr.getType(), cr.getScore(), ((VM)cr).getRamConsumption());
             return Optional.of(pe_Ram);
         }
         return Optional.empty();
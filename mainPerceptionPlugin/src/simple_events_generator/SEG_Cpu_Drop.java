@@ -10,8 +10,10 @@ import perception.events.Event;
 import perception.events.PrimitiveEvent;
 import perception.simple_events_generator.SimpleEventGenerator;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class SEG_Cpu_Drop extends SimpleEventGenerator {
 
@@ -63,6 +65,11 @@ public class SEG_Cpu_Drop extends SimpleEventGenerator {
                 .within(Time.milliseconds(runtime));
     }
 
+    @Override
+    public Set<Class<? extends PrimitiveEvent>> getConsumedEventClasses() {
+        return Collections.singleton(PE_Cpu.class);
+    }
+
     @Override
     public PatternSelectFunction<PrimitiveEvent, Event> getPatternSelectFunction() {
         return new PatternSelectFunction<PrimitiveEvent, Event>() {
@@ -77,7 +84,8 @@ public class SEG_Cpu_Drop extends SimpleEventGenerator {
                             isSecondPE = true;
                         } else if(pe.getClass() == PE_Cpu.class && isSecondPE) {
                             cpuLow = ((PE_Cpu) pe).getCpuValue();
-                            SE_Cpu_Drop seCpuDrop = new SE_Cpu_Drop(pe.getCloudResourceName(),
+                            SE_Cpu_Drop seCpuDrop = new SE_Cpu_Drop(pe.getCloudResourceId(),
+                                                                     pe.getCloudResourceName(),
                                                                      pe.getCloudResourceType(),
                                                                      pe.getScore(),
                                                                      cpuHigh,
@@ -64,7 +64,8 @@ public class SEG_Cpu_Overload /*extends SimpleEventGenerator*/ {
                                     pe.getCloudResourceType(),
                                     pe.getScore(),
                                     cpuHigh);
-                            PerceptionRunContext.getSymptomQueue().pushSymptom(sy);
+                            //Le symptôme est transmis à la pile des symptômes par le puits des symptômes
+                            return sy;
                         }
                     }
                 }
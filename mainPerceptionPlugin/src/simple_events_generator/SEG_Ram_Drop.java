@@ -1,6 +1,5 @@
 package simple_events_generator;
 
-import events.primitive_events.PE_Cpu;
 import events.primitive_events.PE_Ram;
 import events.simple_events.SE_Ram_Drop;
 import org.apache.flink.cep.PatternSelectFunction;
@@ -11,8 +10,10 @@ import perception.events.Event;
 import perception.events.PrimitiveEvent;
 import perception.simple_events_generator.SimpleEventGenerator;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class SEG_Ram_Drop extends SimpleEventGenerator {
 
@@ -61,6 +62,11 @@ public class SEG_Ram_Drop extends SimpleEventGenerator {
                 .within(Time.milliseconds(2000));
     }
 
+    @Override
+    public Set<Class<? extends PrimitiveEvent>> getConsumedEventClasses() {
+        return Collections.singleton(PE_Ram.class);
+    }
+
     @Override
     public PatternSelectFunction<PrimitiveEvent, Event> getPatternSelectFunction() {
         return new PatternSelectFunction<PrimitiveEvent, Event>() {
@@ -73,9 +79,10 @@ public class SEG_Ram_Drop extends SimpleEventGenerator {
                         if(pe.getClass() == PE_Ram.class && !isSecondPE) {
                             ramHigh = ((PE_Ram) pe).getRamValue();
                             isSecondPE = true;
-                        } else if(pe.getClass() == PE_Cpu.class && isSecondPE) {
-                            ramLow = ((PE_Cpu) pe).getCpuValue();
-                            SE_Ram_Drop se_ram_drop = new SE_Ram_Drop(pe.getCloudResourceName(),
+                        } else if(pe.getClass() == PE_Ram.class && isSecondPE) {
+                            ramLow = ((PE_Ram) pe).getRamValue();
+                            SE_Ram_Drop se_ram_drop = new SE_Ram_Drop(pe.getCloudResourceId(),
+                                    pe.getCloudResourceName(),
                                     pe.getCloudResourceType(),
                                     pe.getScore(),
                                     ramHigh,
@@ -1,6 +1,7 @@
 package graph;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,39 +18,34 @@ public class Appli extends CloudResource {
      */
     public Appli(String name, int score) {
         super(name, CloudResourceType.APPLI, score);
-        this.pms.initResourceList();
-        this.tiers.initResourceList();
+    }
+
+    /**
+     * Constructeur d'une copie figée d'une application
+     * @param source - La ressource à copier
+     */
+    private Appli(Appli source) {
+        super(source);
+    }
+
+    @Override
+    public Appli freeze() {
+        return new Appli(this);
     }
 
     @Override
-    public int getTotalScore() {
-        int retScore = this.getScore();
-        for(CloudResource co : this.pms.getResourceList()) {
-            retScore += co.getTotalScore();
-        }
-        for(CloudResource co : this.tiers.getResourceList()) {
-            retScore += co.getTotalScore();
-        }
-        return retScore;
+    protected List<CloudResource> getSubResources() {
+        List<CloudResource> subResources = new ArrayList<>(this.pms.getResourceList());
+        subResources.addAll(this.tiers.getResourceList());
+        return subResources;
     }
 
     //--PM---------------------------------------------------------------------
     //Une application contient de multiples Ressources de Cloud PM
-    private CloudResourceHolder<PM> pms = new CloudResourceHolder<PM>() {
-
-        private List<PM> pms;
-
-        @Override
-        public List<PM> getResourceList() {
-            return pms;
-        }
-
-        @Override
-        public void initResourceList() {
-            pms = new ArrayList<>();
-        }
-    };
-    public boolean addPM(PM pm) { return this.pms.addResource(pm); }
+    private final CloudResourceHolder<PM> pms = new IndexedCloudResourceHolder<>();
+    public boolean addPM(PM pm) { return this.addSubResource(this.pms, pm); }
+    public int addPMs(Collection<? extends PM> pms) { return this.addSubResources(this.pms, pms); }
+    public boolean removePM(String pmName) { return this.removeSubResource(this.pms, pmName); }
     public Optional<PM> getPM(String pmName) { return this.pms.getResource(pmName); }
     public Optional<PM> getPM(int pmId) { return this.pms.getResource(pmId); }
     public boolean isPMExists(String pmName) { return this.pms.isResourceExists(pmName); }
@@ -58,21 +54,10 @@ public class Appli extends CloudResource {
 
     //--TIER-------------------------------------------------------------------
     //Une application contient de multiples Ressources de Cloud Tier
-    private CloudResourceHolder<Tier> tiers = new CloudResourceHolder<Tier>() {
-
-        private List<Tier> tiers;
-
-        @Override
-        public List<Tier> getResourceList() {
-            return tiers;
-        }
-
-        @Override
-        public void initResourceList() {
-            tiers = new ArrayList<>();
-        }
-    };
-    public boolean addTier(Tier tier) { return this.tiers.addResource(tier); }
+    private final CloudResourceHolder<Tier> tiers = new IndexedCloudResourceHolder<>();
+    public boolean addTier(Tier tier) { return this.addSubResource(this.tiers, tier); }
+    public int addTiers(Collection<? extends Tier> tiers) { return this.addSubResources(this.tiers, tiers); }
+    public boolean removeTier(String tierName) { return this.removeSubResource(this.tiers, tierName); }
     public Optional<Tier> getTier(String tierName) { return this.tiers.getResource(tierName); }
     public Optional<Tier> getTier(int pmId) { return this.tiers.getResource(pmId); }
     public boolean isTierExists(String pmName) { return this.tiers.isResourceExists(pmName); }
@@ -1,5 +1,12 @@
 package graph;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Classe abstraite représentant une Ressource de CloudAbstract class that represents a cloud ressource
  * @author Chloé GUILBAUD, Léo PARIS, Kendall FOREST, Mathieu GUYOT
@@ -8,7 +15,23 @@ public abstract class CloudResource {
 
 	protected String name; //Nom de la ressource
 	protected CloudResourceType type;
-	protected int score;
+	protected volatile int score;
+	private final int id; //Identifiant dense de la ressource, attribué à sa création
+	private volatile int totalScore; //Score de la ressource et de ses sous-ressources, maintenu incrémentalement
+	//Ressources contenant cette ressource (une VM est contenue par sa PM et par son Tier)
+	private final List<CloudResource> parents = new CopyOnWriteArrayList<>();
+	private final boolean frozen; //Indique si la ressource est une copie figée (non modifiable)
+	private final MetricStore metricStore; //Magasin des métriques de la ressource, null si stockées dans ses champs
+	private final MetricStore.Columns frozenMetrics; //Colonnes figées des métriques d'une copie figée, sinon null
+
+	//Verrou des modifications de scores et de la composition du graph, les lectures se faisant sans verrou
+	private static final Object scoreLock = new Object();
+
+	//Prochain identifiant à attribuer
+	private static final AtomicInteger nextId = new AtomicInteger();
+
+	//Listeners notifiés à chaque modification d'une ressource (partagés par toutes les ressources)
+	private static final List<CloudResourceListener> listeners = new CopyOnWriteArrayList<>();
 
 	/**
 	 * Constructeur de la ressource de Cloud
@@ -19,6 +42,97 @@ public abstract class CloudResource {
 		this.name = name;
 		this.type = type;
 		this.score = score;
+		this.totalScore = score;
+		this.id = nextId.getAndIncrement();
+		this.frozen = false;
+		this.metricStore = MetricStore.getActive();
+		this.frozenMetrics = null;
+	}
+
+	/**
+	 * Constructeur d'une copie figée d'une ressource de Cloud, de même identifiant que la ressource copiée.
+	 * La copie ne contient ni sous-ressources ni liens vers les ressources la contenant, mais conserve le score total
+	 * de la ressource copiée. Si la ressource copiée utilise le magasin de métriques, la copie lit ses métriques dans
+	 * une copie figée de ses colonnes (voir {@link MetricStore#freeze()}).
+	 * @param source - La ressource à copier
+	 */
+	protected CloudResource(CloudResource source) {
+		super();
+		this.name = source.name;
+		this.type = source.type;
+		synchronized(scoreLock) {
+			this.score = source.score;
+			this.totalScore = source.totalScore;
+		}
+		this.id = source.id;
+		this.frozen = true;
+		this.metricStore = null;
+		this.frozenMetrics = source.metricStore != null ? source.metricStore.freeze() : source.frozenMetrics;
+	}
+
+	/**
+	 * Crée une copie figée de la ressource : une vue immuable des valeurs de la ressource à un instant donné, dont
+	 * les modificateurs lèvent une {@link UnsupportedOperationException}. Les copies figées sont publiées dans les
+	 * instantanés des ressources surveillées et peuvent être lues par plusieurs threads sans synchronisation.
+	 * @return La copie figée de la ressource
+	 */
+	public abstract CloudResource freeze();
+
+	/**
+	 * Indique si la ressource est une copie figée (voir {@link #freeze()})
+	 * @return <code>true</code> si la ressource est une copie figée, <code>false</code> sinon
+	 */
+	public boolean isFrozen() {
+		return frozen;
+	}
+
+	/**
+	 * Lit une métrique de la ressource, depuis le magasin de métriques si la ressource l'utilise, ou depuis les
+	 * colonnes figées du magasin s'il s'agit de la copie figée d'une telle ressource
+	 * @param metric - La métrique à lire
+	 * @param fieldValue - La valeur du champ de la ressource correspondant à la métrique
+	 * @return La valeur de la métrique
+	 */
+	protected int loadMetric(MetricStore.Metric metric, int fieldValue) {
+		if(metricStore != null) {
+			return metricStore.get(id, metric);
+		}
+		return frozenMetrics == null ? fieldValue : frozenMetrics.get(id, metric);
+	}
+
+	/**
+	 * Ecrit une métrique de la ressource dans le magasin de métriques si la ressource l'utilise
+	 * @param metric - La métrique à écrire
+	 * @param value - La nouvelle valeur de la métrique
+	 * @return <code>true</code> si la valeur a été écrite dans le magasin, <code>false</code> si elle doit être
+	 * écrite dans le champ de la ressource
+	 */
+	protected boolean storeMetric(MetricStore.Metric metric, int value) {
+		if(metricStore == null) {
+			return false;
+		}
+		metricStore.set(id, metric, value);
+		return true;
+	}
+
+	/**
+	 * Vérifie que la ressource peut être modifiée. Doit être appelée par les modificateurs des sous-classes.
+	 * @throws UnsupportedOperationException si la ressource est une copie figée
+	 */
+	protected void checkNotFrozen() {
+		if(frozen) {
+			throw new UnsupportedOperationException("Frozen resource : " + name);
+		}
+	}
+
+	/**
+	 * Accesseur de l'identifiant de la ressource.
+	 * Les identifiants sont attribués de façon consécutive à partir de 0 lors de la création des ressources, ils
+	 * peuvent donc servir d'indice dans des tableaux associant une valeur à chaque ressource.
+	 * @return L'identifiant de la ressource
+	 */
+	public int getId() {
+		return id;
 	}
 
 	/**
@@ -46,17 +160,199 @@ public abstract class CloudResource {
     }
 
     /**
-     * Accesseur du score total de la ressource (score de la ressource + score des sous-ressources)
+     * Accesseur du score total de la ressource (score de la ressource + score total des sous-ressources).
+     * Le score total est maintenu à chaque modification de score et à chaque ajout de sous-ressource : son accès se
+     * fait en temps constant.
      * @return Score total de la ressource
      */
-    public abstract int getTotalScore();
+    public int getTotalScore() {
+        return totalScore;
+    }
 
     /**
-     * Modificateur du score de la ressource
+     * Modificateur du score de la ressource.
+     * La différence de score est répercutée sur le score total de la ressource et de toutes les ressources la
+     * contenant.
      * @param score - Nouveau score à affecter à la ressource
      */
     public void setScore(int score) {
-        this.score = score;
+        checkNotFrozen();
+        synchronized(scoreLock) {
+            if(this.score == score) {
+                return;
+            }
+            int delta = score - this.score;
+            this.score = score;
+            propagateTotalScore(delta);
+        }
+        notifyChange();
+        notifyAncestors();
+    }
+
+    /**
+     * Ajoute une sous-ressource à l'un des conteneurs de la ressource, et répercute son score total sur le score total
+     * de la ressource et de toutes les ressources la contenant
+     * @param holder - Le conteneur de sous-ressources
+     * @param subResource - La sous-ressource à ajouter
+     * @param <CRImpl> - Le type de la sous-ressource
+     * @return <code>true</code> si la sous-ressource a été ajoutée, <code>false</code> sinon (cad. nom déjà utilisé)
+     */
+    protected <CRImpl extends CloudResource> boolean addSubResource(CloudResourceHolder<CRImpl> holder,
+                                                                    CRImpl subResource) {
+        checkNotFrozen();
+        int delta;
+        synchronized(scoreLock) {
+            if(!holder.addResource(subResource)) {
+                return false;
+            }
+            CloudResource added = subResource;
+            added.parents.add(this);
+            delta = added.totalScore;
+            propagateTotalScore(delta);
+        }
+        notifyTotalScoreChange(delta);
+        return true;
+    }
+
+    /**
+     * Ajoute un lot de sous-ressources à l'un des conteneurs de la ressource, en une seule répercussion de leur score
+     * total. Destinée à la construction du graph de ressources.
+     * @param holder - Le conteneur de sous-ressources
+     * @param subResources - Les sous-ressources à ajouter
+     * @param <CRImpl> - Le type des sous-ressources
+     * @return Le nombre de sous-ressources ajoutées, les sous-ressources dont le nom est déjà utilisé étant ignorées
+     */
+    protected <CRImpl extends CloudResource> int addSubResources(CloudResourceHolder<CRImpl> holder,
+                                                                 Collection<? extends CRImpl> subResources) {
+        checkNotFrozen();
+        int delta = 0;
+        List<CRImpl> addedResources;
+        synchronized(scoreLock) {
+            addedResources = holder.addResources(subResources);
+            for(CloudResource added : addedResources) {
+                added.parents.add(this);
+                delta += added.totalScore;
+            }
+            propagateTotalScore(delta);
+        }
+        notifyTotalScoreChange(delta);
+        return addedResources.size();
+    }
+
+    /**
+     * Retire une sous-ressource de l'un des conteneurs de la ressource, et retranche son score total du score total
+     * de la ressource et de toutes les ressources la contenant
+     * @param holder - Le conteneur de sous-ressources
+     * @param name - Le nom de la sous-ressource à retirer
+     * @param <CRImpl> - Le type de la sous-ressource
+     * @return <code>true</code> si la sous-ressource a été retirée, <code>false</code> sinon (cad. nom inconnu)
+     */
+    protected <CRImpl extends CloudResource> boolean removeSubResource(CloudResourceHolder<CRImpl> holder,
+                                                                       String name) {
+        checkNotFrozen();
+        int delta;
+        synchronized(scoreLock) {
+            Optional<CRImpl> subResource = holder.removeResource(name);
+            if(!subResource.isPresent()) {
+                return false;
+            }
+            CloudResource removed = subResource.get();
+            removed.parents.remove(this);
+            delta = -removed.totalScore;
+            propagateTotalScore(delta);
+        }
+        notifyTotalScoreChange(delta);
+        return true;
+    }
+
+    /**
+     * Répercute une différence de score sur le score total de la ressource et de toutes les ressources la contenant.
+     * Doit être appelée en possession du verrou des scores.
+     * @param delta - La différence de score
+     */
+    private void propagateTotalScore(int delta) {
+        if(delta == 0) {
+            return;
+        }
+        totalScore += delta;
+        for(CloudResource parent : parents) {
+            parent.propagateTotalScore(delta);
+        }
+    }
+
+    /**
+     * Notifie les listeners de la modification du score total de la ressource et des ressources la contenant
+     * @param delta - La différence de score total
+     */
+    private void notifyTotalScoreChange(int delta) {
+        if(delta != 0) {
+            notifyChange();
+            notifyAncestors();
+        }
+    }
+
+    /**
+     * Notifie les listeners de la modification de toutes les ressources contenant cette ressource, dont le score
+     * total a changé
+     */
+    private void notifyAncestors() {
+        for(CloudResource parent : parents) {
+            parent.notifyChange();
+            parent.notifyAncestors();
+        }
+    }
+
+    /**
+     * Accesseur des sous-ressources directes de la ressource
+     * @return Les sous-ressources de la ressource (liste vide par défaut)
+     */
+    protected List<CloudResource> getSubResources() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Vérifie que le score total maintenu de la ressource et de toutes ses sous-ressources est égal à la somme de son
+     * score et du score total de ses sous-ressources. Destinée aux tests, cette vérification parcourt l'ensemble des
+     * sous-ressources.
+     * @return <code>true</code> si les scores totaux sont cohérents, <code>false</code> sinon
+     */
+    public boolean isTotalScoreConsistent() {
+        synchronized(scoreLock) {
+            int expected = score;
+            for(CloudResource subResource : getSubResources()) {
+                if(!subResource.isTotalScoreConsistent()) {
+                    return false;
+                }
+                expected += subResource.totalScore;
+            }
+            return expected == totalScore;
+        }
+    }
+
+    /**
+     * Enregistre un listener qui sera notifié de toutes les modifications des ressources
+     * @param listener - Le listener à enregistrer
+     */
+    public static void addListener(CloudResourceListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Désenregistre un listener précédemment enregistré
+     * @param listener - Le listener à retirer
+     */
+    public static void removeListener(CloudResourceListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Notifie les listeners enregistrés de la modification de cette ressource.
+     * Doit être appelée par les modificateurs des sous-classes lorsque la valeur change effectivement.
+     */
+    protected void notifyChange() {
+        for(CloudResourceListener listener : listeners) {
+            listener.onResourceChanged(this);
+        }
     }
 
 	/**
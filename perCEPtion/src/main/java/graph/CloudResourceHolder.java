@@ -1,5 +1,7 @@
 package graph;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -20,6 +22,33 @@ public interface CloudResourceHolder<CRImpl extends CloudResource> {
         return !this.isResourceExists(res.getName()) && this.getResourceList().add(res);
     }
 
+    /**
+     * Ajoute un lot de ressources, les ressources dont le nom est déjà utilisé étant ignorées
+     * @param resources - Les ressources à ajouter
+     * @return Les ressources effectivement ajoutées
+     */
+    default List<CRImpl> addResources(Collection<? extends CRImpl> resources) {
+        List<CRImpl> added = new ArrayList<>(resources.size());
+        for(CRImpl res : resources) {
+            if(this.addResource(res)) {
+                added.add(res);
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Retire une ressource
+     * @param resName - Nom de la ressource
+     * @return La ressource retirée (encapsulée dans un {@link Optional}) ou un <code>empty</code> si la ressource
+     * n'existe pas
+     */
+    default Optional<CRImpl> removeResource(String resName) {
+        Optional<CRImpl> res = this.getResource(resName);
+        res.ifPresent(this.getResourceList()::remove);
+        return res;
+    }
+
     /**
      * Récupère le nombre de Ressources contenues dans le {@link CloudResourceHolder}
      * @return Le nombre de ressources contenues dans le holder
@@ -0,0 +1,17 @@
+package graph;
+
+/**
+ * Interface permettant d'être notifié des modifications apportées aux {@link CloudResource}.
+ * Un listener est enregistré via {@link CloudResource#addListener(CloudResourceListener)} et sera appelé
+ * depuis le thread ayant modifié la ressource : son traitement doit donc être court et thread-safe.
+ * @author Chloé GUILBAUD, Léo PARIS, Kendall FOREST, Mathieu GUYOT
+ */
+public interface CloudResourceListener {
+
+    /**
+     * Méthode appelée après chaque modification effective d'une ressource (nouvelle valeur différente de l'ancienne)
+     * @param cr - La ressource modifiée
+     */
+    void onResourceChanged(CloudResource cr);
+
+}
@@ -20,7 +20,25 @@ public class Co extends CloudResource {
 	public Co(String nom, String typeCO, int score, int responseTime) {
 		super(nom, CloudResourceType.CO, score);
 		this.typeCO = typeCO;
-		this.responseTime = responseTime;
+		if(!storeMetric(MetricStore.Metric.RESPONSE_TIME, responseTime)) {
+			this.responseTime = responseTime;
+		}
+	}
+
+	/**
+	 * Constructeur d'une copie figée du Co
+	 * @param source - La ressource à copier
+	 */
+	private Co(Co source) {
+		super(source);
+		this.vm = source.vm;
+		this.typeCO = source.typeCO;
+		this.responseTime = source.getResponseTime();
+	}
+
+	@Override
+	public Co freeze() {
+		return new Co(this);
 	}
 
     /**
@@ -28,7 +46,7 @@ public class Co extends CloudResource {
      * @return Le temps de réponse du Co
      */
 	public int getResponseTime() {
-		return responseTime;
+		return loadMetric(MetricStore.Metric.RESPONSE_TIME, responseTime);
 	}
 
     /**
@@ -36,7 +54,13 @@ public class Co extends CloudResource {
      * @param responseTime - Le nouveau temps de réponse
      */
 	public void setResponseTime(int responseTime) {
-		this.responseTime = responseTime;
+		checkNotFrozen();
+		if(getResponseTime() != responseTime) {
+			if(!storeMetric(MetricStore.Metric.RESPONSE_TIME, responseTime)) {
+				this.responseTime = responseTime;
+			}
+			notifyChange();
+		}
 	}
 
     /**
@@ -52,6 +76,7 @@ public class Co extends CloudResource {
      * @param typeCO - Le nouveau type du Co
      */
 	public void setTypeCO(String typeCO) {
+		checkNotFrozen();
 		this.typeCO = typeCO;
 	}
 
@@ -68,12 +93,8 @@ public class Co extends CloudResource {
      * @param vm La nouvelle VM contenant le Co
      */
 	public void setVm(VM vm) {
+		checkNotFrozen();
 		this.vm = vm;
 	}
 
-	@Override
-	public int getTotalScore() {
-		return this.getScore();
-	}
-
 }
@@ -0,0 +1,81 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Implémentation de {@link CloudResourceHolder} indexant les ressources par nom.
+ * Un index associe à chaque nom de ressource sa position dans la liste : l'ajout et la recherche d'une ressource se
+ * font en temps constant. Le retrait d'une ressource conserve l'ordre d'ajout des autres ressources, et ne met à jour
+ * que les positions des ressources qui la suivent.
+ * La liste retournée par {@link #getResourceList()} n'est pas modifiable, afin que l'index reste cohérent.
+ * @param <CRImpl> - Le type des ressources contenues
+ * @author Chloé GUILBAUD, Léo PARIS, Kendall FOREST, Mathieu GUYOT
+ */
+class IndexedCloudResourceHolder<CRImpl extends CloudResource> implements CloudResourceHolder<CRImpl> {
+
+    private ArrayList<CRImpl> resources; //Ressources contenues
+    private Map<String, Integer> indexes; //Position de chaque ressource dans la liste, par nom
+    private List<CRImpl> resourcesView; //Vue non modifiable de la liste des ressources
+
+    IndexedCloudResourceHolder() {
+        this.initResourceList();
+    }
+
+    @Override
+    public List<CRImpl> getResourceList() {
+        return resourcesView;
+    }
+
+    @Override
+    public void initResourceList() {
+        resources = new ArrayList<>();
+        indexes = new HashMap<>();
+        resourcesView = Collections.unmodifiableList(resources);
+    }
+
+    @Override
+    public boolean addResource(CRImpl res) {
+        if(indexes.putIfAbsent(res.getName(), resources.size()) != null) {
+            return false;
+        }
+        resources.add(res);
+        return true;
+    }
+
+    @Override
+    public List<CRImpl> addResources(Collection<? extends CRImpl> resources) {
+        this.resources.ensureCapacity(this.resources.size() + resources.size());
+        return CloudResourceHolder.super.addResources(resources);
+    }
+
+    @Override
+    public Optional<CRImpl> removeResource(String resName) {
+        Integer index = indexes.remove(resName);
+        if(index == null) {
+            return Optional.empty();
+        }
+        CRImpl removed = resources.remove((int) index);
+        for(int i = index; i < resources.size(); i++) {
+            indexes.put(resources.get(i).getName(), i);
+        }
+        return Optional.of(removed);
+    }
+
+    @Override
+    public boolean isResourceExists(String resName) {
+        return indexes.containsKey(resName);
+    }
+
+    @Override
+    public Optional<CRImpl> getResource(String resName) {
+        Integer index = indexes.get(resName);
+        return index == null ? Optional.empty() : Optional.of(resources.get(index));
+    }
+
+}
@@ -0,0 +1,200 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Magasin colonne des métriques des ressources de Cloud.
+ * Chaque métrique est stockée dans un tableau d'entiers indexé par l'identifiant des ressources
+ * (voir {@link CloudResource#getId()}) : les valeurs d'une même métrique sont contiguës en mémoire, un parcours des
+ * ressources dans l'ordre de leurs identifiants les lit donc séquentiellement, et une ressource n'occupe que 4 octets
+ * par métrique.
+ * Le magasin est optionnel : les ressources créées après son activation (voir {@link #enable(int)}) y stockent
+ * leurs métriques, les autres les conservent dans leurs propres champs.
+ * Les copies figées des ressources utilisant le magasin lisent leurs métriques dans une copie figée des colonnes
+ * ({@link Columns}, voir {@link #freeze()}) : le parcours des ressources d'un instantané lit ainsi les colonnes par
+ * identifiant de ressource. Les colonnes sont découpées en pages de {@value #PAGE_SIZE} valeurs, et seules les pages
+ * modifiées depuis la copie précédente sont copiées : une copie ne coûte que le nombre de pages modifiées.
+ * @author Chloé GUILBAUD, Léo PARIS, Kendall FOREST, Mathieu GUYOT
+ */
+public class MetricStore {
+
+    /**
+     * Métriques stockées par le magasin
+     */
+    public enum Metric {
+        CPU, //Consommation CPU d'une PM ou d'une VM
+        RAM, //Consommation RAM d'une PM ou d'une VM
+        DISK, //Consommation Disque d'une PM ou d'une VM
+        RESPONSE_TIME //Temps de réponse d'un Co
+    }
+
+    /**
+     * Nombre de valeurs par page des colonnes figées
+     */
+    public static final int PAGE_SIZE = 1 << 10;
+
+    private static final int PAGE_SHIFT = 10; //Décalage de l'identifiant d'une ressource donnant l'indice de sa page
+    private static final Metric[] METRICS = Metric.values();
+
+    private static volatile MetricStore active; //Magasin utilisé par les ressources créées, null si désactivé
+
+    private volatile int[][] columns; //Valeurs de chaque métrique, par identifiant de ressource
+    private final BitSet dirtyPages; //Pages modifiées depuis la dernière copie figée des colonnes
+    private Columns frozen; //Dernière copie figée des colonnes
+
+    /**
+     * Constructeur de la classe {@link MetricStore}
+     * @param initialCapacity - Le nombre de ressources pour lequel les colonnes sont allouées initialement
+     */
+    private MetricStore(int initialCapacity) {
+        this.columns = new int[METRICS.length][initialCapacity];
+        this.dirtyPages = new BitSet();
+        this.frozen = new Columns(new int[METRICS.length][0][]);
+    }
+
+    /**
+     * Active le magasin de métriques : les ressources créées ensuite y stockeront leurs métriques.
+     * Le magasin doit être activé avant la construction du graph de ressources.
+     * @param initialCapacity - Le nombre de ressources attendu (les colonnes sont agrandies si nécessaire)
+     * @return Le magasin activé
+     */
+    public static synchronized MetricStore enable(int initialCapacity) {
+        if(initialCapacity < 0) {
+            throw new IllegalArgumentException("initialCapacity must not be negative");
+        }
+        if(active == null) {
+            active = new MetricStore(initialCapacity);
+        } else {
+            active.ensureCapacity(initialCapacity);
+        }
+        return active;
+    }
+
+    /**
+     * Désactive le magasin de métriques : les ressources créées ensuite conserveront leurs métriques dans leurs
+     * propres champs. Les ressources déjà créées continuent d'utiliser le magasin.
+     */
+    public static synchronized void disable() {
+        active = null;
+    }
+
+    /**
+     * Accesseur du magasin de métriques actif
+     * @return Le magasin actif, ou null si le magasin est désactivé
+     */
+    public static MetricStore getActive() {
+        return active;
+    }
+
+    /**
+     * Accesseur de la valeur d'une métrique d'une ressource
+     * @param resourceId - L'identifiant de la ressource
+     * @param metric - La métrique
+     * @return La valeur de la métrique, 0 si elle n'a jamais été modifiée
+     */
+    public int get(int resourceId, Metric metric) {
+        int[] column = columns[metric.ordinal()];
+        return resourceId < column.length ? column[resourceId] : 0;
+    }
+
+    /**
+     * Modificateur de la valeur d'une métrique d'une ressource
+     * @param resourceId - L'identifiant de la ressource
+     * @param metric - La métrique
+     * @param value - La nouvelle valeur de la métrique
+     */
+    public synchronized void set(int resourceId, Metric metric, int value) {
+        if(resourceId >= columns[metric.ordinal()].length) {
+            ensureCapacity(Math.max(resourceId + 1, columns[metric.ordinal()].length * 2));
+        }
+        columns[metric.ordinal()][resourceId] = value;
+        dirtyPages.set(resourceId >>> PAGE_SHIFT);
+    }
+
+    /**
+     * Crée une copie figée des colonnes, contenant les valeurs actuelles de toutes les métriques.
+     * Seules les pages modifiées depuis la copie précédente sont copiées, les autres étant partagées avec elle : si
+     * aucune valeur n'a été modifiée, la copie précédente est retournée.
+     * @return La copie figée des colonnes
+     */
+    public synchronized Columns freeze() {
+        if(dirtyPages.isEmpty()) {
+            return frozen;
+        }
+        int[][] current = columns;
+        int pageCount = (current[0].length + PAGE_SIZE - 1) >>> PAGE_SHIFT;
+        int[][][] pages = new int[METRICS.length][][];
+        for(int i = 0; i < METRICS.length; i++) {
+            pages[i] = Arrays.copyOf(frozen.pages[i], pageCount);
+            for(int page = dirtyPages.nextSetBit(0); page >= 0; page = dirtyPages.nextSetBit(page + 1)) {
+                int start = page << PAGE_SHIFT;
+                pages[i][page] = Arrays.copyOfRange(current[i], start, start + PAGE_SIZE);
+            }
+        }
+        dirtyPages.clear();
+        frozen = new Columns(pages);
+        return frozen;
+    }
+
+    /**
+     * Accesseur de la capacité des colonnes
+     * @return Le nombre de ressources pour lequel les colonnes sont allouées
+     */
+    public int getCapacity() {
+        return columns[0].length;
+    }
+
+    /**
+     * Accesseur de la mémoire occupée par les colonnes
+     * @return La taille des colonnes en octets
+     */
+    public long getMemoryFootprint() {
+        return (long) METRICS.length * getCapacity() * Integer.BYTES;
+    }
+
+    /**
+     * Agrandit les colonnes afin qu'elles contiennent au moins le nombre de ressources donné
+     * @param capacity - Le nombre de ressources à contenir
+     */
+    private synchronized void ensureCapacity(int capacity) {
+        if(capacity <= columns[0].length) {
+            return;
+        }
+        int[][] grown = new int[METRICS.length][];
+        for(int i = 0; i < METRICS.length; i++) {
+            grown[i] = Arrays.copyOf(columns[i], capacity);
+        }
+        columns = grown;
+    }
+
+    /**
+     * Copie figée des colonnes du magasin, non modifiable, pouvant être lue par plusieurs threads sans
+     * synchronisation. Les pages inchangées entre deux copies sont partagées par ces copies.
+     */
+    public static final class Columns {
+
+        private final int[][][] pages; //Pages de chaque métrique, null pour une page jamais modifiée
+
+        private Columns(int[][][] pages) {
+            this.pages = pages;
+        }
+
+        /**
+         * Accesseur de la valeur d'une métrique d'une ressource au moment de la copie
+         * @param resourceId - L'identifiant de la ressource
+         * @param metric - La métrique
+         * @return La valeur de la métrique, 0 si elle n'avait jamais été modifiée
+         */
+        public int get(int resourceId, Metric metric) {
+            int[][] metricPages = pages[metric.ordinal()];
+            int page = resourceId >>> PAGE_SHIFT;
+            if(page >= metricPages.length || metricPages[page] == null) {
+                return 0;
+            }
+            return metricPages[page][resourceId & (PAGE_SIZE - 1)];
+        }
+
+    }
+
+}
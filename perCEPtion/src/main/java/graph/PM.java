@@ -1,6 +1,7 @@
 package graph;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,12 +24,28 @@ public class PM extends CloudResource {
 	 */
 	public PM(String nom, int score) {
 		super(nom, CloudResourceType.PM, score);
-		this.vms.initResourceList();
 		cpuConsumption = 0;
 		ramConsumption = 0;
 		diskConsumption = 0;
 	}
 
+	/**
+	 * Constructeur d'une copie figée de la PM
+	 * @param source - La ressource à copier
+	 */
+	private PM(PM source) {
+		super(source);
+		this.appli = source.appli;
+		this.cpuConsumption = source.getCpu_consumption();
+		this.ramConsumption = source.getRamConsumption();
+		this.diskConsumption = source.getDiskConsumption();
+	}
+
+	@Override
+	public PM freeze() {
+		return new PM(this);
+	}
+
 	/**
 	 * Accesseur de l'application contenant la PM
 	 * @return L'application contenant la PM
@@ -42,6 +59,7 @@ public class PM extends CloudResource {
 	 * @param appli - La nouvelle application contenant la PM
 	 */
 	public void setAppli(Appli appli) {
+        checkNotFrozen();
         this.appli = appli;
     }
 
@@ -50,7 +68,7 @@ public class PM extends CloudResource {
 	 * @return La consommation CPU de la PM
 	 */
 	public int getCpu_consumption() {
-		return cpuConsumption;
+		return loadMetric(MetricStore.Metric.CPU, cpuConsumption);
 	}
 
 	/**
@@ -58,7 +76,13 @@ public class PM extends CloudResource {
 	 * @param cpuConsumption - La nouvelle consommation CPU de la PM
 	 */
 	public void setCpuConsumption(int cpuConsumption) {
-		this.cpuConsumption = cpuConsumption;
+		checkNotFrozen();
+		if(getCpu_consumption() != cpuConsumption) {
+			if(!storeMetric(MetricStore.Metric.CPU, cpuConsumption)) {
+				this.cpuConsumption = cpuConsumption;
+			}
+			notifyChange();
+		}
 	}
 
     /**
@@ -66,7 +90,7 @@ public class PM extends CloudResource {
      * @return La consommation RAM de la PM
      */
 	public int getRamConsumption() {
-		return ramConsumption;
+		return loadMetric(MetricStore.Metric.RAM, ramConsumption);
 	}
 
     /**
@@ -74,7 +98,13 @@ public class PM extends CloudResource {
      * @param ramConsumption - La nouvelle consommation RAM de la PM
      */
 	public void setRamConsumption(int ramConsumption) {
-		this.ramConsumption = ramConsumption;
+		checkNotFrozen();
+		if(getRamConsumption() != ramConsumption) {
+			if(!storeMetric(MetricStore.Metric.RAM, ramConsumption)) {
+				this.ramConsumption = ramConsumption;
+			}
+			notifyChange();
+		}
 	}
 
     /**
@@ -82,7 +112,7 @@ public class PM extends CloudResource {
      * @return La consommation Disque de la PM
      */
 	public int getDiskConsumption() {
-		return diskConsumption;
+		return loadMetric(MetricStore.Metric.DISK, diskConsumption);
 	}
 
     /**
@@ -90,35 +120,26 @@ public class PM extends CloudResource {
      * @param diskConsumption - La consommation Disque de la PM
      */
 	public void setDiskConsumption(int diskConsumption) {
-		this.diskConsumption = diskConsumption;
+		checkNotFrozen();
+		if(getDiskConsumption() != diskConsumption) {
+			if(!storeMetric(MetricStore.Metric.DISK, diskConsumption)) {
+				this.diskConsumption = diskConsumption;
+			}
+			notifyChange();
+		}
 	}
 
 	@Override
-	public int getTotalScore() {
-		int retScore = this.getScore();
-		for(CloudResource co : this.vms.getResourceList()) {
-			retScore += co.getTotalScore();
-		}
-		return retScore;
+	protected List<CloudResource> getSubResources() {
+		return new ArrayList<>(this.vms.getResourceList());
 	}
 
 	//--VM---------------------------------------------------------------------
 	//Une PM contient de multiples Ressources de Cloud VM
-	private CloudResourceHolder<VM> vms = new CloudResourceHolder<VM>() {
-
-		private List<VM> vms;
-
-		@Override
-		public List<VM> getResourceList() {
-			return vms;
-		}
-
-		@Override
-		public void initResourceList() {
-			vms = new ArrayList<>();
-		}
-	};
-	public boolean addVM(VM vm) { return this.vms.addResource(vm); }
+	private final CloudResourceHolder<VM> vms = new IndexedCloudResourceHolder<>();
+	public boolean addVM(VM vm) { return this.addSubResource(this.vms, vm); }
+	public int addVMs(Collection<? extends VM> vms) { return this.addSubResources(this.vms, vms); }
+	public boolean removeVM(String vmName) { return this.removeSubResource(this.vms, vmName); }
 	public Optional<VM> getPM(String vmName) { return this.vms.getResource(vmName); }
 	public Optional<VM> getVM(int vmId) { return this.vms.getResource(vmId); }
 	public boolean isVMExists(String vmName) { return this.vms.isResourceExists(vmName); }
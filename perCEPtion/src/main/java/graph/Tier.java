@@ -1,6 +1,7 @@
 package graph;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,7 +20,20 @@ public class Tier extends CloudResource {
 	 */
 	public Tier(String nom, int score) {
 		super(nom, CloudResourceType.TIER, score);
-		this.vms.initResourceList();
+	}
+
+	/**
+	 * Constructeur d'une copie figée du Tier
+	 * @param source - La ressource à copier
+	 */
+	private Tier(Tier source) {
+		super(source);
+		this.appli = source.appli;
+	}
+
+	@Override
+	public Tier freeze() {
+		return new Tier(this);
 	}
 
 	/**
@@ -35,36 +49,22 @@ public class Tier extends CloudResource {
 	 * @param a - La nouvelle application contenant le Tier
 	 */
 	public void setAppli(Appli a) {
+		checkNotFrozen();
 		this.appli = a;
 		
 	}
 
 	@Override
-	public int getTotalScore() {
-		int retScore = this.getScore();
-		for(CloudResource co : this.vms.getResourceList()) {
-			retScore += co.getTotalScore();
-		}
-		return retScore;
+	protected List<CloudResource> getSubResources() {
+		return new ArrayList<>(this.vms.getResourceList());
 	}
 
 	//--VM---------------------------------------------------------------------
 	//Une PM contient de multiples Ressources de Cloud VM
-	private CloudResourceHolder<VM> vms = new CloudResourceHolder<VM>() {
-
-		private List<VM> vms;
-
-		@Override
-		public List<VM> getResourceList() {
-			return vms;
-		}
-
-		@Override
-		public void initResourceList() {
-			vms = new ArrayList<>();
-		}
-	};
-	public boolean addVM(VM vm) { return this.vms.addResource(vm); }
+	private final CloudResourceHolder<VM> vms = new IndexedCloudResourceHolder<>();
+	public boolean addVM(VM vm) { return this.addSubResource(this.vms, vm); }
+	public int addVMs(Collection<? extends VM> vms) { return this.addSubResources(this.vms, vms); }
+	public boolean removeVM(String vmName) { return this.removeSubResource(this.vms, vmName); }
 	public Optional<VM> getPM(String vmName) { return this.vms.getResource(vmName); }
 	public Optional<VM> getVM(int vmId) { return this.vms.getResource(vmId); }
 	public boolean isVMExists(String vmName) { return this.vms.isResourceExists(vmName); }
@@ -1,6 +1,7 @@
 package graph;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,7 +25,24 @@ public class VM extends CloudResource {
      */
 	public VM(String name, int score) {
 		super(name, CloudResourceType.VM, score);
-        this.cos.initResourceList();
+	}
+
+	/**
+	 * Constructeur d'une copie figée de la VM
+	 * @param source - La ressource à copier
+	 */
+	private VM(VM source) {
+		super(source);
+		this.pm = source.pm;
+		this.tier = source.tier;
+		this.cpuConsumption = source.getCpu_consumption();
+		this.ramConsumption = source.getRamConsumption();
+		this.diskConsumption = source.getDiskConsumption();
+	}
+
+	@Override
+	public VM freeze() {
+		return new VM(this);
 	}
 
     /**
@@ -32,7 +50,7 @@ public class VM extends CloudResource {
      * @return La consommation CPU de la PM
      */
     public int getCpu_consumption() {
-        return cpuConsumption;
+        return loadMetric(MetricStore.Metric.CPU, cpuConsumption);
     }
 
     /**
@@ -40,7 +58,13 @@ public class VM extends CloudResource {
      * @param cpuConsumption - La nouvelle consommation CPU de la PM
      */
     public void setCpuConsumption(int cpuConsumption) {
-        this.cpuConsumption = cpuConsumption;
+        checkNotFrozen();
+        if(getCpu_consumption() != cpuConsumption) {
+            if(!storeMetric(MetricStore.Metric.CPU, cpuConsumption)) {
+                this.cpuConsumption = cpuConsumption;
+            }
+            notifyChange();
+        }
     }
 
     /**
@@ -48,7 +72,7 @@ public class VM extends CloudResource {
      * @return La consommation RAM de la PM
      */
     public int getRamConsumption() {
-        return ramConsumption;
+        return loadMetric(MetricStore.Metric.RAM, ramConsumption);
     }
 
     /**
@@ -56,7 +80,13 @@ public class VM extends CloudResource {
      * @param ramConsumption - La nouvelle consommation RAM de la PM
      */
     public void setRamConsumption(int ramConsumption) {
-        this.ramConsumption = ramConsumption;
+        checkNotFrozen();
+        if(getRamConsumption() != ramConsumption) {
+            if(!storeMetric(MetricStore.Metric.RAM, ramConsumption)) {
+                this.ramConsumption = ramConsumption;
+            }
+            notifyChange();
+        }
     }
 
     /**
@@ -64,7 +94,7 @@ public class VM extends CloudResource {
      * @return La consommation Disque de la PM
      */
     public int getDiskConsumption() {
-        return diskConsumption;
+        return loadMetric(MetricStore.Metric.DISK, diskConsumption);
     }
 
     /**
@@ -72,7 +102,13 @@ public class VM extends CloudResource {
      * @param diskConsumption - La nouvelle consommation Disque de la PM
      */
     public void setDiskConsumption(int diskConsumption) {
-        this.diskConsumption = diskConsumption;
+        checkNotFrozen();
+        if(getDiskConsumption() != diskConsumption) {
+            if(!storeMetric(MetricStore.Metric.DISK, diskConsumption)) {
+                this.diskConsumption = diskConsumption;
+            }
+            notifyChange();
+        }
     }
 
     /**
@@ -88,6 +124,7 @@ public class VM extends CloudResource {
      * @param p - La PM contenant la VM
      */
 	public  void setPm(PM p) {
+		checkNotFrozen();
 		this.pm = p;
 	}
 
@@ -104,35 +141,21 @@ public class VM extends CloudResource {
      * @param t - Le nouveau Tier contenant la VM
      */
 	public void setTier(Tier t) {
+		checkNotFrozen();
 		this.tier = t;
 	}
 
     @Override
-    public int getTotalScore() {
-        int retScore = this.getScore();
-        for(CloudResource co : this.cos.getResourceList()) {
-            retScore += co.getTotalScore();
-        }
-        return retScore;
+    protected List<CloudResource> getSubResources() {
+        return new ArrayList<>(this.cos.getResourceList());
     }
 
     //--CO---------------------------------------------------------------------
     //Une VM contient de multiples Ressources de Cloud Co
-    private CloudResourceHolder<Co> cos = new CloudResourceHolder<Co>() {
-
-        private List<Co> cos;
-
-        @Override
-        public List<Co> getResourceList() {
-            return cos;
-        }
-
-        @Override
-        public void initResourceList() {
-            cos = new ArrayList<>();
-        }
-    };
-    public boolean addCo(Co co) { return this.cos.addResource(co); }
+    private final CloudResourceHolder<Co> cos = new IndexedCloudResourceHolder<>();
+    public boolean addCo(Co co) { return this.addSubResource(this.cos, co); }
+    public int addCos(Collection<? extends Co> cos) { return this.addSubResources(this.cos, cos); }
+    public boolean removeCo(String coName) { return this.removeSubResource(this.cos, coName); }
     public Optional<Co> getCo(String coName) { return this.cos.getResource(coName); }
     public Optional<Co> getCo(int coId) { return this.cos.getResource(coId); }
     public boolean isCoExists(String coName) { return this.cos.isResourceExists(coName); }
@@ -9,6 +9,7 @@ import perception.core.EventGenerator;
 import perception.core.PerceptionRunContext;
 import perception.events.ComplexEvent;
 import perception.events.Event;
+import perception.events.serialization.EventTypeInfo;
 
 import java.util.List;
 import java.util.Map;
@@ -25,6 +26,9 @@ import java.util.Map;
  * /!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\CEG
  * Attention, un CEG est {@link perception.services.PerceptionRunResource}, cela signifie que les modifications
  * effectuées pendant l'exécution sur lui n'aura aucun effet avant le redémarrage du {@link perception.core.PerceptionCore}.
+ * Seule exception : l'activation/désactivation via le {@link perception.core.GeneratorController}, lorsque celui-ci
+ * l'autorise pendant l'exécution : elle ouvre ou ferme la porte placée en entrée de l'opérateur en cours d'exécution,
+ * sans perdre ses correspondances partielles.
  *  !\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\
  */
 public abstract class ComplexEventGenerator extends EventGenerator {
@@ -51,17 +55,20 @@ public abstract class ComplexEventGenerator extends EventGenerator {
         boolean initOk = super.beforeRun(ctx);
         if(initOk) {
             Pattern<Event, ?> pattern = this.getPattern();
-            PatternStream<Event> pStream = CEP.pattern(ctx.getPasacEventStream().getStream(), pattern);
+            //Tant que le générateur est désactivé, son opérateur ne reçoit aucun évènement (voir GeneratorController)
+            PatternStream<Event> pStream = CEP.pattern(
+                    ctx.getGeneratorController().gate(ctx.getPasacEventStream().getStream(), this), pattern);
             DataStream<Event> outStream = pStream.select(new PatternSelectFunction<Event, Event>() {
                 @Override
                 public Event select(Map<String, List<Event>> map) throws Exception {
                     Event e = getPatternSelectFunction().select(map);
+                    setMatchTimestamp(e, map);
                     if (isLogGeneratedEvents() && e != null) {
                         PerceptionRunContext.getPerceptionLogger().logComplexEvent((ComplexEvent) e, getName());
                     }
                     return e;
                 }
-            });
+            }, EventTypeInfo.forEventClass(Event.class));
             ctx.getSacEventStream().mergeStream(outStream);
         }
         return initOk;
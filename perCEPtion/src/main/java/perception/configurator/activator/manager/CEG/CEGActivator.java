@@ -6,6 +6,7 @@ import perception.complex_event_generator.ComplexEventGenerator;
 import perception.configurator.activator.enums.errors.ActivationErrorType;
 import perception.configurator.activator.manager.ActivationResult;
 import perception.configurator.xml.manager.model.EventData;
+import perception.core.EventGeneratorManager;
 import perception.core.PerceptionCore;
 import perception.pluginManager.EGBank;
 import perception.pluginManager.PluginManager;
@@ -31,6 +32,16 @@ public class CEGActivator {
      * @return {@link ActivationResult} contenant les éventuels messages d'erreurs
      */
     public static ActivationResult activate(List<? extends EventData> cegs, PerceptionCore core) {
+        return activate(cegs, core.getComplexEventGeneratorManager());
+    }
+
+    /**
+     * Active les Complex Event Generator listés dans le fichier XML en fonction des paramètres fournis
+     * @param cegs - Liste d'objets EventData contenant les informations des SimpleEventGenerator à activer
+     * @param manager - Gestionnaire auquel on ajoutera les CEG activés
+     * @return {@link ActivationResult} contenant les éventuels messages d'erreurs
+     */
+    public static ActivationResult activate(List<? extends EventData> cegs, EventGeneratorManager<ComplexEventGenerator> manager) {
         // Instanciation du logger
         PerceptionLogger logger = new SysoutPerceptionLogger();
 
@@ -76,8 +87,8 @@ public class CEGActivator {
                 // Instanciation du Complex Event Generator
                 Object instance = constructor.newInstance(param);
 
-                // Ajout du CEG au core du framework
-                core.getComplexEventGeneratorManager().addEventGenerator((ComplexEventGenerator) instance);
+                // Ajout du CEG au gestionnaire
+                manager.addEventGenerator((ComplexEventGenerator) instance);
                 logger.logMessage("CEG " + ceg.getEventName() + " activé");
             } catch (ClassNotFoundException ex) {
                 activationResult.setActivationErrorType(ActivationErrorType.CLASS_NOT_FOUND);
@@ -3,6 +3,7 @@ package perception.configurator.activator.manager.PEG;
 import perception.configurator.activator.enums.errors.ActivationErrorType;
 import perception.configurator.activator.manager.ActivationResult;
 import perception.configurator.xml.manager.model.PrimitiveEventData;
+import perception.core.EventGeneratorManager;
 import perception.core.PerceptionCore;
 import perception.pluginManager.EGBank;
 import perception.pluginManager.PluginManager;
@@ -28,6 +29,17 @@ public class PEGActivator {
      * @return {@link ActivationResult} contenant les éventuels messages d'erreurs
      */
     public static ActivationResult activate(List<PrimitiveEventData> primitiveEventList, PerceptionCore core) {
+        return activate(primitiveEventList, core.getPrimitiveEventGeneratorManager());
+    }
+
+    /**
+     * Récupère les objets de configuration des {@link PrimitiveEventGenerator},
+     * les instancie avec leur paramètres et les ajoute au gestionnaire donné
+     * @param primitiveEventList - Liste d'objets {@link PrimitiveEventData} obtenus lors du parsing
+     * @param manager - Gestionnaire auquel on ajoutera les PEG activés
+     * @return {@link ActivationResult} contenant les éventuels messages d'erreurs
+     */
+    public static ActivationResult activate(List<PrimitiveEventData> primitiveEventList, EventGeneratorManager<PrimitiveEventGenerator> manager) {
         // Instanciation du logger
         PerceptionLogger logger = new SysoutPerceptionLogger();
 
@@ -47,10 +59,11 @@ public class PEGActivator {
                 Constructor<?> constructor = event.getConstructor(String.class, long.class);
 
                 // Instanciation du Primitive Event Generator
-                Object instance = constructor.newInstance(peg.getName(), peg.getRunTime());
+                PrimitiveEventGenerator instance = (PrimitiveEventGenerator) constructor.newInstance(peg.getName(), peg.getRunTime());
+                instance.setParallelism(peg.getParallelism());
 
-                // Ajout du PEG au core du framework
-                core.getPrimitiveEventGeneratorManager().addEventGenerator((PrimitiveEventGenerator) instance);
+                // Ajout du PEG au gestionnaire
+                manager.addEventGenerator(instance);
                 logger.logMessage("PEG " + peg + " activé");
             } catch (NoSuchMethodException ex) {
                 activationResult.setActivationErrorType(ActivationErrorType.WRONG_PARAMETERS);
@@ -4,6 +4,7 @@ package perception.configurator.activator.manager.SEG;
 import perception.configurator.activator.enums.errors.ActivationErrorType;
 import perception.configurator.activator.manager.ActivationResult;
 import perception.configurator.xml.manager.model.EventData;
+import perception.core.EventGeneratorManager;
 import perception.core.PerceptionCore;
 import perception.pluginManager.EGBank;
 import perception.pluginManager.PluginManager;
@@ -31,6 +32,17 @@ public class SEGActivator {
      * @return {@link ActivationResult} contenant les éventuels messages d'erreurs
      */
     public static ActivationResult activate(List<? extends EventData> segs, PerceptionCore core) {
+        return activate(segs, core.getSimpleEventGeneratorManager());
+    }
+
+    /**
+     * Récupère les objets de configuration des {@link SimpleEventGenerator},
+     * les instancie avec leur paramètres et les ajoute au gestionnaire donné
+     * @param segs - Liste d'objets EventData contenant les informations des SimpleEventGenerator à activer
+     * @param manager - Gestionnaire auquel on ajoutera les SEG activés
+     * @return {@link ActivationResult} contenant les éventuels messages d'erreurs
+     */
+    public static ActivationResult activate(List<? extends EventData> segs, EventGeneratorManager<SimpleEventGenerator> manager) {
         // Instanciation du logger
         PerceptionLogger logger = new SysoutPerceptionLogger();
 
@@ -75,8 +87,8 @@ public class SEGActivator {
                 // Instanciation du Simple Event Generator
                 Object instance = constructor.newInstance(param);
 
-                // Ajout du SEG au core du framework
-                core.getSimpleEventGeneratorManager().addEventGenerator((SimpleEventGenerator) instance);
+                // Ajout du SEG au gestionnaire
+                manager.addEventGenerator((SimpleEventGenerator) instance);
                 logger.logMessage("SEG " + seg.getEventName() + " activé");
             } catch (ClassNotFoundException ex) {
                 activationResult.setActivationErrorType(ActivationErrorType.CLASS_NOT_FOUND);
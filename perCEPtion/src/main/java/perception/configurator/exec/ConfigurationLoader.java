@@ -1,16 +1,21 @@
 package perception.configurator.exec;
 
 import org.xml.sax.SAXException;
+import perception.complex_event_generator.ComplexEventGenerator;
 import perception.configurator.activator.manager.ActivationResult;
 import perception.configurator.activator.manager.CEG.CEGActivator;
 import perception.configurator.activator.manager.PEG.PEGActivator;
 import perception.configurator.activator.manager.SEG.SEGActivator;
 import perception.configurator.xml.manager.parser.ResultatParsing;
 import perception.configurator.xml.manager.parser.XMLFileParser;
+import perception.core.EventGeneratorManager;
+import perception.core.GeneratorController;
 import perception.core.PerceptionCore;
 import perception.pluginManager.PluginManager;
+import perception.primitive_events_generator.PrimitiveEventGenerator;
 import perception.services.PerceptionLogger;
 import perception.services.implementations.SysoutPerceptionLogger;
+import perception.simple_events_generator.SimpleEventGenerator;
 
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.IOException;
@@ -63,4 +68,61 @@ public class ConfigurationLoader {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Recharge le fichier de configuration pendant l'exécution : seules les différences avec la configuration courante
+     * sont appliquées via le {@link GeneratorController} du core, sans redémarrer le processus de perCEPtion.
+     * Les Event Generators sont identifiés par leur nom (voir
+     * {@link GeneratorController#applyConfiguration(java.util.Collection, java.util.Collection, java.util.Collection)}).
+     * @param xmlFilePath
+     *              chemin vers le fichier de configuration
+     * @param core
+     *              core du framework à reconfigurer
+     * @return le rapport des modifications appliquées, ou null si le fichier n'a pas pu être chargé (les erreurs
+     * sont alors affichées et la configuration courante n'est pas modifiée)
+     */
+    public static GeneratorController.Report reloadConfiguration(String xmlFilePath, PerceptionCore core) {
+        try {
+            // Instanciation du logger
+            PerceptionLogger logger = new SysoutPerceptionLogger();
+
+            // Validation et Parcours du fichier XML
+            ResultatParsing parsingResult = XMLFileParser.parse(xmlFilePath,"resources/schema.xsd");
+
+            if (parsingResult.hasErrors()) {
+                // Affichage des erreurs (en rouge) dans la console
+                logger.logError(parsingResult.printErrors());
+                return null;
+            }
+
+            // Instanciation des Event Generators dans des gestionnaires temporaires
+            EventGeneratorManager<PrimitiveEventGenerator> pegs = new EventGeneratorManager<>();
+            EventGeneratorManager<SimpleEventGenerator> segs = new EventGeneratorManager<>();
+            EventGeneratorManager<ComplexEventGenerator> cegs = new EventGeneratorManager<>();
+            ActivationResult primitiveResult = PEGActivator.activate(parsingResult.getPrimitiveEventList(), pegs);
+            ActivationResult simpleResult = SEGActivator.activate(parsingResult.getSimpleEventList(), segs);
+            ActivationResult complexResult = CEGActivator.activate(parsingResult.getComplexEventList(), cegs);
+
+            if (primitiveResult.hasErrors() || simpleResult.hasErrors() || complexResult.hasErrors()) {
+                // Affichage des erreurs (en rouge) dans la console
+                logger.logError(primitiveResult.toString());
+                logger.logError(simpleResult.toString());
+                logger.logError(complexResult.toString());
+                return null;
+            }
+
+            // Application des différences avec la configuration courante
+            GeneratorController.Report report = core.getGeneratorController()
+                    .applyConfiguration(pegs.getGenerators(), segs.getGenerators(), cegs.getGenerators());
+            logger.logMessage("Configuration rechargée : " + report);
+            return report;
+        } catch (ParserConfigurationException e) {
+            e.printStackTrace();
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (SAXException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+}
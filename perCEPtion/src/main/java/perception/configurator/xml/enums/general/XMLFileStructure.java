@@ -24,6 +24,7 @@ public enum XMLFileStructure {
 	EVENT_PRIMITIVES("primitives"),
 	EVENT_PRIMITIVE("primitive"),
 	EVENT_PRIMITIVE_RUNTIME("runtime"),
+	EVENT_PRIMITIVE_PARALLELISM("parallelism"),
 
 	// Simples and complexes events
 	EVENT_PARAMS("params"),
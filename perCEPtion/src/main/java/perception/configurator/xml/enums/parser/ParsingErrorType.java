@@ -22,6 +22,8 @@ public enum ParsingErrorType {
 
     EVENT_PRIMITIVES_INVALID_RUNTIME("Impossible de trouver le runtime du primitive event."),
 
+    EVENT_PRIMITIVES_INVALID_PARALLELISM("Le parallélisme du primitive event doit être un entier strictement positif."),
+
     EVENT_PRIMITIVES_DUPLICATED_NAME("Un même nom a été renseigné pour deux primitives events. Seul le première élément avec ce nom sera pris en compte."),
 
 	// Simples events
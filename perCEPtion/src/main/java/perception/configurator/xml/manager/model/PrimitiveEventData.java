@@ -12,6 +12,7 @@ public class PrimitiveEventData {
     private String name;
     private String type;
     private Long runTime;
+    private Integer parallelism;
 
     /**
      * Constructeur de la classe {@link PrimitiveEventData}.
@@ -24,9 +25,26 @@ public class PrimitiveEventData {
      *              runtime à appliquer au primitive event
      */
     public PrimitiveEventData(String name, String type, Long runTime) {
+        this(name, type, runTime, 1);
+    }
+
+    /**
+     * Constructeur de la classe {@link PrimitiveEventData}.
+     *
+     * @param name
+     *              nom unique du primitive event
+     * @param type
+     *              type du primitive event
+     * @param runTime
+     *              runtime à appliquer au primitive event
+     * @param parallelism
+     *              nombre de sous-tâches exécutant le primitive event generator
+     */
+    public PrimitiveEventData(String name, String type, Long runTime, Integer parallelism) {
         this.name = name;
         this.type = type;
         this.runTime = runTime;
+        this.parallelism = parallelism;
     }
 
     // Accesseurs
@@ -42,12 +60,17 @@ public class PrimitiveEventData {
         return runTime;
     }
 
+    public Integer getParallelism() {
+        return parallelism;
+    }
+
     @Override
     public String toString() {
         return "\n\tPrimitiveEventData{" +
                 "name='" + name + '\'' +
                 ", type='" + type + '\'' +
                 ", runTime=" + runTime +
+                ", parallelism=" + parallelism +
                 '}';
     }
 
@@ -60,7 +83,8 @@ public class PrimitiveEventData {
 
         if (name != null ? !name.equals(primitiveEventData.name) : primitiveEventData.name != null) return false;
         if (type != null ? !type.equals(primitiveEventData.type) : primitiveEventData.type != null) return false;
-        return runTime != null ? runTime.equals(primitiveEventData.runTime) : primitiveEventData.runTime == null;
+        if (runTime != null ? !runTime.equals(primitiveEventData.runTime) : primitiveEventData.runTime != null) return false;
+        return parallelism != null ? parallelism.equals(primitiveEventData.parallelism) : primitiveEventData.parallelism == null;
     }
 
 }
@@ -138,6 +138,7 @@ class XMLFileParserToPrimitiveEventData {
             Optional<String> primitiveEventName = Optional.empty();
             Optional<String> primitiveEventType = Optional.empty();
             Optional<Long> primitiveEventRuntime = Optional.empty();
+            Optional<Integer> primitiveEventParallelism = Optional.empty();
 
             // Récupération des éléments du primitive event actuel
             boolean primitiveEventEnabled = XMLFileParseToEventData.isEnabledEvent(xPath, node);
@@ -145,12 +146,15 @@ class XMLFileParserToPrimitiveEventData {
                 primitiveEventName = getPrimitiveEventNameFromFile(xPath, node, resultatParsing);
                 primitiveEventType = getPrimitiveEventTypeFromFile(xPath, node, resultatParsing);
                 primitiveEventRuntime = getPrimitiveEventRuntimeFromFile(xPath, node, resultatParsing);
+                primitiveEventParallelism = getPrimitiveEventParallelismFromFile(xPath, node, resultatParsing);
             }
 
             // Si on a aucune erreur dans le fichier les informations d'instanciation du primitive event courant est
             // ajouté au résultat du parsing
-            if (primitiveEventName.isPresent() && primitiveEventRuntime.isPresent() && primitiveEventType.isPresent()) {
-                PrimitiveEventData primitiveEventData = new PrimitiveEventData(primitiveEventName.get(), primitiveEventType.get(), primitiveEventRuntime.get());
+            if (primitiveEventName.isPresent() && primitiveEventRuntime.isPresent() && primitiveEventType.isPresent()
+                    && primitiveEventParallelism.isPresent()) {
+                PrimitiveEventData primitiveEventData = new PrimitiveEventData(primitiveEventName.get(), primitiveEventType.get(),
+                        primitiveEventRuntime.get(), primitiveEventParallelism.get());
                 resultatParsing.addPrimitiveEvent(primitiveEventData);
             }
 
@@ -243,4 +247,33 @@ class XMLFileParserToPrimitiveEventData {
         return runtTimeOp;
     }
 
+    /**
+     * Récupére le parallélisme donné dans le fichier XML pour le primitive event spécifié. Cette information est
+     * facultative : en son absence, le primitive event generator est exécuté par une seule sous-tâche.
+     *
+     * @param xPath           le XPath
+     * @param node            le noeud dans le fichier correspondant au primitive event
+     * @param resultatParsing le résultat du parsing
+     * @return un optional contenant le parallélisme du primitive event ou étant vide si l'information du fichier est
+     * invalide, dans ce cas, le {@link ResultatParsing} est mis à jour
+     **/
+    protected static Optional<Integer> getPrimitiveEventParallelismFromFile(XPath xPath, Node node, ResultatParsing resultatParsing) {
+        Optional<Integer> parallelismOp = Optional.empty();
+        try {
+            String strSelectName = XMLFileStructure.EVENT_PRIMITIVE_PARALLELISM.getLabel();
+            String parallelism = ("" + xPath.evaluate(strSelectName, node, XPathConstants.STRING)).trim();
+            if (parallelism.equals("")) {
+                parallelismOp = Optional.of(1);
+            } else if (Integer.parseInt(parallelism) <= 0) {
+                resultatParsing.addParsingErrorType(ParsingErrorType.EVENT_PRIMITIVES_INVALID_PARALLELISM);
+            } else {
+                parallelismOp = Optional.of(Integer.parseInt(parallelism));
+            }
+        } catch (XPathExpressionException | NumberFormatException e) {
+            resultatParsing.addParsingErrorType(ParsingErrorType.EVENT_PRIMITIVES_INVALID_PARALLELISM);
+            e.printStackTrace();
+        }
+        return parallelismOp;
+    }
+
 }
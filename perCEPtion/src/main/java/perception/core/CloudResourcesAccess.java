@@ -1,11 +1,48 @@
 package perception.core;
 
 import graph.CloudResource;
+import graph.CloudResourceListener;
+import graph.CloudResourceType;
 
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Point d'accès statique aux graph de ressources
+ * Point d'accès statique aux graph de ressources.
+ * Les ressources surveillées sont publiées sous forme d'instantanés ({@link Snapshot}) immuables : chaque modification
+ * (ou lot de modifications) produit un nouvel instantané numéroté, que les lecteurs (les PEG notamment) peuvent
+ * parcourir sans verrou ni risque de modification concurrente.
+ * Un instantané contient des copies figées des ressources (voir {@link CloudResource#freeze()}) : les valeurs lues
+ * dans un même instantané forment une coupe cohérente, quelles que soient les modifications apportées ensuite aux
+ * ressources. Les copies sont rangées par identifiant dans un tableau paginé ({@link PagedArray}) partageant ses pages
+ * inchangées avec l'instantané précédent : une publication ne copie que les pages des ressources modifiées, ajoutées
+ * ou retirées, et, lors d'un ajout ou d'un retrait, la liste des identifiants des seuls types concernés.
+ * Les modifications des valeurs des ressources ne sont visibles des lecteurs qu'après leur publication, effectuée par
+ * {@link #update(Runnable)}, {@link #publishChanges()}, ou périodiquement lorsque la publication automatique est
+ * active (voir {@link #startAutoPublish(long)}). Seules les modifications effectuées via {@link #update(Runnable)}
+ * sont garanties d'être publiées ensemble.
+ * Un dictionnaire associe à chaque nom de ressource surveillée l'identifiant de la ressource (voir
+ * {@link CloudResource#getId()}), enregistré lors de l'ajout de la ressource : les flux d'évènements sont partitionnés
+ * selon cet identifiant plutôt que selon le nom de la ressource.
  * @author Chloé GUILBAUD, Léo PARIS, Kendall FOREST, Mathieu GUYOT
  */
 public class CloudResourcesAccess {
@@ -19,7 +56,7 @@ public class CloudResourcesAccess {
      * Constructeur privé de l'accès au graph de ressources
      */
     private CloudResourcesAccess() {
-
+        CloudResource.addListener(changeListener);
     }
 
     /**
@@ -30,7 +67,64 @@ public class CloudResourcesAccess {
         return CloudResourcesAccess.instance;
     }
 
-    private HashMap<String, CloudResource> resources = new HashMap<>();
+    /**
+     * Identifiant retourné pour un nom de ressource n'ayant jamais été surveillée
+     */
+    public static final int UNKNOWN_RESOURCE_ID = -1;
+
+    private final Map<String, Registration> registrations = new ConcurrentHashMap<>(); //Enregistrement de chaque nom
+    private volatile String[] resourceNames = new String[64]; //Nom de chaque identifiant de ressource enregistré
+    private final Map<String, CloudResource> liveResources = new HashMap<>(); //Ressources surveillées, par nom
+    private volatile Snapshot snapshot = Snapshot.empty(registrations); //Dernier instantané publié
+
+    private final Set<CloudResource> pendingChanges = ConcurrentHashMap.newKeySet(); //Ressources modifiées non publiées
+    private final CloudResourceListener changeListener = pendingChanges::add; //Listener alimentant pendingChanges
+    private final List<SnapshotListener> snapshotListeners = new CopyOnWriteArrayList<>(); //Listeners des publications
+    private ScheduledExecutorService autoPublisher; //Publication périodique des modifications, null si inactive
+
+    /**
+     * Accesseur de l'identifiant d'une ressource à partir de son nom. L'identifiant est celui de la ressource
+     * ({@link CloudResource#getId()}), enregistré lors de son ajout aux ressources surveillées ; aucun identifiant
+     * n'est attribué par cette méthode. Une ressource retirée conserve son identifiant, une nouvelle ressource ajoutée
+     * sous le même nom le remplaçant.
+     * @param name - Le nom de la ressource
+     * @return L'identifiant de la dernière ressource surveillée de ce nom, ou {@link #UNKNOWN_RESOURCE_ID} si aucune
+     * ressource de ce nom n'a été surveillée
+     */
+    public int getResourceId(String name) {
+        Registration registration = registrations.get(name);
+        return registration == null ? UNKNOWN_RESOURCE_ID : registration.id;
+    }
+
+    /**
+     * Accesseur du nom d'une ressource à partir de son identifiant
+     * @param id - L'identifiant de la ressource
+     * @return Le nom de la ressource
+     * @throws IllegalArgumentException si aucune ressource surveillée n'a cet identifiant
+     */
+    public String getResourceName(int id) {
+        String[] names = resourceNames;
+        if(id < 0 || id >= names.length || names[id] == null) {
+            throw new IllegalArgumentException("Unknown resource id : " + id);
+        }
+        return names[id];
+    }
+
+    /**
+     * Enregistre l'identifiant et le nom d'une ressource dans le dictionnaire.
+     * Doit être appelée en possession du verrou de l'accès aux ressources.
+     * @param cr - La ressource à enregistrer
+     * @param epoch - Le numéro du premier instantané contenant la ressource
+     */
+    private void registerResource(CloudResource cr, long epoch) {
+        String[] names = resourceNames;
+        if(cr.getId() >= names.length) {
+            names = Arrays.copyOf(names, Math.max(cr.getId() + 1, names.length * 2));
+        }
+        names[cr.getId()] = cr.getName();
+        resourceNames = names;
+        registrations.put(cr.getName(), new Registration(cr.getId(), epoch));
+    }
 
     /**
      * Ajoute une ressource de cloud à surveiller
@@ -38,19 +132,447 @@ public class CloudResourcesAccess {
      * @return <code>True</code> si la ressource a bien été ajoutée, <code>false</code> sinon (cad. nom déjà utilisé)
      */
     public boolean addMonitoredResource(CloudResource cr) {
-        if(resources.containsKey(cr.getName())) {
-            return false;
+        return applyChanges(Collections.singletonList(cr), Collections.emptyList()) == 1;
+    }
+
+    /**
+     * Retire une ressource de cloud des ressources surveillées
+     * @param name - Le nom de la ressource à retirer
+     * @return <code>True</code> si la ressource a bien été retirée, <code>false</code> sinon (cad. nom inconnu)
+     */
+    public boolean removeMonitoredResource(String name) {
+        return applyChanges(Collections.emptyList(), Collections.singletonList(name)) == 1;
+    }
+
+    /**
+     * Applique un lot de modifications aux ressources surveillées et publie un unique nouvel instantané.
+     * Les retraits sont appliqués avant les ajouts. Les ajouts dont le nom est déjà utilisé et les retraits
+     * de noms inconnus sont ignorés.
+     * @param toAdd - Les ressources à surveiller
+     * @param toRemove - Les noms des ressources à ne plus surveiller
+     * @return Le nombre de modifications effectivement appliquées
+     */
+    public synchronized int applyChanges(Collection<? extends CloudResource> toAdd, Collection<String> toRemove) {
+        long epoch = snapshot.epoch + 1;
+        List<CloudResource> removed = new ArrayList<>();
+        List<CloudResource> added = new ArrayList<>();
+        for(String name : toRemove) {
+            CloudResource cr = liveResources.remove(name);
+            if(cr != null) {
+                removed.add(cr);
+            }
+        }
+        for(CloudResource cr : toAdd) {
+            if(!liveResources.containsKey(cr.getName())) {
+                liveResources.put(cr.getName(), cr);
+                registerResource(cr, epoch);
+                added.add(cr);
+            }
+        }
+        int changes = removed.size() + added.size();
+        if(changes > 0) {
+            publish(added, removed);
+        }
+        return changes;
+    }
+
+    /**
+     * Exécute un lot de modifications des ressources, puis publie un instantané contenant l'ensemble de ces
+     * modifications. Les lots sont exécutés les uns après les autres, et jamais pendant une publication.
+     * @param changes - Les modifications à effectuer
+     */
+    public synchronized void update(Runnable changes) {
+        changes.run();
+        publishChanges();
+    }
+
+    /**
+     * Publie un instantané contenant les modifications des valeurs des ressources surveillées effectuées depuis la
+     * dernière publication. Aucun instantané n'est publié si aucune ressource surveillée n'a été modifiée.
+     * @return Le nombre de ressources dont les modifications ont été publiées
+     */
+    public synchronized int publishChanges() {
+        if(pendingChanges.isEmpty()) {
+            return 0;
+        }
+        return publish(Collections.emptyList(), Collections.emptyList());
+    }
+
+    /**
+     * Publie un nouvel instantané, en y intégrant les ressources ajoutées et retirées ainsi que les modifications des
+     * valeurs des ressources non encore publiées. Seules les pages des ressources concernées sont copiées, et les
+     * listes d'identifiants ne sont reconstruites que pour les types des ressources ajoutées ou retirées.
+     * Aucun instantané n'est publié en l'absence de modification.
+     * Doit être appelée en possession du verrou de l'accès aux ressources.
+     * @param added - Les ressources ajoutées, déjà présentes dans liveResources
+     * @param removed - Les ressources retirées, déjà absentes de liveResources
+     * @return Le nombre de ressources dont les modifications de valeurs ont été publiées
+     */
+    private int publish(List<CloudResource> added, List<CloudResource> removed) {
+        Snapshot current = snapshot;
+        PagedArray.Builder<CloudResource> resources = current.resourcesById.toBuilder();
+        //Les retraits sont appliqués avant les ajouts, une ressource pouvant être retirée puis ajoutée à nouveau
+        Map<CloudResourceType, Set<Integer>> removedIds = new EnumMap<>(CloudResourceType.class);
+        for(CloudResource cr : removed) {
+            resources.set(cr.getId(), null);
+            removedIds.computeIfAbsent(cr.getType(), type -> new HashSet<>()).add(cr.getId());
+        }
+        Map<CloudResourceType, List<CloudResource>> addedByType = new EnumMap<>(CloudResourceType.class);
+        for(CloudResource cr : added) {
+            resources.set(cr.getId(), cr.freeze());
+            addedByType.computeIfAbsent(cr.getType(), type -> new ArrayList<>()).add(cr);
+        }
+        List<CloudResource> changed = new ArrayList<>();
+        Iterator<CloudResource> it = pendingChanges.iterator();
+        while(it.hasNext()) {
+            CloudResource cr = it.next();
+            it.remove();
+            //Seules les ressources surveillées sont publiées
+            if(liveResources.get(cr.getName()) == cr) {
+                CloudResource copy = cr.freeze();
+                resources.set(cr.getId(), copy);
+                changed.add(copy);
+            }
+        }
+        if(changed.isEmpty() && added.isEmpty() && removed.isEmpty()) {
+            return 0;
+        }
+        Snapshot published;
+        if(added.isEmpty() && removed.isEmpty()) {
+            published = new Snapshot(current.epoch + 1, current.structureEpoch, resources.build(), current.idsByType,
+                    current.size, registrations);
+        } else {
+            //Seules les listes des types modifiés sont reconstruites
+            EnumMap<CloudResourceType, int[]> idsByType = new EnumMap<>(current.idsByType);
+            for(CloudResourceType type : CloudResourceType.values()) {
+                Set<Integer> typeRemovedIds = removedIds.getOrDefault(type, Collections.emptySet());
+                List<CloudResource> typeAdded = addedByType.getOrDefault(type, Collections.emptyList());
+                if(typeRemovedIds.isEmpty() && typeAdded.isEmpty()) {
+                    continue;
+                }
+                int[] previousIds = current.idsByType.get(type);
+                int[] ids = new int[previousIds.length + typeAdded.size()];
+                int count = 0;
+                for(int id : previousIds) {
+                    if(!typeRemovedIds.contains(id)) {
+                        ids[count++] = id;
+                    }
+                }
+                for(CloudResource cr : typeAdded) {
+                    ids[count++] = cr.getId();
+                }
+                idsByType.put(type, Arrays.copyOf(ids, count));
+            }
+            published = new Snapshot(current.epoch + 1, current.epoch + 1, resources.build(), idsByType,
+                    liveResources.size(), registrations);
+        }
+        snapshot = published;
+        if(!changed.isEmpty()) {
+            List<CloudResource> changedView = Collections.unmodifiableList(changed);
+            for(SnapshotListener listener : snapshotListeners) {
+                listener.onSnapshotPublished(published, changedView);
+            }
         }
-        resources.put(cr.getName(), cr);
-        return true;
+        return changed.size();
+    }
+
+    /**
+     * Démarre la publication périodique des modifications des valeurs des ressources, effectuée par un thread dédié.
+     * Si la publication automatique est déjà active, sa période est remplacée.
+     * @param msInterval - La période de publication en millisecondes
+     */
+    public synchronized void startAutoPublish(long msInterval) {
+        if(msInterval < 1) {
+            throw new IllegalArgumentException("msInterval must be at least 1");
+        }
+        stopAutoPublish();
+        autoPublisher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cloud-resources-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        autoPublisher.scheduleWithFixedDelay(this::publishChanges, msInterval, msInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Arrête la publication périodique des modifications des valeurs des ressources
+     */
+    public synchronized void stopAutoPublish() {
+        if(autoPublisher != null) {
+            autoPublisher.shutdownNow();
+            autoPublisher = null;
+        }
+    }
+
+    /**
+     * Enregistre un listener notifié à chaque publication d'un instantané contenant des modifications de valeurs
+     * @param listener - Le listener à enregistrer
+     */
+    public void addSnapshotListener(SnapshotListener listener) {
+        snapshotListeners.add(listener);
+    }
+
+    /**
+     * Désenregistre un listener précédemment enregistré
+     * @param listener - Le listener à retirer
+     */
+    public void removeSnapshotListener(SnapshotListener listener) {
+        snapshotListeners.remove(listener);
+    }
+
+    /**
+     * Accesseur du dernier instantané publié des ressources surveillées.
+     * Un lecteur souhaitant une vue cohérente sur plusieurs accès doit conserver l'instantané retourné.
+     * @return Le dernier instantané publié
+     */
+    public Snapshot getSnapshot() {
+        return snapshot;
     }
 
     /**
      * Accesseur des ressources surveillées
-     * @return - Les ressources surveillées
+     * @return - Les copies figées des ressources surveillées (vue non modifiable du dernier instantané)
+     */
+    public Map<String, CloudResource> getResources() {
+        return snapshot.getResources();
+    }
+
+    /**
+     * Accesseur des ressources surveillées d'un type donné
+     * @param type - Le type des ressources recherchées
+     * @return Les copies figées des ressources surveillées du type donné, dans leur ordre d'ajout (liste non
+     * modifiable)
+     */
+    public List<CloudResource> getResources(CloudResourceType type) {
+        return snapshot.getResources(type);
+    }
+
+    /**
+     * Listener notifié de la publication des modifications des valeurs des ressources surveillées.
+     * Il est appelé depuis le thread publiant l'instantané, en possession du verrou de l'accès aux ressources : son
+     * traitement doit donc être court et thread-safe.
+     */
+    public interface SnapshotListener {
+
+        /**
+         * Méthode appelée après la publication d'un instantané contenant des modifications de valeurs
+         * @param snapshot - L'instantané publié
+         * @param changed - Les copies figées des ressources dont les modifications ont été publiées
+         */
+        void onSnapshotPublished(Snapshot snapshot, List<CloudResource> changed);
+
+    }
+
+    /**
+     * Enregistrement d'un nom de ressource dans le dictionnaire
+     */
+    private static final class Registration {
+
+        private final int id; //Identifiant de la dernière ressource surveillée sous ce nom
+        private final long epoch; //Numéro du premier instantané contenant cette ressource
+
+        private Registration(int id, long epoch) {
+            this.id = id;
+            this.epoch = epoch;
+        }
+
+    }
+
+    /**
+     * Instantané immuable des ressources surveillées à un instant donné
      */
-    public HashMap<String, CloudResource> getResources() {
-        return resources;
+    public static class Snapshot {
+
+        private final long epoch; //Numéro de l'instantané, incrémenté à chaque publication
+        private final long structureEpoch; //Numéro du dernier instantané ayant ajouté ou retiré des ressources
+        private final PagedArray<CloudResource> resourcesById; //Copies figées des ressources, par identifiant
+        private final Map<CloudResourceType, int[]> idsByType; //Identifiants des ressources, par type et ordre d'ajout
+        private final int size; //Nombre de ressources surveillées
+        private final Map<String, Registration> registrations; //Dictionnaire des noms de ressources
+        private final Map<CloudResourceType, List<CloudResource>> resourcesByType; //Vues des ressources, par type
+        private Map<String, CloudResource> resources; //Vue des ressources par nom, créée lors de son premier accès
+
+        private Snapshot(long epoch, long structureEpoch, PagedArray<CloudResource> resourcesById,
+                         Map<CloudResourceType, int[]> idsByType, int size, Map<String, Registration> registrations) {
+            this.epoch = epoch;
+            this.structureEpoch = structureEpoch;
+            this.resourcesById = resourcesById;
+            this.idsByType = idsByType;
+            this.size = size;
+            this.registrations = registrations;
+            this.resourcesByType = new EnumMap<>(CloudResourceType.class);
+            for(Map.Entry<CloudResourceType, int[]> entry : idsByType.entrySet()) {
+                resourcesByType.put(entry.getKey(), new TypedResources(entry.getValue()));
+            }
+        }
+
+        /**
+         * Crée un instantané vide
+         * @param registrations - Le dictionnaire des noms de ressources
+         * @return L'instantané créé, ne contenant aucune ressource
+         */
+        private static Snapshot empty(Map<String, Registration> registrations) {
+            Map<CloudResourceType, int[]> idsByType = new EnumMap<>(CloudResourceType.class);
+            for(CloudResourceType type : CloudResourceType.values()) {
+                idsByType.put(type, new int[0]);
+            }
+            return new Snapshot(0, 0, PagedArray.empty(), idsByType, 0, registrations);
+        }
+
+        /**
+         * Accesseur du numéro de l'instantané
+         * @return Le numéro de l'instantané, strictement croissant au fil des publications
+         */
+        public long getEpoch() {
+            return epoch;
+        }
+
+        /**
+         * Accesseur du numéro du dernier instantané ayant ajouté ou retiré des ressources surveillées. Deux instantanés
+         * de même numéro de structure contiennent les mêmes ressources, dans le même ordre.
+         * @return Le numéro du dernier instantané ayant modifié l'ensemble des ressources surveillées
+         */
+        public long getStructureEpoch() {
+            return structureEpoch;
+        }
+
+        /**
+         * Accesseur des ressources de l'instantané
+         * @return Les copies figées des ressources de l'instantané par nom (map non modifiable)
+         */
+        public Map<String, CloudResource> getResources() {
+            if(resources == null) {
+                resources = new ResourcesByName();
+            }
+            return resources;
+        }
+
+        /**
+         * Accesseur des ressources de l'instantané d'un type donné
+         * @param type - Le type des ressources recherchées
+         * @return Les copies figées des ressources du type donné, dans leur ordre d'ajout (liste non modifiable)
+         */
+        public List<CloudResource> getResources(CloudResourceType type) {
+            return resourcesByType.get(type);
+        }
+
+        /**
+         * Accesseur d'une ressource de l'instantané à partir de son identifiant
+         * @param id - L'identifiant de la ressource recherchée (voir {@link CloudResource#getId()})
+         * @return La copie figée de la ressource ou null si aucune ressource surveillée n'a cet identifiant
+         */
+        public CloudResource getResource(int id) {
+            return resourcesById.get(id);
+        }
+
+        /**
+         * Accesseur d'une ressource de l'instantané
+         * @param name - Le nom de la ressource recherchée
+         * @return La copie figée de la ressource ou null si aucune ressource de ce nom n'est surveillée
+         */
+        public CloudResource getResource(String name) {
+            Registration registration = registrations.get(name);
+            if(registration == null) {
+                return null;
+            }
+            CloudResource cr = resourcesById.get(registration.id);
+            if(cr != null || registration.epoch <= epoch) {
+                return cr;
+            }
+            //Le nom a été réattribué après cet instantané, qui peut contenir une ressource plus ancienne de ce nom
+            for(List<CloudResource> typedResources : resourcesByType.values()) {
+                for(CloudResource previous : typedResources) {
+                    if(previous.getName().equals(name)) {
+                        return previous;
+                    }
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Vue non modifiable des ressources d'un type de l'instantané, dans leur ordre d'ajout
+         */
+        private class TypedResources extends AbstractList<CloudResource> implements RandomAccess {
+
+            private final int[] ids; //Identifiants des ressources
+
+            private TypedResources(int[] ids) {
+                this.ids = ids;
+            }
+
+            @Override
+            public CloudResource get(int index) {
+                if(index < 0 || index >= ids.length) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + ids.length);
+                }
+                return resourcesById.get(ids[index]);
+            }
+
+            @Override
+            public int size() {
+                return ids.length;
+            }
+
+        }
+
+        /**
+         * Vue non modifiable des ressources de l'instantané, par nom
+         */
+        private class ResourcesByName extends AbstractMap<String, CloudResource> {
+
+            @Override
+            public CloudResource get(Object key) {
+                return key instanceof String ? getResource((String) key) : null;
+            }
+
+            @Override
+            public boolean containsKey(Object key) {
+                return get(key) != null;
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public Set<Entry<String, CloudResource>> entrySet() {
+                return new AbstractSet<Entry<String, CloudResource>>() {
+                    @Override
+                    public Iterator<Entry<String, CloudResource>> iterator() {
+                        Iterator<List<CloudResource>> types = resourcesByType.values().iterator();
+                        return new Iterator<Entry<String, CloudResource>>() {
+                            private Iterator<CloudResource> typed = Collections.emptyIterator();
+
+                            @Override
+                            public boolean hasNext() {
+                                while(!typed.hasNext() && types.hasNext()) {
+                                    typed = types.next().iterator();
+                                }
+                                return typed.hasNext();
+                            }
+
+                            @Override
+                            public Entry<String, CloudResource> next() {
+                                if(!hasNext()) {
+                                    throw new NoSuchElementException();
+                                }
+                                CloudResource cr = typed.next();
+                                return new SimpleImmutableEntry<>(cr.getName(), cr);
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return size;
+                    }
+                };
+            }
+
+        }
+
     }
 
 }
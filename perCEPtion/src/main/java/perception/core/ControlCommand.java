@@ -0,0 +1,55 @@
+package perception.core;
+
+import java.io.Serializable;
+
+/**
+ * Commande de contrôle transmise, pendant l'exécution, aux opérateurs des SEG et CEG via le flux de contrôle
+ * (voir {@link GeneratorController})
+ * @author Chloé GUILBAUD, Léo PARIS, Kendall FOREST, Mathieu GUYOT
+ */
+public class ControlCommand implements Serializable {
+
+    /**
+     * Actions des commandes de contrôle
+     */
+    public enum Action {
+        ENABLE, //Activation de la génération d'évènements
+        DISABLE //Désactivation de la génération d'évènements
+    }
+
+    private final Action action;
+    private final String generatorName; //Nom du générateur visé par la commande
+
+    /**
+     * Constructeur de la classe {@link ControlCommand}
+     * @param action - L'action de la commande
+     * @param generatorName - Le nom du générateur visé par la commande
+     */
+    public ControlCommand(Action action, String generatorName) {
+        if(action == null) {
+            throw new IllegalArgumentException("action must not be null");
+        }
+        if(generatorName == null) {
+            throw new IllegalArgumentException("generatorName must not be null");
+        }
+        this.action = action;
+        this.generatorName = generatorName;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public String getGeneratorName() {
+        return generatorName;
+    }
+
+    @Override
+    public String toString() {
+        return "ControlCommand{" +
+                "action=" + action +
+                ", generatorName='" + generatorName + '\'' +
+                '}';
+    }
+
+}
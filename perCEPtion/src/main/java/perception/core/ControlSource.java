@@ -0,0 +1,98 @@
+package perception.core;
+
+import org.apache.flink.streaming.api.functions.source.SourceFunction;
+import org.apache.flink.streaming.api.watermark.Watermark;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Source Flink du flux de contrôle : émet les commandes publiées par le {@link GeneratorController} pendant
+ * l'exécution. A son démarrage, la source émet à nouveau la dernière commande publiée pour chaque générateur depuis le
+ * début de l'exécution, afin qu'aucune commande publiée pendant le démarrage du job ne soit perdue.
+ * La source émet d'emblée un watermark maximal : le flux de contrôle ne retient donc jamais le temps d'évènement des
+ * opérateurs auxquels il est connecté.
+ */
+class ControlSource implements SourceFunction<ControlCommand> {
+
+    private static final long MS_POLL_INTERVAL = 100; //Intervalle de vérification de l'arrêt de la source
+
+    //Instances en cours d'exécution (Flink exécute une copie sérialisée de la source)
+    private static final Set<ControlSource> runningSources = ConcurrentHashMap.newKeySet();
+    //Dernière commande publiée pour chaque générateur depuis le début de l'exécution
+    private static final Map<String, ControlCommand> latestCommands = new ConcurrentHashMap<>();
+
+    private final String id; //Identifiant partagé par la source et ses copies exécutées par Flink
+    private transient volatile boolean cancelled;
+    private transient boolean runningInstance; //Indique si cette instance est celle exécutée par Flink
+    private transient BlockingQueue<ControlCommand> pendingCommands; //Commandes publiées non encore émises
+
+    /**
+     * Constructeur de la classe {@link ControlSource}
+     */
+    ControlSource() {
+        this.id = UUID.randomUUID().toString();
+    }
+
+    /**
+     * Publie une commande vers les sources en cours d'exécution
+     * @param command - La commande à publier
+     */
+    static void publish(ControlCommand command) {
+        latestCommands.put(command.getGeneratorName(), command);
+        for(ControlSource source : runningSources) {
+            source.pendingCommands.add(command);
+        }
+    }
+
+    /**
+     * Oublie les commandes publiées, avant une nouvelle exécution
+     */
+    static void reset() {
+        latestCommands.clear();
+    }
+
+    @Override
+    public void run(SourceContext<ControlCommand> ctx) throws Exception {
+        pendingCommands = new LinkedBlockingQueue<>();
+        runningInstance = true;
+        runningSources.add(this);
+        SourceStartup.started();
+        try {
+            ctx.emitWatermark(Watermark.MAX_WATERMARK);
+            pendingCommands.addAll(latestCommands.values());
+            while(!cancelled) {
+                ControlCommand command = pendingCommands.poll(MS_POLL_INTERVAL, TimeUnit.MILLISECONDS);
+                if(command != null) {
+                    synchronized(ctx.getCheckpointLock()) {
+                        ctx.collect(command);
+                    }
+                }
+            }
+        } finally {
+            runningSources.remove(this);
+        }
+    }
+
+    /**
+     * Arrête la source. Appelée sur une instance non exécutée, l'arrêt est transmis aux copies de cette source en
+     * cours d'exécution.
+     */
+    @Override
+    public void cancel() {
+        cancelled = true;
+        if(!runningInstance) {
+            for(ControlSource running : runningSources) {
+                if(running.id.equals(id)) {
+                    running.cancel();
+                }
+            }
+        }
+    }
+
+}
@@ -1,8 +1,11 @@
 package perception.core;
 
+import perception.events.Event;
 import perception.services.PerceptionRunResource;
 
 import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Classe abstraite représenant un Event Generator.
@@ -11,7 +14,7 @@ import java.io.Serializable;
 public abstract class EventGenerator implements Serializable, PerceptionRunResource {
 
     private boolean logGeneratedEvents;
-    private boolean hasToGenerateEvents;
+    private volatile boolean hasToGenerateEvents;
     private String name;
 
     /**
@@ -65,6 +68,27 @@ public abstract class EventGenerator implements Serializable, PerceptionRunResou
     }
 
 
+    /**
+     * Date un évènement généré à partir d'une correspondance d'un schéma de détection : l'évènement prend la date du
+     * plus récent des évènements de la correspondance
+     * @param event - L'évènement généré (éventuellement nul)
+     * @param match - Les évènements de la correspondance, par nom d'étape du schéma
+     */
+    protected static void setMatchTimestamp(Event event, Map<String, ? extends List<? extends Event>> match) {
+        if(event == null) {
+            return;
+        }
+        long timestamp = Long.MIN_VALUE;
+        for(List<? extends Event> events : match.values()) {
+            for(Event e : events) {
+                timestamp = Math.max(timestamp, e.getTimestamp());
+            }
+        }
+        if(timestamp != Long.MIN_VALUE) {
+            event.setTimestamp(timestamp);
+        }
+    }
+
     @Override
     public boolean beforeRun(PerceptionRunContext ctx) {
         return true;
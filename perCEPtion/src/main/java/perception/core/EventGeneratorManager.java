@@ -2,6 +2,7 @@ package perception.core;
 
 import java.util.Deque;
 import java.util.LinkedList;
+import java.util.Optional;
 
 /**
  * Classe permettant de créer un Gestionnaire d'Event Generator
@@ -37,6 +38,20 @@ public class EventGeneratorManager<EventGeneratorT extends EventGenerator>  {
         return generators;
     }
 
+    /**
+     * Recherche un {@link EventGenerator} géré par son nom
+     * @param name - Le nom de l'Event Generator
+     * @return L'Event Generator portant ce nom, ou un Optional.empty s'il n'est pas géré
+     */
+    public Optional<EventGeneratorT> getEventGenerator(String name) {
+        for(EventGeneratorT generator : generators) {
+            if(generator.getName().equals(name)) {
+                return Optional.of(generator);
+            }
+        }
+        return Optional.empty();
+    }
+
     /**
      * Active le logging pour les évènements générés
      * @param logStream - <code>true</code> si l'on permet de logger le flux d'évènements générés, <code>false</code> sinon
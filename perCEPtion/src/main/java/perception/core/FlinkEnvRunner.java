@@ -10,6 +10,7 @@ import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
 public class FlinkEnvRunner extends Thread {
 
     private StreamExecutionEnvironment env; //L'environnement Apache Flink
+    private volatile Exception failure; //Erreur ayant interrompu l'exécution, null si aucune
 
     /**
      * Constructeur de la classe {@link FlinkEnvRunner}
@@ -26,8 +27,29 @@ public class FlinkEnvRunner extends Thread {
         try {
             env.execute("perCEPtion");
         } catch (Exception e) {
+            failure = e;
             e.printStackTrace();
         }
     }
 
+    /**
+     * Attend la fin de l'exécution de l'environnement Apache Flink, c'est-à-dire la terminaison du job une fois ses
+     * sources arrêtées et les évènements en cours traités
+     * @param msTimeout - Le délai maximal d'attente en millisecondes
+     * @return <code>true</code> si l'exécution est terminée, <code>false</code> si le délai est écoulé
+     * @throws InterruptedException si le thread appelant est interrompu pendant l'attente
+     */
+    public boolean awaitTermination(long msTimeout) throws InterruptedException {
+        join(msTimeout);
+        return !isAlive();
+    }
+
+    /**
+     * Accesseur de l'erreur ayant interrompu l'exécution
+     * @return L'erreur levée par l'exécution du job, ou null si aucune
+     */
+    public Exception getFailure() {
+        return failure;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,493 @@
+package perception.core;
+
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.streaming.api.datastream.DataStream;
+import org.apache.flink.streaming.api.datastream.KeyedStream;
+import org.apache.flink.streaming.api.functions.co.CoFlatMapFunction;
+import org.apache.flink.util.Collector;
+import perception.complex_event_generator.ComplexEventGenerator;
+import perception.events.Event;
+import perception.events.PrimitiveEvent;
+import perception.events.serialization.EventTypeInfo;
+import perception.primitive_events_generator.PEGMultiplexer;
+import perception.primitive_events_generator.PrimitiveEventGenerator;
+import perception.services.PerceptionRunResource;
+import perception.simple_events_generator.SimpleEventGenerator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Contrôleur des Event Generators, permettant de reconfigurer le processus de perCEPtion sans l'arrêter.
+ *
+ * Par défaut, seuls les générateurs activés au démarrage sont intégrés au job Flink : un générateur désactivé ne
+ * consomme ainsi aucune ressource, mais son activation n'est prise en compte qu'au prochain démarrage.
+ * Lorsque l'activation en cours d'exécution est autorisée (voir {@link #setLiveToggling(boolean)}), tous les
+ * générateurs sont intégrés au job, ainsi qu'une source émettant le flux de contrôle. L'entrée de chaque SEG et CEG
+ * traverse alors une porte, connectée au flux de contrôle diffusé à toutes les instances parallèles, qui ne transmet
+ * les évènements à l'opérateur CEP que lorsque le générateur est activé : un générateur désactivé ne reçoit aucun
+ * évènement. Activer ou désactiver un SEG ou un CEG pendant l'exécution publie une {@link ControlCommand} sur ce flux,
+ * sans reconstruire l'opérateur CEP.
+ * Les PEG, étant des sources, ne peuvent recevoir de flux : leur activation, leur période d'exécution et leur filtrage
+ * sont transmis directement à leurs instances en cours d'exécution (voir {@link PrimitiveEventGenerator}), un PEG
+ * désactivé étant mis en attente sans consommer de CPU. Un PEG ajouté pendant l'exécution est hébergé par la source
+ * unique si les PEG sont multiplexés (voir {@link PrimitiveEventStream#setMultiplexed(boolean, int, long)}).
+ *
+ * Les schémas de détection des SEG et CEG étant construits au démarrage, un SEG ou un CEG ajouté pendant l'exécution
+ * (ou un PEG lorsque les PEG ne sont pas multiplexés) n'est exécuté qu'au prochain démarrage du
+ * {@link PerceptionCore}.
+ * @author Chloé GUILBAUD, Léo PARIS, Kendall FOREST, Mathieu GUYOT
+ */
+public class GeneratorController implements PerceptionRunResource {
+
+    private final PerceptionRunContext ctx; //Contexte d'exécution dont les Event Generators sont contrôlés
+    private ControlSource controlSource; //Source du flux de contrôle de l'exécution en cours
+    private DataStream<ControlCommand> controlStream; //Flux de contrôle de l'exécution en cours
+    private volatile boolean running; //Indique si une exécution est en cours
+    private boolean liveToggling; //Indique si les générateurs désactivés sont intégrés au job, pour être activés
+    private boolean runLiveToggling; //Valeur de liveToggling pour l'exécution en cours
+    //Générateurs examinés au démarrage de l'exécution en cours, par nom, et indication de leur activation à ce moment
+    private final Map<String, Boolean> startEnabled;
+
+    /**
+     * Constructeur de la classe {@link GeneratorController}
+     * @param ctx - Le contexte d'exécution dont les Event Generators sont contrôlés
+     */
+    GeneratorController(PerceptionRunContext ctx) {
+        this.ctx = ctx;
+        this.controlSource = null;
+        this.controlStream = null;
+        this.running = false;
+        this.liveToggling = false;
+        this.runLiveToggling = false;
+        this.startEnabled = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Autorise ou non l'activation et la désactivation des SEG et CEG pendant l'exécution, prise en compte au prochain
+     * démarrage. Lorsqu'elle est autorisée, les générateurs désactivés sont également intégrés au job, derrière une
+     * porte fermée, ce qui ajoute au job un opérateur de filtrage et un repartitionnement par générateur.
+     * Lorsqu'elle ne l'est pas (par défaut), les générateurs désactivés ne sont pas intégrés au job.
+     * @param liveToggling - <code>true</code> pour autoriser l'activation pendant l'exécution, <code>false</code> sinon
+     */
+    public void setLiveToggling(boolean liveToggling) {
+        this.liveToggling = liveToggling;
+    }
+
+    public boolean isLiveToggling() {
+        return liveToggling;
+    }
+
+    /**
+     * Indique si un générateur est activé au démarrage de l'exécution en cours. L'activation est relevée au premier
+     * appel pendant la préparation de l'exécution, puis conservée jusqu'à sa fin, afin que toutes les ressources
+     * construisant le job prennent la même décision.
+     * @param generator - Le générateur
+     * @return <code>true</code> si le générateur est activé au démarrage, <code>false</code> sinon
+     */
+    public boolean isEnabledAtStart(EventGenerator generator) {
+        return startEnabled.computeIfAbsent(generator.getName(), name -> generator.isHasToGenerateEvents());
+    }
+
+    /**
+     * Indique si un générateur est intégré au job de l'exécution en cours : il l'est s'il est activé au démarrage, ou
+     * si l'activation pendant l'exécution est autorisée (voir {@link #setLiveToggling(boolean)})
+     * @param generator - Le générateur
+     * @return <code>true</code> si le générateur doit être intégré au job, <code>false</code> sinon
+     */
+    public boolean isIncluded(EventGenerator generator) {
+        return isEnabledAtStart(generator) || runLiveToggling;
+    }
+
+    /**
+     * Indique si un générateur a été intégré au job de l'exécution en cours, sans relever son activation
+     */
+    private boolean wasIncluded(EventGenerator generator) {
+        Boolean enabled = startEnabled.get(generator.getName());
+        return enabled != null && (enabled || runLiveToggling);
+    }
+
+    /**
+     * Crée le flux de contrôle de l'exécution si l'activation pendant l'exécution est autorisée : sans porte pour le
+     * consommer, la source du flux ne serait pas intégrée au job. Doit être appelé avant l'initialisation des SEG et
+     * CEG.
+     * @param ctx - Contexte d'exécution de perCEPtion
+     * @return <code>true</code>
+     */
+    @Override
+    public boolean beforeRun(PerceptionRunContext ctx) {
+        ControlSource.reset();
+        startEnabled.clear();
+        runLiveToggling = liveToggling;
+        if(runLiveToggling) {
+            controlSource = new ControlSource();
+            controlStream = ctx.getEnv()
+                    .addSource(controlSource, TypeInformation.of(ControlCommand.class))
+                    .name("Control")
+                    .setParallelism(1)
+                    .broadcast();
+            SourceStartup.expect(1);
+        }
+        running = true;
+        return true;
+    }
+
+    @Override
+    public void endRun() {
+        cancelControlSource();
+        running = false;
+        startEnabled.clear();
+        controlSource = null;
+        controlStream = null;
+    }
+
+    /**
+     * Arrête la source du flux de contrôle de l'exécution en cours
+     */
+    void cancelControlSource() {
+        if(controlSource != null) {
+            controlSource.cancel();
+        }
+    }
+
+    /**
+     * Fait traverser au flux d'entrée d'un CEG une porte contrôlée par le flux de contrôle, si l'activation pendant
+     * l'exécution est autorisée. La porte est initialement ouverte si le générateur est activé.
+     * @param stream - Le flux des évènements reçus par le générateur
+     * @param generator - Le générateur
+     * @return Le flux des évènements transmis pendant que le générateur est activé
+     */
+    public DataStream<Event> gate(DataStream<Event> stream, EventGenerator generator) {
+        if(controlStream == null || !runLiveToggling) {
+            return stream;
+        }
+        return connectGate(stream, generator, EventTypeInfo.forEventClass(Event.class));
+    }
+
+    /**
+     * Fait traverser au flux d'entrée partitionné d'un SEG une porte contrôlée par le flux de contrôle, si
+     * l'activation pendant l'exécution est autorisée. Le flux filtré est à nouveau partitionné par ressource.
+     * @param stream - Le flux des évènements primitifs reçus par le générateur, partitionné par ressource
+     * @param generator - Le générateur
+     * @return Le flux des évènements transmis pendant que le générateur est activé, partitionné par ressource
+     */
+    public KeyedStream<PrimitiveEvent, Integer> gate(KeyedStream<PrimitiveEvent, Integer> stream,
+                                                     EventGenerator generator) {
+        if(controlStream == null || !runLiveToggling) {
+            return stream;
+        }
+        return PrimitiveEventStream.keyByResource(
+                connectGate(stream, generator, EventTypeInfo.forEventClass(PrimitiveEvent.class)));
+    }
+
+    private <T extends Event> DataStream<T> connectGate(DataStream<T> stream, EventGenerator generator,
+                                                        TypeInformation<T> type) {
+        return stream.connect(controlStream)
+                .flatMap(new GeneratorGate<T>(generator.getName(), generator.isHasToGenerateEvents()))
+                .returns(type)
+                .name(generator.getName() + " gate");
+    }
+
+    /**
+     * Active un Event Generator, pendant l'exécution ou pour la prochaine exécution
+     * @param name - Le nom de l'Event Generator
+     * @return <code>true</code> si l'activation est prise en compte immédiatement, <code>false</code> si elle ne le
+     * sera qu'au prochain démarrage
+     */
+    public boolean enable(String name) {
+        return setEnabled(findGenerator(name), true);
+    }
+
+    /**
+     * Désactive un Event Generator, pendant l'exécution ou pour la prochaine exécution
+     * @param name - Le nom de l'Event Generator
+     * @return <code>true</code> si la désactivation est prise en compte immédiatement, <code>false</code> si elle ne
+     * le sera qu'au prochain démarrage
+     */
+    public boolean disable(String name) {
+        return setEnabled(findGenerator(name), false);
+    }
+
+    /**
+     * Modifie la période d'exécution d'un PEG, transmise à ses instances en cours d'exécution
+     * @param name - Le nom du PEG
+     * @param msRefreshingRate - La nouvelle période d'exécution, en millisecondes
+     */
+    public void setRefreshingRate(String name, long msRefreshingRate) {
+        PrimitiveEventGenerator peg = ctx.getPrimitiveEventGeneratorManager().getEventGenerator(name)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown primitive event generator : " + name));
+        peg.setMsRefreshingRate(msRefreshingRate);
+    }
+
+    /**
+     * Ajoute un PEG. Pendant l'exécution, le PEG est immédiatement exécuté si les PEG sont multiplexés.
+     * @param peg - Le PEG à ajouter
+     * @return <code>true</code> si le PEG est exécuté, <code>false</code> s'il ne le sera qu'au prochain démarrage
+     */
+    public boolean addPrimitiveEventGenerator(PrimitiveEventGenerator peg) {
+        checkNewName(peg);
+        ctx.getPrimitiveEventGeneratorManager().addEventGenerator(peg);
+        if(!running) {
+            return true;
+        }
+        boolean hosted = PEGMultiplexer.hostInRunning(peg);
+        if(hosted) {
+            startEnabled.put(peg.getName(), true);
+        }
+        return hosted;
+    }
+
+    /**
+     * Ajoute un SEG, exécuté au prochain démarrage
+     * @param seg - Le SEG à ajouter
+     * @return <code>true</code> si aucune exécution n'est en cours, <code>false</code> si le SEG ne sera exécuté qu'au
+     * prochain démarrage
+     */
+    public boolean addSimpleEventGenerator(SimpleEventGenerator seg) {
+        checkNewName(seg);
+        ctx.getSimpleEventGeneratorManager().addEventGenerator(seg);
+        return !running;
+    }
+
+    /**
+     * Ajoute un CEG, exécuté au prochain démarrage
+     * @param ceg - Le CEG à ajouter
+     * @return <code>true</code> si aucune exécution n'est en cours, <code>false</code> si le CEG ne sera exécuté qu'au
+     * prochain démarrage
+     */
+    public boolean addComplexEventGenerator(ComplexEventGenerator ceg) {
+        checkNewName(ceg);
+        ctx.getComplexEventGeneratorManager().addEventGenerator(ceg);
+        return !running;
+    }
+
+    /**
+     * Applique une nouvelle configuration des Event Generators en ne modifiant que ses différences avec la
+     * configuration courante :
+     * - les générateurs absents de la nouvelle configuration sont désactivés ;
+     * - les générateurs présents dans les deux configurations sont activés, et la période d'exécution des PEG est
+     * mise à jour ;
+     * - les générateurs nouveaux sont ajoutés.
+     * Les générateurs sont identifiés par leur nom. Les paramètres des SEG et CEG étant intégrés à leurs schémas de
+     * détection, un SEG ou un CEG existant n'est pas modifié : il doit être renommé pour être remplacé.
+     * @param pegs - Les PEG de la nouvelle configuration
+     * @param segs - Les SEG de la nouvelle configuration
+     * @param cegs - Les CEG de la nouvelle configuration
+     * @return Le rapport des modifications appliquées
+     */
+    public Report applyConfiguration(Collection<? extends PrimitiveEventGenerator> pegs,
+                                     Collection<? extends SimpleEventGenerator> segs,
+                                     Collection<? extends ComplexEventGenerator> cegs) {
+        Report report = new Report();
+        for(PrimitiveEventGenerator peg : pegs) {
+            Optional<PrimitiveEventGenerator> current = ctx.getPrimitiveEventGeneratorManager()
+                    .getEventGenerator(peg.getName());
+            if(current.isPresent()) {
+                if(current.get().getMsRefreshingRate() != peg.getMsRefreshingRate()) {
+                    current.get().setMsRefreshingRate(peg.getMsRefreshingRate());
+                    report.retuned.add(peg.getName());
+                }
+                applyEnabled(current.get(), report);
+            } else {
+                report.added(peg.getName(), addPrimitiveEventGenerator(peg));
+            }
+        }
+        for(SimpleEventGenerator seg : segs) {
+            Optional<SimpleEventGenerator> current = ctx.getSimpleEventGeneratorManager()
+                    .getEventGenerator(seg.getName());
+            if(current.isPresent()) {
+                applyEnabled(current.get(), report);
+            } else {
+                report.added(seg.getName(), addSimpleEventGenerator(seg));
+            }
+        }
+        for(ComplexEventGenerator ceg : cegs) {
+            Optional<ComplexEventGenerator> current = ctx.getComplexEventGeneratorManager()
+                    .getEventGenerator(ceg.getName());
+            if(current.isPresent()) {
+                applyEnabled(current.get(), report);
+            } else {
+                report.added(ceg.getName(), addComplexEventGenerator(ceg));
+            }
+        }
+        disableMissing(ctx.getPrimitiveEventGeneratorManager().getGenerators(), pegs, report);
+        disableMissing(ctx.getSimpleEventGeneratorManager().getGenerators(), segs, report);
+        disableMissing(ctx.getComplexEventGeneratorManager().getGenerators(), cegs, report);
+        return report;
+    }
+
+    /**
+     * Active un générateur présent dans la nouvelle configuration s'il était désactivé
+     */
+    private void applyEnabled(EventGenerator generator, Report report) {
+        if(!generator.isHasToGenerateEvents()) {
+            report.toggled(report.enabled, generator.getName(), setEnabled(generator, true));
+        }
+    }
+
+    /**
+     * Désactive les générateurs activés absents de la nouvelle configuration
+     */
+    private void disableMissing(Collection<? extends EventGenerator> current,
+                                Collection<? extends EventGenerator> configured, Report report) {
+        Set<String> configuredNames = new HashSet<>();
+        for(EventGenerator generator : configured) {
+            configuredNames.add(generator.getName());
+        }
+        for(EventGenerator generator : current) {
+            if(generator.isHasToGenerateEvents() && !configuredNames.contains(generator.getName())) {
+                report.toggled(report.disabled, generator.getName(), setEnabled(generator, false));
+            }
+        }
+    }
+
+    /**
+     * Active ou désactive un générateur ; pour un SEG ou un CEG, la commande est publiée sur le flux de contrôle
+     * @return <code>true</code> si la modification est prise en compte immédiatement : aucune exécution n'est en cours,
+     * ou le générateur est intégré au job et, pour un SEG ou un CEG, l'activation pendant l'exécution est autorisée
+     */
+    private boolean setEnabled(EventGenerator generator, boolean enabled) {
+        generator.setHasToGenerateEvents(enabled);
+        if(generator instanceof PrimitiveEventGenerator) {
+            return !running || wasIncluded(generator);
+        }
+        ControlSource.publish(new ControlCommand(
+                enabled ? ControlCommand.Action.ENABLE : ControlCommand.Action.DISABLE, generator.getName()));
+        return !running || (runLiveToggling && wasIncluded(generator));
+    }
+
+    private EventGenerator findGenerator(String name) {
+        Optional<? extends EventGenerator> generator = ctx.getPrimitiveEventGeneratorManager().getEventGenerator(name);
+        if(!generator.isPresent()) {
+            generator = ctx.getSimpleEventGeneratorManager().getEventGenerator(name);
+        }
+        if(!generator.isPresent()) {
+            generator = ctx.getComplexEventGeneratorManager().getEventGenerator(name);
+        }
+        return generator.orElseThrow(() -> new IllegalArgumentException("Unknown event generator : " + name));
+    }
+
+    private void checkNewName(EventGenerator generator) {
+        if(ctx.getPrimitiveEventGeneratorManager().getEventGenerator(generator.getName()).isPresent()
+                || ctx.getSimpleEventGeneratorManager().getEventGenerator(generator.getName()).isPresent()
+                || ctx.getComplexEventGeneratorManager().getEventGenerator(generator.getName()).isPresent()) {
+            throw new IllegalArgumentException("An event generator named " + generator.getName() + " already exists");
+        }
+    }
+
+    /**
+     * Porte traversée par l'entrée d'un SEG ou d'un CEG, ouverte ou fermée par les commandes du flux de contrôle
+     * visant ce générateur
+     */
+    static class GeneratorGate<T extends Event> implements CoFlatMapFunction<T, ControlCommand, T> {
+
+        private final String generatorName;
+        private boolean open; //Indique si les évènements générés sont transmis
+
+        GeneratorGate(String generatorName, boolean open) {
+            this.generatorName = generatorName;
+            this.open = open;
+        }
+
+        @Override
+        public void flatMap1(T event, Collector<T> out) throws Exception {
+            if(open) {
+                out.collect(event);
+            }
+        }
+
+        @Override
+        public void flatMap2(ControlCommand command, Collector<T> out) throws Exception {
+            if(generatorName.equals(command.getGeneratorName())) {
+                open = command.getAction() == ControlCommand.Action.ENABLE;
+            }
+        }
+
+    }
+
+    /**
+     * Rapport des modifications appliquées par {@link #applyConfiguration(Collection, Collection, Collection)}
+     */
+    public static class Report {
+
+        private final List<String> enabled = new ArrayList<>();
+        private final List<String> disabled = new ArrayList<>();
+        private final List<String> retuned = new ArrayList<>();
+        private final List<String> added = new ArrayList<>();
+        private final List<String> pendingRestart = new ArrayList<>();
+
+        private void added(String name, boolean started) {
+            (started ? added : pendingRestart).add(name);
+        }
+
+        private void toggled(List<String> toggled, String name, boolean applied) {
+            toggled.add(name);
+            if(!applied) {
+                pendingRestart.add(name);
+            }
+        }
+
+        /**
+         * @return Les noms des générateurs activés
+         */
+        public List<String> getEnabled() {
+            return Collections.unmodifiableList(enabled);
+        }
+
+        /**
+         * @return Les noms des générateurs désactivés
+         */
+        public List<String> getDisabled() {
+            return Collections.unmodifiableList(disabled);
+        }
+
+        /**
+         * @return Les noms des PEG dont la période d'exécution a été modifiée
+         */
+        public List<String> getRetuned() {
+            return Collections.unmodifiableList(retuned);
+        }
+
+        /**
+         * @return Les noms des générateurs ajoutés et exécutés (ou qui le seront au prochain démarrage si aucune
+         * exécution n'est en cours)
+         */
+        public List<String> getAdded() {
+            return Collections.unmodifiableList(added);
+        }
+
+        /**
+         * @return Les noms des générateurs ajoutés, activés ou désactivés pendant l'exécution dont la modification ne
+         * sera prise en compte qu'au prochain démarrage
+         */
+        public List<String> getPendingRestart() {
+            return Collections.unmodifiableList(pendingRestart);
+        }
+
+        /**
+         * @return <code>true</code> si un redémarrage est nécessaire pour prendre en compte toutes les modifications
+         */
+        public boolean isRestartRequired() {
+            return !pendingRestart.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return "GeneratorController.Report{" +
+                    "enabled=" + enabled +
+                    ", disabled=" + disabled +
+                    ", retuned=" + retuned +
+                    ", added=" + added +
+                    ", pendingRestart=" + pendingRestart +
+                    '}';
+        }
+    }
+
+}
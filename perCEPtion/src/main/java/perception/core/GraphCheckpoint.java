@@ -0,0 +1,203 @@
+package perception.core;
+
+import graph.CloudResource;
+import graph.CloudResourceType;
+import graph.Co;
+import graph.PM;
+import graph.Tier;
+import graph.VM;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Point de reprise binaire du graph de ressources surveillées, permettant un redémarrage rapide du moniteur.
+ * L'écriture parcourt l'instantané courant de {@link CloudResourcesAccess} et écrit en flux chaque ressource (type,
+ * nom, score, parents et dernières métriques), les parents avant leurs sous-ressources. La lecture projette le fichier
+ * en mémoire (memory-mapped I/O), reconstruit le graph et l'enregistre en une seule publication : les PEG repartent
+ * ainsi des dernières valeurs connues.
+ * Seuls les parents eux-mêmes surveillés sont conservés.
+ * @author Chloé GUILBAUD, Léo PARIS, Kendall FOREST, Mathieu GUYOT
+ */
+public class GraphCheckpoint {
+
+    private static final int MAGIC = 0x50434B50; //"PCKP"
+    private static final int VERSION = 1;
+    //Types écrits, dans l'ordre d'écriture : les parents avant leurs sous-ressources
+    private static final CloudResourceType[] TYPES = {
+            CloudResourceType.APPLI, CloudResourceType.TIER, CloudResourceType.PM, CloudResourceType.VM,
+            CloudResourceType.CO
+    };
+
+    private GraphCheckpoint() {
+
+    }
+
+    /**
+     * Ecrit le point de reprise des ressources surveillées, après publication des modifications en attente.
+     * Le fichier est d'abord écrit à côté de sa destination puis renommé, un point de reprise existant n'est donc
+     * jamais laissé incomplet.
+     * @param path - Le chemin du point de reprise
+     * @return Le nombre de ressources écrites
+     * @throws IOException si le point de reprise ne peut pas être écrit
+     */
+    public static int write(Path path) throws IOException {
+        CloudResourcesAccess access = CloudResourcesAccess.getInstance();
+        access.publishChanges();
+        CloudResourcesAccess.Snapshot snapshot = access.getSnapshot();
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        int count = snapshot.getResources().size();
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(snapshot.getEpoch());
+            out.writeInt(count);
+            for(int code = 0; code < TYPES.length; code++) {
+                for(CloudResource cr : snapshot.getResources(TYPES[code])) {
+                    out.writeByte(code);
+                    writeString(out, cr.getName());
+                    out.writeInt(cr.getScore());
+                    writeFields(out, snapshot, cr);
+                }
+            }
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return count;
+    }
+
+    /**
+     * Lit un point de reprise et enregistre ses ressources dans {@link CloudResourcesAccess}
+     * @param path - Le chemin du point de reprise
+     * @return Le résultat du chargement
+     * @throws IOException si le point de reprise ne peut pas être lu ou est mal formé
+     */
+    public static GraphLoader.Result read(Path path) throws IOException {
+        long start = System.nanoTime();
+        GraphLoader loader = new GraphLoader("Checkpoint, record");
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if(channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Checkpoint too large : " + channel.size() + " bytes");
+            }
+            ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if(in.remaining() < 20 || in.getInt() != MAGIC) {
+                throw new IOException("Not a checkpoint : " + path);
+            }
+            int version = in.getInt();
+            if(version != VERSION) {
+                throw new IOException("Unsupported checkpoint version : " + version);
+            }
+            in.getLong(); //Epoch de l'instantané écrit, informatif
+            int count = in.getInt();
+            for(int i = 0; i < count; i++) {
+                loader.nextRecord();
+                readRecord(in, loader);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated checkpoint : " + path, e);
+        }
+        return loader.finish(start);
+    }
+
+    /**
+     * Ecrit les parents et les métriques d'une ressource
+     */
+    private static void writeFields(DataOutputStream out, CloudResourcesAccess.Snapshot snapshot, CloudResource cr)
+            throws IOException {
+        switch(cr.getType()) {
+            case APPLI:
+                break;
+            case TIER:
+                writeParent(out, snapshot, ((Tier) cr).getAppli());
+                break;
+            case PM: {
+                PM pm = (PM) cr;
+                writeParent(out, snapshot, pm.getAppli());
+                out.writeInt(pm.getCpu_consumption());
+                out.writeInt(pm.getRamConsumption());
+                out.writeInt(pm.getDiskConsumption());
+                break;
+            }
+            case VM: {
+                VM vm = (VM) cr;
+                writeParent(out, snapshot, vm.getPm());
+                writeParent(out, snapshot, vm.getTier());
+                out.writeInt(vm.getCpu_consumption());
+                out.writeInt(vm.getRamConsumption());
+                out.writeInt(vm.getDiskConsumption());
+                break;
+            }
+            case CO: {
+                Co co = (Co) cr;
+                writeParent(out, snapshot, co.getVm());
+                writeString(out, co.getTypeCO() == null ? "" : co.getTypeCO());
+                out.writeInt(co.getResponseTime());
+                break;
+            }
+        }
+    }
+
+    /**
+     * Lit une ressource et la transmet au chargeur
+     */
+    private static void readRecord(ByteBuffer in, GraphLoader loader) throws IOException {
+        int code = in.get();
+        if(code < 0 || code >= TYPES.length) {
+            throw loader.error("unknown resource type " + code);
+        }
+        String name = readString(in, loader);
+        int score = in.getInt();
+        switch(TYPES[code]) {
+            case APPLI:
+                loader.addAppli(name, score);
+                break;
+            case TIER:
+                loader.addTier(name, score, readString(in, loader));
+                break;
+            case PM:
+                loader.addPM(name, score, readString(in, loader), in.getInt(), in.getInt(), in.getInt());
+                break;
+            case VM:
+                loader.addVM(name, score, readString(in, loader), readString(in, loader), in.getInt(), in.getInt(),
+                        in.getInt());
+                break;
+            case CO:
+                loader.addCo(name, score, readString(in, loader), readString(in, loader), in.getInt());
+                break;
+        }
+    }
+
+    /**
+     * Ecrit le nom d'un parent, vide s'il n'existe pas ou n'est pas surveillé
+     */
+    private static void writeParent(DataOutputStream out, CloudResourcesAccess.Snapshot snapshot, CloudResource parent)
+            throws IOException {
+        boolean monitored = parent != null && snapshot.getResource(parent.getName()) != null;
+        writeString(out, monitored ? parent.getName() : "");
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in, GraphLoader loader) throws IOException {
+        int length = in.getInt();
+        if(length < 0 || length > in.remaining()) {
+            throw loader.error("invalid string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
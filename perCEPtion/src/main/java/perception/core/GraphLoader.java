@@ -0,0 +1,379 @@
+package perception.core;
+
+import graph.Appli;
+import graph.CloudResource;
+import graph.Co;
+import graph.PM;
+import graph.Tier;
+import graph.VM;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chargeur de graph de ressources depuis un fichier de topologie CSV, destiné au démarrage rapide de topologies de
+ * grande taille. Le fichier est lu via une projection mémoire (memory-mapped I/O), en un seul passage : les ressources
+ * sont construites, rattachées à leurs parents par lots, puis enregistrées dans {@link CloudResourcesAccess} en une
+ * seule publication.
+ *
+ * Chaque ligne décrit une ressource, les parents devant être décrits avant leurs sous-ressources :
+ * <pre>
+ * APPLI,nom,score
+ * TIER,nom,score,appli
+ * PM,nom,score,appli,cpu,ram,disque
+ * VM,nom,score,pm,tier,cpu,ram,disque
+ * CO,nom,score,vm,typeCO,tempsDeReponse
+ * </pre>
+ * Un parent peut être laissé vide. Les lignes vides et les lignes commençant par '#' sont ignorées.
+ * @author Chloé GUILBAUD, Léo PARIS, Kendall FOREST, Mathieu GUYOT
+ */
+public class GraphLoader {
+
+    private static final int MAX_FIELDS = 8; //Nombre maximal de champs d'une ligne
+
+    private final Map<String, Appli> applis = new HashMap<>();
+    private final Map<String, Tier> tiers = new HashMap<>();
+    private final Map<String, PM> pms = new HashMap<>();
+    private final Map<String, VM> vms = new HashMap<>();
+    private final Map<String, Co> cos = new HashMap<>();
+    private final List<CloudResource> resources = new ArrayList<>(); //Ressources chargées, dans l'ordre du fichier
+    //Sous-ressources de chaque parent, ajoutées par lots une fois le fichier lu
+    private final Map<Appli, List<PM>> appliPms = new LinkedHashMap<>();
+    private final Map<Appli, List<Tier>> appliTiers = new LinkedHashMap<>();
+    private final Map<PM, List<VM>> pmVms = new LinkedHashMap<>();
+    private final Map<Tier, List<VM>> tierVms = new LinkedHashMap<>();
+    private final Map<VM, List<Co>> vmCos = new LinkedHashMap<>();
+
+    private final String[] fields = new String[MAX_FIELDS]; //Champs de la ligne courante
+    private int fieldCount; //Nombre de champs de la ligne courante
+    private final String source; //Description de la source, pour les messages d'erreur
+    private int recordNumber; //Numéro de l'enregistrement (ligne) courant
+
+    /**
+     * Constructeur de la classe {@link GraphLoader}
+     * @param source - La description de la source lue, pour les messages d'erreur
+     */
+    GraphLoader(String source) {
+        this.source = source;
+    }
+
+    /**
+     * Charge un fichier de topologie et enregistre ses ressources dans {@link CloudResourcesAccess}
+     * @param path - Le chemin du fichier de topologie
+     * @return Le résultat du chargement
+     * @throws IOException si le fichier ne peut pas être lu ou est mal formé
+     */
+    public static Result load(Path path) throws IOException {
+        long start = System.nanoTime();
+        GraphLoader loader = new GraphLoader("Topology file, line");
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if(channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Topology file too large : " + channel.size() + " bytes");
+            }
+            loader.parse(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+        return loader.finish(start);
+    }
+
+    /**
+     * Lit les lignes du fichier et construit les ressources
+     * @param buffer - La projection mémoire du fichier
+     * @throws IOException si une ligne est mal formée
+     */
+    private void parse(MappedByteBuffer buffer) throws IOException {
+        byte[] line = new byte[256];
+        int length = 0;
+        while(buffer.hasRemaining()) {
+            byte b = buffer.get();
+            if(b == '\n') {
+                parseLine(line, length);
+                length = 0;
+            } else if(b != '\r') {
+                if(length == line.length) {
+                    line = Arrays.copyOf(line, length * 2);
+                }
+                line[length++] = b;
+            }
+        }
+        parseLine(line, length);
+    }
+
+    /**
+     * Découpe une ligne en champs et construit la ressource qu'elle décrit
+     * @param line - Les octets de la ligne
+     * @param length - La longueur de la ligne
+     * @throws IOException si la ligne est mal formée
+     */
+    private void parseLine(byte[] line, int length) throws IOException {
+        nextRecord();
+        if(length == 0 || line[0] == '#') {
+            return;
+        }
+        fieldCount = 0;
+        int start = 0;
+        for(int i = 0; i <= length; i++) {
+            if(i == length || line[i] == ',') {
+                if(fieldCount == MAX_FIELDS) {
+                    throw error("too many fields");
+                }
+                fields[fieldCount++] = new String(line, start, i - start, StandardCharsets.UTF_8).trim();
+                start = i + 1;
+            }
+        }
+        switch(fields[0]) {
+            case "APPLI":
+                checkFieldCount(3);
+                addAppli(fields[1], parseInt(2));
+                break;
+            case "TIER":
+                checkFieldCount(4);
+                addTier(fields[1], parseInt(2), fields[3]);
+                break;
+            case "PM":
+                checkFieldCount(7);
+                addPM(fields[1], parseInt(2), fields[3], parseInt(4), parseInt(5), parseInt(6));
+                break;
+            case "VM":
+                checkFieldCount(8);
+                addVM(fields[1], parseInt(2), fields[3], fields[4], parseInt(5), parseInt(6), parseInt(7));
+                break;
+            case "CO":
+                checkFieldCount(6);
+                addCo(fields[1], parseInt(2), fields[3], fields[4], parseInt(5));
+                break;
+            default:
+                throw error("unknown resource type " + fields[0]);
+        }
+    }
+
+    /**
+     * Construit une application
+     * @param name - Le nom de l'application
+     * @param score - Le score de l'application
+     * @throws IOException si une ressource de même nom a déjà été construite
+     */
+    void addAppli(String name, int score) throws IOException {
+        add(applis, new Appli(name, score));
+    }
+
+    /**
+     * Construit un tier
+     * @param name - Le nom du tier
+     * @param score - Le score du tier
+     * @param appliName - Le nom de l'application parente, vide si aucune
+     * @throws IOException si une ressource de même nom a déjà été construite ou si le parent est inconnu
+     */
+    void addTier(String name, int score, String appliName) throws IOException {
+        Tier tier = new Tier(name, score);
+        Appli appli = parent(applis, appliName);
+        if(appli != null) {
+            tier.setAppli(appli);
+            appliTiers.computeIfAbsent(appli, a -> new ArrayList<>()).add(tier);
+        }
+        add(tiers, tier);
+    }
+
+    /**
+     * Construit une PM
+     * @param name - Le nom de la PM
+     * @param score - Le score de la PM
+     * @param appliName - Le nom de l'application parente, vide si aucune
+     * @param cpu - La consommation CPU de la PM
+     * @param ram - La consommation RAM de la PM
+     * @param disk - La consommation Disque de la PM
+     * @throws IOException si une ressource de même nom a déjà été construite ou si le parent est inconnu
+     */
+    void addPM(String name, int score, String appliName, int cpu, int ram, int disk) throws IOException {
+        PM pm = new PM(name, score);
+        Appli appli = parent(applis, appliName);
+        if(appli != null) {
+            pm.setAppli(appli);
+            appliPms.computeIfAbsent(appli, a -> new ArrayList<>()).add(pm);
+        }
+        pm.setCpuConsumption(cpu);
+        pm.setRamConsumption(ram);
+        pm.setDiskConsumption(disk);
+        add(pms, pm);
+    }
+
+    /**
+     * Construit une VM
+     * @param name - Le nom de la VM
+     * @param score - Le score de la VM
+     * @param pmName - Le nom de la PM parente, vide si aucune
+     * @param tierName - Le nom du tier parent, vide si aucun
+     * @param cpu - La consommation CPU de la VM
+     * @param ram - La consommation RAM de la VM
+     * @param disk - La consommation Disque de la VM
+     * @throws IOException si une ressource de même nom a déjà été construite ou si un parent est inconnu
+     */
+    void addVM(String name, int score, String pmName, String tierName, int cpu, int ram, int disk)
+            throws IOException {
+        VM vm = new VM(name, score);
+        PM pm = parent(pms, pmName);
+        if(pm != null) {
+            vm.setPm(pm);
+            pmVms.computeIfAbsent(pm, p -> new ArrayList<>()).add(vm);
+        }
+        Tier tier = parent(tiers, tierName);
+        if(tier != null) {
+            vm.setTier(tier);
+            tierVms.computeIfAbsent(tier, t -> new ArrayList<>()).add(vm);
+        }
+        vm.setCpuConsumption(cpu);
+        vm.setRamConsumption(ram);
+        vm.setDiskConsumption(disk);
+        add(vms, vm);
+    }
+
+    /**
+     * Construit un Co
+     * @param name - Le nom du Co
+     * @param score - Le score du Co
+     * @param vmName - Le nom de la VM parente, vide si aucune
+     * @param typeCO - Le type du Co
+     * @param responseTime - Le temps de réponse du Co
+     * @throws IOException si une ressource de même nom a déjà été construite ou si le parent est inconnu
+     */
+    void addCo(String name, int score, String vmName, String typeCO, int responseTime) throws IOException {
+        Co co = new Co(name, typeCO, score, responseTime);
+        VM vm = parent(vms, vmName);
+        if(vm != null) {
+            co.setVm(vm);
+            vmCos.computeIfAbsent(vm, v -> new ArrayList<>()).add(co);
+        }
+        add(cos, co);
+    }
+
+    /**
+     * Rattache les sous-ressources à leurs parents puis enregistre les ressources construites dans
+     * {@link CloudResourcesAccess}, en une seule publication
+     * @param start - La date de début du chargement, en nanosecondes (voir {@link System#nanoTime()})
+     * @return Le résultat du chargement
+     */
+    Result finish(long start) {
+        link();
+        int registered = CloudResourcesAccess.getInstance().applyChanges(resources, Collections.emptyList());
+        return new Result(Collections.unmodifiableList(resources), registered, System.nanoTime() - start);
+    }
+
+    /**
+     * Rattache les sous-ressources à leurs parents, par lots
+     */
+    private void link() {
+        appliPms.forEach(Appli::addPMs);
+        appliTiers.forEach(Appli::addTiers);
+        pmVms.forEach(PM::addVMs);
+        tierVms.forEach(Tier::addVMs);
+        vmCos.forEach(VM::addCos);
+    }
+
+    private <T extends CloudResource> void add(Map<String, T> byName, T resource) throws IOException {
+        if(byName.putIfAbsent(resource.getName(), resource) != null) {
+            throw error("duplicate resource " + resource.getName());
+        }
+        resources.add(resource);
+    }
+
+    private <T extends CloudResource> T parent(Map<String, T> byName, String name) throws IOException {
+        if(name.isEmpty()) {
+            return null;
+        }
+        T parent = byName.get(name);
+        if(parent == null) {
+            throw error("unknown parent " + name);
+        }
+        return parent;
+    }
+
+    private void checkFieldCount(int expected) throws IOException {
+        if(fieldCount != expected) {
+            throw error(expected + " fields expected, " + fieldCount + " found");
+        }
+    }
+
+    private int parseInt(int field) throws IOException {
+        try {
+            return Integer.parseInt(fields[field]);
+        } catch (NumberFormatException e) {
+            throw error("invalid number " + fields[field]);
+        }
+    }
+
+    /**
+     * Passe à l'enregistrement suivant de la source
+     */
+    void nextRecord() {
+        recordNumber++;
+    }
+
+    /**
+     * Construit l'erreur signalant un enregistrement mal formé
+     * @param message - La description de l'erreur
+     * @return L'erreur, localisée à l'enregistrement courant
+     */
+    IOException error(String message) {
+        return new IOException(source + " " + recordNumber + " : " + message);
+    }
+
+    /**
+     * Résultat du chargement d'un fichier de topologie
+     */
+    public static class Result {
+
+        private final List<CloudResource> resources;
+        private final int registeredCount;
+        private final long loadDurationNanos;
+
+        private Result(List<CloudResource> resources, int registeredCount, long loadDurationNanos) {
+            this.resources = resources;
+            this.registeredCount = registeredCount;
+            this.loadDurationNanos = loadDurationNanos;
+        }
+
+        /**
+         * Accesseur des ressources chargées
+         * @return Les ressources décrites par le fichier, dans l'ordre du fichier (liste non modifiable)
+         */
+        public List<CloudResource> getResources() {
+            return resources;
+        }
+
+        /**
+         * Accesseur du nombre de ressources enregistrées
+         * @return Le nombre de ressources ajoutées aux ressources surveillées (les noms déjà surveillés sont ignorés)
+         */
+        public int getRegisteredCount() {
+            return registeredCount;
+        }
+
+        /**
+         * Accesseur de la durée du chargement
+         * @return La durée du chargement (lecture, construction et enregistrement) en nanosecondes
+         */
+        public long getLoadDurationNanos() {
+            return loadDurationNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "GraphLoader.Result{" +
+                    "resources=" + resources.size() +
+                    ", registeredCount=" + registeredCount +
+                    ", loadDurationMs=" + loadDurationNanos / 1000000 +
+                    '}';
+        }
+    }
+
+}
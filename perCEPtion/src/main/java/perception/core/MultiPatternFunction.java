@@ -0,0 +1,238 @@
+package perception.core;
+
+import org.apache.flink.api.common.state.MapState;
+import org.apache.flink.api.common.state.MapStateDescriptor;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.base.ListSerializer;
+import org.apache.flink.api.common.typeutils.base.LongSerializer;
+import org.apache.flink.api.common.typeutils.base.StringSerializer;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.cep.PatternSelectFunction;
+import org.apache.flink.cep.nfa.NFA;
+import org.apache.flink.cep.nfa.compiler.NFACompiler;
+import org.apache.flink.cep.pattern.Pattern;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.streaming.api.functions.ProcessFunction;
+import org.apache.flink.util.Collector;
+import org.apache.flink.util.OutputTag;
+import perception.events.Event;
+import perception.events.PrimitiveEvent;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fonction évaluant, sur le flux des évènements primitifs partitionné par ressource, les schémas de détection de
+ * plusieurs SEG au sein d'un unique opérateur, au lieu d'un opérateur CEP par SEG.
+ * Comme un opérateur CEP en temps d'évènement, la fonction retient les évènements jusqu'au passage du watermark afin de
+ * les traiter dans l'ordre de leurs dates ; ce tampon est ici commun à tous les schémas d'une ressource, et chaque
+ * évènement n'est reçu et désérialisé qu'une fois, puis transmis aux seuls schémas consommant sa classe.
+ * Chaque schéma conserve son propre automate ({@link NFA}), stocké dans l'état de la ressource sous le nom du SEG.
+ * Les évènements générés par un SEG sont émis sur sa sortie secondaire, afin de pouvoir être filtrés par le
+ * {@link GeneratorController} comme ceux d'un opérateur CEP dédié. La fonction n'émet rien sur sa sortie principale.
+ * Comme pour un opérateur CEP, les évènements arrivant après le watermark sont ignorés et les correspondances
+ * partielles expirées sont abandonnées.
+ */
+class MultiPatternFunction extends ProcessFunction<PrimitiveEvent, Event> {
+
+    private final TypeSerializer<PrimitiveEvent> eventSerializer; //Sérialiseur des évènements primitifs
+    private final List<SharedPattern> patterns; //Schémas évalués
+
+    private transient MapState<Long, List<PrimitiveEvent>> eventBuffer; //Evènements en attente du watermark, par date
+    private transient MapState<String, NFA<PrimitiveEvent>> nfaState; //Automates de la ressource, par nom de SEG
+    private transient Map<Class<?>, int[]> consumersByClass; //Indices des schémas consommant chaque classe d'évènement
+
+    /**
+     * Schéma d'un SEG évalué par la fonction
+     */
+    private static class SharedPattern implements Serializable {
+
+        private final String name; //Nom du SEG
+        private final NFACompiler.NFAFactory<PrimitiveEvent> nfaFactory; //Fabrique de l'automate du schéma
+        private final PatternSelectFunction<PrimitiveEvent, Event> selectFunction; //Traitement des correspondances
+        private final Set<Class<? extends PrimitiveEvent>> eventClasses; //Classes d'évènements consommées
+        private final OutputTag<Event> outputTag; //Sortie des évènements générés
+
+        private SharedPattern(String name, NFACompiler.NFAFactory<PrimitiveEvent> nfaFactory,
+                              PatternSelectFunction<PrimitiveEvent, Event> selectFunction,
+                              Set<Class<? extends PrimitiveEvent>> eventClasses, OutputTag<Event> outputTag) {
+            this.name = name;
+            this.nfaFactory = nfaFactory;
+            this.selectFunction = selectFunction;
+            this.eventClasses = new HashSet<>(eventClasses);
+            this.outputTag = outputTag;
+        }
+
+    }
+
+    /**
+     * Constructeur de la classe {@link MultiPatternFunction}
+     * @param eventSerializer - Le sérialiseur des évènements primitifs, utilisé par les automates et le tampon
+     */
+    MultiPatternFunction(TypeSerializer<PrimitiveEvent> eventSerializer) {
+        this.eventSerializer = eventSerializer;
+        this.patterns = new ArrayList<>();
+    }
+
+    /**
+     * Ajoute le schéma d'un SEG aux schémas évalués
+     * @param name - Le nom du SEG, unique parmi les schémas évalués
+     * @param pattern - Le schéma de détection du SEG
+     * @param selectFunction - Le traitement des correspondances du schéma
+     * @param eventClasses - Les classes d'évènements primitifs consommées par le schéma
+     * @param outputTag - La sortie secondaire des évènements générés
+     */
+    void addPattern(String name, Pattern<PrimitiveEvent, ?> pattern,
+                    PatternSelectFunction<PrimitiveEvent, Event> selectFunction,
+                    Set<Class<? extends PrimitiveEvent>> eventClasses, OutputTag<Event> outputTag) {
+        for(SharedPattern shared : patterns) {
+            if(shared.name.equals(name)) {
+                throw new IllegalArgumentException("A pattern named " + name + " is already evaluated");
+            }
+        }
+        patterns.add(new SharedPattern(name, NFACompiler.compileFactory(pattern, eventSerializer, false),
+                selectFunction, eventClasses, outputTag));
+    }
+
+    @Override
+    public void open(Configuration parameters) throws Exception {
+        eventBuffer = getRuntimeContext().getMapState(new MapStateDescriptor<>("sharedEventBuffer",
+                LongSerializer.INSTANCE, new ListSerializer<>(eventSerializer)));
+        nfaState = getRuntimeContext().getMapState(new MapStateDescriptor<>("sharedNFAs",
+                StringSerializer.INSTANCE, new NFA.NFASerializer<>(eventSerializer)));
+        consumersByClass = new HashMap<>();
+    }
+
+    @Override
+    public void processElement(PrimitiveEvent event, Context ctx, Collector<Event> out) throws Exception {
+        long timestamp = ctx.timestamp();
+        long watermark = ctx.timerService().currentWatermark();
+        if(timestamp > watermark) {
+            List<PrimitiveEvent> events = eventBuffer.get(timestamp);
+            if(events == null) {
+                events = new ArrayList<>();
+            }
+            events.add(event);
+            eventBuffer.put(timestamp, events);
+            ctx.timerService().registerEventTimeTimer(watermark + 1);
+        }
+    }
+
+    @Override
+    public void onTimer(long time, OnTimerContext ctx, Collector<Event> out) throws Exception {
+        long watermark = ctx.timerService().currentWatermark();
+        List<Long> timestamps = new ArrayList<>();
+        boolean pending = false;
+        for(Long timestamp : eventBuffer.keys()) {
+            if(timestamp <= watermark) {
+                timestamps.add(timestamp);
+            } else {
+                pending = true;
+            }
+        }
+        Collections.sort(timestamps);
+
+        //Chaque automate n'est lu et écrit qu'une fois par passage du watermark
+        NFA<PrimitiveEvent>[] nfas = loadNFAs();
+        for(Long timestamp : timestamps) {
+            for(PrimitiveEvent event : eventBuffer.get(timestamp)) {
+                for(int index : getConsumers(event.getClass())) {
+                    if(nfas[index] == null) {
+                        nfas[index] = patterns.get(index).nfaFactory.createNFA();
+                    }
+                    process(index, nfas[index], event, timestamp, ctx);
+                }
+            }
+            eventBuffer.remove(timestamp);
+        }
+        //Abandon des correspondances partielles expirées
+        for(int i = 0; i < nfas.length; i++) {
+            if(nfas[i] != null) {
+                process(i, nfas[i], null, watermark, ctx);
+            }
+        }
+
+        for(int i = 0; i < nfas.length; i++) {
+            String name = patterns.get(i).name;
+            if(nfas[i] == null || nfas[i].isEmpty()) {
+                nfaState.remove(name);
+            } else {
+                nfaState.put(name, nfas[i]);
+                pending = true;
+            }
+        }
+        if(pending) {
+            ctx.timerService().registerEventTimeTimer(watermark + 1);
+        }
+    }
+
+    /**
+     * Lit les automates de la ressource courante
+     * @return Les automates, dans l'ordre des schémas ; null pour les schémas sans correspondance partielle
+     * @throws Exception si l'état ne peut être lu
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private NFA<PrimitiveEvent>[] loadNFAs() throws Exception {
+        NFA<PrimitiveEvent>[] nfas = new NFA[patterns.size()];
+        for(int i = 0; i < nfas.length; i++) {
+            nfas[i] = nfaState.get(patterns.get(i).name);
+        }
+        return nfas;
+    }
+
+    /**
+     * Transmet un évènement à l'automate d'un schéma et émet les évènements générés par ses correspondances
+     * @param index - L'indice du schéma
+     * @param nfa - L'automate du schéma
+     * @param event - L'évènement, ou null pour seulement faire avancer le temps de l'automate
+     * @param timestamp - La date de l'évènement
+     * @param ctx - Le contexte de la fonction
+     * @throws Exception si le traitement d'une correspondance échoue
+     */
+    private void process(int index, NFA<PrimitiveEvent> nfa, PrimitiveEvent event, long timestamp, Context ctx)
+            throws Exception {
+        SharedPattern pattern = patterns.get(index);
+        //Les correspondances partielles expirées sont ignorées, comme par un opérateur CEP sans traitement d'expiration
+        Tuple2<Collection<Map<String, List<PrimitiveEvent>>>, ?> result = nfa.process(event, timestamp);
+        for(Map<String, List<PrimitiveEvent>> match : result.f0) {
+            Event generated = pattern.selectFunction.select(match);
+            if(generated != null) {
+                ctx.output(pattern.outputTag, generated);
+            }
+        }
+    }
+
+    /**
+     * Détermine, une fois par classe d'évènement, les schémas consommant les évènements de cette classe
+     * @param eventClass - La classe de l'évènement
+     * @return Les indices des schémas consommant cette classe
+     */
+    private int[] getConsumers(Class<?> eventClass) {
+        int[] consumers = consumersByClass.get(eventClass);
+        if(consumers == null) {
+            List<Integer> indexes = new ArrayList<>();
+            for(int i = 0; i < patterns.size(); i++) {
+                for(Class<? extends PrimitiveEvent> consumed : patterns.get(i).eventClasses) {
+                    if(consumed.isAssignableFrom(eventClass)) {
+                        indexes.add(i);
+                        break;
+                    }
+                }
+            }
+            consumers = new int[indexes.size()];
+            for(int i = 0; i < consumers.length; i++) {
+                consumers[i] = indexes.get(i);
+            }
+            consumersByClass.put(eventClass, consumers);
+        }
+        return consumers;
+    }
+
+}
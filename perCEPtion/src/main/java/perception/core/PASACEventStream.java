@@ -5,6 +5,7 @@ import org.apache.flink.streaming.api.datastream.DataStream;
 import perception.complex_event_generator.ComplexEventGenerator;
 import perception.events.Event;
 import perception.events.PrimitiveEvent;
+import perception.events.serialization.EventTypeInfo;
 import perception.services.PerceptionRunResource;
 
 public class PASACEventStream implements PerceptionRunResource {
@@ -26,10 +27,11 @@ public class PASACEventStream implements PerceptionRunResource {
             public Event map(PrimitiveEvent primitiveEvent) throws Exception {
                 return (Event)primitiveEvent;
             }
-        });
+        }).returns(EventTypeInfo.forEventClass(Event.class));
         this.stream = this.stream.union(ctx.getSacEventStream().getStream());
         for(ComplexEventGenerator ceg : ctx.getComplexEventGeneratorManager().getGenerators()) {
-            if(ceg.isHasToGenerateEvents()) {
+            //Les CEGs désactivés ne sont construits que s'ils peuvent être activés pendant l'exécution
+            if(ctx.getGeneratorController().isIncluded(ceg)) {
                 ceg.beforeRun(ctx);
             }
         }
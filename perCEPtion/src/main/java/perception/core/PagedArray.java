@@ -0,0 +1,103 @@
+package perception.core;
+
+import java.util.Arrays;
+
+/**
+ * Tableau immuable découpé en pages de taille fixe, dont les versions successives partagent leurs pages inchangées.
+ * Une nouvelle version est construite par un {@link Builder} qui ne copie que les pages modifiées : son coût est
+ * proportionnel au nombre de pages modifiées et au nombre de pages, et non au nombre d'éléments.
+ * Une version peut être lue par plusieurs threads sans synchronisation.
+ * @param <T> - Le type des éléments
+ * @author Chloé GUILBAUD, Léo PARIS, Kendall FOREST, Mathieu GUYOT
+ */
+final class PagedArray<T> {
+
+    private static final int PAGE_SHIFT = 8; //Décalage d'un indice donnant l'indice de sa page
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT; //Nombre d'éléments par page
+    private static final Object[][] NO_PAGES = new Object[0][];
+
+    private final Object[][] pages; //Pages du tableau, null pour une page ne contenant aucun élément
+
+    private PagedArray(Object[][] pages) {
+        this.pages = pages;
+    }
+
+    /**
+     * Crée un tableau vide
+     * @param <T> - Le type des éléments
+     * @return Le tableau créé
+     */
+    static <T> PagedArray<T> empty() {
+        return new PagedArray<>(NO_PAGES);
+    }
+
+    /**
+     * Accesseur d'un élément
+     * @param index - L'indice de l'élément
+     * @return L'élément, ou null si aucun élément n'a été affecté à cet indice
+     */
+    @SuppressWarnings("unchecked")
+    T get(int index) {
+        int page = index >>> PAGE_SHIFT;
+        if(index < 0 || page >= pages.length || pages[page] == null) {
+            return null;
+        }
+        return (T) pages[page][index & (PAGE_SIZE - 1)];
+    }
+
+    /**
+     * Crée un constructeur de la version suivante du tableau, initialement identique à celui-ci
+     * @return Le constructeur
+     */
+    Builder<T> toBuilder() {
+        return new Builder<>(pages);
+    }
+
+    /**
+     * Constructeur d'une nouvelle version d'un {@link PagedArray}. Une page n'est copiée que lors de sa première
+     * modification. Un constructeur n'est pas thread-safe.
+     * @param <T> - Le type des éléments
+     */
+    static final class Builder<T> {
+
+        private Object[][] pages; //Pages de la version construite
+        private boolean[] copied; //Indique, pour chaque page, si elle a déjà été copiée par ce constructeur
+
+        private Builder(Object[][] pages) {
+            this.pages = pages;
+            this.copied = null;
+        }
+
+        /**
+         * Modifie un élément de la version construite
+         * @param index - L'indice de l'élément, positif
+         * @param element - Le nouvel élément, ou null pour retirer l'élément
+         */
+        void set(int index, T element) {
+            if(index < 0) {
+                throw new IllegalArgumentException("index must not be negative");
+            }
+            int page = index >>> PAGE_SHIFT;
+            if(copied == null || page >= pages.length) {
+                int pageCount = Math.max(pages.length, page + 1);
+                pages = Arrays.copyOf(pages, pageCount);
+                copied = copied == null ? new boolean[pageCount] : Arrays.copyOf(copied, pageCount);
+            }
+            if(!copied[page]) {
+                pages[page] = pages[page] == null ? new Object[PAGE_SIZE] : pages[page].clone();
+                copied[page] = true;
+            }
+            pages[page][index & (PAGE_SIZE - 1)] = element;
+        }
+
+        /**
+         * Construit la nouvelle version du tableau. Le constructeur ne doit plus être utilisé ensuite.
+         * @return La nouvelle version
+         */
+        PagedArray<T> build() {
+            return new PagedArray<>(pages);
+        }
+
+    }
+
+}
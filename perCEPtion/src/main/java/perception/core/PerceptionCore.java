@@ -1,58 +1,292 @@
 package perception.core;
 
+import org.apache.flink.streaming.api.TimeCharacteristic;
+import org.apache.flink.streaming.api.environment.LocalStreamEnvironment;
 import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
 import perception.complex_event_generator.ComplexEventGenerator;
+import perception.events.serialization.EventCodecRegistry;
 import perception.primitive_events_generator.PrimitiveEventGenerator;
 import perception.simple_events_generator.SimpleEventGenerator;
 
 public class PerceptionCore {
 
+    /**
+     * Période par défaut de publication des modifications des ressources surveillées pendant l'exécution
+     */
+    public static final long DEFAULT_MS_PUBLISH_INTERVAL = 100;
+
+    /**
+     * Délai par défaut accordé au job pour traiter les évènements en cours lors de son arrêt
+     */
+    public static final long DEFAULT_MS_SHUTDOWN_TIMEOUT = 10000;
+
+    /**
+     * Délai par défaut accordé aux sources du job pour démarrer lors d'un redémarrage
+     */
+    public static final long DEFAULT_MS_STARTUP_TIMEOUT = 30000;
+
     private PerceptionRunContext ctx;
     private FlinkEnvRunner runner;
     public boolean isRunning;
+    private long msPublishInterval; //Période de publication des modifications des ressources, 0 si désactivée
+    private long msShutdownTimeout; //Délai accordé au job pour se terminer lors de l'arrêt
+    private long msStartupTimeout; //Délai accordé aux sources du job pour démarrer lors d'un redémarrage
+    private long runStartNanos; //Date de lancement de l'exécution en cours
+    private long lastStartupNanos; //Durée du dernier démarrage, -1 si inconnue
+    private long lastShutdownNanos; //Durée du dernier arrêt, -1 si aucun
 
     public PerceptionCore() {
         runner = null;
         isRunning = false;
         ctx = new PerceptionRunContext();
+        msPublishInterval = DEFAULT_MS_PUBLISH_INTERVAL;
+        msShutdownTimeout = DEFAULT_MS_SHUTDOWN_TIMEOUT;
+        msStartupTimeout = DEFAULT_MS_STARTUP_TIMEOUT;
+        lastStartupNanos = -1;
+        lastShutdownNanos = -1;
+    }
+
+    /**
+     * Modificateur de la période de publication automatique des modifications des ressources surveillées pendant
+     * l'exécution (voir {@link CloudResourcesAccess#startAutoPublish(long)}), prise en compte à la prochaine exécution
+     * @param msPublishInterval - La période de publication en millisecondes, 0 pour la désactiver (les modifications
+     *                          doivent alors être publiées via {@link CloudResourcesAccess#update(Runnable)} ou
+     *                          {@link CloudResourcesAccess#publishChanges()})
+     */
+    public void setMsPublishInterval(long msPublishInterval) {
+        if(msPublishInterval < 0) {
+            throw new IllegalArgumentException("msPublishInterval must not be negative");
+        }
+        this.msPublishInterval = msPublishInterval;
+    }
+
+    public long getMsPublishInterval() {
+        return msPublishInterval;
+    }
+
+    /**
+     * Modificateur du délai accordé au job, lors de l'arrêt, pour traiter les évènements en cours avant d'être
+     * interrompu (voir {@link #endRun()})
+     * @param msShutdownTimeout - Le délai en millisecondes
+     */
+    public void setMsShutdownTimeout(long msShutdownTimeout) {
+        if(msShutdownTimeout <= 0) {
+            throw new IllegalArgumentException("msShutdownTimeout must be strictly positive");
+        }
+        this.msShutdownTimeout = msShutdownTimeout;
+    }
+
+    public long getMsShutdownTimeout() {
+        return msShutdownTimeout;
+    }
+
+    /**
+     * Modificateur du délai accordé aux sources du nouveau job pour démarrer lors d'un redémarrage
+     * (voir {@link #restart()})
+     * @param msStartupTimeout - Le délai en millisecondes
+     */
+    public void setMsStartupTimeout(long msStartupTimeout) {
+        if(msStartupTimeout <= 0) {
+            throw new IllegalArgumentException("msStartupTimeout must be strictly positive");
+        }
+        this.msStartupTimeout = msStartupTimeout;
+    }
+
+    public long getMsStartupTimeout() {
+        return msStartupTimeout;
+    }
+
+    /**
+     * Accesseur de la durée du dernier démarrage, du lancement de l'exécution jusqu'au démarrage des sources du job,
+     * mesurée par {@link #awaitStarted(long)}
+     * @return La durée en nanosecondes, -1 si elle n'a pas été mesurée
+     */
+    public long getLastStartupNanos() {
+        return lastStartupNanos;
+    }
+
+    /**
+     * Accesseur de la durée du dernier arrêt, de la demande d'arrêt jusqu'à la libération de toutes les ressources
+     * @return La durée en nanosecondes, -1 si aucun arrêt n'a eu lieu
+     */
+    public long getLastShutdownNanos() {
+        return lastShutdownNanos;
     }
 
     public void run() {
+        runStartNanos = System.nanoTime();
+        lastStartupNanos = -1;
         if(!beforeRun()) {
+            endRunResources();
+            this.ctx.setEnv(null);
             return;
         }
+        if(msPublishInterval > 0) {
+            CloudResourcesAccess.getInstance().startAutoPublish(msPublishInterval);
+        }
         try {
             runner = new FlinkEnvRunner(ctx.getEnv());
             runner.start();
             isRunning = true;
         } catch (Exception e) {
+            CloudResourcesAccess.getInstance().stopAutoPublish();
+            endRunResources();
             e.printStackTrace();
         }
     }
 
+    /**
+     * Attend le démarrage de toutes les sous-tâches des sources du job lancé par {@link #run()} (PEG, multiplexeur
+     * et, si l'activation pendant l'exécution est autorisée, source du flux de contrôle) et mesure la durée du
+     * démarrage (voir {@link #getLastStartupNanos()})
+     * @param msTimeout - Le délai maximal d'attente en millisecondes
+     * @return <code>true</code> si les sources ont démarré, <code>false</code> si le délai est écoulé ou si aucune
+     * exécution n'est en cours
+     */
+    public boolean awaitStarted(long msTimeout) {
+        if(!isRunning) {
+            return false;
+        }
+        try {
+            if(!SourceStartup.await(msTimeout)) {
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        if(lastStartupNanos < 0) {
+            lastStartupNanos = System.nanoTime() - runStartNanos;
+        }
+        return true;
+    }
+
+    /**
+     * Arrête l'exécution en cours puis relance le système avec la configuration courante des Event Generators
+     * @return <code>true</code> si les sources du nouveau job ont démarré dans le délai de démarrage
+     * (voir {@link #setMsStartupTimeout(long)}), <code>false</code> sinon
+     */
+    public boolean restart() {
+        endRun();
+        run();
+        return awaitStarted(msStartupTimeout);
+    }
+
     private boolean beforeRun() {
         //Get a new env
         ctx.setEnv(StreamExecutionEnvironment.getExecutionEnvironment());
+        //Le dictionnaire des ressources est propre à la JVM : les noms sont transmis aux opérateurs distants
+        if(!(ctx.getEnv() instanceof LocalStreamEnvironment)) {
+            EventCodecRegistry.getInstance().setNameDictionaryEnabled(false);
+        }
+        //Les fenêtres des schémas de détection sont évaluées selon la date des évènements, fixée par les PEG
+        ctx.getEnv().setStreamTimeCharacteristic(TimeCharacteristic.EventTime);
         //Call before run of the others PerceptionRunResource components
+        SourceStartup.reset();
         boolean isPrepareOk = true;
-        isPrepareOk = this.ctx.getPrimitiveEventStream().beforeRun(this.ctx);
+        //Le flux de contrôle doit exister avant l'initialisation des SEG et CEG
+        isPrepareOk = this.ctx.getGeneratorController().beforeRun(this.ctx);
+        if(isPrepareOk) {
+            isPrepareOk = this.ctx.getPrimitiveEventStream().beforeRun(this.ctx);
+        }
         if(isPrepareOk) {
             isPrepareOk = this.ctx.getSacEventStream().beforeRun(this.ctx);
         }
         if(isPrepareOk) {
             isPrepareOk = this.ctx.getPasacEventStream().beforeRun(this.ctx);
         }
+        if(isPrepareOk) {
+            isPrepareOk = this.ctx.getSymptomExtractor().beforeRun(this.ctx);
+        }
+        if(isPrepareOk) {
+            //Les symptômes générés par les SEG et CEG sont transmis à la pile des symptômes
+            isPrepareOk = this.ctx.getSacEventStream().addSymptomSink();
+        }
         return isPrepareOk;
     }
 
-    public void endRun() {
-        if(isRunning) {
-            this.runner.stop();
-            this.isRunning = false;
-            this.runner = null;
-            this.ctx.setEnv(null);
-            this.ctx.getPrimitiveEventStream().endRun();
+    /**
+     * Arrête l'exécution en cours. Les sources du job sont arrêtées, puis le job se termine de lui-même une fois les
+     * évènements en cours traités (le watermark final évalue les fenêtres et schémas en attente). Si le job ne s'est
+     * pas terminé dans le délai d'arrêt (voir {@link #setMsShutdownTimeout(long)}), il est interrompu.
+     * Toutes les {@link perception.services.PerceptionRunResource} sont ensuite libérées.
+     * @return <code>true</code> si le job s'est terminé après avoir traité les évènements en cours, <code>false</code>
+     * s'il a été interrompu ou si aucune exécution n'était en cours
+     */
+    public boolean endRun() {
+        if(!isRunning) {
+            return false;
         }
+        long start = System.nanoTime();
+        this.ctx.getPrimitiveEventStream().cancelSources();
+        this.ctx.getGeneratorController().cancelControlSource();
+        boolean drained = false;
+        try {
+            drained = this.runner.awaitTermination(msShutdownTimeout);
+            if(!drained) {
+                if(PerceptionRunContext.getPerceptionLogger() != null) {
+                    PerceptionRunContext.getPerceptionLogger().logMessage("Warning: perCEPtion job did not terminate"
+                            + " within " + msShutdownTimeout + " ms, interrupting it");
+                }
+                this.runner.interrupt();
+                this.runner.awaitTermination(msShutdownTimeout);
+            }
+        } catch (InterruptedException e) {
+            this.runner.interrupt();
+            Thread.currentThread().interrupt();
+        }
+        CloudResourcesAccess.getInstance().stopAutoPublish();
+        endRunResources();
+        this.isRunning = false;
+        this.runner = null;
+        this.ctx.setEnv(null);
+        lastShutdownNanos = System.nanoTime() - start;
+        return drained;
+    }
+
+    /**
+     * Libère les {@link perception.services.PerceptionRunResource} de l'exécution, dans l'ordre inverse de leur
+     * initialisation
+     */
+    private void endRunResources() {
+        this.ctx.getSymptomExtractor().endRun();
+        this.ctx.getPasacEventStream().endRun();
+        this.ctx.getSacEventStream().endRun();
+        for(ComplexEventGenerator ceg : this.ctx.getComplexEventGeneratorManager().getGenerators()) {
+            ceg.endRun();
+        }
+        for(SimpleEventGenerator seg : this.ctx.getSimpleEventGeneratorManager().getGenerators()) {
+            seg.endRun();
+        }
+        for(PrimitiveEventGenerator peg : this.ctx.getPrimitiveEventGeneratorManager().getGenerators()) {
+            peg.endRun();
+        }
+        this.ctx.getPrimitiveEventStream().endRun();
+        this.ctx.getGeneratorController().endRun();
+    }
+
+    /**
+     * Accesseur du {@link PrimitiveEventStream}, permettant notamment de configurer l'hébergement des PEG
+     * @return Le PrimitiveEventStream
+     */
+    public PrimitiveEventStream getPrimitiveEventStream() {
+        return ctx.getPrimitiveEventStream();
+    }
+
+    /**
+     * Accesseur du {@link SymptomExtractor}, permettant notamment de l'activer
+     * @return L'extracteur de symptômes
+     */
+    public SymptomExtractor getSymptomExtractor() {
+        return ctx.getSymptomExtractor();
+    }
+
+    /**
+     * Accesseur du {@link GeneratorController}, permettant de reconfigurer les Event Generators pendant l'exécution
+     * @return Le contrôleur des Event Generators
+     */
+    public GeneratorController getGeneratorController() {
+        return ctx.getGeneratorController();
     }
 
     /**
@@ -27,6 +27,8 @@ public class PerceptionRunContext {
     private PrimitiveEventStream primitiveEventStream; //Primitive event stream
     private SACEventStream sacEventStream; //simple and complex event stream
     private PASACEventStream pasacEventStream;
+    private SymptomExtractor symptomExtractor; //Extraction des symptômes depuis les évènements simples et complexes
+    private GeneratorController generatorController; //Reconfiguration des Event Generators pendant l'exécution
 
     //Symptom queue
     private static SymptomQueue symptomQueue;
@@ -45,6 +47,8 @@ public class PerceptionRunContext {
         this.primitiveEventStream = new PrimitiveEventStream();
         this.pasacEventStream = new PASACEventStream();
         this.sacEventStream = new SACEventStream();
+        this.symptomExtractor = new SymptomExtractor();
+        this.generatorController = new GeneratorController(this);
 
         this.perceptionLogger = new SysoutPerceptionLogger();
 
@@ -58,6 +62,17 @@ public class PerceptionRunContext {
         return symptomQueue;
     }
 
+    /**
+     * Modificateur de la pile des symptômes, permettant notamment d'en choisir la capacité et la politique d'éviction
+     * @param symptomQueue - La nouvelle pile des symptômes
+     */
+    public static void setSymptomQueue(SymptomQueue symptomQueue) {
+        if(symptomQueue == null) {
+            throw new IllegalArgumentException("symptomQueue must not be null");
+        }
+        PerceptionRunContext.symptomQueue = symptomQueue;
+    }
+
     /**
      * Modificateur du {@link StreamExecutionEnvironment}
      * @param env - Le nouveau StreamExecutionEnvironment
@@ -134,4 +149,20 @@ public class PerceptionRunContext {
     public PASACEventStream getPasacEventStream() {
         return pasacEventStream;
     }
+
+    /**
+     * Accesseur du {@link SymptomExtractor}
+     * @return L'extracteur de symptômes
+     */
+    public SymptomExtractor getSymptomExtractor() {
+        return symptomExtractor;
+    }
+
+    /**
+     * Accesseur du {@link GeneratorController}
+     * @return Le contrôleur des Event Generators
+     */
+    public GeneratorController getGeneratorController() {
+        return generatorController;
+    }
 }
@@ -0,0 +1,74 @@
+package perception.core;
+
+import org.apache.flink.streaming.api.functions.ProcessFunction;
+import org.apache.flink.util.Collector;
+import org.apache.flink.util.OutputTag;
+import perception.events.PrimitiveEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Opérateur répartissant les évènements primitifs entre des sorties secondaires, une par ensemble de classes
+ * d'évènements consommé par les SEG
+ * (voir {@link perception.simple_events_generator.SimpleEventGenerator#getConsumedEventClasses()}).
+ * Un évènement est transmis à chaque sortie dont l'ensemble contient sa classe ou l'une de ses super-classes, et à
+ * aucune autre : chaque opérateur CEP ne reçoit ainsi que les évènements qu'il peut reconnaître.
+ * L'opérateur n'émet rien sur sa sortie principale.
+ */
+class PrimitiveEventRouter extends ProcessFunction<PrimitiveEvent, PrimitiveEvent> {
+
+    private final List<OutputTag<PrimitiveEvent>> tags; //Sorties secondaires
+    private final List<Set<Class<? extends PrimitiveEvent>>> eventClasses; //Classes consommées, par sortie
+    private transient Map<Class<?>, List<OutputTag<PrimitiveEvent>>> tagsByClass; //Sorties par classe d'évènement
+
+    /**
+     * Constructeur de la classe {@link PrimitiveEventRouter}
+     * @param tags - Les sorties secondaires
+     * @param eventClasses - Les classes d'évènements transmises à chaque sortie, dans l'ordre des sorties
+     */
+    PrimitiveEventRouter(List<OutputTag<PrimitiveEvent>> tags,
+                         List<Set<Class<? extends PrimitiveEvent>>> eventClasses) {
+        if(tags.size() != eventClasses.size()) {
+            throw new IllegalArgumentException("Each output tag must have its event classes");
+        }
+        this.tags = new ArrayList<>(tags);
+        this.eventClasses = new ArrayList<>(eventClasses);
+    }
+
+    @Override
+    public void processElement(PrimitiveEvent event, Context ctx, Collector<PrimitiveEvent> out) throws Exception {
+        for(OutputTag<PrimitiveEvent> tag : getTags(event.getClass())) {
+            ctx.output(tag, event);
+        }
+    }
+
+    /**
+     * Détermine, une fois par classe d'évènement, les sorties auxquelles les évènements de cette classe sont transmis
+     * @param eventClass - La classe de l'évènement
+     * @return Les sorties recevant les évènements de cette classe
+     */
+    private List<OutputTag<PrimitiveEvent>> getTags(Class<?> eventClass) {
+        if(tagsByClass == null) {
+            tagsByClass = new HashMap<>();
+        }
+        List<OutputTag<PrimitiveEvent>> classTags = tagsByClass.get(eventClass);
+        if(classTags == null) {
+            classTags = new ArrayList<>();
+            for(int i = 0; i < tags.size(); i++) {
+                for(Class<? extends PrimitiveEvent> consumed : eventClasses.get(i)) {
+                    if(consumed.isAssignableFrom(eventClass)) {
+                        classTags.add(tags.get(i));
+                        break;
+                    }
+                }
+            }
+            tagsByClass.put(eventClass, classTags);
+        }
+        return classTags;
+    }
+
+}
@@ -3,53 +3,229 @@ package perception.core;
 import org.apache.flink.api.java.functions.KeySelector;
 import org.apache.flink.streaming.api.datastream.DataStream;
 import org.apache.flink.streaming.api.datastream.KeyedStream;
+import org.apache.flink.streaming.api.datastream.SingleOutputStreamOperator;
+import org.apache.flink.streaming.api.functions.source.SourceFunction;
+import org.apache.flink.util.OutputTag;
 import perception.events.PrimitiveEvent;
+import perception.events.serialization.EventTypeInfo;
+import perception.primitive_events_generator.PEGMultiplexer;
 import perception.primitive_events_generator.PrimitiveEventGenerator;
 import perception.primitive_events_generator.implementations.PEG_Blank;
 import perception.services.PerceptionRunResource;
+import perception.simple_events_generator.SimpleEventGenerator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class PrimitiveEventStream implements PerceptionRunResource {
 
     private DataStream<PrimitiveEvent> stream;
-    private KeyedStream<PrimitiveEvent, String> keyedStream;
+    private KeyedStream<PrimitiveEvent, Integer> keyedStream; //Flux des PE partitionné par identifiant de ressource
+    //Flux partitionnés ne contenant que les PE des classes consommées par les SEG, par ensemble de classes
+    private final Map<Set<Class<? extends PrimitiveEvent>>, KeyedStream<PrimitiveEvent, Integer>> routedStreams;
+    private boolean multiplexed; //Indique si les PEG sont hébergés par une source unique
+    private int multiplexerParallelism; //Nombre de sous-tâches exécutant la source unique
+    private long msMultiplexerTickDuration; //Précision de planification des PEG dans la source unique
+    private boolean fusedEvents; //Indique si la source unique fusionne les évènements d'une même ressource
+    private final List<SourceFunction<?>> sources; //Sources de l'exécution en cours, arrêtées par cancelSources()
 
     public PrimitiveEventStream() {
         stream = null;
         keyedStream = null;
+        routedStreams = new HashMap<>();
+        sources = new ArrayList<>();
+        multiplexed = false;
+        multiplexerParallelism = 1;
+        msMultiplexerTickDuration = 10;
+        fusedEvents = false;
+    }
+
+    /**
+     * Active ou désactive l'hébergement de tous les PEG par une source Flink unique ({@link PEGMultiplexer}),
+     * au lieu d'une source par PEG. Prise en compte au prochain démarrage du {@link PerceptionCore}.
+     * @param multiplexed - <code>true</code> pour utiliser une source unique, <code>false</code> sinon
+     * @param parallelism - Le nombre de sous-tâches exécutant la source unique
+     * @param msTickDuration - La précision (en millisecondes) de planification des PEG
+     */
+    public void setMultiplexed(boolean multiplexed, int parallelism, long msTickDuration) {
+        if(parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        if(msTickDuration <= 0) {
+            throw new IllegalArgumentException("msTickDuration must be strictly positive");
+        }
+        this.multiplexed = multiplexed;
+        this.multiplexerParallelism = parallelism;
+        this.msMultiplexerTickDuration = msTickDuration;
+    }
+
+    public boolean isMultiplexed() {
+        return multiplexed;
     }
 
-    public KeyedStream<PrimitiveEvent, String> getKeyedStream() {
+    /**
+     * Active ou désactive la fusion, par la source unique, des évènements générés pour une même ressource lors d'une
+     * même exécution en un {@link perception.events.FusedPrimitiveEvent}. N'a d'effet que si les PEG sont hébergés par
+     * une source unique (voir {@link #setMultiplexed(boolean, int, long)}).
+     * @param fusedEvents - <code>true</code> pour fusionner les évènements, <code>false</code> sinon
+     */
+    public void setFusedEvents(boolean fusedEvents) {
+        this.fusedEvents = fusedEvents;
+    }
+
+    public boolean isFusedEvents() {
+        return fusedEvents;
+    }
+
+    /**
+     * Accesseur du flux des évènements primitifs partitionné par ressource. La clé est l'identifiant de la ressource
+     * (voir {@link graph.CloudResource#getId()}) plutôt que son nom, moins coûteux à hacher et à stocker.
+     * @return Le flux des évènements primitifs partitionné par identifiant de ressource
+     */
+    public KeyedStream<PrimitiveEvent, Integer> getKeyedStream() {
         return keyedStream;
     }
 
+    /**
+     * Accesseur du flux partitionné par ressource ne contenant que les évènements primitifs des classes données
+     * (ou de leurs sous-classes). Ces flux sont construits au démarrage à partir des classes consommées par les SEG
+     * (voir {@link SimpleEventGenerator#getConsumedEventClasses()}) : le flux primitif est réparti une seule fois par
+     * type d'évènement, avant le partitionnement, plutôt que filtré par chaque opérateur CEP.
+     * @param eventClasses - Les classes d'évènements consommées
+     * @return Le flux ne contenant que les évènements de ces classes, ou le flux complet si ces classes n'ont été
+     * déclarées par aucun SEG au démarrage ou contiennent {@link PrimitiveEvent}
+     */
+    public KeyedStream<PrimitiveEvent, Integer> getKeyedStream(
+            Set<Class<? extends PrimitiveEvent>> eventClasses) {
+        KeyedStream<PrimitiveEvent, Integer> routed = routedStreams.get(eventClasses);
+        return routed != null ? routed : keyedStream;
+    }
+
     @Override
     public boolean beforeRun(PerceptionRunContext ctx) {
+        if(multiplexed) {
+            List<PrimitiveEventGenerator> generators = new ArrayList<>();
+            //Les PEG désactivés ne sont hébergés que s'ils peuvent être activés pendant l'exécution
+            for(PrimitiveEventGenerator peg : ctx.getPrimitiveEventGeneratorManager().getGenerators()) {
+                if(!ctx.getGeneratorController().isIncluded(peg)) {
+                    continue;
+                }
+                peg.beforeRun(ctx);
+                generators.add(peg);
+            }
+            PEGMultiplexer multiplexer = new PEGMultiplexer(generators, msMultiplexerTickDuration);
+            multiplexer.setFuseEvents(fusedEvents);
+            sources.add(multiplexer);
+            stream = ctx.getEnv().addSource(multiplexer, EventTypeInfo.forEventClass(PrimitiveEvent.class))
+                    .setParallelism(multiplexerParallelism);
+            SourceStartup.expect(multiplexerParallelism);
+            keyStreams(ctx);
+            return true;
+        }
         //Init the primitive events stream with a blank primitive event generator that generate nothing.
-        stream = ctx.getEnv().addSource(new PEG_Blank("BLANK"));
+        PEG_Blank blank = new PEG_Blank("BLANK");
+        sources.add(blank);
+        stream = ctx.getEnv().addSource(blank, EventTypeInfo.forEventClass(PrimitiveEvent.class))
+                .setParallelism(1);
+        SourceStartup.expect(1);
 
+        //Les PEG désactivés ne sont démarrés que s'ils peuvent être activés pendant l'exécution : ils sont alors en
+        //attente, sans consommer de CPU, jusqu'à leur activation
         for(PrimitiveEventGenerator peg : ctx.getPrimitiveEventGeneratorManager().getGenerators()) {
-            if(peg.isHasToGenerateEvents()) {
-                peg.beforeRun(ctx);
-                DataStream<PrimitiveEvent> tmpStream = ctx.getEnv().addSource(peg);
-                stream = stream.union(tmpStream);
+            if(!ctx.getGeneratorController().isIncluded(peg)) {
+                continue;
             }
+            peg.beforeRun(ctx);
+            sources.add(peg);
+            DataStream<PrimitiveEvent> tmpStream = ctx.getEnv()
+                    .addSource(peg, EventTypeInfo.forEventClass(PrimitiveEvent.class))
+                    .setParallelism(peg.getParallelism());
+            SourceStartup.expect(peg.getParallelism());
+            stream = stream.union(tmpStream);
         }
-        keyStream();
+        keyStreams(ctx);
         return true;
     }
 
-    private void keyStream() {
-        keyedStream = stream.keyBy(new KeySelector<PrimitiveEvent, String>() {
+    /**
+     * Partitionne le flux des évènements primitifs par ressource puis, si des SEG ne consomment que certaines
+     * classes d'évènements, le répartit entre une sortie secondaire par ensemble de classes consommé
+     * (voir {@link PrimitiveEventRouter}), chacune partitionnée à son tour
+     * @param ctx - Le contexte d'exécution
+     */
+    private void keyStreams(PerceptionRunContext ctx) {
+        keyedStream = keyByResource(stream);
+        routedStreams.clear();
+        List<Set<Class<? extends PrimitiveEvent>>> consumedClasses = new ArrayList<>();
+        //Un opérateur partagé par les SEG (voir SACEventStream) consomme l'union des classes consommées par les SEG
+        Set<Class<? extends PrimitiveEvent>> sharedClasses = new HashSet<>();
+        for(SimpleEventGenerator seg : ctx.getSimpleEventGeneratorManager().getGenerators()) {
+            if(!ctx.getGeneratorController().isIncluded(seg)) {
+                continue;
+            }
+            Set<Class<? extends PrimitiveEvent>> classes = new HashSet<>(seg.getConsumedEventClasses());
+            if(ctx.getSacEventStream().isEvaluatedBySharedOperator(seg, ctx)) {
+                sharedClasses.addAll(classes);
+            } else if(!classes.contains(PrimitiveEvent.class) && !consumedClasses.contains(classes)) {
+                consumedClasses.add(classes);
+            }
+        }
+        if(!sharedClasses.isEmpty() && !sharedClasses.contains(PrimitiveEvent.class)) {
+            consumedClasses.add(sharedClasses);
+        }
+        if(consumedClasses.isEmpty()) {
+            return;
+        }
+        //Le SEG_Blank du SACEventStream ne consomme aucun évènement
+        if(!consumedClasses.contains(Collections.<Class<? extends PrimitiveEvent>>emptySet())) {
+            consumedClasses.add(Collections.emptySet());
+        }
+        List<OutputTag<PrimitiveEvent>> tags = new ArrayList<>();
+        for(int i = 0; i < consumedClasses.size(); i++) {
+            tags.add(new OutputTag<>("PE_" + i, EventTypeInfo.forEventClass(PrimitiveEvent.class)));
+        }
+        SingleOutputStreamOperator<PrimitiveEvent> router = stream
+                .process(new PrimitiveEventRouter(tags, consumedClasses),
+                        EventTypeInfo.forEventClass(PrimitiveEvent.class))
+                .name("PE router");
+        for(int i = 0; i < consumedClasses.size(); i++) {
+            routedStreams.put(consumedClasses.get(i), keyByResource(router.getSideOutput(tags.get(i))));
+        }
+    }
+
+    static KeyedStream<PrimitiveEvent, Integer> keyByResource(DataStream<PrimitiveEvent> stream) {
+        return stream.keyBy(new KeySelector<PrimitiveEvent, Integer>() {
             @Override
-            public String getKey(PrimitiveEvent primitiveEvent) throws Exception {
-                return primitiveEvent.getCloudResourceName();
+            public Integer getKey(PrimitiveEvent primitiveEvent) throws Exception {
+                int id = primitiveEvent.getCloudResourceId();
+                //Les ressources jamais surveillées, sans identifiant, sont distinguées par une clé négative
+                return id != CloudResourcesAccess.UNKNOWN_RESOURCE_ID ? id
+                        : primitiveEvent.getCloudResourceName().hashCode() | Integer.MIN_VALUE;
             }
         });
     }
 
+    /**
+     * Arrête les sources de l'exécution en cours : l'arrêt est transmis à leurs copies exécutées par Flink, qui se
+     * terminent après leur exécution en cours
+     */
+    void cancelSources() {
+        for(SourceFunction<?> source : sources) {
+            source.cancel();
+        }
+    }
+
     @Override
     public void endRun() {
+        this.sources.clear();
         this.stream = null;
+        this.keyedStream = null;
+        this.routedStreams.clear();
     }
 
 }
@@ -1,21 +1,116 @@
 package perception.core;
 
+import org.apache.flink.api.common.functions.FilterFunction;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.cep.CEP;
 import org.apache.flink.cep.PatternStream;
 import org.apache.flink.cep.pattern.Pattern;
 import org.apache.flink.streaming.api.datastream.DataStream;
+import org.apache.flink.streaming.api.datastream.SingleOutputStreamOperator;
+import org.apache.flink.util.OutputTag;
 import perception.events.Event;
+import perception.events.EventType;
 import perception.events.PrimitiveEvent;
+import perception.events.serialization.EventTypeInfo;
 import perception.services.PerceptionRunResource;
 import perception.simple_events_generator.SimpleEventGenerator;
 import perception.simple_events_generator.implementations.SEG_Blank;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 public class SACEventStream implements PerceptionRunResource {
 
+    /**
+     * Nom du puits des symptômes, permettant d'en consulter les statistiques
+     * (voir {@link SymptomSinkStatistics#forSink(String)})
+     */
+    public static final String SYMPTOM_SINK_NAME = "SYMPTOM_SINK";
+
     private DataStream<Event> stream;
+    private int symptomSinkParallelism; //Nombre d'instances parallèles du puits des symptômes
+    private int symptomBatchSize; //Taille des lots de symptômes transmis à la pile des symptômes
+    private long msMaxSymptomBatchDelay; //Délai maximal avant la transmission d'un lot incomplet
+    private boolean sharedPatternOperator; //Indique si les schémas des SEG sont évalués par un opérateur unique
 
     public SACEventStream() {
        this.stream = null;
+       this.symptomSinkParallelism = 1;
+       this.symptomBatchSize = SymptomSink.DEFAULT_BATCH_SIZE;
+       this.msMaxSymptomBatchDelay = SymptomSink.DEFAULT_MS_MAX_BATCH_DELAY;
+       this.sharedPatternOperator = false;
+    }
+
+    /**
+     * Active ou désactive l'évaluation des schémas de tous les SEG par un opérateur unique
+     * ({@link MultiPatternFunction}), au lieu d'un opérateur CEP par SEG. Prise en compte au prochain démarrage du
+     * {@link PerceptionCore}.
+     * Seuls les SEG activés au démarrage sont évalués par l'opérateur unique. Si l'activation pendant l'exécution est
+     * autorisée (voir {@link GeneratorController#setLiveToggling(boolean)}), chaque SEG désactivé au démarrage dispose
+     * de son propre opérateur, dont l'entrée est filtrée ; un SEG de l'opérateur unique désactivé pendant
+     * l'exécution continue d'être évalué, seuls les évènements qu'il génère étant retenus.
+     * @param sharedPatternOperator - <code>true</code> pour utiliser un opérateur unique, <code>false</code> sinon
+     */
+    public void setSharedPatternOperator(boolean sharedPatternOperator) {
+        this.sharedPatternOperator = sharedPatternOperator;
+    }
+
+    public boolean isSharedPatternOperator() {
+        return sharedPatternOperator;
+    }
+
+    /**
+     * Indique si le schéma d'un SEG est évalué, lors de l'exécution en cours, par l'opérateur unique
+     * @param seg - Le SEG
+     * @param ctx - Le contexte d'exécution
+     * @return <code>true</code> si le schéma est évalué par l'opérateur unique, <code>false</code> si le SEG dispose
+     * de son propre opérateur ou n'est pas exécuté
+     */
+    public boolean isEvaluatedBySharedOperator(SimpleEventGenerator seg, PerceptionRunContext ctx) {
+        return sharedPatternOperator && ctx.getGeneratorController().isEnabledAtStart(seg);
+    }
+
+    /**
+     * Modificateur de la configuration du puits des symptômes, prise en compte à la prochaine exécution
+     * @param parallelism - Le nombre d'instances parallèles du puits
+     * @param batchSize - Le nombre de symptômes au-delà duquel un lot est transmis à la pile des symptômes
+     * @param msMaxBatchDelay - Le délai maximal avant la transmission d'un lot incomplet, en millisecondes
+     */
+    public void setSymptomSink(int parallelism, int batchSize, long msMaxBatchDelay) {
+        if(parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        if(batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1");
+        }
+        if(msMaxBatchDelay < 1) {
+            throw new IllegalArgumentException("msMaxBatchDelay must be at least 1");
+        }
+        this.symptomSinkParallelism = parallelism;
+        this.symptomBatchSize = batchSize;
+        this.msMaxSymptomBatchDelay = msMaxBatchDelay;
+    }
+
+    public int getSymptomSinkParallelism() {
+        return symptomSinkParallelism;
+    }
+
+    public int getSymptomBatchSize() {
+        return symptomBatchSize;
+    }
+
+    public long getMsMaxSymptomBatchDelay() {
+        return msMaxSymptomBatchDelay;
+    }
+
+    /**
+     * Accesseur des statistiques du puits des symptômes
+     * @return Les statistiques du puits des symptômes
+     */
+    public SymptomSinkStatistics getSymptomSinkStatistics() {
+        return SymptomSinkStatistics.forSink(SYMPTOM_SINK_NAME);
     }
 
     public void mergeStream(DataStream<Event> dataStream) {
@@ -31,13 +126,75 @@ public class SACEventStream implements PerceptionRunResource {
         //Add blank event
         SEG_Blank seg_blank = new SEG_Blank("BLANK");
         Pattern<PrimitiveEvent, ?> pattern = seg_blank.getPattern();
-        PatternStream<PrimitiveEvent> pStream = CEP.pattern(ctx.getPrimitiveEventStream().getKeyedStream(), pattern);
-        stream = pStream.select(seg_blank.getPatternSelectFunction());
+        PatternStream<PrimitiveEvent> pStream = CEP.pattern(
+                ctx.getPrimitiveEventStream().getKeyedStream(seg_blank.getConsumedEventClasses()), pattern);
+        stream = pStream.select(seg_blank.getPatternSelectFunction(), EventTypeInfo.forEventClass(Event.class));
         for(SimpleEventGenerator seg : ctx.getSimpleEventGeneratorManager().getGenerators()) {
-            if(seg.isHasToGenerateEvents()) {
+            //Les SEGs désactivés ne sont construits que s'ils peuvent être activés pendant l'exécution
+            if(ctx.getGeneratorController().isIncluded(seg)) {
                 seg.beforeRun(ctx);
             }
         }
+        if(sharedPatternOperator) {
+            addSharedPatternOperator(ctx);
+        }
+        return true;
+    }
+
+    /**
+     * Ajoute au flux l'opérateur évaluant les schémas des SEG activés au démarrage. Les évènements générés par chaque
+     * SEG sont émis sur une sortie secondaire, filtrée par le {@link GeneratorController} puis fusionnée au flux
+     * courant.
+     * @param ctx - Le contexte d'exécution
+     */
+    private void addSharedPatternOperator(PerceptionRunContext ctx) {
+        List<SimpleEventGenerator> segs = new ArrayList<>();
+        for(SimpleEventGenerator seg : ctx.getSimpleEventGeneratorManager().getGenerators()) {
+            if(isEvaluatedBySharedOperator(seg, ctx)) {
+                segs.add(seg);
+            }
+        }
+        if(segs.isEmpty()) {
+            return;
+        }
+        TypeSerializer<PrimitiveEvent> eventSerializer = EventTypeInfo.forEventClass(PrimitiveEvent.class)
+                .createSerializer(ctx.getEnv().getConfig());
+        MultiPatternFunction function = new MultiPatternFunction(eventSerializer);
+        Set<Class<? extends PrimitiveEvent>> consumedClasses = new HashSet<>();
+        List<OutputTag<Event>> tags = new ArrayList<>();
+        for(SimpleEventGenerator seg : segs) {
+            OutputTag<Event> tag = new OutputTag<>("SEG_" + tags.size(), EventTypeInfo.forEventClass(Event.class));
+            function.addPattern(seg.getName(), seg.getPattern(), seg.getRunSelectFunction(),
+                    seg.getConsumedEventClasses(), tag);
+            consumedClasses.addAll(seg.getConsumedEventClasses());
+            tags.add(tag);
+        }
+        SingleOutputStreamOperator<Event> patterns = ctx.getPrimitiveEventStream().getKeyedStream(consumedClasses)
+                .process(function, EventTypeInfo.forEventClass(Event.class))
+                .name("SEG patterns");
+        for(int i = 0; i < segs.size(); i++) {
+            //L'entrée étant commune, seule la sortie peut être retenue lorsque le générateur est désactivé
+            mergeStream(ctx.getGeneratorController().gate(patterns.getSideOutput(tags.get(i)), segs.get(i)));
+        }
+    }
+
+    /**
+     * Ajoute au flux le puits transmettant les symptômes à la pile des symptômes.
+     * Doit être appelé une fois tous les SEG et CEG initialisés, leurs flux étant fusionnés au flux courant.
+     * @return <code>true</code> si le puits a été ajouté
+     */
+    public boolean addSymptomSink() {
+        stream.filter(new FilterFunction<Event>() {
+                    @Override
+                    public boolean filter(Event event) throws Exception {
+                        return event.getEventType() == EventType.SYMPTOM;
+                    }
+                })
+                .name("Symptoms")
+                .setParallelism(symptomSinkParallelism)
+                .addSink(new SymptomSink(SYMPTOM_SINK_NAME, symptomBatchSize, msMaxSymptomBatchDelay))
+                .name(SYMPTOM_SINK_NAME)
+                .setParallelism(symptomSinkParallelism);
         return true;
     }
 
@@ -0,0 +1,75 @@
+package perception.core;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Suivi du démarrage des sources du job de l'exécution en cours. Les ressources qui intègrent une source au job
+ * déclarent le nombre de sous-tâches qui l'exécutent, puis chaque copie de la source exécutée par Flink signale son
+ * démarrage (voir {@link #started()}). Le {@link PerceptionCore} considère le job démarré lorsque toutes les
+ * sous-tâches des sources déclarées ont démarré (voir {@link PerceptionCore#awaitStarted(long)}).
+ * @author Chloé GUILBAUD, Léo PARIS, Kendall FOREST, Mathieu GUYOT
+ */
+public final class SourceStartup {
+
+    private static final Object lock = new Object(); //Protège les compteurs, notifié à chaque démarrage
+    private static int expectedSubtasks; //Nombre de sous-tâches des sources intégrées au job de l'exécution en cours
+    private static int startedSubtasks; //Nombre de sous-tâches ayant démarré depuis le début de l'exécution
+
+    private SourceStartup() {
+    }
+
+    /**
+     * Oublie les sources de l'exécution précédente, avant la construction d'un nouveau job
+     */
+    static void reset() {
+        synchronized(lock) {
+            expectedSubtasks = 0;
+            startedSubtasks = 0;
+        }
+    }
+
+    /**
+     * Déclare une source intégrée au job de l'exécution en cours
+     * @param subtaskCount - Le nombre de sous-tâches exécutant la source
+     */
+    static void expect(int subtaskCount) {
+        synchronized(lock) {
+            expectedSubtasks += subtaskCount;
+        }
+    }
+
+    /**
+     * Signale le démarrage d'une sous-tâche d'une source du job. Doit être appelée par chaque source au début de son
+     * exécution par Flink.
+     */
+    public static void started() {
+        synchronized(lock) {
+            startedSubtasks++;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Attend le démarrage de toutes les sous-tâches des sources déclarées
+     * @param msTimeout - Le délai maximal d'attente en millisecondes
+     * @return <code>true</code> si les sources ont démarré, <code>false</code> si le délai est écoulé ou si aucune
+     * source n'a été déclarée
+     * @throws InterruptedException si le thread appelant est interrompu pendant l'attente
+     */
+    static boolean await(long msTimeout) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(msTimeout);
+        synchronized(lock) {
+            long remaining = msTimeout;
+            while(!isStarted() && remaining > 0) {
+                lock.wait(remaining);
+                remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            }
+            return isStarted();
+        }
+    }
+
+    private static boolean isStarted() {
+        return expectedSubtasks > 0 && startedSubtasks >= expectedSubtasks;
+    }
+
+}
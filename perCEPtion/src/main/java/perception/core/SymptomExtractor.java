@@ -0,0 +1,224 @@
+package perception.core;
+
+import graph.CloudResource;
+import graph.CloudResourceType;
+import org.apache.flink.api.common.functions.FilterFunction;
+import org.apache.flink.streaming.api.datastream.DataStream;
+import org.apache.flink.streaming.api.functions.windowing.ProcessAllWindowFunction;
+import org.apache.flink.streaming.api.windowing.assigners.TumblingEventTimeWindows;
+import org.apache.flink.streaming.api.windowing.time.Time;
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
+import org.apache.flink.util.Collector;
+import perception.events.ComplexEvent;
+import perception.events.Event;
+import perception.events.EventType;
+import perception.events.RankedSymptom;
+import perception.events.SimpleEvent;
+import perception.events.serialization.EventTypeInfo;
+import perception.services.PerceptionRunResource;
+import utils.Triplet;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Extracteur de symptômes : troisième étape du processus de perCEPtion.
+ * L'extracteur observe le flux des évènements simples et complexes et en extrait, à chaque fenêtre de temps (selon
+ * la date des évènements), les K ressources les plus dégradées. Chacune est classée selon la somme du score de
+ * l'évènement le plus grave qui la concerne pendant la fenêtre et de son score total dans le graph de ressources
+ * ({@link CloudResource#getTotalScore()}).
+ * A la fin de chaque fenêtre, un lot de {@link RankedSymptom} est émis, du plus grave au moins grave. Ces symptômes
+ * rejoignent le flux des évènements simples et complexes et sont donc transmis à la pile des symptômes.
+ * L'extracteur est désactivé par défaut.
+ * @author Chloé GUILBAUD, Léo PARIS, Kendall FOREST, Mathieu GUYOT
+ */
+public class SymptomExtractor implements PerceptionRunResource {
+
+    private int topK; //Nombre de symptômes émis par fenêtre, 0 si l'extracteur est désactivé
+    private long msCadence; //Durée des fenêtres, cadence d'émission des lots de symptômes
+
+    /**
+     * Constructeur de la classe {@link SymptomExtractor}, désactivé par défaut
+     */
+    public SymptomExtractor() {
+        this.topK = 0;
+        this.msCadence = 0;
+    }
+
+    /**
+     * Active l'extracteur de symptômes, pris en compte à la prochaine exécution
+     * @param topK - Le nombre maximal de symptômes émis par fenêtre
+     * @param msCadence - La durée des fenêtres en millisecondes
+     */
+    public void enable(int topK, long msCadence) {
+        if(topK < 1) {
+            throw new IllegalArgumentException("topK must be at least 1");
+        }
+        if(msCadence < 1) {
+            throw new IllegalArgumentException("msCadence must be at least 1");
+        }
+        this.topK = topK;
+        this.msCadence = msCadence;
+    }
+
+    /**
+     * Désactive l'extracteur de symptômes, pris en compte à la prochaine exécution
+     */
+    public void disable() {
+        this.topK = 0;
+        this.msCadence = 0;
+    }
+
+    public boolean isEnabled() {
+        return topK > 0;
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    public long getMsCadence() {
+        return msCadence;
+    }
+
+    /**
+     * Ajoute l'extracteur au flux des évènements simples et complexes.
+     * Doit être appelé une fois tous les SEG et CEG initialisés, et avant l'ajout du puits des symptômes.
+     * @param ctx - Contexte d'exécution de perCEPtion
+     * @return <code>true</code>
+     */
+    @Override
+    public boolean beforeRun(PerceptionRunContext ctx) {
+        if(!isEnabled()) {
+            return true;
+        }
+        DataStream<Event> symptoms = ctx.getSacEventStream().getStream()
+                .filter(new FilterFunction<Event>() {
+                    @Override
+                    public boolean filter(Event event) throws Exception {
+                        return event.getEventType() == EventType.SIMPLE || event.getEventType() == EventType.COMPLEX;
+                    }
+                })
+                .windowAll(TumblingEventTimeWindows.of(Time.milliseconds(msCadence)))
+                .process(new RankingFunction(topK), EventTypeInfo.forEventClass(Event.class))
+                .name("SymptomExtractor");
+        ctx.getSacEventStream().mergeStream(symptoms);
+        return true;
+    }
+
+    @Override
+    public void endRun() {
+
+    }
+
+    /**
+     * Fonction de fenêtre classant les ressources concernées par les évènements de la fenêtre.
+     * Les évènements sont d'abord regroupés par ressource, puis les K ressources les plus dégradées sont retenues
+     * grâce à un tas de taille K (O(n log K)), sans trier l'ensemble des ressources.
+     */
+    static class RankingFunction extends ProcessAllWindowFunction<Event, Event, TimeWindow> {
+
+        private final int topK; //Nombre de symptômes émis par fenêtre
+
+        RankingFunction(int topK) {
+            this.topK = topK;
+        }
+
+        @Override
+        public void process(Context context, Iterable<Event> events, Collector<Event> out) throws Exception {
+            long timestamp = context.window().maxTimestamp();
+            for(RankedSymptom symptom : rank(events)) {
+                symptom.setTimestamp(timestamp);
+                out.collect(symptom);
+            }
+        }
+
+        /**
+         * Classe les ressources concernées par des évènements
+         * @param events - Les évènements simples et complexes à classer
+         * @return Les symptômes des K ressources les plus dégradées, du plus grave au moins grave
+         */
+        RankedSymptom[] rank(Iterable<Event> events) {
+            //Evènement le plus grave de chaque ressource
+            Map<String, Candidate> candidates = new HashMap<>();
+            for(Event event : events) {
+                if(event instanceof SimpleEvent) {
+                    SimpleEvent se = (SimpleEvent) event;
+                    offer(candidates, se.getCloudResourceType(), se.getCloudResourceName(), se.getScore(), event);
+                } else if(event instanceof ComplexEvent) {
+                    for(Triplet<CloudResourceType, String, Integer> resource : ((ComplexEvent) event).getResources()) {
+                        offer(candidates, resource.getFirst(), resource.getSecond(),
+                                resource.getThird() == null ? 0 : resource.getThird(), event);
+                    }
+                }
+            }
+            //Tas des K ressources les plus dégradées, la moins dégradée en tête
+            CloudResourcesAccess.Snapshot snapshot = CloudResourcesAccess.getInstance().getSnapshot();
+            PriorityQueue<Candidate> heap = new PriorityQueue<>(topK + 1);
+            for(Candidate candidate : candidates.values()) {
+                CloudResource cr = snapshot.getResource(candidate.name);
+                candidate.rankScore = candidate.eventScore + (cr == null ? 0 : cr.getTotalScore());
+                if(heap.size() < topK) {
+                    heap.add(candidate);
+                } else if(candidate.compareTo(heap.peek()) > 0) {
+                    heap.poll();
+                    heap.add(candidate);
+                }
+            }
+            RankedSymptom[] ranking = new RankedSymptom[heap.size()];
+            for(int rank = ranking.length; rank >= 1; rank--) {
+                Candidate candidate = heap.poll();
+                ranking[rank - 1] = new RankedSymptom(candidate.type, candidate.name, candidate.rankScore, rank,
+                        candidate.cause);
+            }
+            return ranking;
+        }
+
+        /**
+         * Retient un évènement pour une ressource s'il est plus grave que les évènements déjà observés
+         */
+        private static void offer(Map<String, Candidate> candidates, CloudResourceType type, String name, int score,
+                                  Event event) {
+            Candidate candidate = candidates.get(name);
+            if(candidate == null) {
+                candidates.put(name, new Candidate(type, name, score, event));
+            } else if(score > candidate.eventScore) {
+                candidate.eventScore = score;
+                candidate.cause = event;
+            }
+        }
+
+    }
+
+    /**
+     * Ressource candidate au classement d'une fenêtre.
+     * Les candidates sont ordonnées par score de classement croissant, puis par nom décroissant à score égal afin que
+     * le classement ne dépende pas de l'ordre d'arrivée des évènements.
+     */
+    private static class Candidate implements Comparable<Candidate> {
+
+        private final CloudResourceType type;
+        private final String name;
+        private int eventScore; //Score de l'évènement le plus grave
+        private Event cause; //Evènement le plus grave
+        private int rankScore; //Score de classement
+
+        private Candidate(CloudResourceType type, String name, int eventScore, Event cause) {
+            this.type = type;
+            this.name = name;
+            this.eventScore = eventScore;
+            this.cause = cause;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            if(rankScore != other.rankScore) {
+                return rankScore < other.rankScore ? -1 : 1;
+            }
+            return other.name.compareTo(name);
+        }
+
+    }
+
+}
@@ -3,23 +3,269 @@ package perception.core;
 import perception.events.Symptom;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Deque;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Pile des symptômes, triée par gravité.
+ * Les symptômes sont ordonnés par score décroissant (voir {@link Symptom#getScore()}), puis par ordre d'arrivée à
+ * score égal : le symptôme retiré est toujours le plus grave. La pile peut être alimentée et consommée
+ * simultanément par plusieurs threads (opérateurs Flink et consommateurs des symptômes).
+ * La pile est bornée : lorsqu'elle est pleine, l'ajout d'un symptôme entraîne l'éviction du symptôme de plus faible
+ * score ou du plus ancien, selon la politique d'éviction choisie. Ajout, retrait et éviction se font en O(log n).
+ * @author Chloé GUILBAUD, Léo PARIS, Kendall FOREST, Mathieu GUYOT
+ */
 public class SymptomQueue implements Serializable {
 
-    private Deque<Symptom> queue;
+    /**
+     * Capacité par défaut de la pile des symptômes
+     */
+    public static final int DEFAULT_CAPACITY = 10000;
 
+    /**
+     * Politiques d'éviction appliquées lorsque la pile est pleine
+     */
+    public enum EvictionPolicy {
+        LOWEST_SCORE, //Le symptôme de plus faible score (le plus ancien à score égal) est évincé
+        OLDEST //Le symptôme le plus ancien est évincé
+    }
+
+    private final TreeSet<Entry> bySeverity; //Symptômes par gravité
+    private final TreeMap<Long, Entry> byAge; //Symptômes par numéro d'arrivée
+    private final int capacity; //Nombre maximal de symptômes conservés
+    private final EvictionPolicy evictionPolicy; //Politique d'éviction lorsque la pile est pleine
+    private long nextSequence; //Numéro d'arrivée du prochain symptôme
+    private long pushedCount; //Nombre de symptômes ajoutés
+    private long evictedCount; //Nombre de symptômes évincés (y compris les symptômes refusés)
+
+    /**
+     * Constructeur de la classe {@link SymptomQueue}, de capacité {@link #DEFAULT_CAPACITY} et évinçant les
+     * symptômes de plus faible score
+     */
     public SymptomQueue() {
-        queue = new LinkedList<>();
+        this(DEFAULT_CAPACITY, EvictionPolicy.LOWEST_SCORE);
+    }
+
+    /**
+     * Constructeur de la classe {@link SymptomQueue}
+     * @param capacity - Le nombre maximal de symptômes conservés
+     * @param evictionPolicy - La politique d'éviction appliquée lorsque la pile est pleine
+     */
+    public SymptomQueue(int capacity, EvictionPolicy evictionPolicy) {
+        if(capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        if(evictionPolicy == null) {
+            throw new IllegalArgumentException("evictionPolicy must not be null");
+        }
+        this.bySeverity = new TreeSet<>();
+        this.byAge = new TreeMap<>();
+        this.capacity = capacity;
+        this.evictionPolicy = evictionPolicy;
+        this.nextSequence = 0;
+        this.pushedCount = 0;
+        this.evictedCount = 0;
+    }
+
+    /**
+     * Ajoute un symptôme à la pile. Si la pile est pleine, un symptôme est évincé selon la politique d'éviction :
+     * avec {@link EvictionPolicy#LOWEST_SCORE}, le symptôme ajouté est lui-même refusé si son score est strictement
+     * inférieur à celui de tous les symptômes de la pile ; à score égal, il remplace le plus ancien.
+     * @param symptom - Le symptôme à ajouter
+     * @return <code>true</code> si le symptôme a été ajouté, <code>false</code> s'il a été refusé
+     */
+    public synchronized boolean pushSymptom(Symptom symptom) {
+        if(symptom == null) {
+            throw new IllegalArgumentException("symptom must not be null");
+        }
+        boolean pushed = insert(symptom);
+        notifyAll();
+        return pushed;
+    }
+
+    /**
+     * Ajoute un lot de symptômes à la pile, en une seule prise du verrou.
+     * Chaque symptôme est ajouté comme par {@link #pushSymptom(Symptom)}, dans l'ordre du lot.
+     * @param symptoms - Les symptômes à ajouter
+     * @return Le nombre de symptômes ajoutés, les autres ayant été refusés
+     */
+    public synchronized int pushSymptoms(Collection<? extends Symptom> symptoms) {
+        for(Symptom symptom : symptoms) {
+            if(symptom == null) {
+                throw new IllegalArgumentException("symptoms must not contain null");
+            }
+        }
+        int pushed = 0;
+        for(Symptom symptom : symptoms) {
+            if(insert(symptom)) {
+                pushed++;
+            }
+        }
+        if(pushed > 0) {
+            notifyAll();
+        }
+        return pushed;
+    }
+
+    /**
+     * Insère un symptôme dans la pile, en appliquant la politique d'éviction si la pile est pleine
+     * @param symptom - Le symptôme à insérer
+     * @return <code>true</code> si le symptôme a été inséré, <code>false</code> s'il a été refusé
+     */
+    private boolean insert(Symptom symptom) {
+        Entry entry = new Entry(symptom, symptom.getScore(), nextSequence++);
+        pushedCount++;
+        if(bySeverity.size() >= capacity) {
+            Entry evicted;
+            if(evictionPolicy == EvictionPolicy.OLDEST) {
+                evicted = byAge.firstEntry().getValue();
+            } else {
+                //Le plus ancien des symptômes de plus faible score, premier de ce score dans l'ordre de gravité
+                int lowestScore = bySeverity.last().score;
+                evicted = bySeverity.ceiling(new Entry(null, lowestScore, Long.MIN_VALUE));
+            }
+            evictedCount++;
+            if(evictionPolicy == EvictionPolicy.LOWEST_SCORE && entry.score < evicted.score) {
+                return false;
+            }
+            bySeverity.remove(evicted);
+            byAge.remove(evicted.sequence);
+        }
+        bySeverity.add(entry);
+        byAge.put(entry.sequence, entry);
+        return true;
+    }
+
+    /**
+     * Retire le symptôme le plus grave de la pile
+     * @return Le symptôme de plus fort score, ou null si la pile est vide
+     */
+    public synchronized Symptom pollSymptom() {
+        Entry entry = bySeverity.pollFirst();
+        if(entry == null) {
+            return null;
+        }
+        byAge.remove(entry.sequence);
+        return entry.symptom;
+    }
+
+    /**
+     * Retire le symptôme le plus grave de la pile, en attendant au plus le délai donné qu'un symptôme soit ajouté
+     * si la pile est vide
+     * @param timeout - Le délai d'attente maximal
+     * @param unit - L'unité du délai
+     * @return Le symptôme de plus fort score, ou null si aucun symptôme n'a été ajouté pendant le délai
+     * @throws InterruptedException si le thread est interrompu pendant l'attente
+     */
+    public synchronized Symptom pollSymptom(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        long remaining = unit.toNanos(timeout);
+        while(bySeverity.isEmpty() && remaining > 0) {
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            remaining = deadline - System.nanoTime();
+        }
+        return pollSymptom();
+    }
+
+    /**
+     * Consulte le symptôme le plus grave de la pile sans le retirer
+     * @return Le symptôme de plus fort score, ou null si la pile est vide
+     */
+    public synchronized Symptom peekSymptom() {
+        return bySeverity.isEmpty() ? null : bySeverity.first().symptom;
+    }
+
+    /**
+     * Retire au plus maxSymptoms symptômes de la pile, du plus grave au moins grave
+     * @param target - La collection recevant les symptômes retirés
+     * @param maxSymptoms - Le nombre maximal de symptômes à retirer
+     * @return Le nombre de symptômes retirés
+     */
+    public synchronized int drainTo(Collection<? super Symptom> target, int maxSymptoms) {
+        int count = 0;
+        while(count < maxSymptoms && !bySeverity.isEmpty()) {
+            target.add(pollSymptom());
+            count++;
+        }
+        return count;
     }
 
-    public Deque<Symptom> getQueue() {
+    /**
+     * Accesseur du contenu de la pile
+     * @return Une copie des symptômes de la pile, du plus grave au moins grave
+     */
+    public synchronized Deque<Symptom> getQueue() {
+        Deque<Symptom> queue = new LinkedList<>();
+        for(Entry entry : bySeverity) {
+            queue.add(entry.symptom);
+        }
         return queue;
     }
 
-    public void pushSymptom(Symptom symptom) {
-        queue.add(symptom);
+    /**
+     * Vide la pile
+     * @return Les symptômes retirés, du plus grave au moins grave
+     */
+    public synchronized List<Symptom> clear() {
+        List<Symptom> symptoms = new ArrayList<>(bySeverity.size());
+        drainTo(symptoms, Integer.MAX_VALUE);
+        return symptoms;
+    }
+
+    public synchronized int size() {
+        return bySeverity.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return bySeverity.isEmpty();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public EvictionPolicy getEvictionPolicy() {
+        return evictionPolicy;
+    }
+
+    public synchronized long getPushedCount() {
+        return pushedCount;
+    }
+
+    public synchronized long getEvictedCount() {
+        return evictedCount;
+    }
+
+    /**
+     * Symptôme de la pile, avec son score et son numéro d'arrivée.
+     * Les entrées sont ordonnées par gravité : score décroissant, puis numéro d'arrivée croissant.
+     */
+    private static class Entry implements Comparable<Entry>, Serializable {
+
+        private final Symptom symptom;
+        private final int score;
+        private final long sequence;
+
+        private Entry(Symptom symptom, int score, long sequence) {
+            this.symptom = symptom;
+            this.score = score;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            if(score != other.score) {
+                return score > other.score ? -1 : 1;
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+
     }
 
 }
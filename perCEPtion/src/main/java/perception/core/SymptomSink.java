@@ -0,0 +1,170 @@
+package perception.core;
+
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.streaming.api.functions.sink.RichSinkFunction;
+import perception.events.Event;
+import perception.events.Symptom;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Puits Flink transmettant les symptômes du flux des évènements simples et complexes à la pile des symptômes
+ * ({@link PerceptionRunContext#getSymptomQueue()}).
+ * Les symptômes reçus sont regroupés en lots, transmis à la pile en une seule prise de son verrou lorsque le lot est
+ * plein ou, au plus tard, après un délai maximal : chaque instance parallèle du puits dispose de son propre lot.
+ * La pile alimentée est celle de la JVM exécutant l'instance du puits, résolue à l'ouverture de celle-ci.
+ * Les évènements qui ne sont pas des symptômes sont ignorés.
+ * @author Chloé GUILBAUD, Léo PARIS, Kendall FOREST, Mathieu GUYOT
+ */
+public class SymptomSink extends RichSinkFunction<Event> {
+
+    /**
+     * Taille par défaut des lots de symptômes
+     */
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    /**
+     * Délai maximal par défaut avant la transmission d'un lot incomplet
+     */
+    public static final long DEFAULT_MS_MAX_BATCH_DELAY = 100;
+
+    private final String name; //Nom du puits, partagé par ses instances parallèles
+    private final int batchSize; //Nombre de symptômes au-delà duquel un lot est transmis
+    private final long msMaxBatchDelay; //Délai maximal avant la transmission d'un lot incomplet
+
+    private transient SymptomQueue symptomQueue; //Pile des symptômes alimentée
+    private transient SymptomSinkStatistics statistics; //Statistiques du puits
+    private transient Object lock; //Verrou protégeant le lot courant
+    private transient List<Symptom> batch; //Lot courant de symptômes
+    private transient long batchStartNanos; //Date de réception du premier symptôme du lot courant
+    private transient ScheduledExecutorService flusher; //Transmission des lots incomplets après le délai maximal
+
+    /**
+     * Constructeur de la classe {@link SymptomSink}
+     * @param name - Le nom du puits, utilisé pour partager ses statistiques
+     * @param batchSize - Le nombre de symptômes au-delà duquel un lot est transmis (1 pour transmettre chaque symptôme
+     *                  dès sa réception)
+     * @param msMaxBatchDelay - Le délai maximal avant la transmission d'un lot incomplet, en millisecondes
+     */
+    public SymptomSink(String name, int batchSize, long msMaxBatchDelay) {
+        if(batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1");
+        }
+        if(msMaxBatchDelay < 1) {
+            throw new IllegalArgumentException("msMaxBatchDelay must be at least 1");
+        }
+        this.name = name;
+        this.batchSize = batchSize;
+        this.msMaxBatchDelay = msMaxBatchDelay;
+    }
+
+    @Override
+    public void open(Configuration parameters) throws Exception {
+        super.open(parameters);
+        symptomQueue = PerceptionRunContext.getSymptomQueue();
+        statistics = SymptomSinkStatistics.forSink(name);
+        lock = new Object();
+        batch = new ArrayList<>(batchSize);
+        if(batchSize > 1) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "symptom-sink-" + name);
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flushExpired, msMaxBatchDelay, msMaxBatchDelay,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes") //Context est déclaré sans paramètre de type par SinkFunction
+    public void invoke(Event event, Context context) throws Exception {
+        if(!(event instanceof Symptom)) {
+            return;
+        }
+        statistics.recordReceived();
+        List<Symptom> full = null;
+        synchronized(lock) {
+            if(batch.isEmpty()) {
+                batchStartNanos = System.nanoTime();
+            }
+            batch.add((Symptom) event);
+            if(batch.size() >= batchSize) {
+                full = takeBatch();
+            }
+        }
+        if(full != null) {
+            store(full);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if(flusher != null) {
+            flusher.shutdownNow();
+            flusher = null;
+        }
+        if(lock != null) {
+            List<Symptom> remaining;
+            synchronized(lock) {
+                remaining = takeBatch();
+            }
+            store(remaining);
+        }
+        super.close();
+    }
+
+    /**
+     * Transmet le lot courant s'il attend depuis plus que le délai maximal
+     */
+    private void flushExpired() {
+        List<Symptom> expired = null;
+        synchronized(lock) {
+            if(!batch.isEmpty()
+                    && System.nanoTime() - batchStartNanos >= TimeUnit.MILLISECONDS.toNanos(msMaxBatchDelay)) {
+                expired = takeBatch();
+            }
+        }
+        if(expired != null) {
+            store(expired);
+        }
+    }
+
+    /**
+     * Retire le lot courant, remplacé par un lot vide. Doit être appelé en possession du verrou.
+     * @return Le lot retiré
+     */
+    private List<Symptom> takeBatch() {
+        List<Symptom> taken = batch;
+        batch = new ArrayList<>(batchSize);
+        return taken;
+    }
+
+    /**
+     * Transmet un lot de symptômes à la pile des symptômes
+     * @param symptoms - Le lot à transmettre
+     */
+    private void store(List<Symptom> symptoms) {
+        if(symptoms.isEmpty()) {
+            return;
+        }
+        statistics.recordBatch(symptoms.size(), symptomQueue.pushSymptoms(symptoms));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public long getMsMaxBatchDelay() {
+        return msMaxBatchDelay;
+    }
+
+}
@@ -0,0 +1,119 @@
+package perception.core;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistiques de débit d'un {@link SymptomSink}.
+ * Flink exécutant des copies sérialisées du puits (une par instance parallèle), les statistiques sont partagées par
+ * nom de puits et cumulent les compteurs de toutes les instances exécutées dans la JVM.
+ * @author Chloé GUILBAUD, Léo PARIS, Kendall FOREST, Mathieu GUYOT
+ */
+public class SymptomSinkStatistics {
+
+    private static final Map<String, SymptomSinkStatistics> statistics = new ConcurrentHashMap<>();
+
+    private final AtomicLong receivedCount; //Nombre de symptômes reçus du flux
+    private final AtomicLong storedCount; //Nombre de symptômes ajoutés à la pile des symptômes
+    private final AtomicLong rejectedCount; //Nombre de symptômes refusés par la pile des symptômes
+    private final AtomicLong batchCount; //Nombre de lots transmis à la pile des symptômes
+    private volatile long startNanos; //Date de création ou de remise à zéro des statistiques
+    private volatile long lastFlushNanos; //Date de la dernière transmission d'un lot
+
+    private SymptomSinkStatistics() {
+        this.receivedCount = new AtomicLong();
+        this.storedCount = new AtomicLong();
+        this.rejectedCount = new AtomicLong();
+        this.batchCount = new AtomicLong();
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Accesseur des statistiques d'un puits de symptômes
+     * @param sinkName - Le nom du puits
+     * @return Les statistiques du puits, créées si nécessaire
+     */
+    public static SymptomSinkStatistics forSink(String sinkName) {
+        return statistics.computeIfAbsent(sinkName, name -> new SymptomSinkStatistics());
+    }
+
+    /**
+     * Enregistre la réception d'un symptôme
+     */
+    void recordReceived() {
+        receivedCount.incrementAndGet();
+    }
+
+    /**
+     * Enregistre la transmission d'un lot de symptômes à la pile des symptômes
+     * @param batchSize - Le nombre de symptômes du lot
+     * @param stored - Le nombre de symptômes du lot ajoutés à la pile
+     */
+    void recordBatch(int batchSize, int stored) {
+        batchCount.incrementAndGet();
+        storedCount.addAndGet(stored);
+        rejectedCount.addAndGet(batchSize - stored);
+        lastFlushNanos = System.nanoTime();
+    }
+
+    /**
+     * Remet à zéro les statistiques
+     */
+    public void reset() {
+        receivedCount.set(0);
+        storedCount.set(0);
+        rejectedCount.set(0);
+        batchCount.set(0);
+        startNanos = System.nanoTime();
+        lastFlushNanos = 0;
+    }
+
+    public long getReceivedCount() {
+        return receivedCount.get();
+    }
+
+    public long getStoredCount() {
+        return storedCount.get();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    public long getLastFlushNanos() {
+        return lastFlushNanos;
+    }
+
+    /**
+     * Accesseur du nombre de symptômes reçus et pas encore transmis à la pile des symptômes
+     * @return Le nombre de symptômes en attente dans les lots des instances du puits
+     */
+    public long getPendingCount() {
+        return getReceivedCount() - getStoredCount() - getRejectedCount();
+    }
+
+    /**
+     * Accesseur du débit moyen du puits depuis la création ou la dernière remise à zéro des statistiques
+     * @return Le nombre moyen de symptômes reçus par seconde
+     */
+    public double getReceivedPerSecond() {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        return elapsedNanos <= 0 ? 0 : getReceivedCount() * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "SymptomSinkStatistics{" +
+                "receivedCount=" + getReceivedCount() +
+                ", storedCount=" + getStoredCount() +
+                ", rejectedCount=" + getRejectedCount() +
+                ", batchCount=" + getBatchCount() +
+                ", receivedPerSecond=" + getReceivedPerSecond() +
+                '}';
+    }
+}
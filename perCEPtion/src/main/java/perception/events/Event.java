@@ -1,11 +1,15 @@
 package perception.events;
 
 /**
- * Classe abstraite représentant un évènement
+ * Classe abstraite représentant un évènement.
+ * Chaque évènement porte une date (en millisecondes depuis l'epoch), utilisée comme temps d'évènement par Flink :
+ * les fenêtres des schémas de détection des SEG et CEG sont évaluées selon cette date et non selon la date de
+ * traitement de l'évènement.
  */
 public abstract class Event {
 
     final private  EventType eventType; //Type d'évènement
+    private long timestamp; //Date de l'évènement (en millisecondes)
 
     /**
      * Constructeur de la classe {@link Event}
@@ -13,6 +17,7 @@ public abstract class Event {
      */
     public Event(EventType eventType) {
         this.eventType = eventType;
+        this.timestamp = System.currentTimeMillis();
     }
 
     /**
@@ -23,4 +28,21 @@ public abstract class Event {
         return eventType;
     }
 
+    /**
+     * Accesseur de la date de l'évènement
+     * @return La date de l'évènement (en millisecondes), par défaut sa date de création
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Modificateur de la date de l'évènement, utilisé par les générateurs pour dater l'évènement de l'exécution
+     * (ou des évènements) dont il est issu
+     * @param timestamp - La nouvelle date de l'évènement (en millisecondes)
+     */
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
 }
@@ -0,0 +1,78 @@
+package perception.events;
+
+import graph.CloudResourceType;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Classe représentant un évènement primitif multi-métriques.
+ * Un évènement primitif fusionné regroupe les évènements primitifs générés pour une même ressource lors d'une même
+ * exécution de plusieurs {@link perception.primitive_events_generator.PrimitiveEventGenerator} (par exemple la
+ * consommation CPU, RAM et disque d'une VM au même instant). Il est généré par un
+ * {@link perception.primitive_events_generator.PEGMultiplexer} configuré pour fusionner les évènements, et permet
+ * aux SEG et CEG de corréler plusieurs métriques sans joindre plusieurs flux.
+ */
+public class FusedPrimitiveEvent extends PrimitiveEvent {
+
+    final private PrimitiveEvent[] components; //Evènements primitifs fusionnés
+
+    /**
+     * Le constructeur de la classe {@link FusedPrimitiveEvent}
+     * @param cloudResourceName - Le nom de la ressource
+     * @param cloudResourceType - Le type de la ressource
+     * @param score - Le score de la ressource
+     * @param components - Les évènements primitifs générés pour la ressource
+     */
+    public FusedPrimitiveEvent(String cloudResourceName, CloudResourceType cloudResourceType, int score,
+                               PrimitiveEvent[] components) {
+        super(cloudResourceName, cloudResourceType, score);
+        this.components = components;
+    }
+
+    /**
+     * Le constructeur de la classe {@link FusedPrimitiveEvent}
+     * @param cloudResourceId - L'identifiant de la ressource
+     * @param cloudResourceName - Le nom de la ressource
+     * @param cloudResourceType - Le type de la ressource
+     * @param score - Le score de la ressource
+     * @param components - Les évènements primitifs générés pour la ressource
+     */
+    public FusedPrimitiveEvent(int cloudResourceId, String cloudResourceName, CloudResourceType cloudResourceType,
+                               int score, PrimitiveEvent[] components) {
+        super(cloudResourceId, cloudResourceName, cloudResourceType, score);
+        this.components = components;
+    }
+
+    /**
+     * Accesseur des évènements primitifs fusionnés
+     * @return Les évènements primitifs fusionnés (liste non modifiable)
+     */
+    public List<PrimitiveEvent> getComponents() {
+        return Collections.unmodifiableList(Arrays.asList(components));
+    }
+
+    /**
+     * Accesseur d'un évènement primitif fusionné selon sa classe
+     * @param eventClass - La classe de l'évènement recherché (par exemple PE_Cpu)
+     * @param <T> - Le type de l'évènement recherché
+     * @return L'évènement de cette classe s'il a été généré lors de l'exécution, un Optional.empty sinon
+     */
+    public <T extends PrimitiveEvent> Optional<T> getComponent(Class<T> eventClass) {
+        for(PrimitiveEvent component : components) {
+            if(eventClass.isInstance(component)) {
+                return Optional.of(eventClass.cast(component));
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public String toString() {
+        return "[[FUSED_PE]{" + getCloudResourceType() + "}{name:" + getCloudResourceName() + ", components:"
+                + Arrays.toString(components) + "}]";
+    }
+
+}
@@ -1,6 +1,7 @@
 package perception.events;
 
 import graph.CloudResourceType;
+import perception.core.CloudResourcesAccess;
 
 /**
  * Classe représentant un évènement primitif.
@@ -10,6 +11,7 @@ import graph.CloudResourceType;
  */
 public abstract class PrimitiveEvent extends Event {
 
+    final private int cloudResourceId; //Identifiant de la ressource (voir CloudResourcesAccess#getResourceId(String))
     final private String cloudResourceName;
     final private CloudResourceType cloudResourceType;
     final private int score;
@@ -20,13 +22,34 @@ public abstract class PrimitiveEvent extends Event {
      * @param cloudResourceType - Le type de la ressource
      */
     public PrimitiveEvent(String cloudResourceName, CloudResourceType cloudResourceType, int score)
+    {
+        this(CloudResourcesAccess.getInstance().getResourceId(cloudResourceName), cloudResourceName, cloudResourceType,
+                score);
+    }
+
+    /**
+     * Le constructeur de la classe {@link PrimitiveEvent}
+     * @param cloudResourceId - L'identifiant de la ressource (voir {@link CloudResourcesAccess#getResourceId(String)})
+     * @param cloudResourceName - Le nom de la ressource
+     * @param cloudResourceType - Le type de la ressource
+     */
+    public PrimitiveEvent(int cloudResourceId, String cloudResourceName, CloudResourceType cloudResourceType, int score)
     {
         super(EventType.PRIMITIVE);
+        this.cloudResourceId = cloudResourceId;
         this.cloudResourceName = cloudResourceName;
         this.cloudResourceType = cloudResourceType;
         this.score = score;
     }
 
+    /**
+     * Accesseur de l'identifiant de la ressource
+     * @return L'identifiant de la ressource
+     */
+    public int getCloudResourceId() {
+        return cloudResourceId;
+    }
+
     /**
      * Accesseur du nom de la ressource
      * @return Le nom de la ressource
@@ -0,0 +1,52 @@
+package perception.events;
+
+import graph.CloudResourceType;
+
+/**
+ * Classe représentant un symptôme produit par l'extracteur de symptômes
+ * ({@link perception.core.SymptomExtractor}).
+ * Un symptôme classé désigne l'une des ressources les plus dégradées d'une fenêtre d'observation : son score est la
+ * somme du score de l'évènement le plus grave observé pour la ressource pendant la fenêtre et du score total de la
+ * ressource. Il porte son rang dans le classement de la fenêtre ainsi que l'évènement le plus grave observé.
+ */
+public class RankedSymptom extends Symptom {
+
+    private final int rank; //Rang du symptôme dans le classement de la fenêtre (1 pour le plus grave)
+    private final Event cause; //Evènement simple ou complexe le plus grave observé pour la ressource
+
+    /**
+     * Constructeur de la classe {@link RankedSymptom}
+     * @param type - Le type de la ressource
+     * @param name - Le nom de la ressource
+     * @param score - Le score de classement de la ressource
+     * @param rank - Le rang du symptôme dans le classement de la fenêtre (1 pour le plus grave)
+     * @param cause - L'évènement le plus grave observé pour la ressource pendant la fenêtre
+     */
+    public RankedSymptom(CloudResourceType type, String name, int score, int rank, Event cause) {
+        super(type, name, score);
+        this.rank = rank;
+        this.cause = cause;
+    }
+
+    /**
+     * Accesseur du rang du symptôme
+     * @return Le rang du symptôme dans le classement de la fenêtre (1 pour le plus grave)
+     */
+    public int getRank() {
+        return rank;
+    }
+
+    /**
+     * Accesseur de l'évènement à l'origine du symptôme
+     * @return L'évènement simple ou complexe le plus grave observé pour la ressource pendant la fenêtre
+     */
+    public Event getCause() {
+        return cause;
+    }
+
+    @Override
+    public String toString() {
+        return "[[RANKED_SY]{rank:" + rank + ", resources:" + getCloudResources() + ", cause:" + cause + "}]";
+    }
+
+}
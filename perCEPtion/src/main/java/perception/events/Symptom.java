@@ -51,4 +51,18 @@ public abstract class Symptom extends Event {
         return resources;
     }
 
+    /**
+     * Getter on the score of the symptom, used to sort the symptoms by severity
+     * @return The sum of the scores of the resources impacted by the symptom
+     */
+    public int getScore() {
+        int score = 0;
+        for(Triplet<CloudResourceType, String, Integer> resource : resources) {
+            if(resource.getThird() != null) {
+                score += resource.getThird();
+            }
+        }
+        return score;
+    }
+
 }
@@ -0,0 +1,51 @@
+package perception.events.serialization;
+
+import graph.CloudResourceType;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+import perception.events.ComplexEvent;
+import utils.Triplet;
+
+import java.io.IOException;
+import java.util.Deque;
+
+/**
+ * Codec d'une classe d'évènement complexe.
+ * Les ressources impactées par l'évènement sont écrites par ce codec ; les sous-classes n'écrivent que les champs
+ * propres à leur classe d'évènement.
+ * @param <T> - La classe d'évènement complexe prise en charge
+ */
+public abstract class ComplexEventCodec<T extends ComplexEvent> implements EventCodec<T> {
+
+    @Override
+    public void serialize(T event, EventSerializer<?> serializer, DataOutputView target) throws IOException {
+        serializer.writeResources(event.getResources(), target);
+        writeFields(event, serializer, target);
+    }
+
+    @Override
+    public T deserialize(EventSerializer<?> serializer, DataInputView source) throws IOException {
+        return readFields(serializer.readResources(source), serializer, source);
+    }
+
+    /**
+     * Ecrit les champs propres à la classe d'évènement
+     * @param event - L'évènement à écrire
+     * @param serializer - Le sérialiseur appelant
+     * @param target - La sortie dans laquelle écrire les champs
+     * @throws IOException si l'écriture échoue
+     */
+    protected abstract void writeFields(T event, EventSerializer<?> serializer, DataOutputView target) throws IOException;
+
+    /**
+     * Relit les champs propres à la classe d'évènement et construit l'évènement
+     * @param resources - Les ressources impactées par l'évènement
+     * @param serializer - Le sérialiseur appelant
+     * @param source - L'entrée depuis laquelle lire les champs
+     * @return L'évènement lu
+     * @throws IOException si la lecture échoue
+     */
+    protected abstract T readFields(Deque<Triplet<CloudResourceType, String, Integer>> resources,
+                                    EventSerializer<?> serializer, DataInputView source) throws IOException;
+
+}
@@ -0,0 +1,39 @@
+package perception.events.serialization;
+
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+import perception.events.Event;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+/**
+ * Codec d'une classe d'évènement.
+ * Un codec écrit et relit les champs d'un évènement d'une classe donnée ; le type de l'évènement est écrit par le
+ * {@link EventSerializer}. Les codecs sont enregistrés auprès de l'{@link EventCodecRegistry}, directement ou par
+ * l'intermédiaire d'un plugin (voir {@link perception.pluginManager.PerceptionPlugin}).
+ * Les classes {@link PrimitiveEventCodec}, {@link SimpleEventCodec}, {@link ComplexEventCodec} et {@link SymptomCodec}
+ * prennent en charge les champs communs de chaque famille d'évènements.
+ * @param <T> - La classe d'évènement prise en charge
+ */
+public interface EventCodec<T extends Event> extends Serializable {
+
+    /**
+     * Ecrit les champs d'un évènement
+     * @param event - L'évènement à écrire
+     * @param serializer - Le sérialiseur appelant, qui fournit l'encodage des noms, des ressources et des évènements imbriqués
+     * @param target - La sortie dans laquelle écrire l'évènement
+     * @throws IOException si l'écriture échoue
+     */
+    void serialize(T event, EventSerializer<?> serializer, DataOutputView target) throws IOException;
+
+    /**
+     * Relit un évènement écrit par {@link #serialize(Event, EventSerializer, DataOutputView)}
+     * @param serializer - Le sérialiseur appelant, qui fournit le décodage des noms, des ressources et des évènements imbriqués
+     * @param source - L'entrée depuis laquelle lire l'évènement
+     * @return L'évènement lu
+     * @throws IOException si la lecture échoue
+     */
+    T deserialize(EventSerializer<?> serializer, DataInputView source) throws IOException;
+
+}
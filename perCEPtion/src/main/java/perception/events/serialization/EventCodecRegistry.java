@@ -0,0 +1,116 @@
+package perception.events.serialization;
+
+import perception.events.Event;
+import perception.events.FusedPrimitiveEvent;
+import perception.events.RankedSymptom;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registre des codecs des classes d'évènements.
+ * Chaque classe d'évènement enregistrée reçoit une étiquette (son rang d'enregistrement) écrite en tête de chaque
+ * évènement sérialisé à la place du nom complet de sa classe. Les évènements des classes non enregistrées sont
+ * sérialisés par Kryo.
+ * Les {@link EventSerializer} créés par Flink travaillent sur une copie du registre faite à leur création : les codecs
+ * doivent donc être enregistrés avant le démarrage du {@link perception.core.PerceptionCore}.
+ */
+public class EventCodecRegistry {
+
+    private static final EventCodecRegistry instance = new EventCodecRegistry();
+
+    private final Map<Class<? extends Event>, EventCodec<?>> codecs; //Codec de chaque classe, par ordre d'enregistrement
+    private boolean nameDictionaryEnabled; //Indique si les noms de ressources sont remplacés par leur identifiant
+
+    private EventCodecRegistry() {
+        this.codecs = new LinkedHashMap<>();
+        this.nameDictionaryEnabled = true;
+        this.register(FusedPrimitiveEvent.class, new FusedPrimitiveEventCodec());
+        this.register(RankedSymptom.class, new RankedSymptomCodec());
+    }
+
+    /**
+     * Accesseur du registre partagé
+     * @return Le registre des codecs
+     */
+    public static EventCodecRegistry getInstance() {
+        return instance;
+    }
+
+    /**
+     * Enregistre le codec d'une classe d'évènement
+     * @param eventClass - La classe d'évènement (concrète)
+     * @param codec - Le codec de la classe
+     * @param <T> - La classe d'évènement
+     * @return <code>true</code> si le codec a été enregistré, <code>false</code> si la classe possède déjà un codec
+     */
+    public synchronized <T extends Event> boolean register(Class<T> eventClass, EventCodec<T> codec) {
+        if(eventClass == null || codec == null) {
+            throw new IllegalArgumentException("eventClass and codec must not be null");
+        }
+        if(Modifier.isAbstract(eventClass.getModifiers())) {
+            throw new IllegalArgumentException("Cannot register a codec for the abstract class " + eventClass.getName());
+        }
+        if(codecs.containsKey(eventClass)) {
+            return false;
+        }
+        codecs.put(eventClass, codec);
+        return true;
+    }
+
+    /**
+     * Enregistre un ensemble de codecs (ceux d'un plugin notamment). Les classes possédant déjà un codec sont ignorées.
+     * @param eventCodecs - Les codecs à enregistrer, par classe d'évènement
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized void registerAll(Map<Class<? extends Event>, EventCodec<?>> eventCodecs) {
+        for(Map.Entry<Class<? extends Event>, EventCodec<?>> entry : eventCodecs.entrySet()) {
+            register((Class<Event>) entry.getKey(), (EventCodec<Event>) entry.getValue());
+        }
+    }
+
+    /**
+     * Indique si une classe d'évènement possède un codec
+     * @param eventClass - La classe d'évènement
+     * @return <code>true</code> si la classe possède un codec, <code>false</code> sinon
+     */
+    public synchronized boolean isRegistered(Class<? extends Event> eventClass) {
+        return codecs.containsKey(eventClass);
+    }
+
+    /**
+     * Active ou désactive le remplacement des noms de ressources par leur identifiant dans le dictionnaire des
+     * ressources de {@link perception.core.CloudResourcesAccess}. Le dictionnaire étant propre à une JVM, il doit être
+     * désactivé si l'environnement Flink est distribué : le {@link perception.core.PerceptionCore} le désactive à son
+     * démarrage si son environnement n'est pas local.
+     * @param nameDictionaryEnabled - <code>true</code> pour utiliser le dictionnaire, <code>false</code> pour écrire les noms
+     */
+    public synchronized void setNameDictionaryEnabled(boolean nameDictionaryEnabled) {
+        this.nameDictionaryEnabled = nameDictionaryEnabled;
+    }
+
+    public synchronized boolean isNameDictionaryEnabled() {
+        return nameDictionaryEnabled;
+    }
+
+    /**
+     * Accesseur des classes enregistrées
+     * @return Les classes d'évènements enregistrées, par ordre d'enregistrement (liste non modifiable)
+     */
+    public synchronized List<Class<? extends Event>> getEventClasses() {
+        return Collections.unmodifiableList(new ArrayList<>(codecs.keySet()));
+    }
+
+    /**
+     * Accesseur des codecs enregistrés
+     * @return Les codecs enregistrés, dans l'ordre des classes retournées par {@link #getEventClasses()}
+     */
+    synchronized List<EventCodec<?>> getCodecs() {
+        return new ArrayList<>(codecs.values());
+    }
+
+}
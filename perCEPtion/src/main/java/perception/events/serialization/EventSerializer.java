@@ -0,0 +1,432 @@
+package perception.events.serialization;
+
+import graph.CloudResourceType;
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeutils.CompatibilityResult;
+import org.apache.flink.api.common.typeutils.ParameterlessTypeSerializerConfig;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.TypeSerializerConfigSnapshot;
+import org.apache.flink.api.java.typeutils.runtime.kryo.KryoSerializer;
+import org.apache.flink.core.memory.DataInputDeserializer;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputSerializer;
+import org.apache.flink.core.memory.DataOutputView;
+import perception.core.CloudResourcesAccess;
+import perception.events.Event;
+import utils.Triplet;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sérialiseur Flink des évènements de perCEPtion.
+ * Un évènement est écrit sous la forme de l'étiquette de sa classe dans l'{@link EventCodecRegistry} suivie de sa
+ * date et de ses champs, écrits par le codec de sa classe. Les ressources sont désignées par leur identifiant,
+ * accompagné de leur nom si le dictionnaire des ressources de {@link CloudResourcesAccess} est désactivé, et les
+ * listes de ressources sont écrites sous forme de tableaux (types, noms puis scores).
+ * Les évènements des classes sans codec sont écrits par Kryo, précédés de l'étiquette 0.
+ * Les évènements étant modifiables (voir {@link Event#setTimestamp(long)}), les copies demandées par Flink sont des
+ * copies profondes : l'évènement est écrit puis relu par son codec, ou copié par Kryo s'il n'a pas de codec.
+ * @param <T> - Le type des évènements du flux
+ */
+public class EventSerializer<T extends Event> extends TypeSerializer<T> {
+
+    private static final int KRYO_TAG = 0; //Etiquette des évènements écrits par Kryo
+    private static final byte NULL_TYPE = -1; //Valeur écrite pour un type de ressource nul
+    private static final CloudResourceType[] TYPES = CloudResourceType.values();
+
+    private final Class<T> typeClass; //Type des évènements du flux
+    private final Class<? extends Event>[] eventClasses; //Classe de chaque étiquette (décalée de 1)
+    private final EventCodec<?>[] codecs; //Codec de chaque étiquette (décalée de 1)
+    private final Map<Class<? extends Event>, Integer> tags; //Etiquette de chaque classe
+    private final boolean nameDictionaryEnabled; //Indique si les noms sont remplacés par leur identifiant
+    private final KryoSerializer<Event> kryoSerializer; //Sérialiseur des évènements sans codec
+    private transient DataOutputSerializer copyOutput; //Tampon d'écriture des copies, créé lors de la première copie
+    private transient DataInputDeserializer copyInput; //Tampon de lecture des copies, créé lors de la première copie
+
+    /**
+     * Constructeur de la classe {@link EventSerializer}
+     * @param typeClass - Le type des évènements du flux
+     * @param registry - Le registre des codecs, copié à la création du sérialiseur
+     * @param config - La configuration d'exécution, utilisée par Kryo
+     */
+    @SuppressWarnings("unchecked")
+    public EventSerializer(Class<T> typeClass, EventCodecRegistry registry, ExecutionConfig config) {
+        this(typeClass, (Class<? extends Event>[]) registry.getEventClasses().toArray(new Class<?>[0]),
+                registry.getCodecs().toArray(new EventCodec<?>[0]), registry.isNameDictionaryEnabled(),
+                new KryoSerializer<>(Event.class, config));
+    }
+
+    private EventSerializer(Class<T> typeClass, Class<? extends Event>[] eventClasses, EventCodec<?>[] codecs,
+                            boolean nameDictionaryEnabled, KryoSerializer<Event> kryoSerializer) {
+        this.typeClass = typeClass;
+        this.eventClasses = eventClasses;
+        this.codecs = codecs;
+        this.tags = new HashMap<>();
+        for(int i = 0; i < eventClasses.length; i++) {
+            tags.put(eventClasses[i], i + 1);
+        }
+        this.nameDictionaryEnabled = nameDictionaryEnabled;
+        this.kryoSerializer = kryoSerializer;
+    }
+
+    /**
+     * Ecrit un évènement, précédé de l'étiquette de sa classe
+     * @param event - L'évènement à écrire
+     * @param target - La sortie dans laquelle écrire l'évènement
+     * @throws IOException si l'écriture échoue
+     */
+    @SuppressWarnings("unchecked")
+    public void serializeEvent(Event event, DataOutputView target) throws IOException {
+        Integer tag = tags.get(event.getClass());
+        if(tag == null) {
+            writeVarInt(KRYO_TAG, target);
+            kryoSerializer.serialize(event, target);
+        } else {
+            writeVarInt(tag, target);
+            target.writeLong(event.getTimestamp());
+            ((EventCodec<Event>) codecs[tag - 1]).serialize(event, this, target);
+        }
+    }
+
+    /**
+     * Relit un évènement écrit par {@link #serializeEvent(Event, DataOutputView)}
+     * @param source - L'entrée depuis laquelle lire l'évènement
+     * @return L'évènement lu
+     * @throws IOException si la lecture échoue ou si l'étiquette est inconnue
+     */
+    public Event deserializeEvent(DataInputView source) throws IOException {
+        int tag = readVarInt(source);
+        if(tag == KRYO_TAG) {
+            return kryoSerializer.deserialize(source);
+        }
+        if(tag > codecs.length) {
+            throw new IOException("Unknown event tag : " + tag);
+        }
+        long timestamp = source.readLong();
+        Event event = codecs[tag - 1].deserialize(this, source);
+        event.setTimestamp(timestamp);
+        return event;
+    }
+
+    /**
+     * Ecrit un entier positif sur 1 à 5 octets (7 bits par octet)
+     * @param value - L'entier à écrire
+     * @param target - La sortie dans laquelle écrire l'entier
+     * @throws IOException si l'écriture échoue
+     */
+    public void writeVarInt(int value, DataOutputView target) throws IOException {
+        while((value & ~0x7F) != 0) {
+            target.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        target.writeByte(value);
+    }
+
+    /**
+     * Relit un entier écrit par {@link #writeVarInt(int, DataOutputView)}
+     * @param source - L'entrée depuis laquelle lire l'entier
+     * @return L'entier lu
+     * @throws IOException si la lecture échoue
+     */
+    public int readVarInt(DataInputView source) throws IOException {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = source.readByte();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while((b & 0x80) != 0);
+        return value;
+    }
+
+    /**
+     * Ecrit l'identifiant d'une ressource, suivi de son nom si le dictionnaire des ressources est désactivé ou si la
+     * ressource n'a pas d'identifiant. L'identifiant est conservé dans tous les cas, les flux étant partitionnés
+     * selon celui-ci.
+     * @param cloudResourceId - L'identifiant de la ressource
+     * @param cloudResourceName - Le nom de la ressource
+     * @param target - La sortie dans laquelle écrire la ressource
+     * @throws IOException si l'écriture échoue
+     */
+    public void writeResource(int cloudResourceId, String cloudResourceName, DataOutputView target)
+            throws IOException {
+        writeVarInt(cloudResourceId + 1, target);
+        if(!nameDictionaryEnabled || cloudResourceId == CloudResourcesAccess.UNKNOWN_RESOURCE_ID) {
+            target.writeUTF(cloudResourceName);
+        }
+    }
+
+    /**
+     * Relit l'identifiant d'une ressource écrite par {@link #writeResource(int, String, DataOutputView)}
+     * @param source - L'entrée depuis laquelle lire l'identifiant
+     * @return L'identifiant de la ressource
+     * @throws IOException si la lecture échoue
+     */
+    public int readResourceId(DataInputView source) throws IOException {
+        return readVarInt(source) - 1;
+    }
+
+    /**
+     * Relit le nom d'une ressource écrite par {@link #writeResource(int, String, DataOutputView)}, après son
+     * identifiant. Si le nom n'a pas été écrit, il est résolu par le dictionnaire des ressources.
+     * @param cloudResourceId - L'identifiant de la ressource, lu par {@link #readResourceId(DataInputView)}
+     * @param source - L'entrée depuis laquelle lire le nom
+     * @return Le nom de la ressource
+     * @throws IOException si la lecture échoue ou si l'identifiant est absent du dictionnaire
+     */
+    public String readResourceName(int cloudResourceId, DataInputView source) throws IOException {
+        if(!nameDictionaryEnabled || cloudResourceId == CloudResourcesAccess.UNKNOWN_RESOURCE_ID) {
+            return source.readUTF();
+        }
+        return resolveName(cloudResourceId);
+    }
+
+    /**
+     * Ecrit un nom de ressource, sous la forme de son identifiant si le dictionnaire des ressources est activé et
+     * contient ce nom
+     * @param name - Le nom à écrire (éventuellement nul)
+     * @param target - La sortie dans laquelle écrire le nom
+     * @throws IOException si l'écriture échoue
+     */
+    public void writeName(String name, DataOutputView target) throws IOException {
+        if(nameDictionaryEnabled) {
+            int id = name == null ? CloudResourcesAccess.UNKNOWN_RESOURCE_ID
+                    : CloudResourcesAccess.getInstance().getResourceId(name);
+            //0 : nom nul, 1 : nom absent du dictionnaire écrit en clair, sinon identifiant décalé de 2
+            if(id != CloudResourcesAccess.UNKNOWN_RESOURCE_ID) {
+                writeVarInt(id + 2, target);
+            } else {
+                writeVarInt(name == null ? 0 : 1, target);
+                if(name != null) {
+                    target.writeUTF(name);
+                }
+            }
+        } else {
+            target.writeBoolean(name != null);
+            if(name != null) {
+                target.writeUTF(name);
+            }
+        }
+    }
+
+    /**
+     * Relit un nom écrit par {@link #writeName(String, DataOutputView)}
+     * @param source - L'entrée depuis laquelle lire le nom
+     * @return Le nom lu (éventuellement nul)
+     * @throws IOException si la lecture échoue
+     */
+    public String readName(DataInputView source) throws IOException {
+        if(nameDictionaryEnabled) {
+            int id = readVarInt(source);
+            if(id < 2) {
+                return id == 0 ? null : source.readUTF();
+            }
+            return resolveName(id - 2);
+        }
+        return source.readBoolean() ? source.readUTF() : null;
+    }
+
+    /**
+     * Résout le nom d'une ressource par le dictionnaire des ressources
+     * @param cloudResourceId - L'identifiant de la ressource
+     * @return Le nom de la ressource
+     * @throws IOException si l'identifiant est absent du dictionnaire (par exemple dans une autre JVM)
+     */
+    private String resolveName(int cloudResourceId) throws IOException {
+        try {
+            return CloudResourcesAccess.getInstance().getResourceName(cloudResourceId);
+        } catch(IllegalArgumentException e) {
+            throw new IOException("Resource id not in this JVM's dictionary, disable the name dictionary : "
+                    + cloudResourceId, e);
+        }
+    }
+
+    /**
+     * Ecrit un type de ressource sur un octet
+     * @param type - Le type à écrire (éventuellement nul)
+     * @param target - La sortie dans laquelle écrire le type
+     * @throws IOException si l'écriture échoue
+     */
+    public void writeType(CloudResourceType type, DataOutputView target) throws IOException {
+        target.writeByte(type == null ? NULL_TYPE : type.ordinal());
+    }
+
+    /**
+     * Relit un type écrit par {@link #writeType(CloudResourceType, DataOutputView)}
+     * @param source - L'entrée depuis laquelle lire le type
+     * @return Le type lu (éventuellement nul)
+     * @throws IOException si la lecture échoue
+     */
+    public CloudResourceType readType(DataInputView source) throws IOException {
+        byte ordinal = source.readByte();
+        return ordinal == NULL_TYPE ? null : TYPES[ordinal];
+    }
+
+    /**
+     * Ecrit une liste de ressources (type, nom et score) sous forme de trois tableaux : les types, puis les noms,
+     * puis les scores. Les scores ne doivent pas être nuls.
+     * @param resources - Les ressources à écrire
+     * @param target - La sortie dans laquelle écrire les ressources
+     * @throws IOException si l'écriture échoue
+     */
+    public void writeResources(Deque<Triplet<CloudResourceType, String, Integer>> resources, DataOutputView target)
+            throws IOException {
+        writeVarInt(resources.size(), target);
+        for(Triplet<CloudResourceType, String, Integer> resource : resources) {
+            writeType(resource.getFirst(), target);
+        }
+        for(Triplet<CloudResourceType, String, Integer> resource : resources) {
+            writeName(resource.getSecond(), target);
+        }
+        for(Triplet<CloudResourceType, String, Integer> resource : resources) {
+            target.writeInt(resource.getThird());
+        }
+    }
+
+    /**
+     * Relit une liste de ressources écrite par {@link #writeResources(Deque, DataOutputView)}
+     * @param source - L'entrée depuis laquelle lire les ressources
+     * @return Les ressources lues, dans leur ordre d'écriture
+     * @throws IOException si la lecture échoue
+     */
+    public Deque<Triplet<CloudResourceType, String, Integer>> readResources(DataInputView source) throws IOException {
+        int size = readVarInt(source);
+        CloudResourceType[] types = new CloudResourceType[size];
+        String[] names = new String[size];
+        for(int i = 0; i < size; i++) {
+            types[i] = readType(source);
+        }
+        for(int i = 0; i < size; i++) {
+            names[i] = readName(source);
+        }
+        Deque<Triplet<CloudResourceType, String, Integer>> resources = new LinkedList<>();
+        for(int i = 0; i < size; i++) {
+            resources.add(new Triplet<>(types[i], names[i], source.readInt()));
+        }
+        return resources;
+    }
+
+    @Override
+    public boolean isImmutableType() {
+        return false;
+    }
+
+    @Override
+    public EventSerializer<T> duplicate() {
+        return new EventSerializer<>(typeClass, eventClasses, codecs, nameDictionaryEnabled, kryoSerializer.duplicate());
+    }
+
+    @Override
+    public T createInstance() {
+        return null;
+    }
+
+    @Override
+    public T copy(T from) {
+        if(from == null) {
+            return null;
+        }
+        if(!tags.containsKey(from.getClass())) {
+            return typeClass.cast(kryoSerializer.copy(from));
+        }
+        if(copyOutput == null) {
+            copyOutput = new DataOutputSerializer(128);
+            copyInput = new DataInputDeserializer();
+        }
+        try {
+            copyOutput.clear();
+            serializeEvent(from, copyOutput);
+            copyInput.setBuffer(copyOutput.getByteArray(), 0, copyOutput.length());
+            return typeClass.cast(deserializeEvent(copyInput));
+        } catch (IOException e) {
+            throw new RuntimeException("Could not copy event " + from, e);
+        }
+    }
+
+    @Override
+    public T copy(T from, T reuse) {
+        return copy(from);
+    }
+
+    @Override
+    public int getLength() {
+        return -1;
+    }
+
+    @Override
+    public void serialize(T record, DataOutputView target) throws IOException {
+        serializeEvent(record, target);
+    }
+
+    @Override
+    public T deserialize(DataInputView source) throws IOException {
+        return typeClass.cast(deserializeEvent(source));
+    }
+
+    @Override
+    public T deserialize(T reuse, DataInputView source) throws IOException {
+        return deserialize(source);
+    }
+
+    @Override
+    public void copy(DataInputView source, DataOutputView target) throws IOException {
+        serializeEvent(deserializeEvent(source), target);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if(obj instanceof EventSerializer) {
+            EventSerializer<?> other = (EventSerializer<?>) obj;
+            return other.canEqual(this) && typeClass == other.typeClass
+                    && nameDictionaryEnabled == other.nameDictionaryEnabled
+                    && Arrays.equals(eventClasses, other.eventClasses);
+        }
+        return false;
+    }
+
+    @Override
+    public boolean canEqual(Object obj) {
+        return obj instanceof EventSerializer;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * typeClass.hashCode() + Arrays.hashCode(eventClasses);
+    }
+
+    @Override
+    public TypeSerializerConfigSnapshot snapshotConfiguration() {
+        return new ParameterlessTypeSerializerConfig(getFormatIdentifier());
+    }
+
+    @Override
+    public CompatibilityResult<T> ensureCompatibility(TypeSerializerConfigSnapshot configSnapshot) {
+        if(configSnapshot instanceof ParameterlessTypeSerializerConfig
+                && getFormatIdentifier().equals(
+                        ((ParameterlessTypeSerializerConfig) configSnapshot).getSerializationFormatIdentifier())) {
+            return CompatibilityResult.compatible();
+        }
+        return CompatibilityResult.requiresMigration();
+    }
+
+    /**
+     * Construit l'identifiant du format d'écriture, qui dépend des étiquettes attribuées et de l'encodage des noms
+     * @return L'identifiant du format d'écriture
+     */
+    private String getFormatIdentifier() {
+        StringBuilder identifier = new StringBuilder(EventSerializer.class.getName());
+        identifier.append(nameDictionaryEnabled ? "[ids]" : "[names]");
+        for(Class<? extends Event> eventClass : eventClasses) {
+            identifier.append(';').append(eventClass.getName());
+        }
+        return identifier.toString();
+    }
+
+}
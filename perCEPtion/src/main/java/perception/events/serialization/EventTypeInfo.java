@@ -0,0 +1,97 @@
+package perception.events.serialization;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import perception.events.Event;
+
+/**
+ * Information de type Flink des flux d'évènements de perCEPtion, qui associe aux flux un {@link EventSerializer}
+ * au lieu du sérialiseur générique (Kryo) choisi par défaut pour ces classes sans constructeur par défaut.
+ * @param <T> - Le type des évènements du flux
+ */
+public class EventTypeInfo<T extends Event> extends TypeInformation<T> {
+
+    private final Class<T> typeClass; //Type des évènements du flux
+
+    /**
+     * Constructeur de la classe {@link EventTypeInfo}
+     * @param typeClass - Le type des évènements du flux
+     */
+    public EventTypeInfo(Class<T> typeClass) {
+        if(typeClass == null) {
+            throw new IllegalArgumentException("typeClass must not be null");
+        }
+        this.typeClass = typeClass;
+    }
+
+    /**
+     * Crée l'information de type d'un flux d'évènements
+     * @param typeClass - Le type des évènements du flux
+     * @param <T> - Le type des évènements du flux
+     * @return L'information de type du flux
+     */
+    public static <T extends Event> EventTypeInfo<T> forEventClass(Class<T> typeClass) {
+        return new EventTypeInfo<>(typeClass);
+    }
+
+    @Override
+    public boolean isBasicType() {
+        return false;
+    }
+
+    @Override
+    public boolean isTupleType() {
+        return false;
+    }
+
+    @Override
+    public int getArity() {
+        return 1;
+    }
+
+    @Override
+    public int getTotalFields() {
+        return 1;
+    }
+
+    @Override
+    public Class<T> getTypeClass() {
+        return typeClass;
+    }
+
+    @Override
+    public boolean isKeyType() {
+        return false;
+    }
+
+    @Override
+    public TypeSerializer<T> createSerializer(ExecutionConfig config) {
+        return new EventSerializer<>(typeClass, EventCodecRegistry.getInstance(), config);
+    }
+
+    @Override
+    public String toString() {
+        return "EventTypeInfo<" + typeClass.getName() + ">";
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if(obj instanceof EventTypeInfo) {
+            EventTypeInfo<?> other = (EventTypeInfo<?>) obj;
+            return other.canEqual(this) && typeClass == other.typeClass;
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return typeClass.hashCode();
+    }
+
+    @Override
+    public boolean canEqual(Object obj) {
+        return obj instanceof EventTypeInfo;
+    }
+
+}
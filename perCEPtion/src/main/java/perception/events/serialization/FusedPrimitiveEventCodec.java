@@ -0,0 +1,38 @@
+package perception.events.serialization;
+
+import graph.CloudResourceType;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+import perception.events.FusedPrimitiveEvent;
+import perception.events.PrimitiveEvent;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Codec des {@link FusedPrimitiveEvent}, dont les évènements fusionnés sont sérialisés par leur propre codec
+ */
+class FusedPrimitiveEventCodec extends PrimitiveEventCodec<FusedPrimitiveEvent> {
+
+    @Override
+    protected void writeFields(FusedPrimitiveEvent event, EventSerializer<?> serializer, DataOutputView target)
+            throws IOException {
+        List<PrimitiveEvent> components = event.getComponents();
+        serializer.writeVarInt(components.size(), target);
+        for(PrimitiveEvent component : components) {
+            serializer.serializeEvent(component, target);
+        }
+    }
+
+    @Override
+    protected FusedPrimitiveEvent readFields(int cloudResourceId, String cloudResourceName, CloudResourceType type,
+                                             int score, EventSerializer<?> serializer, DataInputView source)
+            throws IOException {
+        PrimitiveEvent[] components = new PrimitiveEvent[serializer.readVarInt(source)];
+        for(int i = 0; i < components.length; i++) {
+            components[i] = (PrimitiveEvent) serializer.deserializeEvent(source);
+        }
+        return new FusedPrimitiveEvent(cloudResourceId, cloudResourceName, type, score, components);
+    }
+
+}
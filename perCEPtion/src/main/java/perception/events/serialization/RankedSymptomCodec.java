@@ -0,0 +1,33 @@
+package perception.events.serialization;
+
+import graph.CloudResourceType;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+import perception.events.RankedSymptom;
+import utils.Triplet;
+
+import java.io.IOException;
+import java.util.Deque;
+
+/**
+ * Codec des {@link RankedSymptom}, dont l'évènement à l'origine du symptôme est sérialisé par son propre codec
+ */
+class RankedSymptomCodec extends SymptomCodec<RankedSymptom> {
+
+    @Override
+    protected void writeFields(RankedSymptom symptom, EventSerializer<?> serializer, DataOutputView target)
+            throws IOException {
+        serializer.writeVarInt(symptom.getRank(), target);
+        serializer.serializeEvent(symptom.getCause(), target);
+    }
+
+    @Override
+    protected RankedSymptom readFields(Deque<Triplet<CloudResourceType, String, Integer>> resources,
+                                       EventSerializer<?> serializer, DataInputView source) throws IOException {
+        Triplet<CloudResourceType, String, Integer> resource = resources.getFirst();
+        int rank = serializer.readVarInt(source);
+        return new RankedSymptom(resource.getFirst(), resource.getSecond(), resource.getThird(), rank,
+                serializer.deserializeEvent(source));
+    }
+
+}
@@ -0,0 +1,58 @@
+package perception.events.serialization;
+
+import graph.CloudResourceType;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+import perception.events.SimpleEvent;
+
+import java.io.IOException;
+
+/**
+ * Codec d'une classe d'évènement simple.
+ * La ressource (voir {@link EventSerializer#writeResource(int, String, DataOutputView)}), son type et son score sont
+ * écrits par ce codec ; les sous-classes n'écrivent que les champs propres à leur classe d'évènement.
+ * @param <T> - La classe d'évènement simple prise en charge
+ */
+public abstract class SimpleEventCodec<T extends SimpleEvent> implements EventCodec<T> {
+
+    @Override
+    public void serialize(T event, EventSerializer<?> serializer, DataOutputView target) throws IOException {
+        serializer.writeResource(event.getCloudResourceId(), event.getCloudResourceName(), target);
+        serializer.writeType(event.getCloudResourceType(), target);
+        target.writeInt(event.getScore());
+        writeFields(event, serializer, target);
+    }
+
+    @Override
+    public T deserialize(EventSerializer<?> serializer, DataInputView source) throws IOException {
+        int cloudResourceId = serializer.readResourceId(source);
+        String cloudResourceName = serializer.readResourceName(cloudResourceId, source);
+        CloudResourceType type = serializer.readType(source);
+        int score = source.readInt();
+        return readFields(cloudResourceId, cloudResourceName, type, score, serializer, source);
+    }
+
+    /**
+     * Ecrit les champs propres à la classe d'évènement
+     * @param event - L'évènement à écrire
+     * @param serializer - Le sérialiseur appelant
+     * @param target - La sortie dans laquelle écrire les champs
+     * @throws IOException si l'écriture échoue
+     */
+    protected abstract void writeFields(T event, EventSerializer<?> serializer, DataOutputView target) throws IOException;
+
+    /**
+     * Relit les champs propres à la classe d'évènement et construit l'évènement
+     * @param cloudResourceId - L'identifiant de la ressource
+     * @param cloudResourceName - Le nom de la ressource
+     * @param type - Le type de la ressource
+     * @param score - Le score de la ressource
+     * @param serializer - Le sérialiseur appelant
+     * @param source - L'entrée depuis laquelle lire les champs
+     * @return L'évènement lu
+     * @throws IOException si la lecture échoue
+     */
+    protected abstract T readFields(int cloudResourceId, String cloudResourceName, CloudResourceType type, int score,
+                                    EventSerializer<?> serializer, DataInputView source) throws IOException;
+
+}
@@ -0,0 +1,51 @@
+package perception.events.serialization;
+
+import graph.CloudResourceType;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+import perception.events.Symptom;
+import utils.Triplet;
+
+import java.io.IOException;
+import java.util.Deque;
+
+/**
+ * Codec d'une classe de symptôme.
+ * Les ressources impactées par le symptôme sont écrites par ce codec ; les sous-classes n'écrivent que les champs
+ * propres à leur classe de symptôme.
+ * @param <T> - La classe de symptôme prise en charge
+ */
+public abstract class SymptomCodec<T extends Symptom> implements EventCodec<T> {
+
+    @Override
+    public void serialize(T symptom, EventSerializer<?> serializer, DataOutputView target) throws IOException {
+        serializer.writeResources(symptom.getCloudResources(), target);
+        writeFields(symptom, serializer, target);
+    }
+
+    @Override
+    public T deserialize(EventSerializer<?> serializer, DataInputView source) throws IOException {
+        return readFields(serializer.readResources(source), serializer, source);
+    }
+
+    /**
+     * Ecrit les champs propres à la classe de symptôme
+     * @param symptom - Le symptôme à écrire
+     * @param serializer - Le sérialiseur appelant
+     * @param target - La sortie dans laquelle écrire les champs
+     * @throws IOException si l'écriture échoue
+     */
+    protected abstract void writeFields(T symptom, EventSerializer<?> serializer, DataOutputView target) throws IOException;
+
+    /**
+     * Relit les champs propres à la classe de symptôme et construit le symptôme
+     * @param resources - Les ressources impactées par le symptôme
+     * @param serializer - Le sérialiseur appelant
+     * @param source - L'entrée depuis laquelle lire les champs
+     * @return Le symptôme lu
+     * @throws IOException si la lecture échoue
+     */
+    protected abstract T readFields(Deque<Triplet<CloudResourceType, String, Integer>> resources,
+                                    EventSerializer<?> serializer, DataInputView source) throws IOException;
+
+}
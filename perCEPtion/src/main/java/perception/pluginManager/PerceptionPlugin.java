@@ -1,11 +1,15 @@
 package perception.pluginManager;
 
 import perception.complex_event_generator.ComplexEventGenerator;
+import perception.events.Event;
+import perception.events.serialization.EventCodec;
 import perception.primitive_events_generator.PrimitiveEventGenerator;
 import perception.simple_events_generator.SimpleEventGenerator;
 
 import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.Map;
 
 public abstract class PerceptionPlugin {
 
@@ -14,6 +18,7 @@ public abstract class PerceptionPlugin {
     private Deque<Class<? extends PrimitiveEventGenerator>> pegs;
     private Deque<Class<? extends SimpleEventGenerator>> segs;
     private Deque<Class<? extends ComplexEventGenerator>> cegs;
+    private Map<Class<? extends Event>, EventCodec<?>> eventCodecs;
 
     public PerceptionPlugin(String pluginName, int version) {
         this.pluginName = pluginName;
@@ -21,6 +26,7 @@ public abstract class PerceptionPlugin {
         this.pegs = new LinkedList<>();
         this.segs = new LinkedList<>();
         this.cegs = new LinkedList<>();
+        this.eventCodecs = new LinkedHashMap<>();
         this.initPlugin();
     }
 
@@ -46,6 +52,10 @@ public abstract class PerceptionPlugin {
         return cegs;
     }
 
+    final public Map<Class<? extends Event>, EventCodec<?>> getEventCodecs() {
+        return eventCodecs;
+    }
+
     final protected boolean isPegExists(String pegClassName) {
         for(Class<? extends PrimitiveEventGenerator> p : pegs) {
             if(p.getSimpleName().equals(pegClassName)) {
@@ -97,4 +107,12 @@ public abstract class PerceptionPlugin {
         return true;
     }
 
+    final protected <T extends Event> boolean registerEventCodec(Class<T> eventClass, EventCodec<T> codec) {
+        if(eventCodecs.containsKey(eventClass)) {
+            return false;
+        }
+        eventCodecs.put(eventClass, codec);
+        return true;
+    }
+
 }
@@ -1,6 +1,7 @@
 package perception.pluginManager;
 
 import perception.complex_event_generator.ComplexEventGenerator;
+import perception.events.serialization.EventCodecRegistry;
 import perception.primitive_events_generator.PrimitiveEventGenerator;
 import perception.simple_events_generator.SimpleEventGenerator;
 
@@ -85,6 +86,9 @@ public class PluginManager {
         if(isRegistrationOk) {
             isRegistrationOk = cegBank.registerPlugin(plugin);
         }
+        if(isRegistrationOk) {
+            EventCodecRegistry.getInstance().registerAll(plugin.getEventCodecs());
+        }
         return isRegistrationOk;
     }
 
@@ -0,0 +1,519 @@
+package perception.primitive_events_generator;
+
+import graph.CloudResource;
+import graph.CloudResourceType;
+import org.apache.flink.api.common.functions.IterationRuntimeContext;
+import org.apache.flink.api.common.functions.RichFunction;
+import org.apache.flink.api.common.functions.RuntimeContext;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.streaming.api.functions.source.ParallelSourceFunction;
+import org.apache.flink.util.InstantiationUtil;
+import perception.core.CloudResourcesAccess;
+import perception.core.PerceptionRunContext;
+import perception.core.SourceStartup;
+import perception.events.FusedPrimitiveEvent;
+import perception.events.PrimitiveEvent;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Source Flink unique hébergeant un ensemble de {@link PrimitiveEventGenerator}.
+ * Au lieu d'une source (et d'un thread) par PEG, le multiplexeur planifie les exécutions de tous les PEG hébergés sur
+ * une {@link TimingWheel} et, à chaque tick, effectue un unique parcours des ressources surveillées partagé entre
+ * tous les PEG dont l'exécution est due.
+ *
+ * Le multiplexeur peut être exécuté en parallèle : les ressources sont alors réparties entre les sous-tâches selon
+ * le hash de leur nom, comme pour un PEG parallèle. Le parallélisme propre à chaque PEG hébergé est ignoré.
+ * Les PEG en mode push effectuent leurs exécutions incrémentales indépendamment et ne rejoignent le parcours
+ * partagé que lorsqu'un parcours complet est nécessaire.
+ *
+ * Le multiplexeur peut également fusionner les évènements (voir {@link #setFuseEvents(boolean)}) : les évènements
+ * générés pour une même ressource lors d'un même tick par les PEG du parcours partagé sont alors émis sous la forme
+ * d'un unique {@link FusedPrimitiveEvent}, au lieu d'un évènement par PEG.
+ *
+ * Comme un PEG, le multiplexeur date les évènements du tick qui les a générés et émet un watermark après chaque tick
+ * exécuté (et au moins toutes les {@link PrimitiveEventGenerator#MS_WATERMARK_INTERVAL} millisecondes). Il se déclare
+ * inactif auprès de Flink lorsqu'aucun des PEG hébergés n'est activé.
+ * Entre deux exécutions, le multiplexeur attend la plus proche échéance de la roue (limitée à l'intervalle entre deux
+ * watermarks tant qu'un PEG est activé) ; il est réveillé plus tôt lorsqu'un PEG est ajouté, réactivé ou arrêté, ou
+ * lorsque sa période est modifiée (voir {@link PrimitiveEventGenerator#setMsRefreshingRate(long)}).
+ *
+ * Des PEG peuvent être ajoutés aux multiplexeurs en cours d'exécution (voir {@link #hostInRunning(PrimitiveEventGenerator)}) :
+ * ils sont planifiés dès le tick suivant, sans redémarrage.
+ * @author Chloé GUILBAUD, Léo PARIS, Kendall FOREST, Mathieu GUYOT
+ */
+public class PEGMultiplexer implements ParallelSourceFunction<PrimitiveEvent>, RichFunction {
+
+    //Instances en cours d'exécution (Flink exécute une copie sérialisée du multiplexeur par sous-tâche)
+    private static final Set<PEGMultiplexer> runningMultiplexers = ConcurrentHashMap.newKeySet();
+
+    private final String id; //Identifiant partagé par le multiplexeur et ses copies exécutées par Flink
+    private final List<PrimitiveEventGenerator> generators; //PEG hébergés
+    private final long msTickDuration; //Durée d'un tick de la roue temporelle
+    private boolean fuseEvents; //Indique si les évènements d'une même ressource et d'un même tick sont fusionnés
+
+    private transient volatile boolean cancelled; //Indique si l'exécution du multiplexeur a été arrêtée
+    private transient boolean runningInstance; //Indique si cette instance est celle exécutée par Flink
+    private transient RuntimeContext runtimeContext; //Contexte d'exécution fourni par Flink
+    private transient Queue<PrimitiveEventGenerator> addedGenerators; //PEG ajoutés pendant l'exécution, non planifiés
+    private transient Queue<PrimitiveEventGenerator> changedGenerators; //PEG hébergés modifiés, non encore pris en compte
+    private transient ReentrantLock stateLock; //Verrou protégeant l'attente de la prochaine échéance
+    private transient Condition stateChanged; //Signalée lors d'un ajout ou d'une modification d'un PEG, ou d'un arrêt
+
+    /**
+     * Constructeur de la classe {@link PEGMultiplexer}
+     * @param generators - Les PEG à héberger
+     * @param msTickDuration - La durée (en millisecondes) d'un tick, c'est-à-dire la précision de planification des PEG
+     */
+    public PEGMultiplexer(Collection<? extends PrimitiveEventGenerator> generators, long msTickDuration) {
+        if(msTickDuration <= 0) {
+            throw new IllegalArgumentException("msTickDuration must be strictly positive");
+        }
+        this.id = UUID.randomUUID().toString();
+        this.generators = new ArrayList<>(generators);
+        this.msTickDuration = msTickDuration;
+        this.fuseEvents = false;
+    }
+
+    /**
+     * Active ou désactive la fusion des évènements. Lorsqu'elle est active, les évènements générés pour une même
+     * ressource lors d'un même tick sont émis sous la forme d'un unique {@link FusedPrimitiveEvent} : les SEG et CEG
+     * doivent alors consommer ce type d'évènement.
+     * @param fuseEvents - <code>true</code> pour fusionner les évènements, <code>false</code> sinon
+     */
+    public void setFuseEvents(boolean fuseEvents) {
+        this.fuseEvents = fuseEvents;
+    }
+
+    public boolean isFuseEvents() {
+        return fuseEvents;
+    }
+
+    /**
+     * Accesseur des PEG hébergés
+     * @return Les PEG hébergés par le multiplexeur
+     */
+    public List<PrimitiveEventGenerator> getGenerators() {
+        return generators;
+    }
+
+    public long getMsTickDuration() {
+        return msTickDuration;
+    }
+
+    /**
+     * Ajoute un PEG aux multiplexeurs en cours d'exécution. Chaque sous-tâche héberge sa propre copie du PEG, planifiée
+     * dès le tick suivant et traitant les ressources attribuées à la sous-tâche.
+     * @param peg - Le PEG à ajouter
+     * @return <code>true</code> si le PEG est hébergé par au moins un multiplexeur, <code>false</code> si aucun
+     * multiplexeur n'est en cours d'exécution
+     */
+    public static boolean hostInRunning(PrimitiveEventGenerator peg) {
+        boolean hosted = false;
+        for(PEGMultiplexer multiplexer : runningMultiplexers) {
+            try {
+                multiplexer.addedGenerators.add(InstantiationUtil.clone(peg));
+                multiplexer.signalStateChange();
+            } catch (IOException | ClassNotFoundException e) {
+                throw new IllegalArgumentException("peg " + peg.getName() + " cannot be copied", e);
+            }
+            hosted = true;
+        }
+        return hosted;
+    }
+
+    @Override
+    public void run(SourceContext<PrimitiveEvent> ctx) throws Exception {
+        int subtaskIndex = 0;
+        int subtaskCount = 1;
+        if(runtimeContext != null) {
+            subtaskIndex = runtimeContext.getIndexOfThisSubtask();
+            subtaskCount = runtimeContext.getNumberOfParallelSubtasks();
+        }
+        long startTime = System.nanoTime();
+        long tickNanos = TimeUnit.MILLISECONDS.toNanos(msTickDuration);
+        TimingWheel<HostedGenerator> wheel = new TimingWheel<>(0);
+        Map<PrimitiveEventGenerator, HostedGenerator> hosted = new IdentityHashMap<>();
+        addedGenerators = new ConcurrentLinkedQueue<>();
+        changedGenerators = new ConcurrentLinkedQueue<>();
+        stateLock = new ReentrantLock();
+        stateChanged = stateLock.newCondition();
+        for(PrimitiveEventGenerator peg : generators) {
+            host(peg, subtaskIndex, subtaskCount, wheel, hosted);
+        }
+        List<HostedGenerator> dueGenerators = new ArrayList<>();
+        long lastWatermark = 0;
+        boolean idle = false;
+        runningInstance = true;
+        runningMultiplexers.add(this);
+        SourceStartup.started();
+        try {
+            while(!cancelled && (wheel.size() > 0 || !addedGenerators.isEmpty())) {
+                PrimitiveEventGenerator added;
+                while((added = addedGenerators.poll()) != null) {
+                    generators.add(added);
+                    host(added, subtaskIndex, subtaskCount, wheel, hosted);
+                }
+                PrimitiveEventGenerator changed;
+                while((changed = changedGenerators.poll()) != null) {
+                    HostedGenerator hostedGenerator = hosted.get(changed);
+                    if(hostedGenerator != null) {
+                        applyChange(hostedGenerator, wheel, hosted);
+                    }
+                }
+                long now = System.nanoTime();
+                wheel.advance((now - startTime) / tickNanos, dueGenerators::add);
+                boolean executed = !dueGenerators.isEmpty();
+                if(executed) {
+                    long tick = wheel.getCurrentTick();
+                    long scanStart = System.nanoTime();
+                    execTick(ctx, dueGenerators, subtaskIndex, subtaskCount);
+                    long scanDuration = System.nanoTime() - scanStart;
+                    for(HostedGenerator hostedGenerator : dueGenerators) {
+                        PrimitiveEventGenerator peg = hostedGenerator.peg;
+                        if(!peg.isCancelled()) {
+                            if(peg.isHasToGenerateEvents()) {
+                                peg.getStatistics().recordTick(scanDuration);
+                            }
+                            hostedGenerator.deadlineTick = wheel.schedule(hostedGenerator,
+                                    nextTick(hostedGenerator, tick, scanStart + scanDuration - startTime, tickNanos));
+                        } else {
+                            hosted.remove(peg);
+                        }
+                    }
+                    dueGenerators.clear();
+                }
+                if(!isAnyGenerating()) {
+                    if(!idle) {
+                        ctx.markAsTemporarilyIdle();
+                        idle = true;
+                    }
+                } else if(executed || idle
+                        || System.currentTimeMillis() - lastWatermark >= PrimitiveEventGenerator.MS_WATERMARK_INTERVAL) {
+                    PrimitiveEventGenerator.emitWatermark(ctx);
+                    lastWatermark = System.currentTimeMillis();
+                    idle = false;
+                }
+                if(wheel.size() == 0) {
+                    //Plus aucun PEG planifié : l'exécution se termine, sauf si des PEG viennent d'être ajoutés
+                    continue;
+                }
+                //Attente de la prochaine échéance, et du prochain watermark tant qu'un PEG est activé
+                long nextDeadline = wheel.getNextDeadlineTick();
+                long sleepTime = nextDeadline >= Long.MAX_VALUE / tickNanos ? Long.MAX_VALUE
+                        : nextDeadline * tickNanos - (System.nanoTime() - startTime);
+                if(!idle) {
+                    sleepTime = Math.min(sleepTime, TimeUnit.MILLISECONDS.toNanos(
+                            lastWatermark + PrimitiveEventGenerator.MS_WATERMARK_INTERVAL - System.currentTimeMillis()));
+                }
+                awaitStateChange(sleepTime);
+            }
+        } finally {
+            runningMultiplexers.remove(this);
+            for(PrimitiveEventGenerator peg : generators) {
+                peg.stopRun();
+            }
+        }
+    }
+
+    /**
+     * Prépare l'exécution d'un PEG hébergé et le planifie dès le tick suivant
+     * @param peg - Le PEG à héberger
+     * @param subtaskIndex - L'indice de la sous-tâche exécutant le multiplexeur
+     * @param subtaskCount - Le nombre de sous-tâches exécutant le multiplexeur
+     * @param wheel - La roue temporelle planifiant les PEG hébergés
+     * @param hosted - Les PEG hébergés et planifiés
+     */
+    private void host(PrimitiveEventGenerator peg, int subtaskIndex, int subtaskCount,
+                      TimingWheel<HostedGenerator> wheel, Map<PrimitiveEventGenerator, HostedGenerator> hosted) {
+        peg.startRun(subtaskIndex, subtaskCount);
+        HostedGenerator hostedGenerator = new HostedGenerator(peg);
+        hostedGenerator.generating = peg.isHasToGenerateEvents();
+        hostedGenerator.deadlineTick = wheel.schedule(hostedGenerator, wheel.getCurrentTick());
+        hosted.put(peg, hostedGenerator);
+        peg.setHost(this);
+    }
+
+    /**
+     * Prend en compte la modification d'un PEG hébergé : un PEG arrêté est retiré de la roue, un PEG réactivé est
+     * exécuté dès le tick suivant et un PEG dont la période a été modifiée est replanifié selon la nouvelle période,
+     * comme un PEG exécuté seul
+     * @param hostedGenerator - Le PEG modifié
+     * @param wheel - La roue temporelle planifiant les PEG hébergés
+     * @param hosted - Les PEG hébergés et planifiés
+     */
+    private void applyChange(HostedGenerator hostedGenerator, TimingWheel<HostedGenerator> wheel,
+                             Map<PrimitiveEventGenerator, HostedGenerator> hosted) {
+        PrimitiveEventGenerator peg = hostedGenerator.peg;
+        if(peg.isCancelled()) {
+            wheel.remove(hostedGenerator, hostedGenerator.deadlineTick);
+            hosted.remove(peg);
+            return;
+        }
+        boolean generating = peg.isHasToGenerateEvents();
+        long periodTicks = getPeriodTicks(peg);
+        if(generating && !hostedGenerator.generating) {
+            wheel.remove(hostedGenerator, hostedGenerator.deadlineTick);
+            hostedGenerator.deadlineTick = wheel.schedule(hostedGenerator, wheel.getCurrentTick());
+        } else if(periodTicks != hostedGenerator.periodTicks && hostedGenerator.lastTick >= 0) {
+            //Période modifiée : la prochaine exécution est replanifiée selon la nouvelle période, sans rattrapage des
+            //exécutions qu'elle aurait comptées depuis la précédente
+            wheel.remove(hostedGenerator, hostedGenerator.deadlineTick);
+            hostedGenerator.deadlineTick = wheel.schedule(hostedGenerator,
+                    Math.max(wheel.getCurrentTick(), hostedGenerator.lastTick + periodTicks));
+            hostedGenerator.periodTicks = periodTicks;
+        }
+        hostedGenerator.generating = generating;
+    }
+
+    /**
+     * Signale au multiplexeur la modification d'un PEG hébergé (activation, période ou arrêt), prise en compte sans
+     * attendre la prochaine échéance de la roue
+     * @param peg - Le PEG modifié
+     */
+    void generatorChanged(PrimitiveEventGenerator peg) {
+        changedGenerators.add(peg);
+        signalStateChange();
+    }
+
+    /**
+     * Réveille le multiplexeur s'il est en attente de la prochaine échéance
+     */
+    private void signalStateChange() {
+        ReentrantLock lock = stateLock;
+        if(lock != null) {
+            lock.lock();
+            try {
+                stateChanged.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Met le multiplexeur en attente, en se réveillant prématurément en cas d'ajout ou de modification d'un PEG, ou
+     * d'arrêt
+     * @param nanos - La durée maximale de l'attente, en nanosecondes
+     * @throws InterruptedException si le thread est interrompu pendant l'attente
+     */
+    private void awaitStateChange(long nanos) throws InterruptedException {
+        stateLock.lock();
+        try {
+            long toWait = nanos;
+            while(toWait > 0 && !cancelled && addedGenerators.isEmpty() && changedGenerators.isEmpty()) {
+                toWait = stateChanged.awaitNanos(toWait);
+            }
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    /**
+     * Indique si au moins un des PEG hébergés est activé
+     * @return <code>true</code> si un PEG hébergé génère des évènements, <code>false</code> sinon
+     */
+    private boolean isAnyGenerating() {
+        for(PrimitiveEventGenerator peg : generators) {
+            if(!peg.isCancelled() && peg.isHasToGenerateEvents()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Exécute les PEG dont l'exécution est due, en un seul parcours des ressources surveillées.
+     * Les évènements générés sont datés du début du tick.
+     * @param ctx - Le {@link org.apache.flink.streaming.api.functions.source.SourceFunction.SourceContext} qui collecte les PE générés
+     * @param dueGenerators - Les PEG hébergés dont l'exécution est due
+     * @param subtaskIndex - L'indice de la sous-tâche exécutant le multiplexeur
+     * @param subtaskCount - Le nombre de sous-tâches exécutant le multiplexeur
+     */
+    private void execTick(SourceContext<PrimitiveEvent> ctx, List<HostedGenerator> dueGenerators,
+                          int subtaskIndex, int subtaskCount) {
+        CloudResourcesAccess.Snapshot snapshot = CloudResourcesAccess.getInstance().getSnapshot();
+        long timestamp = System.currentTimeMillis();
+        List<PrimitiveEventGenerator> scanningGenerators = new ArrayList<>();
+        EnumSet<CloudResourceType> scannedTypes = EnumSet.noneOf(CloudResourceType.class);
+        for(HostedGenerator hostedGenerator : dueGenerators) {
+            PrimitiveEventGenerator peg = hostedGenerator.peg;
+            if(!peg.isCancelled() && peg.isHasToGenerateEvents() && !peg.execIncremental(ctx, snapshot, timestamp)) {
+                scanningGenerators.add(peg);
+                for(CloudResourceType type : CloudResourceType.values()) {
+                    if(peg.isHandledType(type)) {
+                        scannedTypes.add(type);
+                    }
+                }
+            }
+        }
+        if(scanningGenerators.isEmpty()) {
+            return;
+        }
+        PrimitiveEventGenerator[] pegs = scanningGenerators.toArray(new PrimitiveEventGenerator[scanningGenerators.size()]);
+        PrimitiveEvent[] components = new PrimitiveEvent[pegs.length];
+        for(CloudResourceType type : scannedTypes) {
+            for(CloudResource cr : snapshot.getResources(type)) {
+                if(subtaskCount == 1 || PrimitiveEventGenerator.isAssignedTo(cr, subtaskIndex, subtaskCount)) {
+                    if(fuseEvents) {
+                        emitFused(ctx, cr, pegs, components, timestamp);
+                    } else {
+                        for(PrimitiveEventGenerator peg : pegs) {
+                            if(peg.isHandledType(type)) {
+                                peg.emit(ctx, cr, timestamp);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Traite une ressource par tous les PEG donnés et émet les évènements générés sous la forme d'un unique
+     * {@link FusedPrimitiveEvent}
+     * @param ctx - Le {@link org.apache.flink.streaming.api.functions.source.SourceFunction.SourceContext} qui collecte les PE générés
+     * @param cr - La ressource à traiter
+     * @param pegs - Les PEG dont l'exécution est due
+     * @param components - Tableau de travail, de taille au moins égale au nombre de PEG
+     * @param timestamp - La date du tick, affectée aux évènements générés
+     */
+    private void emitFused(SourceContext<PrimitiveEvent> ctx, CloudResource cr, PrimitiveEventGenerator[] pegs,
+                           PrimitiveEvent[] components, long timestamp) {
+        int count = 0;
+        for(PrimitiveEventGenerator peg : pegs) {
+            if(peg.isHandledType(cr.getType())) {
+                Optional<PrimitiveEvent> optEvent = peg.generate(cr, timestamp);
+                if(optEvent.isPresent()) {
+                    components[count++] = optEvent.get();
+                }
+            }
+        }
+        if(count > 0) {
+            FusedPrimitiveEvent event = new FusedPrimitiveEvent(cr.getId(), cr.getName(), cr.getType(), cr.getScore(),
+                    Arrays.copyOf(components, count));
+            event.setTimestamp(timestamp);
+            ctx.collectWithTimestamp(event, timestamp);
+        }
+    }
+
+    /**
+     * Calcule le tick de la prochaine exécution d'un PEG et comptabilise un éventuel dépassement de sa période.
+     * Comme pour un PEG exécuté seul, le dépassement n'est journalisé qu'au début d'une série de dépassements.
+     * @param hostedGenerator - Le PEG exécuté
+     * @param tick - Le tick de l'exécution qui vient d'avoir lieu
+     * @param elapsedNanos - Le temps écoulé depuis le démarrage du multiplexeur à la fin de l'exécution
+     * @param tickNanos - La durée d'un tick en nanosecondes
+     * @return Le tick de la prochaine exécution
+     */
+    private long nextTick(HostedGenerator hostedGenerator, long tick, long elapsedNanos, long tickNanos) {
+        PrimitiveEventGenerator peg = hostedGenerator.peg;
+        long periodTicks = getPeriodTicks(peg);
+        hostedGenerator.lastTick = tick;
+        hostedGenerator.periodTicks = periodTicks;
+        long next = tick + periodTicks;
+        long currentTick = elapsedNanos / tickNanos;
+        if(next <= currentTick) {
+            long skippedTicks = 0;
+            if(peg.isSkipOverrunTicks()) {
+                skippedTicks = (currentTick - next) / periodTicks + 1;
+                next += skippedTicks * periodTicks;
+            }
+            peg.getStatistics().recordOverrun(skippedTicks);
+            if(!hostedGenerator.overrunning && PerceptionRunContext.getPerceptionLogger() != null) {
+                PerceptionRunContext.getPerceptionLogger().logMessage("Warning: PEG " + peg.getName()
+                        + " missed its refreshing rate of " + peg.getMsRefreshingRate() + "ms in the multiplexed source");
+            }
+            hostedGenerator.overrunning = true;
+        } else {
+            hostedGenerator.overrunning = false;
+        }
+        return next;
+    }
+
+    /**
+     * Convertit la période courante d'un PEG en ticks, bornée pour éviter les dépassements de capacité
+     * @param peg - Le PEG hébergé
+     * @return La période du PEG, en ticks
+     */
+    private long getPeriodTicks(PrimitiveEventGenerator peg) {
+        return Math.min(Math.max(1, peg.getMsRefreshingRate() / msTickDuration), Long.MAX_VALUE / 4);
+    }
+
+    /**
+     * Arrête l'exécution du multiplexeur et des PEG hébergés. Appelée sur une instance non exécutée, l'arrêt est
+     * transmis aux copies de ce multiplexeur en cours d'exécution.
+     */
+    @Override
+    public void cancel() {
+        cancelled = true;
+        if(runningInstance) {
+            signalStateChange();
+        } else {
+            for(PEGMultiplexer running : runningMultiplexers) {
+                if(running.id.equals(id)) {
+                    running.cancel();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void open(Configuration parameters) throws Exception {}
+
+    @Override
+    public void close() throws Exception {}
+
+    @Override
+    public RuntimeContext getRuntimeContext() {
+        if(runtimeContext == null) {
+            throw new IllegalStateException("The runtime context has not been initialized.");
+        }
+        return runtimeContext;
+    }
+
+    @Override
+    public IterationRuntimeContext getIterationRuntimeContext() {
+        throw new IllegalStateException("This stub is not part of an iteration step function.");
+    }
+
+    @Override
+    public void setRuntimeContext(RuntimeContext runtimeContext) {
+        this.runtimeContext = runtimeContext;
+    }
+
+    /**
+     * PEG hébergé et état de sa planification dans la roue temporelle
+     */
+    private static final class HostedGenerator {
+
+        private final PrimitiveEventGenerator peg;
+        private long deadlineTick; //Tick de la prochaine exécution planifiée
+        private long lastTick = -1; //Tick de la dernière exécution, -1 avant la première
+        private long periodTicks; //Période (en ticks) ayant servi à planifier la prochaine exécution
+        private boolean generating; //Activation du PEG lors de la dernière prise en compte de ses modifications
+        private boolean overrunning; //Indique si la dernière exécution du PEG a dépassé sa période
+
+        private HostedGenerator(PrimitiveEventGenerator peg) {
+            this.peg = peg;
+        }
+
+    }
+
+}
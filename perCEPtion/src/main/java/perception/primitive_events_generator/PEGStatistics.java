@@ -0,0 +1,100 @@
+package perception.primitive_events_generator;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistiques d'ordonnancement d'un {@link PrimitiveEventGenerator}.
+ * Flink exécutant une copie sérialisée du PEG, les statistiques sont partagées par nom de générateur
+ * afin de pouvoir être consultées depuis l'instance manipulée par l'utilisateur.
+ * @author Chloé GUILBAUD, Léo PARIS, Kendall FOREST, Mathieu GUYOT
+ */
+public class PEGStatistics {
+
+    private static final Map<String, PEGStatistics> statistics = new ConcurrentHashMap<>();
+
+    private final AtomicLong tickCount; //Nombre d'exécutions effectuées
+    private final AtomicLong overrunCount; //Nombre d'exécutions ayant dépassé la période du PEG
+    private final AtomicLong skippedTickCount; //Nombre d'exécutions sautées suite à un dépassement
+    private volatile long lastScanDurationNanos; //Durée de la dernière exécution
+    private volatile long maxScanDurationNanos; //Durée de la plus longue exécution
+
+    private PEGStatistics() {
+        this.tickCount = new AtomicLong();
+        this.overrunCount = new AtomicLong();
+        this.skippedTickCount = new AtomicLong();
+    }
+
+    /**
+     * Accesseur des statistiques d'un PEG
+     * @param pegName - Le nom du PEG
+     * @return Les statistiques du PEG, créées si nécessaire
+     */
+    public static PEGStatistics forGenerator(String pegName) {
+        return statistics.computeIfAbsent(pegName, name -> new PEGStatistics());
+    }
+
+    /**
+     * Enregistre une exécution du PEG
+     * @param scanDurationNanos - La durée de l'exécution en nanosecondes
+     */
+    void recordTick(long scanDurationNanos) {
+        tickCount.incrementAndGet();
+        lastScanDurationNanos = scanDurationNanos;
+        if(scanDurationNanos > maxScanDurationNanos) {
+            maxScanDurationNanos = scanDurationNanos;
+        }
+    }
+
+    /**
+     * Enregistre un dépassement de la période du PEG
+     * @param skippedTicks - Le nombre d'exécutions sautées suite à ce dépassement
+     */
+    void recordOverrun(long skippedTicks) {
+        overrunCount.incrementAndGet();
+        skippedTickCount.addAndGet(skippedTicks);
+    }
+
+    /**
+     * Remet à zéro les statistiques
+     */
+    public void reset() {
+        tickCount.set(0);
+        overrunCount.set(0);
+        skippedTickCount.set(0);
+        lastScanDurationNanos = 0;
+        maxScanDurationNanos = 0;
+    }
+
+    public long getTickCount() {
+        return tickCount.get();
+    }
+
+    public long getOverrunCount() {
+        return overrunCount.get();
+    }
+
+    public long getSkippedTickCount() {
+        return skippedTickCount.get();
+    }
+
+    public long getLastScanDurationNanos() {
+        return lastScanDurationNanos;
+    }
+
+    public long getMaxScanDurationNanos() {
+        return maxScanDurationNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "PEGStatistics{" +
+                "tickCount=" + getTickCount() +
+                ", overrunCount=" + getOverrunCount() +
+                ", skippedTickCount=" + getSkippedTickCount() +
+                ", lastScanDurationNanos=" + lastScanDurationNanos +
+                ", maxScanDurationNanos=" + maxScanDurationNanos +
+                '}';
+    }
+}
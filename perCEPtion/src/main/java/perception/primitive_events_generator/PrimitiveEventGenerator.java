@@ -1,32 +1,115 @@
 package perception.primitive_events_generator;
 
 import graph.CloudResource;
-import org.apache.flink.streaming.api.functions.source.SourceFunction;
+import graph.CloudResourceType;
+import org.apache.flink.api.common.functions.IterationRuntimeContext;
+import org.apache.flink.api.common.functions.RichFunction;
+import org.apache.flink.api.common.functions.RuntimeContext;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.streaming.api.functions.source.ParallelSourceFunction;
+import org.apache.flink.streaming.api.watermark.Watermark;
 import perception.complex_event_generator.ComplexEventGenerator;
 import perception.core.CloudResourcesAccess;
 import perception.core.EventGenerator;
 import perception.core.PerceptionRunContext;
+import perception.core.SourceStartup;
 import perception.events.PrimitiveEvent;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Classe abstraite représentant un {@link PrimitiveEventGenerator}.
  * Un PEG génère des évènements primitifs et les ajoute à un {@link perception.core.PrimitiveEventStream}.
  * L'exécution d'un PEG est appelée de façon périodique, le temps (en millisecondes) entre chaque exécution
- * étant défini par l'utilisateur.
+ * étant défini par l'utilisateur. Les exécutions sont planifiées à cadence fixe : la durée d'une exécution est
+ * déduite de l'attente avant la suivante. Lorsqu'une exécution dépasse la période, le dépassement est comptabilisé
+ * (voir {@link PEGStatistics}) et les exécutions en retard sont soit enchaînées immédiatement, soit sautées
+ * (voir {@link #setSkipOverrunTicks(boolean)}).
+ *
+ * Un PEG peut également être placé en mode "push" (voir {@link #setPushMode(boolean, long)}) : il ne traite alors
+ * à chaque exécution que les ressources modifiées depuis l'exécution précédente (notifiées lors de la publication
+ * des instantanés, via {@link CloudResourcesAccess.SnapshotListener}), un parcours complet des ressources étant
+ * effectué au plus tard toutes les msMaxStaleness millisecondes.
+ *
+ * Chaque exécution parcourt un unique instantané des ressources surveillées, obtenu à son début : les ressources
+ * transmises à processResource() sont des copies figées, toutes les valeurs lues lors d'une exécution forment donc
+ * une coupe cohérente et aucun verrou n'est pris pendant le parcours.
+ *
+ * Un PEG peut filtrer les évènements dont la valeur a peu évolué depuis le dernier évènement émis pour la même
+ * ressource (voir {@link #setAbsoluteDeadband(int, long)} et {@link #setRelativeDeadband(double, long)}). La valeur
+ * d'un évènement est donnée par {@link #getEventValue(PrimitiveEvent)}, que les PEG doivent redéfinir pour utiliser
+ * cette option.
+ *
+ * Les évènements générés lors d'une exécution sont datés du début de cette exécution. Le PEG émet un watermark à la
+ * fin de chaque exécution, puis toutes les {@link #MS_WATERMARK_INTERVAL} millisecondes jusqu'à l'exécution suivante,
+ * afin que le temps d'évènement progresse même lorsque sa période est longue. Un PEG désactivé se déclare inactif
+ * auprès de Flink, afin de ne pas bloquer la progression du temps d'évènement des flux auxquels il est rattaché.
+ *
+ * Un PEG peut être exécuté en parallèle sur plusieurs sous-tâches Flink (voir {@link #setParallelism(int)}) :
+ * les ressources sont alors réparties entre les sous-tâches selon le hash de leur nom, chaque ressource étant
+ * toujours traitée par la même sous-tâche.
  *
  * /!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\CEG
  * Attention, un PEG est {@link perception.services.PerceptionRunResource}, cela signifie que les modifications
  * effectuées pendant l'exécution sur lui n'aura aucun effet avant le redémarrage du {@link perception.core.PerceptionCore}.
+ * Seules exceptions : l'activation/désactivation de la génération ({@link #setHasToGenerateEvents(boolean)}), la
+ * période d'exécution ({@link #setMsRefreshingRate(long)}), le filtrage des évènements et l'arrêt ({@link #cancel()})
+ * sont transmis aux instances en cours d'exécution portant le même nom. Un PEG désactivé est mis en attente sans
+ * consommer de CPU jusqu'à sa réactivation.
  *  !\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\
  */
 public abstract class PrimitiveEventGenerator extends EventGenerator
-        implements SourceFunction<PrimitiveEvent>
+        implements ParallelSourceFunction<PrimitiveEvent>, RichFunction
 {
 
-    private boolean isRunning; //Indique si le PEG est exécuté ou non
-    private long msRefreshingRate; //Période d'exécution du PEG (appel toutes les msRefreshingRate millisecondes)
+    //Période maximale prise en compte, évitant les dépassements de capacité lors de la planification
+    private static final long MAX_PERIOD_NANOS = Long.MAX_VALUE / 4;
+
+    /**
+     * Intervalle maximal (en millisecondes) entre deux watermarks émis par un PEG en cours d'exécution
+     */
+    public static final long MS_WATERMARK_INTERVAL = 200;
+
+    //Instances en cours d'exécution, par nom de PEG (Flink exécute une copie sérialisée du PEG)
+    private static final Map<String, Set<PrimitiveEventGenerator>> runningGenerators = new ConcurrentHashMap<>();
+
+    private volatile long msRefreshingRate; //Période d'exécution du PEG (appel toutes les msRefreshingRate millisecondes)
+    private boolean pushMode; //Indique si le PEG ne traite que les ressources modifiées
+    private long msMaxStaleness; //Délai maximal (en millisecondes) entre deux parcours complets en mode push
+    private boolean skipOverrunTicks; //Indique si les exécutions en retard suite à un dépassement sont sautées
+    private int parallelism; //Nombre de sous-tâches Flink exécutant le PEG
+    private volatile DeadbandMode deadbandMode; //Mode de filtrage des évènements de valeur proche du dernier émis
+    private volatile double deadbandThreshold; //Seuil de variation (absolu ou relatif) en deçà duquel un évènement est filtré
+    private volatile long msMaxSilence; //Délai maximal sans évènement émis pour une ressource lorsque le filtrage est actif
+
+    //Ressources modifiées depuis la dernière exécution, avec le numéro de l'instantané publiant leur modification
+    private transient Map<String, Long> dirtyResources;
+    private transient CloudResourcesAccess.SnapshotListener changeListener; //Listener alimentant dirtyResources
+    private transient long lastFullScanTime; //Date du dernier parcours complet des ressources
+    private transient Set<CloudResourceType> handledTypes; //Types de ressources traités par le PEG
+    private transient volatile boolean cancelled; //Indique si l'exécution du PEG a été arrêtée
+    private transient volatile boolean rescheduled; //Indique si la période a été modifiée depuis la planification
+    private transient boolean runningInstance; //Indique si cette instance est celle exécutée par Flink
+    private transient ReentrantLock stateLock; //Verrou protégeant les attentes du PEG
+    private transient Condition stateChanged; //Signalée lors d'une réactivation ou d'un arrêt du PEG
+    private transient RuntimeContext runtimeContext; //Contexte d'exécution fourni par Flink
+    private transient volatile PEGMultiplexer host; //Multiplexeur hébergeant cette instance, null si elle est exécutée seule
+    private transient int subtaskCount; //Nombre de sous-tâches exécutant le PEG
+    private transient int subtaskIndex; //Indice de la sous-tâche exécutant cette instance
+    private transient long sliceEpoch; //Numéro de structure de l'instantané ayant servi à calculer slice
+    private transient int[] slice; //Identifiants des ressources traitées par cette sous-tâche
+    private transient int[] lastEmittedValues; //Dernière valeur émise, par identifiant de ressource
+    private transient long[] lastEmissionTimes; //Date de la dernière émission (0 si aucune), par identifiant de ressource
 
     /**
      * Constructeur de la classe {@link PrimitiveEventGenerator}
@@ -36,42 +119,661 @@ public abstract class PrimitiveEventGenerator extends EventGenerator
     public PrimitiveEventGenerator(String name, long msRefreshingRate) {
         super(name);
         this.msRefreshingRate = msRefreshingRate;
-        this.isRunning = true;
+        this.pushMode = false;
+        this.msMaxStaleness = Long.MAX_VALUE;
+        this.skipOverrunTicks = false;
+        this.parallelism = 1;
+        this.deadbandMode = DeadbandMode.NONE;
+        this.deadbandThreshold = 0;
+        this.msMaxSilence = Long.MAX_VALUE;
+    }
+
+    /**
+     * Modes de filtrage des évènements dont la valeur a peu évolué
+     */
+    public enum DeadbandMode {
+        NONE, //Aucun filtrage
+        ABSOLUTE, //Filtrage si la variation absolue est inférieure ou égale au seuil
+        RELATIVE //Filtrage si la variation rapportée à la dernière valeur émise est inférieure ou égale au seuil
+    }
+
+    /**
+     * Active le filtrage des évènements dont la valeur diffère d'au plus threshold de la dernière valeur émise
+     * pour la même ressource
+     * @param threshold - La variation absolue maximale d'un évènement filtré
+     * @param msMaxSilence - Délai (en millisecondes) au-delà duquel un évènement est émis même s'il devrait être filtré
+     */
+    public void setAbsoluteDeadband(int threshold, long msMaxSilence) {
+        if(threshold < 0) {
+            throw new IllegalArgumentException("threshold must be positive");
+        }
+        setDeadband(DeadbandMode.ABSOLUTE, threshold, msMaxSilence);
+    }
+
+    /**
+     * Active le filtrage des évènements dont la valeur diffère d'au plus ratio fois la dernière valeur émise
+     * pour la même ressource (par exemple 0.05 pour 5%)
+     * @param ratio - La variation relative maximale d'un évènement filtré
+     * @param msMaxSilence - Délai (en millisecondes) au-delà duquel un évènement est émis même s'il devrait être filtré
+     */
+    public void setRelativeDeadband(double ratio, long msMaxSilence) {
+        if(ratio < 0) {
+            throw new IllegalArgumentException("ratio must be positive");
+        }
+        setDeadband(DeadbandMode.RELATIVE, ratio, msMaxSilence);
+    }
+
+    /**
+     * Désactive le filtrage des évènements : tous les évènements générés sont émis
+     */
+    public void disableDeadband() {
+        setDeadband(DeadbandMode.NONE, 0, Long.MAX_VALUE);
+    }
+
+    private void setDeadband(DeadbandMode mode, double threshold, long msMaxSilence) {
+        if(msMaxSilence <= 0) {
+            throw new IllegalArgumentException("msMaxSilence must be strictly positive");
+        }
+        this.deadbandMode = mode;
+        this.deadbandThreshold = threshold;
+        this.msMaxSilence = msMaxSilence;
+        if(!runningInstance) {
+            for(PrimitiveEventGenerator running : getRunningInstances()) {
+                running.setDeadband(mode, threshold, msMaxSilence);
+            }
+        }
+    }
+
+    public DeadbandMode getDeadbandMode() {
+        return deadbandMode;
+    }
+
+    public double getDeadbandThreshold() {
+        return deadbandThreshold;
+    }
+
+    public long getMsMaxSilence() {
+        return msMaxSilence;
+    }
+
+    /**
+     * Définit la valeur d'un évènement généré par le PEG, utilisée pour filtrer les évènements de valeur proche
+     * du dernier évènement émis pour la même ressource. Par défaut, le score de l'évènement est utilisé.
+     * Les PEG doivent redéfinir cette méthode pour retourner la métrique qu'ils mesurent.
+     * @param event - L'évènement généré par le PEG
+     * @return La valeur de l'évènement
+     */
+    protected int getEventValue(PrimitiveEvent event) {
+        return event.getScore();
+    }
+
+    /**
+     * Indique si un évènement doit être émis au regard du filtrage configuré, et mémorise sa valeur le cas échéant
+     * @param cr - La ressource ayant généré l'évènement
+     * @param event - L'évènement généré
+     * @param timestamp - La date de l'exécution ayant généré l'évènement
+     * @return <code>true</code> si l'évènement doit être émis, <code>false</code> s'il est filtré
+     */
+    private boolean passesDeadband(CloudResource cr, PrimitiveEvent event, long timestamp) {
+        int id = cr.getId();
+        if(lastEmittedValues == null) {
+            lastEmittedValues = new int[0];
+            lastEmissionTimes = new long[0];
+        }
+        if(id >= lastEmittedValues.length) {
+            int length = Math.max(id + 1, lastEmittedValues.length * 2);
+            lastEmittedValues = Arrays.copyOf(lastEmittedValues, length);
+            lastEmissionTimes = Arrays.copyOf(lastEmissionTimes, length);
+        }
+        int value = getEventValue(event);
+        long lastEmissionTime = lastEmissionTimes[id];
+        if(lastEmissionTime != 0 && timestamp - lastEmissionTime < msMaxSilence) {
+            int lastValue = lastEmittedValues[id];
+            double delta = Math.abs((double) value - lastValue);
+            double threshold = deadbandMode == DeadbandMode.ABSOLUTE
+                    ? deadbandThreshold
+                    : deadbandThreshold * Math.abs((double) lastValue);
+            if(delta <= threshold) {
+                return false;
+            }
+        }
+        lastEmittedValues[id] = value;
+        lastEmissionTimes[id] = timestamp;
+        return true;
+    }
+
+    /**
+     * Active ou désactive le mode push du PEG.
+     * En mode push, seules les ressources modifiées depuis la dernière exécution sont traitées, un parcours complet
+     * étant tout de même effectué dès que msMaxStaleness millisecondes se sont écoulées depuis le précédent.
+     * @param pushMode - true pour activer le mode push, false pour revenir au parcours complet à chaque exécution
+     * @param msMaxStaleness - Délai maximal (en millisecondes) entre deux parcours complets
+     */
+    public void setPushMode(boolean pushMode, long msMaxStaleness) {
+        if(msMaxStaleness <= 0) {
+            throw new IllegalArgumentException("msMaxStaleness must be strictly positive");
+        }
+        this.pushMode = pushMode;
+        this.msMaxStaleness = msMaxStaleness;
+    }
+
+    public long getMsRefreshingRate() {
+        return msRefreshingRate;
+    }
+
+    /**
+     * Modifie la période d'exécution du PEG.
+     * La modification est transmise aux instances du PEG en cours d'exécution : la prochaine exécution est replanifiée
+     * selon la nouvelle période (immédiatement si elle est déjà dépassée), y compris pour les instances hébergées par un
+     * {@link PEGMultiplexer}.
+     * @param msRefreshingRate - La nouvelle période d'exécution, en millisecondes
+     */
+    public void setMsRefreshingRate(long msRefreshingRate) {
+        if(msRefreshingRate <= 0) {
+            throw new IllegalArgumentException("msRefreshingRate must be strictly positive");
+        }
+        this.msRefreshingRate = msRefreshingRate;
+        if(runningInstance) {
+            rescheduled = true;
+            signalStateChange();
+        } else {
+            for(PrimitiveEventGenerator running : getRunningInstances()) {
+                running.setMsRefreshingRate(msRefreshingRate);
+            }
+        }
+    }
+
+    /**
+     * Convertit la période d'exécution courante en nanosecondes, bornée pour éviter les dépassements de capacité
+     * @return La période d'exécution en nanosecondes
+     */
+    private long getPeriodNanos() {
+        return Math.max(1, Math.min(TimeUnit.MILLISECONDS.toNanos(msRefreshingRate), MAX_PERIOD_NANOS));
+    }
+
+    public boolean isPushMode() {
+        return pushMode;
+    }
+
+    public long getMsMaxStaleness() {
+        return msMaxStaleness;
+    }
+
+    /**
+     * Définit le comportement du PEG lorsqu'une exécution dépasse sa période.
+     * @param skipOverrunTicks - true pour sauter les exécutions en retard et se recaler sur la période suivante,
+     *                         false pour les enchaîner immédiatement jusqu'à rattraper le retard
+     */
+    public void setSkipOverrunTicks(boolean skipOverrunTicks) {
+        this.skipOverrunTicks = skipOverrunTicks;
+    }
+
+    public boolean isSkipOverrunTicks() {
+        return skipOverrunTicks;
+    }
+
+    /**
+     * Définit le nombre de sous-tâches Flink exécutant le PEG.
+     * Les ressources sont réparties entre les sous-tâches selon le hash de leur nom.
+     * @param parallelism - Le nombre de sous-tâches (au moins 1)
+     */
+    public void setParallelism(int parallelism) {
+        if(parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        this.parallelism = parallelism;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Indique si une ressource est traitée par une sous-tâche donnée
+     * @param cr - La ressource
+     * @param subtaskIndex - L'indice de la sous-tâche
+     * @param subtaskCount - Le nombre de sous-tâches
+     * @return <code>true</code> si la ressource est attribuée à la sous-tâche, <code>false</code> sinon
+     */
+    static boolean isAssignedTo(CloudResource cr, int subtaskIndex, int subtaskCount) {
+        return (cr.getName().hashCode() & Integer.MAX_VALUE) % subtaskCount == subtaskIndex;
+    }
+
+    @Override
+    public void open(Configuration parameters) throws Exception {
+        if(runtimeContext != null) {
+            subtaskCount = runtimeContext.getNumberOfParallelSubtasks();
+            subtaskIndex = runtimeContext.getIndexOfThisSubtask();
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        slice = null;
+    }
+
+    @Override
+    public RuntimeContext getRuntimeContext() {
+        if(runtimeContext == null) {
+            throw new IllegalStateException("The runtime context has not been initialized.");
+        }
+        return runtimeContext;
+    }
+
+    @Override
+    public IterationRuntimeContext getIterationRuntimeContext() {
+        throw new IllegalStateException("This stub is not part of an iteration step function.");
+    }
+
+    @Override
+    public void setRuntimeContext(RuntimeContext runtimeContext) {
+        this.runtimeContext = runtimeContext;
+    }
+
+    /**
+     * Accesseur des statistiques d'ordonnancement du PEG (exécutions, dépassements, durées d'exécution)
+     * @return Les statistiques du PEG
+     */
+    public PEGStatistics getStatistics() {
+        return PEGStatistics.forGenerator(getName());
+    }
+
+    /**
+     * Active ou non la génération d'évènements.
+     * La modification est transmise aux instances du PEG en cours d'exécution, qui sont réveillées si nécessaire.
+     * @param hasToGenerateEvents - <code>true</code> si les évènements doivent être générés, <code>false</code> sinon
+     */
+    @Override
+    public void setHasToGenerateEvents(boolean hasToGenerateEvents) {
+        super.setHasToGenerateEvents(hasToGenerateEvents);
+        if(runningInstance) {
+            signalStateChange();
+        } else {
+            for(PrimitiveEventGenerator running : getRunningInstances()) {
+                running.setHasToGenerateEvents(hasToGenerateEvents);
+            }
+        }
+    }
+
+    /**
+     * Arrête l'exécution du PEG. Appelée sur une instance non exécutée, l'arrêt est transmis aux instances
+     * en cours d'exécution portant le même nom.
+     */
+    @Override
+    public void cancel() {
+        cancelled = true;
+        if(runningInstance) {
+            signalStateChange();
+        } else {
+            for(PrimitiveEventGenerator running : getRunningInstances()) {
+                running.cancel();
+            }
+        }
+    }
+
+    /**
+     * Accesseur des instances en cours d'exécution portant le même nom que ce PEG
+     * @return Les instances en cours d'exécution
+     */
+    private Set<PrimitiveEventGenerator> getRunningInstances() {
+        Set<PrimitiveEventGenerator> running = runningGenerators.get(getName());
+        return running == null ? Collections.emptySet() : running;
+    }
+
+    /**
+     * Réveille le PEG s'il est en attente (désactivation ou attente de la prochaine exécution), ou signale la
+     * modification au multiplexeur qui l'héberge
+     */
+    private void signalStateChange() {
+        ReentrantLock lock = stateLock;
+        if(lock != null) {
+            lock.lock();
+            try {
+                stateChanged.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+        PEGMultiplexer multiplexer = host;
+        if(multiplexer != null) {
+            multiplexer.generatorChanged(this);
+        }
+    }
+
+    /**
+     * Rattache l'instance en cours d'exécution au multiplexeur qui l'héberge, afin que l'activation, la modification
+     * de la période et l'arrêt lui soient signalés
+     * @param host - Le multiplexeur hébergeant le PEG
+     */
+    void setHost(PEGMultiplexer host) {
+        this.host = host;
+    }
+
+    /**
+     * Met le PEG en attente jusqu'à sa réactivation ou son arrêt. Le PEG se déclare inactif auprès de Flink pendant
+     * l'attente ; il redevient actif dès l'émission de son prochain évènement ou watermark.
+     * @param ctx - Le {@link org.apache.flink.streaming.api.functions.source.SourceFunction.SourceContext} du PEG
+     * @throws InterruptedException si le thread est interrompu pendant l'attente
+     */
+    private void awaitResume(SourceContext ctx) throws InterruptedException {
+        ctx.markAsTemporarilyIdle();
+        stateLock.lock();
+        try {
+            while(!cancelled && !isHasToGenerateEvents()) {
+                stateChanged.await();
+            }
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    /**
+     * Met le PEG en attente jusqu'à la date donnée, en se réveillant prématurément en cas de désactivation, d'arrêt
+     * ou de modification de la période.
+     * Un watermark est émis toutes les {@link #MS_WATERMARK_INTERVAL} millisecondes pendant l'attente.
+     * @param ctx - Le {@link org.apache.flink.streaming.api.functions.source.SourceFunction.SourceContext} qui reçoit les watermarks
+     * @param deadline - La date (au sens de {@link System#nanoTime()}) de la prochaine exécution
+     * @throws InterruptedException si le thread est interrompu pendant l'attente
+     */
+    private void awaitNextTick(SourceContext ctx, long deadline) throws InterruptedException {
+        long watermarkIntervalNanos = TimeUnit.MILLISECONDS.toNanos(MS_WATERMARK_INTERVAL);
+        long remaining = deadline - System.nanoTime();
+        while(remaining > 0 && !cancelled && isHasToGenerateEvents() && !rescheduled) {
+            long watermarkDeadline = System.nanoTime() + Math.min(remaining, watermarkIntervalNanos);
+            stateLock.lock();
+            try {
+                long toWait = watermarkDeadline - System.nanoTime();
+                while(toWait > 0 && !cancelled && isHasToGenerateEvents() && !rescheduled) {
+                    toWait = stateChanged.awaitNanos(toWait);
+                }
+            } finally {
+                stateLock.unlock();
+            }
+            remaining = deadline - System.nanoTime();
+            if(remaining > 0) {
+                emitWatermark(ctx);
+            }
+        }
+    }
+
+    /**
+     * Emet un watermark indiquant qu'aucun évènement antérieur à l'instant présent ne sera plus émis : les
+     * évènements des exécutions suivantes seront datés du début de ces exécutions
+     * @param ctx - Le {@link org.apache.flink.streaming.api.functions.source.SourceFunction.SourceContext} qui reçoit le watermark
+     */
+    static void emitWatermark(SourceContext<?> ctx) {
+        ctx.emitWatermark(new Watermark(System.currentTimeMillis() - 1));
+    }
+
+    /**
+     * Définit les types de ressources traités par le PEG. Seules les ressources de ces types seront
+     * transmises à processResource(). Par défaut, tous les types sont traités.
+     * Les PEG ne traitant qu'un type de ressource doivent redéfinir cette méthode afin de ne parcourir que
+     * les ressources les concernant.
+     * @return Les types de ressources traités par le PEG
+     */
+    protected Set<CloudResourceType> getHandledResourceTypes() {
+        return EnumSet.allOf(CloudResourceType.class);
+    }
+
+    /**
+     * Prépare l'exécution du PEG : enregistrement de l'instance en cours d'exécution et, en mode push,
+     * du listener de modification des ressources
+     * @param subtaskIndex - L'indice de la sous-tâche exécutant cette instance
+     * @param subtaskCount - Le nombre de sous-tâches exécutant le PEG
+     */
+    void startRun(int subtaskIndex, int subtaskCount) {
+        this.subtaskIndex = subtaskIndex;
+        this.subtaskCount = subtaskCount;
+        sliceEpoch = -1;
+        lastEmittedValues = new int[0];
+        lastEmissionTimes = new long[0];
+        handledTypes = EnumSet.noneOf(CloudResourceType.class);
+        handledTypes.addAll(getHandledResourceTypes());
+        stateLock = new ReentrantLock();
+        stateChanged = stateLock.newCondition();
+        runningInstance = true;
+        runningGenerators.computeIfAbsent(getName(), name -> ConcurrentHashMap.newKeySet()).add(this);
+        if(pushMode) {
+            Map<String, Long> dirty = new ConcurrentHashMap<>();
+            dirtyResources = dirty;
+            changeListener = (snapshot, changed) -> {
+                for(CloudResource cr : changed) {
+                    dirty.put(cr.getName(), snapshot.getEpoch());
+                }
+            };
+            CloudResourcesAccess.getInstance().addSnapshotListener(changeListener);
+            lastFullScanTime = Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Termine l'exécution du PEG en annulant les enregistrements effectués par startRun()
+     */
+    void stopRun() {
+        host = null;
+        runningGenerators.computeIfPresent(getName(), (name, running) -> {
+            running.remove(this);
+            return running.isEmpty() ? null : running;
+        });
+        if(changeListener != null) {
+            CloudResourcesAccess.getInstance().removeSnapshotListener(changeListener);
+            changeListener = null;
+            dirtyResources = null;
+        }
     }
 
     @Override
     public void run(SourceContext ctx) throws Exception {
-        while(isRunning) {
-            if(isHasToGenerateEvents()) {
-                long startTime = System.currentTimeMillis();
-                this.exec(ctx);
-                long endTime = System.currentTimeMillis();
-                long elapsedTime = endTime - startTime;
-                //TODO if elapsedTime > msRefreshingRate, up a warning, the monitoring system is to low
-                Thread.sleep(msRefreshingRate);
+        if(subtaskCount < 1) {
+            //Exécution hors de Flink ou sans appel à open() : le PEG traite toutes les ressources
+            startRun(0, 1);
+        } else {
+            startRun(subtaskIndex, subtaskCount);
+        }
+        SourceStartup.started();
+        PEGStatistics statistics = getStatistics();
+        long periodNanos = getPeriodNanos();
+        long nextTick = 0;
+        boolean generating = false;
+        boolean overrunning = false;
+        try {
+            while(!cancelled) {
+                if(isHasToGenerateEvents()) {
+                    if(!generating) {
+                        //Reprise de la génération : la planification repart de l'instant présent
+                        nextTick = System.nanoTime();
+                        rescheduled = false;
+                        periodNanos = getPeriodNanos();
+                        generating = true;
+                    }
+                    long startTime = System.nanoTime();
+                    this.exec(ctx);
+                    emitWatermark(ctx);
+                    long endTime = System.nanoTime();
+                    statistics.recordTick(endTime - startTime);
+                    nextTick += periodNanos;
+                    long lateness = endTime - nextTick;
+                    if(lateness > 0) {
+                        long skippedTicks = 0;
+                        if(skipOverrunTicks) {
+                            skippedTicks = lateness / periodNanos + 1;
+                            nextTick += skippedTicks * periodNanos;
+                        }
+                        statistics.recordOverrun(skippedTicks);
+                        if(!overrunning && PerceptionRunContext.getPerceptionLogger() != null) {
+                            PerceptionRunContext.getPerceptionLogger().logMessage("Warning: PEG " + getName()
+                                    + " execution took " + TimeUnit.NANOSECONDS.toMillis(endTime - startTime)
+                                    + "ms for a refreshing rate of " + msRefreshingRate + "ms");
+                        }
+                        overrunning = true;
+                    } else {
+                        overrunning = false;
+                    }
+                    awaitNextTick(ctx, nextTick);
+                    while(rescheduled && !cancelled && isHasToGenerateEvents()) {
+                        //Période modifiée : la prochaine exécution est replanifiée selon la nouvelle période, sans
+                        //rattrapage des exécutions qu'elle aurait comptées depuis la précédente
+                        rescheduled = false;
+                        long newPeriodNanos = getPeriodNanos();
+                        nextTick = Math.max(nextTick + newPeriodNanos - periodNanos, System.nanoTime());
+                        periodNanos = newPeriodNanos;
+                        awaitNextTick(ctx, nextTick);
+                    }
+                } else {
+                    generating = false;
+                    awaitResume(ctx);
+                }
             }
+        } finally {
+            stopRun();
         }
     }
 
     /**
-     * Boucle d'exécution du PEG. Pour chaque ressource, la méthode processResource() sera appelée
+     * Boucle d'exécution du PEG. Pour chaque ressource à traiter, la méthode processResource() sera appelée.
+     * En mode normal, toutes les ressources surveillées des types traités par le PEG sont traitées. En mode push, seules les ressources modifiées
+     * depuis la dernière exécution le sont, sauf si le dernier parcours complet date de plus de msMaxStaleness millisecondes.
+     * Les évènements générés sont datés du début de l'exécution.
      * @param ctx - Le {@link org.apache.flink.streaming.api.functions.source.SourceFunction.SourceContext} qui collecte les PE générés
      */
     private void exec(SourceContext ctx) {
-        //TODO Improve doc of this function !
-        for(CloudResource cr : CloudResourcesAccess.getInstance().getResources().values()) {
-            Optional<PrimitiveEvent> optEvent = processResource(cr);
-            if(optEvent.isPresent()) {
-                ctx.collect(optEvent.get());
-                if(this.isLogGeneratedEvents() && PerceptionRunContext.getPerceptionLogger() != null) {
-                    PerceptionRunContext.getPerceptionLogger().logPrimitiveEvent(optEvent.get(), getName());
+        //L'instantané est conservé pour toute l'exécution afin de parcourir une vue cohérente des ressources
+        CloudResourcesAccess.Snapshot snapshot = CloudResourcesAccess.getInstance().getSnapshot();
+        long timestamp = System.currentTimeMillis();
+        if(execIncremental(ctx, snapshot, timestamp)) {
+            return;
+        }
+        if(subtaskCount > 1) {
+            for(int id : getSlice(snapshot)) {
+                CloudResource cr = snapshot.getResource(id);
+                if(cr != null) {
+                    emit(ctx, cr, timestamp);
+                }
+            }
+        } else if(handledTypes.size() == CloudResourceType.values().length) {
+            for(CloudResource cr : snapshot.getResources().values()) {
+                emit(ctx, cr, timestamp);
+            }
+        } else {
+            for(CloudResourceType type : handledTypes) {
+                for(CloudResource cr : snapshot.getResources(type)) {
+                    emit(ctx, cr, timestamp);
                 }
             }
         }
     }
 
-    @Override
-    public void cancel() {}
+    /**
+     * Exécution incrémentale du PEG en mode push : seules les ressources modifiées depuis la dernière exécution
+     * sont traitées. Si le dernier parcours complet date de plus de msMaxStaleness millisecondes, rien n'est traité
+     * et un parcours complet doit être effectué par l'appelant.
+     * @param ctx - Le {@link org.apache.flink.streaming.api.functions.source.SourceFunction.SourceContext} qui collecte les PE générés
+     * @param snapshot - L'instantané des ressources surveillées
+     * @param timestamp - La date de l'exécution, affectée aux évènements générés
+     * @return <code>true</code> si l'exécution a été effectuée, <code>false</code> si un parcours complet est nécessaire
+     */
+    boolean execIncremental(SourceContext ctx, CloudResourcesAccess.Snapshot snapshot, long timestamp) {
+        if(pushMode && dirtyResources != null) {
+            long now = System.currentTimeMillis();
+            //Les modifications publiées après l'instantané de l'exécution seront traitées à l'exécution suivante
+            long epoch = snapshot.getEpoch();
+            if(lastFullScanTime == Long.MIN_VALUE || now - lastFullScanTime >= msMaxStaleness) {
+                dirtyResources.values().removeIf(publication -> publication <= epoch);
+                lastFullScanTime = now;
+            } else {
+                for(Map.Entry<String, Long> dirty : dirtyResources.entrySet()) {
+                    if(dirty.getValue() > epoch || !dirtyResources.remove(dirty.getKey(), dirty.getValue())) {
+                        continue;
+                    }
+                    CloudResource cr = snapshot.getResource(dirty.getKey());
+                    //Seules les ressources surveillées, d'un type traité par le PEG et attribuées à cette sous-tâche sont traitées
+                    if(cr != null && handledTypes.contains(cr.getType())
+                            && (subtaskCount == 1 || isAssignedTo(cr, subtaskIndex, subtaskCount))) {
+                        emit(ctx, cr, timestamp);
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indique si le PEG traite les ressources d'un type donné (disponible uniquement pendant l'exécution)
+     * @param type - Le type de ressource
+     * @return <code>true</code> si le PEG traite ce type de ressource, <code>false</code> sinon
+     */
+    boolean isHandledType(CloudResourceType type) {
+        return handledTypes.contains(type);
+    }
+
+    /**
+     * Indique si l'exécution du PEG a été arrêtée
+     * @return <code>true</code> si le PEG a été arrêté, <code>false</code> sinon
+     */
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Accesseur des identifiants des ressources traitées par cette sous-tâche, recalculés uniquement lorsque des
+     * ressources ont été ajoutées ou retirées (voir {@link CloudResourcesAccess.Snapshot#getStructureEpoch()})
+     * @param snapshot - L'instantané des ressources surveillées
+     * @return Les identifiants des ressources des types traités par le PEG attribuées à cette sous-tâche
+     */
+    private int[] getSlice(CloudResourcesAccess.Snapshot snapshot) {
+        if(slice == null || sliceEpoch != snapshot.getStructureEpoch()) {
+            int count = 0;
+            for(CloudResourceType type : handledTypes) {
+                count += snapshot.getResources(type).size();
+            }
+            int[] newSlice = new int[count];
+            count = 0;
+            for(CloudResourceType type : handledTypes) {
+                for(CloudResource cr : snapshot.getResources(type)) {
+                    if(isAssignedTo(cr, subtaskIndex, subtaskCount)) {
+                        newSlice[count++] = cr.getId();
+                    }
+                }
+            }
+            slice = Arrays.copyOf(newSlice, count);
+            sliceEpoch = snapshot.getStructureEpoch();
+        }
+        return slice;
+    }
+
+    /**
+     * Traite une ressource et collecte (puis journalise si nécessaire) l'évènement primitif éventuellement généré
+     * @param ctx - Le {@link org.apache.flink.streaming.api.functions.source.SourceFunction.SourceContext} qui collecte les PE générés
+     * @param cr - La ressource à traiter
+     * @param timestamp - La date de l'exécution, affectée à l'évènement généré
+     */
+    void emit(SourceContext ctx, CloudResource cr, long timestamp) {
+        Optional<PrimitiveEvent> optEvent = generate(cr, timestamp);
+        if(optEvent.isPresent()) {
+            ctx.collectWithTimestamp(optEvent.get(), timestamp);
+        }
+    }
+
+    /**
+     * Traite une ressource et journalise si nécessaire l'évènement primitif éventuellement généré et non filtré,
+     * sans le collecter
+     * @param cr - La ressource à traiter
+     * @param timestamp - La date de l'exécution, affectée à l'évènement généré
+     * @return L'évènement primitif généré ou un Optional.empty
+     */
+    Optional<PrimitiveEvent> generate(CloudResource cr, long timestamp) {
+        Optional<PrimitiveEvent> optEvent = processResource(cr);
+        if(optEvent.isPresent() && deadbandMode != DeadbandMode.NONE && !passesDeadband(cr, optEvent.get(), timestamp)) {
+            return Optional.empty();
+        }
+        optEvent.ifPresent(event -> event.setTimestamp(timestamp));
+        if(optEvent.isPresent() && this.isLogGeneratedEvents() && PerceptionRunContext.getPerceptionLogger() != null) {
+            PerceptionRunContext.getPerceptionLogger().logPrimitiveEvent(optEvent.get(), getName());
+        }
+        return optEvent;
+    }
 
     /**
      * Méthode abstraite à définir par les PEG.
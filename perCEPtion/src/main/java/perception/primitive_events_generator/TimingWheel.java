@@ -0,0 +1,177 @@
+package perception.primitive_events_generator;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Roue temporelle hiérarchique utilisée pour planifier les exécutions des PEG hébergés par un
+ * {@link PEGMultiplexer}. Le temps est découpé en ticks : chaque niveau de la roue contient 64 cases, une case du
+ * niveau n couvrant 64^n ticks. Un élément est placé au niveau le plus bas couvrant son échéance, puis redescend d'un
+ * niveau à chaque fois que le tick courant atteint la case qui le contient, jusqu'à expirer au niveau 0.
+ * L'ajout d'un élément et son expiration se font en temps constant, quel que soit le nombre d'éléments planifiés.
+ * La plus proche échéance (voir {@link #getNextDeadlineTick()}) permet d'attendre jusqu'à la prochaine expiration
+ * plutôt que d'avancer la roue à chaque tick.
+ * @param <T> - Le type des éléments planifiés
+ * @author Chloé GUILBAUD, Léo PARIS, Kendall FOREST, Mathieu GUYOT
+ */
+class TimingWheel<T> {
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = (Long.SIZE + WHEEL_BITS - 1) / WHEEL_BITS;
+
+    private final ArrayDeque<Entry<T>>[][] wheels; //Cases de chaque niveau de la roue
+    private long currentTick; //Tick courant de la roue
+    private int size; //Nombre d'éléments planifiés
+
+    /**
+     * Constructeur de la classe {@link TimingWheel}
+     * @param startTick - Le tick courant à la création de la roue
+     */
+    @SuppressWarnings("unchecked")
+    TimingWheel(long startTick) {
+        this.wheels = (ArrayDeque<Entry<T>>[][]) new ArrayDeque<?>[LEVELS][WHEEL_SIZE];
+        for(int level = 0; level < LEVELS; level++) {
+            for(int slot = 0; slot < WHEEL_SIZE; slot++) {
+                wheels[level][slot] = new ArrayDeque<>();
+            }
+        }
+        this.currentTick = startTick;
+        this.size = 0;
+    }
+
+    /**
+     * Planifie un élément. Un élément dont l'échéance est déjà atteinte expirera au prochain tick.
+     * @param item - L'élément à planifier
+     * @param deadlineTick - Le tick auquel l'élément doit expirer
+     * @return Le tick auquel l'élément expirera
+     */
+    long schedule(T item, long deadlineTick) {
+        Entry<T> entry = new Entry<>(item, Math.max(deadlineTick, currentTick + 1));
+        insert(entry);
+        size++;
+        return entry.deadlineTick;
+    }
+
+    /**
+     * Retire un élément planifié avant son expiration. Seule la case correspondant à son échéance est parcourue.
+     * @param item - L'élément à retirer
+     * @param deadlineTick - Le tick auquel l'élément doit expirer, retourné par {@link #schedule(Object, long)}
+     * @return <code>true</code> si l'élément a été retiré, <code>false</code> s'il n'était pas planifié à ce tick
+     */
+    boolean remove(T item, long deadlineTick) {
+        if(deadlineTick <= currentTick) {
+            return false;
+        }
+        int level = (Long.SIZE - 1 - Long.numberOfLeadingZeros(deadlineTick ^ currentTick)) / WHEEL_BITS;
+        int slot = (int) ((deadlineTick >>> (level * WHEEL_BITS)) & WHEEL_MASK);
+        for(Iterator<Entry<T>> it = wheels[level][slot].iterator(); it.hasNext(); ) {
+            Entry<T> entry = it.next();
+            if(entry.item == item && entry.deadlineTick == deadlineTick) {
+                it.remove();
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Avance la roue jusqu'au tick donné, en transmettant les éléments expirés au consommateur dans l'ordre de leurs échéances
+     * @param targetTick - Le tick à atteindre
+     * @param expired - Le consommateur des éléments expirés
+     */
+    void advance(long targetTick, Consumer<T> expired) {
+        while(currentTick < targetTick) {
+            currentTick++;
+            //Redescente des éléments des niveaux supérieurs dont la case vient d'être atteinte
+            int level = 1;
+            while(level < LEVELS && (currentTick & ((1L << (level * WHEEL_BITS)) - 1)) == 0) {
+                level++;
+            }
+            for(int l = level - 1; l >= 1; l--) {
+                ArrayDeque<Entry<T>> slot = wheels[l][(int) ((currentTick >>> (l * WHEEL_BITS)) & WHEEL_MASK)];
+                Entry<T> entry;
+                while((entry = slot.poll()) != null) {
+                    insert(entry);
+                }
+            }
+            ArrayDeque<Entry<T>> slot = wheels[0][(int) (currentTick & WHEEL_MASK)];
+            Entry<T> entry;
+            while((entry = slot.poll()) != null) {
+                size--;
+                expired.accept(entry.item);
+            }
+        }
+    }
+
+    /**
+     * Accesseur du tick courant
+     * @return Le tick courant de la roue
+     */
+    long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Calcule la plus proche échéance des éléments planifiés. Les éléments d'un niveau expirant tous avant ceux des
+     * niveaux supérieurs, seule la première case non vide du niveau le plus bas est examinée.
+     * @return Le tick de la plus proche échéance, ou {@link Long#MAX_VALUE} si aucun élément n'est planifié
+     */
+    long getNextDeadlineTick() {
+        if(size == 0) {
+            return Long.MAX_VALUE;
+        }
+        for(int level = 0; level < LEVELS; level++) {
+            //Les cases précédant celle du tick courant à ce niveau sont vides : leurs éléments sont déjà redescendus
+            int current = (int) ((currentTick >>> (level * WHEEL_BITS)) & WHEEL_MASK);
+            for(int slot = current + 1; slot < WHEEL_SIZE; slot++) {
+                if(!wheels[level][slot].isEmpty()) {
+                    long next = Long.MAX_VALUE;
+                    for(Entry<T> entry : wheels[level][slot]) {
+                        next = Math.min(next, entry.deadlineTick);
+                    }
+                    return next;
+                }
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Accesseur du nombre d'éléments planifiés
+     * @return Le nombre d'éléments en attente d'expiration
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Place un élément dans la case correspondant à son échéance, au niveau le plus bas possible
+     * @param entry - L'élément à placer
+     */
+    private void insert(Entry<T> entry) {
+        int level = (Long.SIZE - 1 - Long.numberOfLeadingZeros(entry.deadlineTick ^ currentTick)) / WHEEL_BITS;
+        int slot = (int) ((entry.deadlineTick >>> (level * WHEEL_BITS)) & WHEEL_MASK);
+        wheels[level][slot].add(entry);
+    }
+
+    /**
+     * Elément planifié et son échéance
+     * @param <T> - Le type de l'élément
+     */
+    private static class Entry<T> {
+
+        private final T item;
+        private final long deadlineTick;
+
+        private Entry(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+
+    }
+
+}
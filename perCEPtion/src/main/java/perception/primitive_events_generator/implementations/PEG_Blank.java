@@ -1,10 +1,13 @@
 package perception.primitive_events_generator.implementations;
 
 import graph.CloudResource;
+import graph.CloudResourceType;
 import perception.events.PrimitiveEvent;
 import perception.primitive_events_generator.PrimitiveEventGenerator;
 
+import java.util.EnumSet;
 import java.util.Optional;
+import java.util.Set;
 
 public class PEG_Blank extends PrimitiveEventGenerator {
 
@@ -12,6 +15,11 @@ public class PEG_Blank extends PrimitiveEventGenerator {
         super(name, Long.MAX_VALUE);
     }
 
+    @Override
+    protected Set<CloudResourceType> getHandledResourceTypes() {
+        return EnumSet.noneOf(CloudResourceType.class);
+    }
+
     @Override
     protected Optional<PrimitiveEvent> processResource(CloudResource cr) {
         return Optional.empty();
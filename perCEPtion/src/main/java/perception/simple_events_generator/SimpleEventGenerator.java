@@ -11,9 +11,12 @@ import perception.core.PerceptionRunContext;
 import perception.events.Event;
 import perception.events.PrimitiveEvent;
 import perception.events.SimpleEvent;
+import perception.events.serialization.EventTypeInfo;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Classe abstraite représentant un {@link SimpleEventGenerator}.
@@ -26,6 +29,9 @@ import java.util.Map;
  * /!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\CEG
  * Attention, un SEG est {@link perception.services.PerceptionRunResource}, cela signifie que les modifications
  * effectuées pendant l'exécution sur lui n'aura aucun effet avant le redémarrage du {@link perception.core.PerceptionCore}.
+ * Seule exception : l'activation/désactivation via le {@link perception.core.GeneratorController}, lorsque celui-ci
+ * l'autorise pendant l'exécution : elle ouvre ou ferme la porte placée en entrée de l'opérateur en cours d'exécution,
+ * sans perdre ses correspondances partielles.
  *  !\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\_/!\
  */
 public abstract class SimpleEventGenerator extends EventGenerator {
@@ -50,23 +56,49 @@ public abstract class SimpleEventGenerator extends EventGenerator {
      */
     public abstract PatternSelectFunction<PrimitiveEvent, Event> getPatternSelectFunction();
 
+    /**
+     * Définit les classes d'évènements primitifs consommées par le schéma du SEG. Seuls les évènements de ces classes
+     * (ou de leurs sous-classes) seront transmis à l'opérateur CEP du SEG. Par défaut, tous les évènements primitifs
+     * sont consommés.
+     * Les SEG dont le schéma ne reconnaît que certains types d'évènements doivent redéfinir cette méthode, afin que
+     * leur opérateur CEP ne traite pas les évènements qu'il ne peut reconnaître.
+     * @return Les classes d'évènements primitifs consommées par le SEG
+     */
+    public Set<Class<? extends PrimitiveEvent>> getConsumedEventClasses() {
+        return Collections.singleton(PrimitiveEvent.class);
+    }
+
+    /**
+     * Traitement appliqué à chaque correspondance du schéma lors de l'exécution : la méthode de traitement du SEG,
+     * suivie de la datation et, le cas échéant, du logging de l'évènement généré
+     * @return Le traitement des correspondances du schéma
+     */
+    public PatternSelectFunction<PrimitiveEvent, Event> getRunSelectFunction() {
+        return new PatternSelectFunction<PrimitiveEvent, Event>() {
+            @Override
+            public Event select(Map<String, List<PrimitiveEvent>> map) throws Exception {
+                Event e = getPatternSelectFunction().select(map);
+                setMatchTimestamp(e, map);
+                if(isLogGeneratedEvents() && e != null) {
+                    PerceptionRunContext.getPerceptionLogger().logSimpleEvent((SimpleEvent)e, getName());
+                }
+                return e;
+            }
+        };
+    }
+
     @Override
     public boolean beforeRun(PerceptionRunContext ctx) {
         //TODO Improve doc of this function !
         boolean initOk = super.beforeRun(ctx);
-        if(initOk) {
+        //Avec un opérateur partagé, le schéma est évalué par le SACEventStream avec ceux des autres SEG
+        if(initOk && !ctx.getSacEventStream().isEvaluatedBySharedOperator(this, ctx)) {
             Pattern<PrimitiveEvent, ?> pattern = this.getPattern();
-            PatternStream<PrimitiveEvent> pStream = CEP.pattern(ctx.getPrimitiveEventStream().getKeyedStream(), pattern);
-            DataStream<Event> outStream = pStream.select(new PatternSelectFunction<PrimitiveEvent, Event>() {
-                @Override
-                public Event select(Map<String, List<PrimitiveEvent>> map) throws Exception {
-                    Event e = getPatternSelectFunction().select(map);
-                    if(isLogGeneratedEvents() && e != null) {
-                        PerceptionRunContext.getPerceptionLogger().logSimpleEvent((SimpleEvent)e, getName());
-                    }
-                    return e;
-                }
-            });
+            //Tant que le générateur est désactivé, son opérateur ne reçoit aucun évènement (voir GeneratorController)
+            PatternStream<PrimitiveEvent> pStream = CEP.pattern(ctx.getGeneratorController().gate(
+                    ctx.getPrimitiveEventStream().getKeyedStream(getConsumedEventClasses()), this), pattern);
+            DataStream<Event> outStream = pStream.select(getRunSelectFunction(),
+                    EventTypeInfo.forEventClass(Event.class));
             ctx.getSacEventStream().mergeStream(outStream);
         }
         return initOk;
@@ -7,8 +7,10 @@ import perception.events.Event;
 import perception.events.PrimitiveEvent;
 import perception.simple_events_generator.SimpleEventGenerator;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class SEG_Blank extends SimpleEventGenerator {
 
@@ -28,6 +30,11 @@ public class SEG_Blank extends SimpleEventGenerator {
                 });
     }
 
+    @Override
+    public Set<Class<? extends PrimitiveEvent>> getConsumedEventClasses() {
+        return Collections.emptySet();
+    }
+
     @Override
     public PatternSelectFunction<PrimitiveEvent, Event> getPatternSelectFunction() {
         return new PatternSelectFunction<PrimitiveEvent, Event>() {
@@ -0,0 +1,55 @@
+package graph;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class IndexedCloudResourceHolderTest {
+
+	private IndexedCloudResourceHolder<VM> holder;
+	private VM vm1;
+	private VM vm2;
+	private VM vm3;
+
+	@Before
+	public void setUp() {
+		holder = new IndexedCloudResourceHolder<>();
+		vm1 = new VM("vm1", 0);
+		vm2 = new VM("vm2", 0);
+		vm3 = new VM("vm3", 0);
+		assertEquals("added", Arrays.asList(vm1, vm2, vm3), holder.addResources(Arrays.asList(vm1, vm2, vm3, vm1)));
+	}
+
+	@Test
+	public void testRemovePreservesOrder() {
+		assertEquals("removed", vm1, holder.removeResource("vm1").orElse(null));
+		assertFalse("unknown", holder.removeResource("vm1").isPresent());
+		assertEquals("order", Arrays.asList(vm2, vm3), holder.getResourceList());
+		assertEquals("vm2 by id", vm2, holder.getResource(0).orElse(null));
+		assertEquals("vm3 by name", vm3, holder.getResource("vm3").orElse(null));
+		assertTrue("re-add", holder.addResource(vm1));
+		assertEquals("order after re-add", Arrays.asList(vm2, vm3, vm1), holder.getResourceList());
+		assertEquals("vm1 by name", vm1, holder.getResource("vm1").orElse(null));
+	}
+
+	@Test
+	public void testResourceListIsNotModifiable() {
+		List<VM> resources = holder.getResourceList();
+		try {
+			resources.remove(0);
+			fail("list modified");
+		} catch(UnsupportedOperationException e) {
+			assertEquals("unchanged", 3, holder.getResourceNumber());
+		}
+		assertTrue("removeResource", holder.removeResource("vm2").isPresent());
+		assertEquals("live view", Arrays.asList(vm1, vm3), resources);
+	}
+
+}
@@ -0,0 +1,70 @@
+package graph;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class MetricStoreTest {
+
+	private MetricStore store;
+
+	@Before
+	public void setUp() {
+		store = MetricStore.enable(4);
+	}
+
+	@After
+	public void tearDown() {
+		MetricStore.disable();
+	}
+
+	@Test
+	public void testMetricsAreStoredInColumns() {
+		VM vm = new VM("vm", 1);
+		vm.setCpuConsumption(42);
+		vm.setRamConsumption(7);
+		assertEquals("getCpu_consumption", 42, vm.getCpu_consumption());
+		assertEquals("store CPU", 42, store.get(vm.getId(), MetricStore.Metric.CPU));
+		assertEquals("store RAM", 7, store.get(vm.getId(), MetricStore.Metric.RAM));
+	}
+
+	@Test
+	public void testFrozenCopyReadsFrozenColumns() {
+		VM vm = new VM("vm", 1);
+		vm.setCpuConsumption(10);
+		VM copy = vm.freeze();
+		vm.setCpuConsumption(20);
+		assertEquals("copy CPU", 10, copy.getCpu_consumption());
+		assertEquals("live CPU", 20, vm.getCpu_consumption());
+		assertEquals("new copy CPU", 20, vm.freeze().getCpu_consumption());
+	}
+
+	@Test
+	public void testFreezeSharesUnchangedPages() {
+		VM first = new VM("first", 1);
+		first.setCpuConsumption(1);
+		MetricStore.Columns columns = store.freeze();
+		assertSame("no change", columns, store.freeze());
+		new PM("pm", 1).setCpuConsumption(3);
+		MetricStore.Columns next = store.freeze();
+		assertNotSame("change", columns, next);
+		assertEquals("unchanged value", 1, next.get(first.getId(), MetricStore.Metric.CPU));
+	}
+
+	@Test
+	public void testColumnsGrowBeyondInitialCapacity() {
+		VM last = null;
+		for(int i = 0; i < MetricStore.PAGE_SIZE + 10; i++) {
+			last = new VM("vm" + i, 1);
+			last.setDiskConsumption(i + 1);
+		}
+		VM copy = last.freeze();
+		assertEquals("copy disk", MetricStore.PAGE_SIZE + 10, copy.getDiskConsumption());
+		assertEquals("unknown resource", 0, store.freeze().get(Integer.MAX_VALUE, MetricStore.Metric.DISK));
+	}
+
+}
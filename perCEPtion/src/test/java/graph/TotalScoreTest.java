@@ -0,0 +1,82 @@
+package graph;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TotalScoreTest {
+
+	private Appli appli;
+	private Tier tier;
+	private PM pm;
+	private VM shared;
+	private VM single;
+
+	/**
+	 * Graph testé : appli(1) contient tier(2) et pm(4) ; shared(8) appartient à la fois à tier et à pm ;
+	 * single(16) n'appartient qu'à pm.
+	 */
+	@Before
+	public void setUp() {
+		appli = new Appli("appli", 1);
+		tier = new Tier("tier", 2);
+		pm = new PM("pm", 4);
+		shared = new VM("shared", 8);
+		single = new VM("single", 16);
+		assertTrue("addVM tier", tier.addVM(shared));
+		assertEquals("addVMs pm", 2, pm.addVMs(Arrays.asList(shared, single)));
+		assertTrue("addTier", appli.addTier(tier));
+		assertTrue("addPM", appli.addPM(pm));
+	}
+
+	private void assertTotals(String message, int tierTotal, int pmTotal, int appliTotal) {
+		assertTrue(message + " consistent", appli.isTotalScoreConsistent());
+		assertEquals(message + " tier total", tierTotal, tier.getTotalScore());
+		assertEquals(message + " pm total", pmTotal, pm.getTotalScore());
+		assertEquals(message + " appli total", appliTotal, appli.getTotalScore());
+	}
+
+	@Test
+	public void testInitialTotals() {
+		//La VM partagée est comptée une fois par chemin la reliant à l'application
+		assertTotals("initial", 2 + 8, 4 + 8 + 16, 1 + 10 + 28);
+	}
+
+	@Test
+	public void testScoreChangeOfVMWithTwoParents() {
+		shared.setScore(3);
+		assertTotals("shared score", 2 + 3, 4 + 3 + 16, 1 + 5 + 23);
+		single.setScore(0);
+		assertTotals("single score", 5, 7, 13);
+	}
+
+	@Test
+	public void testSubResourceAddedAfterConstruction() {
+		Co co = new Co("co", "db", 32, 0);
+		assertTrue("addCo", shared.addCo(co));
+		assertFalse("duplicate co", shared.addCo(new Co("co", "db", 64, 0)));
+		assertTotals("co added", 2 + 40, 4 + 40 + 16, 1 + 42 + 60);
+		co.setScore(0);
+		assertTotals("co score", 10, 28, 39);
+	}
+
+	@Test
+	public void testSubResourceRemoved() {
+		assertTrue("removeVM", pm.removeVM("shared"));
+		assertFalse("unknown VM", pm.removeVM("shared"));
+		assertTotals("shared removed from pm", 10, 20, 31);
+		//La VM retirée n'est plus reliée qu'au tier
+		shared.setScore(0);
+		assertTotals("shared score", 2, 20, 23);
+		assertTrue("removeTier", appli.removeTier("tier"));
+		assertTotals("tier removed", 2, 20, 21);
+		shared.setScore(100);
+		assertTotals("detached tier", 102, 20, 21);
+	}
+
+}
@@ -19,6 +19,7 @@ public class XMLFileStructureTest {
         assertEquals("getLabel - EVENT_ATTR_ENABLED", "enabled", XMLFileStructure.EVENT_ATTR_ENABLED.getLabel());
         assertEquals("getLabel - EVENT_NAME", "name", XMLFileStructure.EVENT_NAME.getLabel());
         assertEquals("getLabel - EVENT_PRIMITIVE_RUNTIME", "runtime", XMLFileStructure.EVENT_PRIMITIVE_RUNTIME.getLabel());
+        assertEquals("getLabel - EVENT_PRIMITIVE_PARALLELISM", "parallelism", XMLFileStructure.EVENT_PRIMITIVE_PARALLELISM.getLabel());
         assertEquals("getLabel - NAMESPACE", "http://www.w3.org/2001/XMLSchema-instance", XMLFileStructure.NAMESPACE.getLabel());
     }
 
@@ -31,6 +32,7 @@ public class XMLFileStructureTest {
         assertEquals("fromLabel - EVENT_ATTR_ENABLED", XMLFileStructure.EVENT_ATTR_ENABLED, XMLFileStructure.fromLabel("enabled"));
         assertEquals("fromLabel - EVENT_NAME", XMLFileStructure.EVENT_NAME, XMLFileStructure.fromLabel("name"));
         assertEquals("fromLabel - EVENT_PRIMITIVE_RUNTIME", XMLFileStructure.EVENT_PRIMITIVE_RUNTIME, XMLFileStructure.fromLabel("runtime"));
+        assertEquals("fromLabel - EVENT_PRIMITIVE_PARALLELISM", XMLFileStructure.EVENT_PRIMITIVE_PARALLELISM, XMLFileStructure.fromLabel("parallelism"));
         assertEquals("fromLabel - NAMESPACE", XMLFileStructure.NAMESPACE, XMLFileStructure.fromLabel("http://www.w3.org/2001/XMLSchema-instance"));
     }
 
@@ -52,8 +54,9 @@ public class XMLFileStructureTest {
                 XMLFileStructure.RACINE_PERCEPTION, XMLFileStructure.EVENTS,
                 XMLFileStructure.EVENT_PRIMITIVES, XMLFileStructure.EVENT_PRIMITIVE,
                 XMLFileStructure.EVENT_ATTR_ENABLED, XMLFileStructure.EVENT_NAME,
-                XMLFileStructure.EVENT_PRIMITIVE_RUNTIME, XMLFileStructure.NAMESPACE);
-        assertEquals("valuesAsList - taille", 17, XMLFileStructure.valuesAsList().size());
+                XMLFileStructure.EVENT_PRIMITIVE_RUNTIME, XMLFileStructure.EVENT_PRIMITIVE_PARALLELISM,
+                XMLFileStructure.NAMESPACE);
+        assertEquals("valuesAsList - taille", 18, XMLFileStructure.valuesAsList().size());
         assertTrue("valuesAsList - values", XMLFileStructure.valuesAsList().containsAll(xMLFileStructureList));
     }
 
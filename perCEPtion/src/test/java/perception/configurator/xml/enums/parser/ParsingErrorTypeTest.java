@@ -65,9 +65,10 @@ public class ParsingErrorTypeTest {
 				ParsingErrorType.EVENT_PRIMITIVES_INVALID_NAME,
 				ParsingErrorType.EVENT_PRIMITIVES_INVALID_RUNTIME,
 				ParsingErrorType.EVENT_PRIMITIVES_DUPLICATED_NAME,
-				ParsingErrorType.EVENT_PRIMITIVES_INVALID_TYPE);
+				ParsingErrorType.EVENT_PRIMITIVES_INVALID_TYPE,
+				ParsingErrorType.EVENT_PRIMITIVES_INVALID_PARALLELISM);
 				//ParsingErrorType.INVALID_PRIMITIVE_ENABLED_ATTR);
-		assertEquals("valuesAsList - taille", 13, ParsingErrorType.valuesAsList().size());
+		assertEquals("valuesAsList - taille", 14, ParsingErrorType.valuesAsList().size());
 		assertTrue("valuesAsList - values", ParsingErrorType.valuesAsList().containsAll(parsingErrorTypeList));
 	}
 
@@ -300,7 +300,7 @@ public class XMLFileParserToPrimitiveEventDataTest {
         Node node = nodeListJeuxDeDonneesFromFile.item(0);
         Optional<Long> primitiveEventRuntimeActual = XMLFileParserToPrimitiveEventData.getPrimitiveEventRuntimeFromFile(xPath, node, resultatParsing);
 
-        assertEquals("Recupération du runtime du primitive event", new Long(900), primitiveEventRuntimeActual.get());
+        assertEquals("Recupération du runtime du primitive event", 900L, (long) primitiveEventRuntimeActual.get());
         assertTrue("Map de primitive events", resultatParsing.getPrimitiveEventList().isEmpty());
         assertTrue("Liste erreur parsing", resultatParsing.getParsingErrorTypes().isEmpty());
         assertTrue("Liste erreur fichier", resultatParsing.getFileErrorTypes().isEmpty());
@@ -368,4 +368,73 @@ public class XMLFileParserToPrimitiveEventDataTest {
 
     }
 
+    @Test
+    public void testGetPrimitiveEventParallelismFromFile_OK()
+            throws XPathExpressionException, ParserConfigurationException, SAXException, IOException {
+
+        String filePath = TestConstants.XMLFileParserPrimitiveEventsTestFolder + "testGetPrimitiveEventParallelismFromFile_OK.xml";
+        ResultatParsing resultatParsing = ResultatParsing.FAB();
+
+        NodeList nodeListJeuxDeDonneesFromFile = (NodeList) xPath.evaluate("//primitive",
+                XMLManager.getElementRootFromFile(filePath), XPathConstants.NODESET);
+
+        // Récupération du premier primitive event
+        Node node = nodeListJeuxDeDonneesFromFile.item(0);
+        Optional<Integer> primitiveEventParallelismActual = XMLFileParserToPrimitiveEventData.getPrimitiveEventParallelismFromFile(xPath, node, resultatParsing);
+        assertEquals("Recupération du parallélisme du primitive event", 4, (int) primitiveEventParallelismActual.get());
+
+        // Récupération du second primitive event, sans parallélisme renseigné
+        node = nodeListJeuxDeDonneesFromFile.item(1);
+        primitiveEventParallelismActual = XMLFileParserToPrimitiveEventData.getPrimitiveEventParallelismFromFile(xPath, node, resultatParsing);
+        assertEquals("Parallélisme par défaut du primitive event", 1, (int) primitiveEventParallelismActual.get());
+
+        assertTrue("Map de primitive events", resultatParsing.getPrimitiveEventList().isEmpty());
+        assertTrue("Liste erreur parsing", resultatParsing.getParsingErrorTypes().isEmpty());
+        assertTrue("Liste erreur fichier", resultatParsing.getFileErrorTypes().isEmpty());
+
+    }
+
+    @Test
+    public void testGetPrimitiveEventParallelismFromFile_KO()
+            throws XPathExpressionException, ParserConfigurationException, SAXException, IOException {
+
+        String filePath = TestConstants.XMLFileParserPrimitiveEventsTestFolder + "testGetPrimitiveEventParallelismFromFile_KO.xml";
+
+        NodeList nodeListJeuxDeDonneesFromFile = (NodeList) xPath.evaluate("//primitive",
+                XMLManager.getElementRootFromFile(filePath), XPathConstants.NODESET);
+
+        for (int i = 0; i < nodeListJeuxDeDonneesFromFile.getLength(); i++) {
+            ResultatParsing resultatParsing = ResultatParsing.FAB();
+            Node node = nodeListJeuxDeDonneesFromFile.item(i);
+            Optional<Integer> primitiveEventParallelismActual = XMLFileParserToPrimitiveEventData.getPrimitiveEventParallelismFromFile(xPath, node, resultatParsing);
+
+            assertFalse("Recupération du parallélisme du primitive event", primitiveEventParallelismActual.isPresent());
+            assertTrue("Map de primitive events", resultatParsing.getPrimitiveEventList().isEmpty());
+            assertTrue("Liste erreur parsing", resultatParsing.getParsingErrorTypes().containsAll(Collections.singletonList(ParsingErrorType.EVENT_PRIMITIVES_INVALID_PARALLELISM)));
+            assertTrue("Liste erreur fichier", resultatParsing.getFileErrorTypes().isEmpty());
+        }
+
+    }
+
+    @Test
+    public void testCreateAllPrimitivesEvents_WithParallelism()
+            throws XPathExpressionException, ParserConfigurationException, SAXException, IOException {
+
+        String filePath = TestConstants.XMLFileParserPrimitiveEventsTestFolder + "testGetPrimitiveEventParallelismFromFile_OK.xml";
+        ResultatParsing resultatParsing = ResultatParsing.FAB();
+
+        NodeList nodeListJeuxDeDonneesFromFile = (NodeList) xPath.evaluate("//primitive",
+                XMLManager.getElementRootFromFile(filePath), XPathConstants.NODESET);
+        XMLFileParserToPrimitiveEventData.createAllPrimitivesEvents(xPath, nodeListJeuxDeDonneesFromFile, resultatParsing);
+
+        List<PrimitiveEventData> primitiveEventList = new ArrayList<>();
+        primitiveEventList.add(new PrimitiveEventData("MonPEG Vm Cpu", "PEG_Vm_Cpu", 900L, 4));
+        primitiveEventList.add(new PrimitiveEventData("MonPEG Pm Cpu", "PEG_Pm_Cpu", 11000L));
+
+        assertEquals("Création des primitives events avec parallélisme", primitiveEventList, resultatParsing.getPrimitiveEventList());
+        assertTrue("Liste erreur parsing", resultatParsing.getParsingErrorTypes().isEmpty());
+        assertTrue("Liste erreur fichier", resultatParsing.getFileErrorTypes().isEmpty());
+
+    }
+
 }
@@ -0,0 +1,195 @@
+package perception.core;
+
+import graph.Appli;
+import graph.CloudResource;
+import graph.Co;
+import graph.PM;
+import graph.Tier;
+import graph.VM;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class GraphCheckpointTest {
+
+	private static final int HEADER_SIZE = 20; //Magic, version, epoch et nombre de ressources
+
+	private final CloudResourcesAccess access = CloudResourcesAccess.getInstance();
+	private Path path;
+
+	@Before
+	public void setUp() throws IOException {
+		clearMonitoredResources();
+		path = Files.createTempFile("checkpoint", ".bin");
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		clearMonitoredResources();
+		Files.deleteIfExists(path);
+	}
+
+	private void clearMonitoredResources() {
+		access.applyChanges(Collections.emptyList(), new ArrayList<>(access.getResources().keySet()));
+	}
+
+	/**
+	 * Surveille un graph : appli > tier et pm > vm (deux parents) > co, et une PM sans parent
+	 */
+	private void monitorGraph() {
+		Appli appli = new Appli("appli", 1);
+		Tier tier = new Tier("tier", 2);
+		PM pm = new PM("pm", 3);
+		PM orphan = new PM("orphan", 4);
+		VM vm = new VM("vm", 5);
+		Co co = new Co("co", "db", 6, 120);
+		tier.setAppli(appli);
+		pm.setAppli(appli);
+		vm.setPm(pm);
+		vm.setTier(tier);
+		co.setVm(vm);
+		appli.addTier(tier);
+		appli.addPM(pm);
+		pm.addVM(vm);
+		tier.addVM(vm);
+		vm.addCo(co);
+		pm.setCpuConsumption(10);
+		pm.setRamConsumption(11);
+		pm.setDiskConsumption(12);
+		orphan.setCpuConsumption(40);
+		vm.setCpuConsumption(20);
+		vm.setRamConsumption(21);
+		vm.setDiskConsumption(22);
+		assertEquals("monitored", 6, access.applyChanges(Arrays.asList(appli, tier, pm, orphan, vm, co),
+				Collections.emptyList()));
+	}
+
+	private static Map<String, CloudResource> byName(GraphLoader.Result result) {
+		Map<String, CloudResource> resources = new HashMap<>();
+		for(CloudResource cr : result.getResources()) {
+			resources.put(cr.getName(), cr);
+		}
+		return resources;
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		monitorGraph();
+		assertEquals("written", 6, GraphCheckpoint.write(path));
+		clearMonitoredResources();
+
+		GraphLoader.Result result = GraphCheckpoint.read(path);
+		assertEquals("registered", 6, result.getRegisteredCount());
+		Map<String, CloudResource> resources = byName(result);
+		assertEquals("names", 6, resources.size());
+		Appli appli = (Appli) resources.get("appli");
+		Tier tier = (Tier) resources.get("tier");
+		PM pm = (PM) resources.get("pm");
+		PM orphan = (PM) resources.get("orphan");
+		VM vm = (VM) resources.get("vm");
+		Co co = (Co) resources.get("co");
+
+		assertSame("tier parent", appli, tier.getAppli());
+		assertSame("pm parent", appli, pm.getAppli());
+		assertNull("orphan parent", orphan.getAppli());
+		assertSame("vm pm", pm, vm.getPm());
+		assertSame("vm tier", tier, vm.getTier());
+		assertSame("co parent", vm, co.getVm());
+
+		assertEquals("appli score", 1, appli.getScore());
+		assertEquals("co score", 6, co.getScore());
+		assertEquals("pm total score", 3 + 5 + 6, pm.getTotalScore());
+		assertTrue("appli total score", appli.isTotalScoreConsistent());
+
+		assertEquals("pm cpu", 10, pm.getCpu_consumption());
+		assertEquals("pm ram", 11, pm.getRamConsumption());
+		assertEquals("pm disk", 12, pm.getDiskConsumption());
+		assertEquals("orphan cpu", 40, orphan.getCpu_consumption());
+		assertEquals("vm cpu", 20, vm.getCpu_consumption());
+		assertEquals("vm ram", 21, vm.getRamConsumption());
+		assertEquals("vm disk", 22, vm.getDiskConsumption());
+		assertEquals("co type", "db", co.getTypeCO());
+		assertEquals("co response time", 120, co.getResponseTime());
+
+		assertEquals("monitored", vm.getId(), access.getSnapshot().getResource("vm").getId());
+	}
+
+	@Test
+	public void testUnmonitoredParentIsDropped() throws IOException {
+		Appli appli = new Appli("hidden", 1);
+		Tier tier = new Tier("tier", 2);
+		tier.setAppli(appli);
+		appli.addTier(tier);
+		access.addMonitoredResource(tier);
+		GraphCheckpoint.write(path);
+		clearMonitoredResources();
+
+		Tier read = (Tier) GraphCheckpoint.read(path).getResources().get(0);
+		assertNull("parent not monitored", read.getAppli());
+	}
+
+	@Test
+	public void testTruncatedCheckpoint() throws IOException {
+		monitorGraph();
+		GraphCheckpoint.write(path);
+		clearMonitoredResources();
+		byte[] bytes = Files.readAllBytes(path);
+		for(int length : new int[] {HEADER_SIZE - 1, HEADER_SIZE, HEADER_SIZE + 3, bytes.length - 1}) {
+			Files.write(path, Arrays.copyOf(bytes, length));
+			assertReadFails("truncated to " + length);
+		}
+	}
+
+	@Test
+	public void testCorruptCheckpoint() throws IOException {
+		monitorGraph();
+		GraphCheckpoint.write(path);
+		clearMonitoredResources();
+		byte[] bytes = Files.readAllBytes(path);
+
+		byte[] badMagic = bytes.clone();
+		badMagic[0] ^= 0xFF;
+		Files.write(path, badMagic);
+		assertReadFails("bad magic");
+
+		byte[] badVersion = bytes.clone();
+		badVersion[7] = 9;
+		Files.write(path, badVersion);
+		assertReadFails("bad version");
+
+		byte[] badType = bytes.clone();
+		badType[HEADER_SIZE] = 42;
+		Files.write(path, badType);
+		assertReadFails("bad type");
+
+		byte[] badLength = bytes.clone();
+		badLength[HEADER_SIZE + 1] = (byte) 0x80;
+		Files.write(path, badLength);
+		assertReadFails("bad name length");
+	}
+
+	private void assertReadFails(String message) {
+		try {
+			GraphCheckpoint.read(path);
+			fail(message + " : checkpoint read");
+		} catch(IOException e) {
+			assertTrue(message + " : nothing registered", access.getResources().isEmpty());
+		}
+	}
+
+}
@@ -0,0 +1,127 @@
+package perception.core;
+
+import graph.Appli;
+import graph.CloudResource;
+import graph.Co;
+import graph.PM;
+import graph.Tier;
+import graph.VM;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class GraphLoaderTest {
+
+	private final CloudResourcesAccess access = CloudResourcesAccess.getInstance();
+	private Path path;
+
+	@Before
+	public void setUp() throws IOException {
+		clearMonitoredResources();
+		path = Files.createTempFile("topology", ".csv");
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		clearMonitoredResources();
+		Files.deleteIfExists(path);
+	}
+
+	private void clearMonitoredResources() {
+		access.applyChanges(Collections.emptyList(), new ArrayList<>(access.getResources().keySet()));
+	}
+
+	private void write(String... lines) throws IOException {
+		Files.write(path, String.join("\r\n", lines).getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testLoadValidFile() throws IOException {
+		write("# topologie de test",
+				"APPLI,appli,1",
+				"TIER,tier,2,appli",
+				"PM,pm,3,appli,10,11,12",
+				"",
+				"VM,vm,4,pm,tier,20,21,22",
+				"CO,co,5,vm,db,120",
+				"PM,orphan,6,,0,0,0");
+		GraphLoader.Result result = GraphLoader.load(path);
+		List<CloudResource> resources = result.getResources();
+		assertEquals("resources", 6, resources.size());
+		assertEquals("registered", 6, result.getRegisteredCount());
+		assertEquals("monitored", 6, access.getResources().size());
+
+		Appli appli = (Appli) resources.get(0);
+		Tier tier = (Tier) resources.get(1);
+		PM pm = (PM) resources.get(2);
+		VM vm = (VM) resources.get(3);
+		Co co = (Co) resources.get(4);
+		assertSame("tier appli", appli, tier.getAppli());
+		assertSame("pm appli", appli, pm.getAppli());
+		assertTrue("appli tier", appli.isTierExists("tier"));
+		assertTrue("appli pm", appli.isPMExists("pm"));
+		assertSame("vm pm", pm, vm.getPm());
+		assertSame("vm tier", tier, vm.getTier());
+		assertTrue("pm vm", pm.isVMExists("vm"));
+		assertTrue("tier vm", tier.isVMExists("vm"));
+		assertSame("co vm", vm, co.getVm());
+		assertSame("vm co", co, vm.getCo("co").orElse(null));
+		assertEquals("co type", "db", co.getTypeCO());
+		assertEquals("co response time", 120, co.getResponseTime());
+		assertEquals("vm ram", 21, vm.getRamConsumption());
+		assertEquals("appli total", 1 + (2 + 4 + 5) + (3 + 4 + 5), appli.getTotalScore());
+		assertNull("orphan appli", ((PM) resources.get(5)).getAppli());
+	}
+
+	@Test
+	public void testUnknownParent() throws IOException {
+		write("APPLI,appli,1", "TIER,tier,2,other");
+		assertLoadFails("unknown parent", "line 2");
+		write("APPLI,appli,1", "CO,co,5,vm,db,120");
+		assertLoadFails("unknown vm", "line 2");
+	}
+
+	@Test
+	public void testDuplicateName() throws IOException {
+		write("APPLI,appli,1", "APPLI,appli,2");
+		assertLoadFails("duplicate appli", "line 2");
+		write("VM,vm,1,,,0,0,0", "CO,co,2,vm,db,1", "CO,co,3,vm,web,1");
+		assertLoadFails("duplicate co", "line 3");
+	}
+
+	@Test
+	public void testBadFieldCount() throws IOException {
+		write("APPLI,appli,1", "TIER,tier,2");
+		assertLoadFails("missing field", "line 2");
+		write("APPLI,appli,1,2");
+		assertLoadFails("extra field", "line 1");
+		write("VM,vm,1,,,0,0,0,0");
+		assertLoadFails("too many fields", "line 1");
+	}
+
+	private void assertLoadFails(String message, String location) {
+		try {
+			GraphLoader.load(path);
+			fail(message + " : file loaded");
+		} catch(IOException e) {
+			assertTrue(message + " : " + e.getMessage(), e.getMessage().contains(location));
+			assertTrue(message + " : nothing registered", access.getResources().isEmpty());
+		}
+	}
+
+}
@@ -0,0 +1,27 @@
+package perception.core;
+
+import org.junit.Test;
+import perception.events.PrimitiveEvent;
+import perception.simple_events_generator.SimpleEventGenerator;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MultiPatternFunctionTest {
+
+	@Test
+	public void testSharedAndSeparateLayoutsProduceIdenticalMatches() throws Exception {
+		List<SimpleEventGenerator> segs = SharedPatternBenchmark.createGenerators(6);
+		List<PrimitiveEvent> events = SharedPatternBenchmark.createEvents(5000, 10, 7);
+		List<String> separate = SharedPatternBenchmark.execute(segs, events, false);
+		List<String> shared = SharedPatternBenchmark.execute(segs, events, true);
+		assertTrue("matches found", separate.size() > 0);
+		for(SimpleEventGenerator seg : segs) {
+			assertTrue(seg.getName() + " matches", separate.stream().anyMatch(m -> m.startsWith(seg.getName() + " ")));
+		}
+		assertEquals("identical matches", separate, shared);
+	}
+
+}
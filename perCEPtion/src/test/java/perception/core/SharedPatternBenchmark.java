@@ -0,0 +1,416 @@
+package perception.core;
+
+import graph.CloudResourceType;
+import org.apache.flink.api.common.functions.FilterFunction;
+import org.apache.flink.api.common.functions.MapFunction;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.cep.CEP;
+import org.apache.flink.cep.PatternSelectFunction;
+import org.apache.flink.cep.pattern.Pattern;
+import org.apache.flink.cep.pattern.conditions.SimpleCondition;
+import org.apache.flink.streaming.api.TimeCharacteristic;
+import org.apache.flink.streaming.api.datastream.DataStream;
+import org.apache.flink.streaming.api.datastream.KeyedStream;
+import org.apache.flink.streaming.api.datastream.SingleOutputStreamOperator;
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+import org.apache.flink.streaming.api.functions.sink.SinkFunction;
+import org.apache.flink.streaming.api.functions.timestamps.AscendingTimestampExtractor;
+import org.apache.flink.streaming.api.windowing.time.Time;
+import org.apache.flink.util.OutputTag;
+import perception.events.Event;
+import perception.events.PrimitiveEvent;
+import perception.events.SimpleEvent;
+import perception.events.serialization.EventTypeInfo;
+import perception.simple_events_generator.SimpleEventGenerator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Banc d'essai comparant l'évaluation des schémas des SEG par un opérateur CEP par SEG à leur évaluation par un
+ * opérateur unique ({@link MultiPatternFunction}, voir {@link SACEventStream#setSharedPatternOperator(boolean)}).
+ * Chaque disposition est exécutée par un environnement Flink local, sur les mêmes évènements primitifs générés
+ * aléatoirement et avec les mêmes SEG ; le banc affiche pour chacune la durée de l'exécution, le débit obtenu et le
+ * nombre de correspondances, puis vérifie que les deux dispositions produisent les mêmes évènements.
+ * La durée mesurée inclut le démarrage du job et, lors des premières itérations, la compilation à la volée : seules
+ * les dernières itérations, sur suffisamment d'évènements, sont représentatives.
+ * Usage : SharedPatternBenchmark [nombre de SEG] [nombre d'évènements] [nombre de ressources] [nombre d'itérations]
+ */
+public class SharedPatternBenchmark {
+
+    private static final List<String> RESULTS = Collections.synchronizedList(new ArrayList<>()); //Sortie du job
+
+    public static void main(String[] args) throws Exception {
+        int segCount = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int eventCount = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+        int resourceCount = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        int iterations = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        List<SimpleEventGenerator> segs = createGenerators(segCount);
+        List<PrimitiveEvent> events = createEvents(eventCount, resourceCount, 42);
+        for(int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            List<String> separate = execute(segs, events, false);
+            long separateNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            List<String> shared = execute(segs, events, true);
+            long sharedNanos = System.nanoTime() - start;
+            System.out.println(String.format("%d SEG, %d events : separate %d ms (%.0f events/s), shared %d ms "
+                            + "(%.0f events/s), %d matches, identical : %b", segCount, eventCount,
+                    separateNanos / 1000000, eventCount * 1e9 / separateNanos, sharedNanos / 1000000,
+                    eventCount * 1e9 / sharedNanos, shared.size(), shared.equals(separate)));
+        }
+    }
+
+    /**
+     * Crée des SEG de test, alternativement de chacun des trois schémas de test
+     * @param count - Le nombre de SEG à créer
+     * @return Les SEG créés
+     */
+    static List<SimpleEventGenerator> createGenerators(int count) {
+        List<SimpleEventGenerator> segs = new ArrayList<>();
+        for(int i = 0; i < count; i++) {
+            switch(i % 3) {
+                case 0:
+                    segs.add(new DropGenerator("drop" + i, 50 + i));
+                    break;
+                case 1:
+                    segs.add(new RiseGenerator("rise" + i, 20 + i));
+                    break;
+                default:
+                    segs.add(new LoadGenerator("load" + i, 50 + i));
+                    break;
+            }
+        }
+        return segs;
+    }
+
+    /**
+     * Crée des évènements primitifs de test, de dates croissantes, répartis aléatoirement entre les ressources
+     * @param count - Le nombre d'évènements à créer
+     * @param resourceCount - Le nombre de ressources
+     * @param seed - La graine du générateur aléatoire
+     * @return Les évènements créés
+     */
+    static List<PrimitiveEvent> createEvents(int count, int resourceCount, long seed) {
+        Random random = new Random(seed);
+        List<PrimitiveEvent> events = new ArrayList<>(count);
+        for(int i = 0; i < count; i++) {
+            int resource = random.nextInt(resourceCount);
+            int value = random.nextInt(100);
+            PrimitiveEvent event = random.nextInt(4) == 0
+                    ? new LoadEvent(resource, value)
+                    : new ValueEvent(resource, value);
+            event.setTimestamp(1000 + i);
+            events.add(event);
+        }
+        return events;
+    }
+
+    /**
+     * Exécute les schémas de SEG sur des évènements primitifs, dans un environnement Flink local
+     * @param segs - Les SEG dont les schémas sont évalués
+     * @param events - Les évènements primitifs, de dates croissantes
+     * @param shared - <code>true</code> pour évaluer les schémas par un opérateur unique, <code>false</code> pour un
+     *               opérateur CEP par SEG
+     * @return Les évènements générés, précédés du nom de leur SEG et triés
+     * @throws Exception si l'exécution échoue
+     */
+    static List<String> execute(List<SimpleEventGenerator> segs, List<PrimitiveEvent> events, boolean shared)
+            throws Exception {
+        StreamExecutionEnvironment env = StreamExecutionEnvironment.createLocalEnvironment(1);
+        env.setStreamTimeCharacteristic(TimeCharacteristic.EventTime);
+        DataStream<PrimitiveEvent> source = env
+                .fromCollection(events, EventTypeInfo.forEventClass(PrimitiveEvent.class))
+                .assignTimestampsAndWatermarks(new AscendingTimestampExtractor<PrimitiveEvent>() {
+                    @Override
+                    public long extractAscendingTimestamp(PrimitiveEvent event) {
+                        return event.getTimestamp();
+                    }
+                });
+        List<DataStream<String>> outputs = new ArrayList<>();
+        if(shared) {
+            TypeSerializer<PrimitiveEvent> eventSerializer = EventTypeInfo.forEventClass(PrimitiveEvent.class)
+                    .createSerializer(env.getConfig());
+            MultiPatternFunction function = new MultiPatternFunction(eventSerializer);
+            Set<Class<? extends PrimitiveEvent>> consumedClasses = new HashSet<>();
+            List<OutputTag<Event>> tags = new ArrayList<>();
+            for(SimpleEventGenerator seg : segs) {
+                OutputTag<Event> tag = new OutputTag<>("SEG_" + tags.size(), EventTypeInfo.forEventClass(Event.class));
+                function.addPattern(seg.getName(), seg.getPattern(), seg.getPatternSelectFunction(),
+                        seg.getConsumedEventClasses(), tag);
+                consumedClasses.addAll(seg.getConsumedEventClasses());
+                tags.add(tag);
+            }
+            SingleOutputStreamOperator<Event> patterns = keyByResource(source, consumedClasses)
+                    .process(function, EventTypeInfo.forEventClass(Event.class));
+            for(int i = 0; i < segs.size(); i++) {
+                outputs.add(patterns.getSideOutput(tags.get(i)).map(new Label(segs.get(i).getName())));
+            }
+        } else {
+            for(SimpleEventGenerator seg : segs) {
+                KeyedStream<PrimitiveEvent, Integer> input = keyByResource(source, seg.getConsumedEventClasses());
+                outputs.add(CEP.pattern(input, seg.getPattern())
+                        .select(seg.getPatternSelectFunction(), EventTypeInfo.forEventClass(Event.class))
+                        .map(new Label(seg.getName())));
+            }
+        }
+        DataStream<String> results = outputs.get(0);
+        for(int i = 1; i < outputs.size(); i++) {
+            results = results.union(outputs.get(i));
+        }
+        results.addSink(new SinkFunction<String>() {
+            @Override
+            @SuppressWarnings("rawtypes")
+            public void invoke(String value, Context context) throws Exception {
+                RESULTS.add(value);
+            }
+        });
+        RESULTS.clear();
+        env.execute(shared ? "Shared pattern operator" : "One CEP operator per SEG");
+        List<String> sorted = new ArrayList<>(RESULTS);
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * Filtre les évènements des classes consommées et partitionne le flux par ressource, comme
+     * {@link PrimitiveEventStream#getKeyedStream(Set)}
+     */
+    private static KeyedStream<PrimitiveEvent, Integer> keyByResource(DataStream<PrimitiveEvent> source,
+                                                                     Set<Class<? extends PrimitiveEvent>> classes) {
+        Set<Class<? extends PrimitiveEvent>> consumed = new HashSet<>(classes);
+        return source
+                .filter(new FilterFunction<PrimitiveEvent>() {
+                    @Override
+                    public boolean filter(PrimitiveEvent event) throws Exception {
+                        for(Class<? extends PrimitiveEvent> eventClass : consumed) {
+                            if(eventClass.isInstance(event)) {
+                                return true;
+                            }
+                        }
+                        return false;
+                    }
+                })
+                .keyBy(new KeySelector<PrimitiveEvent, Integer>() {
+                    @Override
+                    public Integer getKey(PrimitiveEvent event) throws Exception {
+                        return event.getCloudResourceId();
+                    }
+                });
+    }
+
+    /**
+     * Représentation d'un évènement généré, précédée du nom de son SEG
+     */
+    private static class Label implements MapFunction<Event, String> {
+
+        private final String segName;
+
+        private Label(String segName) {
+            this.segName = segName;
+        }
+
+        @Override
+        public String map(Event event) throws Exception {
+            return segName + " " + event;
+        }
+
+    }
+
+    /**
+     * Evènement primitif de test portant une valeur
+     */
+    static class ValueEvent extends PrimitiveEvent {
+
+        private final int value;
+
+        ValueEvent(int resource, int value) {
+            super(resource, "vm" + resource, CloudResourceType.VM, 0);
+            this.value = value;
+        }
+
+        int getValue() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return "Value{" + getCloudResourceName() + "," + value + "," + getTimestamp() + "}";
+        }
+
+    }
+
+    /**
+     * Evènement primitif de test d'une seconde classe, consommée par un seul des schémas de test
+     */
+    static class LoadEvent extends ValueEvent {
+
+        LoadEvent(int resource, int value) {
+            super(resource, value);
+        }
+
+        @Override
+        public String toString() {
+            return "Load{" + getCloudResourceName() + "," + getValue() + "," + getTimestamp() + "}";
+        }
+
+    }
+
+    /**
+     * Evènement simple généré par les schémas de test, décrivant les évènements de la correspondance
+     */
+    static class MatchEvent extends SimpleEvent {
+
+        private final String match;
+
+        MatchEvent(PrimitiveEvent first, Map<String, List<PrimitiveEvent>> match) {
+            super(first.getCloudResourceId(), first.getCloudResourceName(), first.getCloudResourceType(), 0);
+            this.match = String.valueOf(match);
+        }
+
+        @Override
+        public String toString() {
+            return "Match" + match;
+        }
+
+    }
+
+    /**
+     * SEG de test dont les correspondances sont décrites par un {@link MatchEvent}
+     */
+    private abstract static class TestGenerator extends SimpleEventGenerator {
+
+        private TestGenerator(String name) {
+            super(name);
+        }
+
+        @Override
+        public PatternSelectFunction<PrimitiveEvent, Event> getPatternSelectFunction() {
+            return new PatternSelectFunction<PrimitiveEvent, Event>() {
+                @Override
+                public Event select(Map<String, List<PrimitiveEvent>> match) throws Exception {
+                    return new MatchEvent(match.values().iterator().next().get(0), new java.util.TreeMap<>(match));
+                }
+            };
+        }
+
+    }
+
+    /**
+     * Valeur élevée immédiatement suivie d'une valeur faible, en moins de 50 ms (contiguïté stricte)
+     */
+    private static class DropGenerator extends TestGenerator {
+
+        private final int threshold;
+
+        private DropGenerator(String name, int threshold) {
+            super(name);
+            this.threshold = threshold;
+        }
+
+        @Override
+        public Pattern<PrimitiveEvent, ?> getPattern() {
+            int high = threshold;
+            return Pattern.<PrimitiveEvent>begin("high")
+                    .where(new SimpleCondition<PrimitiveEvent>() {
+                        @Override
+                        public boolean filter(PrimitiveEvent event) throws Exception {
+                            return ((ValueEvent) event).getValue() >= high;
+                        }
+                    })
+                    .next("low")
+                    .where(new SimpleCondition<PrimitiveEvent>() {
+                        @Override
+                        public boolean filter(PrimitiveEvent event) throws Exception {
+                            return ((ValueEvent) event).getValue() < 10;
+                        }
+                    })
+                    .within(Time.milliseconds(50));
+        }
+
+        @Override
+        public Set<Class<? extends PrimitiveEvent>> getConsumedEventClasses() {
+            return Collections.singleton(ValueEvent.class);
+        }
+
+    }
+
+    /**
+     * Valeur faible suivie, plus tard, d'une valeur très élevée, en moins de 200 ms (contiguïté relâchée)
+     */
+    private static class RiseGenerator extends TestGenerator {
+
+        private final int threshold;
+
+        private RiseGenerator(String name, int threshold) {
+            super(name);
+            this.threshold = threshold;
+        }
+
+        @Override
+        public Pattern<PrimitiveEvent, ?> getPattern() {
+            int low = threshold;
+            return Pattern.<PrimitiveEvent>begin("low")
+                    .where(new SimpleCondition<PrimitiveEvent>() {
+                        @Override
+                        public boolean filter(PrimitiveEvent event) throws Exception {
+                            return ((ValueEvent) event).getValue() < low;
+                        }
+                    })
+                    .followedBy("high")
+                    .where(new SimpleCondition<PrimitiveEvent>() {
+                        @Override
+                        public boolean filter(PrimitiveEvent event) throws Exception {
+                            return ((ValueEvent) event).getValue() >= 98;
+                        }
+                    })
+                    .within(Time.milliseconds(200));
+        }
+
+        @Override
+        public Set<Class<? extends PrimitiveEvent>> getConsumedEventClasses() {
+            return Collections.singleton(ValueEvent.class);
+        }
+
+    }
+
+    /**
+     * Deux charges élevées consécutives, ne consommant que les {@link LoadEvent}
+     */
+    private static class LoadGenerator extends TestGenerator {
+
+        private final int threshold;
+
+        private LoadGenerator(String name, int threshold) {
+            super(name);
+            this.threshold = threshold;
+        }
+
+        @Override
+        public Pattern<PrimitiveEvent, ?> getPattern() {
+            int high = threshold;
+            SimpleCondition<PrimitiveEvent> overloaded = new SimpleCondition<PrimitiveEvent>() {
+                @Override
+                public boolean filter(PrimitiveEvent event) throws Exception {
+                    return ((ValueEvent) event).getValue() >= high;
+                }
+            };
+            return Pattern.<PrimitiveEvent>begin("first").where(overloaded)
+                    .next("second").where(overloaded)
+                    .within(Time.milliseconds(100));
+        }
+
+        @Override
+        public Set<Class<? extends PrimitiveEvent>> getConsumedEventClasses() {
+            return Collections.singleton(LoadEvent.class);
+        }
+
+    }
+
+}
@@ -0,0 +1,102 @@
+package perception.core;
+
+import org.apache.flink.streaming.api.functions.source.SourceFunction;
+import org.apache.flink.streaming.api.functions.source.SourceFunction.SourceContext;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.junit.After;
+import org.junit.Test;
+import perception.events.PrimitiveEvent;
+import perception.primitive_events_generator.PEGMultiplexer;
+import perception.primitive_events_generator.implementations.PEG_Blank;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SourceStartupTest {
+
+	/**
+	 * Contexte de source ignorant les évènements et watermarks émis
+	 */
+	private static class IgnoringContext implements SourceContext<PrimitiveEvent> {
+
+		private final Object lock = new Object();
+
+		@Override
+		public void collect(PrimitiveEvent element) {}
+
+		@Override
+		public void collectWithTimestamp(PrimitiveEvent element, long timestamp) {}
+
+		@Override
+		public void emitWatermark(Watermark mark) {}
+
+		@Override
+		public void markAsTemporarilyIdle() {}
+
+		@Override
+		public Object getCheckpointLock() {
+			return lock;
+		}
+
+		@Override
+		public void close() {}
+
+	}
+
+	@After
+	public void tearDown() {
+		SourceStartup.reset();
+	}
+
+	@Test
+	public void testNoDeclaredSource() throws InterruptedException {
+		SourceStartup.reset();
+		SourceStartup.started();
+		assertFalse("no source declared", SourceStartup.await(10));
+	}
+
+	@Test
+	public void testAwaitAllSubtasks() throws InterruptedException {
+		SourceStartup.reset();
+		SourceStartup.expect(1);
+		SourceStartup.expect(2);
+		SourceStartup.started();
+		SourceStartup.started();
+		assertFalse("one subtask missing", SourceStartup.await(10));
+		Thread thread = new Thread(SourceStartup::started);
+		thread.start();
+		assertTrue("all subtasks started", SourceStartup.await(5000));
+		thread.join();
+	}
+
+	@Test
+	public void testSourcesSignalStartup() throws Exception {
+		SourceStartup.reset();
+		SourceStartup.expect(2);
+		PEG_Blank blank = new PEG_Blank("BLANK_Startup");
+		PEGMultiplexer multiplexer = new PEGMultiplexer(Collections.singletonList(new PEG_Blank("BLANK_Hosted")), 10);
+		Thread pegThread = new Thread(() -> run(blank));
+		Thread multiplexerThread = new Thread(() -> run(multiplexer));
+		pegThread.start();
+		multiplexerThread.start();
+		try {
+			assertTrue("sources started", SourceStartup.await(5000));
+		} finally {
+			blank.cancel();
+			multiplexer.cancel();
+			pegThread.join(5000);
+			multiplexerThread.join(5000);
+		}
+	}
+
+	private static void run(SourceFunction<PrimitiveEvent> source) {
+		try {
+			source.run(new IgnoringContext());
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
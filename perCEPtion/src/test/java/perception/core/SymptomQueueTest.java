@@ -0,0 +1,114 @@
+package perception.core;
+
+import graph.CloudResourceType;
+import org.junit.Test;
+import perception.events.RankedSymptom;
+import perception.events.Symptom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SymptomQueueTest {
+
+	private static Symptom symptom(String name, int score) {
+		return new RankedSymptom(CloudResourceType.VM, name, score, 1, null);
+	}
+
+	private static List<String> names(Collection<Symptom> symptoms) {
+		List<String> names = new ArrayList<>();
+		for(Symptom symptom : symptoms) {
+			names.add(symptom.getCloudResources().getFirst().getSecond());
+		}
+		return names;
+	}
+
+	@Test
+	public void testOrderedByScoreThenArrival() {
+		SymptomQueue queue = new SymptomQueue();
+		queue.pushSymptom(symptom("low", 1));
+		queue.pushSymptom(symptom("high1", 5));
+		queue.pushSymptom(symptom("mid", 3));
+		queue.pushSymptom(symptom("high2", 5));
+		assertEquals("peek", "high1", queue.peekSymptom().getCloudResources().getFirst().getSecond());
+		assertEquals("order", Arrays.asList("high1", "high2", "mid", "low"), names(queue.clear()));
+		assertTrue("empty", queue.isEmpty());
+		assertNull("poll on empty queue", queue.pollSymptom());
+	}
+
+	@Test
+	public void testLowestScoreEvictsOldestLowest() {
+		SymptomQueue queue = new SymptomQueue(3, SymptomQueue.EvictionPolicy.LOWEST_SCORE);
+		queue.pushSymptom(symptom("a", 2));
+		queue.pushSymptom(symptom("b", 1));
+		queue.pushSymptom(symptom("c", 1));
+		//A score égal, le plus ancien est évincé
+		assertTrue("tie accepted", queue.pushSymptom(symptom("d", 1)));
+		assertEquals("after tie", Arrays.asList("a", "c", "d"), names(queue.getQueue()));
+		assertFalse("lower score refused", queue.pushSymptom(symptom("e", 0)));
+		assertTrue("higher score accepted", queue.pushSymptom(symptom("f", 3)));
+		assertEquals("after higher", Arrays.asList("f", "a", "d"), names(queue.getQueue()));
+		assertEquals("pushed", 6, queue.getPushedCount());
+		assertEquals("evicted", 3, queue.getEvictedCount());
+	}
+
+	@Test
+	public void testOldestEvictsFirstArrival() {
+		SymptomQueue queue = new SymptomQueue(2, SymptomQueue.EvictionPolicy.OLDEST);
+		queue.pushSymptom(symptom("a", 5));
+		queue.pushSymptom(symptom("b", 1));
+		assertTrue("lower score accepted", queue.pushSymptom(symptom("c", 0)));
+		assertEquals("after c", Arrays.asList("b", "c"), names(queue.getQueue()));
+		queue.pollSymptom();
+		queue.pushSymptom(symptom("d", 9));
+		queue.pushSymptom(symptom("e", 9));
+		assertEquals("after e", Arrays.asList("d", "e"), names(queue.getQueue()));
+		assertEquals("evicted", 2, queue.getEvictedCount());
+	}
+
+	@Test
+	public void testPushSymptoms() {
+		SymptomQueue queue = new SymptomQueue(2, SymptomQueue.EvictionPolicy.LOWEST_SCORE);
+		int pushed = queue.pushSymptoms(Arrays.asList(symptom("a", 3), symptom("b", 2), symptom("c", 1),
+				symptom("d", 4)));
+		assertEquals("pushed", 3, pushed);
+		assertEquals("content", Arrays.asList("d", "a"), names(queue.getQueue()));
+		try {
+			queue.pushSymptoms(Arrays.asList(symptom("e", 5), null));
+			fail("null symptom accepted");
+		} catch(IllegalArgumentException e) {
+			assertEquals("batch rejected as a whole", 2, queue.size());
+		}
+	}
+
+	@Test
+	public void testPollSymptomTimeout() throws InterruptedException {
+		SymptomQueue queue = new SymptomQueue();
+		long start = System.nanoTime();
+		assertNull("timeout", queue.pollSymptom(50, TimeUnit.MILLISECONDS));
+		assertTrue("waited", System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+
+		Symptom pushed = symptom("late", 1);
+		Thread producer = new Thread(() -> {
+			try {
+				Thread.sleep(50);
+			} catch(InterruptedException e) {
+				return;
+			}
+			queue.pushSymptom(pushed);
+		});
+		producer.start();
+		assertSame("woken by push", pushed, queue.pollSymptom(10, TimeUnit.SECONDS));
+		producer.join();
+	}
+
+}
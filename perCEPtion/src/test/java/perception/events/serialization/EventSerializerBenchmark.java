@@ -0,0 +1,177 @@
+package perception.events.serialization;
+
+import graph.CloudResource;
+import graph.CloudResourceType;
+import graph.PM;
+import graph.VM;
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.typeutils.runtime.kryo.KryoSerializer;
+import org.apache.flink.core.memory.DataInputDeserializer;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputSerializer;
+import org.apache.flink.core.memory.DataOutputView;
+import perception.core.CloudResourcesAccess;
+import perception.events.ComplexEvent;
+import perception.events.Event;
+import perception.events.PrimitiveEvent;
+import utils.Triplet;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Banc d'essai comparant l'{@link EventSerializer} au sérialiseur Kryo utilisé par défaut par Flink pour les évènements.
+ * Affiche, pour chaque sérialiseur, la taille moyenne d'un évènement sérialisé et les durées moyennes d'écriture et
+ * de lecture d'un évènement.
+ * Usage : EventSerializerBenchmark [nombre d'évènements] [nombre d'itérations]
+ */
+public class EventSerializerBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int eventCount = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        List<Event> events = createEvents(eventCount);
+
+        EventCodecRegistry.getInstance().register(BenchPrimitiveEvent.class, BenchPrimitiveEvent.CODEC);
+        EventCodecRegistry.getInstance().register(BenchComplexEvent.class, BenchComplexEvent.CODEC);
+        ExecutionConfig config = new ExecutionConfig();
+        run("EventSerializer", new EventSerializer<>(Event.class, EventCodecRegistry.getInstance(), config),
+                events, iterations);
+        run("Kryo", new KryoSerializer<>(Event.class, config), events, iterations);
+    }
+
+    /**
+     * Crée des évènements primitifs et complexes portant sur un millier de ressources surveillées
+     * @param eventCount - Le nombre d'évènements à créer
+     * @return Les évènements créés
+     */
+    private static List<Event> createEvents(int eventCount) {
+        //Les ressources sont surveillées afin que leurs noms figurent dans le dictionnaire des ressources
+        List<CloudResource> monitored = new ArrayList<>();
+        for(int i = 0; i < 1000; i++) {
+            monitored.add(new VM("vm-" + i, 0));
+        }
+        for(int i = 0; i < 100; i++) {
+            monitored.add(new PM("pm-" + i, 0));
+        }
+        CloudResourcesAccess.getInstance().applyChanges(monitored, new ArrayList<>());
+        List<Event> events = new ArrayList<>(eventCount);
+        for(int i = 0; i < eventCount; i++) {
+            String name = "vm-" + (i % 1000);
+            if(i % 10 == 0) {
+                Deque<Triplet<CloudResourceType, String, Integer>> resources = new LinkedList<>();
+                resources.add(new Triplet<>(CloudResourceType.VM, name, i % 100));
+                resources.add(new Triplet<>(CloudResourceType.PM, "pm-" + (i % 100), i % 50));
+                events.add(new BenchComplexEvent(resources));
+            } else {
+                events.add(new BenchPrimitiveEvent(name, CloudResourceType.VM, i % 100, i % 101));
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Mesure la taille et les durées d'écriture et de lecture des évènements avec un sérialiseur
+     * @param label - Le nom du sérialiseur affiché
+     * @param serializer - Le sérialiseur mesuré
+     * @param events - Les évènements à sérialiser
+     * @param iterations - Le nombre de mesures effectuées, la première servant de préchauffage
+     * @throws IOException si la sérialisation échoue
+     */
+    private static void run(String label, TypeSerializer<Event> serializer, List<Event> events, int iterations)
+            throws IOException {
+        DataOutputSerializer output = new DataOutputSerializer(64 * events.size());
+        long serializeNanos = 0;
+        long deserializeNanos = 0;
+        int length = 0;
+        for(int iteration = 0; iteration <= iterations; iteration++) {
+            output.clear();
+            long start = System.nanoTime();
+            for(Event event : events) {
+                serializer.serialize(event, output);
+            }
+            long serialized = System.nanoTime();
+            byte[] buffer = output.getCopyOfBuffer();
+            DataInputDeserializer input = new DataInputDeserializer(buffer, 0, buffer.length);
+            long deserializeStart = System.nanoTime();
+            for(int i = 0; i < events.size(); i++) {
+                serializer.deserialize(input);
+            }
+            long deserialized = System.nanoTime();
+            if(iteration > 0) {
+                serializeNanos += serialized - start;
+                deserializeNanos += deserialized - deserializeStart;
+            }
+            length = buffer.length;
+        }
+        long records = (long) events.size() * iterations;
+        System.out.println(String.format("%-16s %6.1f bytes/event %8.1f ns/serialize %8.1f ns/deserialize", label,
+                (double) length / events.size(), (double) serializeNanos / records,
+                (double) deserializeNanos / records));
+    }
+
+    /**
+     * Evènement primitif du banc d'essai, comparable aux évènements des plugins (une métrique entière)
+     */
+    public static class BenchPrimitiveEvent extends PrimitiveEvent {
+
+        static final EventCodec<BenchPrimitiveEvent> CODEC = new PrimitiveEventCodec<BenchPrimitiveEvent>() {
+            @Override
+            protected void writeFields(BenchPrimitiveEvent event, EventSerializer<?> serializer,
+                                       DataOutputView target) throws IOException {
+                target.writeInt(event.value);
+            }
+
+            @Override
+            protected BenchPrimitiveEvent readFields(int cloudResourceId, String cloudResourceName,
+                                                     CloudResourceType type, int score,
+                                                     EventSerializer<?> serializer, DataInputView source)
+                    throws IOException {
+                return new BenchPrimitiveEvent(cloudResourceId, cloudResourceName, type, score, source.readInt());
+            }
+        };
+
+        private final int value;
+
+        public BenchPrimitiveEvent(String cloudResourceName, CloudResourceType cloudResourceType, int score, int value) {
+            super(cloudResourceName, cloudResourceType, score);
+            this.value = value;
+        }
+
+        public BenchPrimitiveEvent(int cloudResourceId, String cloudResourceName,
+                                   CloudResourceType cloudResourceType, int score, int value) {
+            super(cloudResourceId, cloudResourceName, cloudResourceType, score);
+            this.value = value;
+        }
+
+    }
+
+    /**
+     * Evènement complexe du banc d'essai
+     */
+    public static class BenchComplexEvent extends ComplexEvent {
+
+        static final EventCodec<BenchComplexEvent> CODEC = new ComplexEventCodec<BenchComplexEvent>() {
+            @Override
+            protected void writeFields(BenchComplexEvent event, EventSerializer<?> serializer,
+                                       DataOutputView target) {
+            }
+
+            @Override
+            protected BenchComplexEvent readFields(Deque<Triplet<CloudResourceType, String, Integer>> resources,
+                                                   EventSerializer<?> serializer, DataInputView source) {
+                return new BenchComplexEvent(resources);
+            }
+        };
+
+        public BenchComplexEvent(Deque<Triplet<CloudResourceType, String, Integer>> resources) {
+            super(resources);
+        }
+
+    }
+
+}
@@ -0,0 +1,67 @@
+package perception.events.serialization;
+
+import graph.CloudResourceType;
+import org.apache.flink.api.common.ExecutionConfig;
+import org.junit.Before;
+import org.junit.Test;
+import perception.events.Event;
+import perception.events.PrimitiveEvent;
+import perception.events.serialization.EventSerializerBenchmark.BenchComplexEvent;
+import perception.events.serialization.EventSerializerBenchmark.BenchPrimitiveEvent;
+import utils.Triplet;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+public class EventSerializerTest {
+
+	private EventSerializer<Event> serializer;
+
+	@Before
+	public void setUp() {
+		EventCodecRegistry.getInstance().register(BenchPrimitiveEvent.class, BenchPrimitiveEvent.CODEC);
+		EventCodecRegistry.getInstance().register(BenchComplexEvent.class, BenchComplexEvent.CODEC);
+		serializer = new EventSerializer<>(Event.class, EventCodecRegistry.getInstance(), new ExecutionConfig());
+	}
+
+	@Test
+	public void testCopyIsIndependentOfOriginal() {
+		BenchPrimitiveEvent event = new BenchPrimitiveEvent("vm", CloudResourceType.VM, 3, 42);
+		event.setTimestamp(1000);
+		PrimitiveEvent copy = (PrimitiveEvent) serializer.copy(event);
+		assertNotSame("new instance", event, copy);
+		assertEquals("class", BenchPrimitiveEvent.class, copy.getClass());
+		assertEquals("timestamp", 1000, copy.getTimestamp());
+		assertEquals("resource id", event.getCloudResourceId(), copy.getCloudResourceId());
+		assertEquals("resource name", "vm", copy.getCloudResourceName());
+		assertEquals("resource type", CloudResourceType.VM, copy.getCloudResourceType());
+		assertEquals("score", 3, copy.getScore());
+		copy.setTimestamp(2000);
+		assertEquals("original timestamp", 1000, event.getTimestamp());
+		assertNotSame("copy with reuse", event, serializer.copy(event, null));
+	}
+
+	@Test
+	public void testCopyOfComplexEventCopiesResources() {
+		Deque<Triplet<CloudResourceType, String, Integer>> resources = new LinkedList<>();
+		resources.add(new Triplet<>(CloudResourceType.VM, "vm", 1));
+		resources.add(new Triplet<>(CloudResourceType.PM, "pm", 2));
+		BenchComplexEvent event = new BenchComplexEvent(resources);
+		BenchComplexEvent copy = (BenchComplexEvent) serializer.copy(event);
+		assertNotSame("resources", event.getResources(), copy.getResources());
+		assertEquals("resource values", new ArrayList<>(resources), new ArrayList<>(copy.getResources()));
+		copy.getResources().clear();
+		assertEquals("original resources", 2, event.getResources().size());
+	}
+
+	@Test
+	public void testCopyOfNull() {
+		assertNull("null", serializer.copy(null));
+	}
+
+}
@@ -0,0 +1,79 @@
+package perception.primitive_events_generator;
+
+import graph.CloudResource;
+import graph.VM;
+import org.junit.Before;
+import org.junit.Test;
+import perception.events.PrimitiveEvent;
+
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DeadbandTest {
+
+	private PEGTest peg;
+	private VM vm;
+
+	/**
+	 * PEG générant pour chaque ressource un évènement dont le score est la valeur courante
+	 */
+	private static class PEGTest extends PrimitiveEventGenerator {
+
+		private int value;
+
+		PEGTest() {
+			super("PEG_Deadband", 1000);
+		}
+
+		@Override
+		protected Optional<PrimitiveEvent> processResource(CloudResource cr) {
+			return Optional.of(new PrimitiveEvent(cr.getId(), cr.getName(), cr.getType(), value) {});
+		}
+
+	}
+
+	@Before
+	public void setUp() {
+		peg = new PEGTest();
+		vm = new VM("vm_deadband", 0);
+	}
+
+	private boolean emitted(int value, long timestamp) {
+		peg.value = value;
+		Optional<PrimitiveEvent> event = peg.generate(vm, timestamp);
+		event.ifPresent(e -> assertEquals("timestamp", timestamp, e.getTimestamp()));
+		return event.isPresent();
+	}
+
+	@Test
+	public void testAbsoluteDeadband() {
+		peg.setAbsoluteDeadband(5, 1000);
+		assertTrue("first event", emitted(50, 1000));
+		assertFalse("within threshold", emitted(55, 1100));
+		assertTrue("beyond threshold", emitted(56, 1200));
+		assertFalse("compared to last emitted value", emitted(52, 1300));
+	}
+
+	@Test
+	public void testRelativeDeadband() {
+		peg.setRelativeDeadband(0.1, 1000);
+		assertTrue("first event", emitted(100, 1000));
+		assertFalse("within ratio", emitted(110, 1100));
+		assertTrue("beyond ratio", emitted(89, 1200));
+	}
+
+	@Test
+	public void testMaxSilenceUsesEventTimestamps() {
+		peg.setAbsoluteDeadband(5, 1000);
+		assertTrue("first event", emitted(50, 1000));
+		assertFalse("silence shorter than max", emitted(50, 1999));
+		assertTrue("silence reaching max", emitted(50, 2000));
+		assertFalse("silence restarted", emitted(50, 2500));
+		peg.disableDeadband();
+		assertTrue("deadband disabled", emitted(50, 2600));
+	}
+
+}
@@ -0,0 +1,241 @@
+package perception.primitive_events_generator;
+
+import graph.CloudResource;
+import org.apache.flink.streaming.api.functions.source.SourceFunction.SourceContext;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import perception.core.CloudResourcesAccess;
+import perception.core.PerceptionRunContext;
+import perception.events.ComplexEvent;
+import perception.events.PrimitiveEvent;
+import perception.events.SimpleEvent;
+import perception.services.PerceptionLogger;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PEGMultiplexerTest {
+
+	private static final long MS_TIMEOUT = 5000;
+
+	private Thread runner;
+	private PEGMultiplexer multiplexer;
+	private PerceptionLogger previousLogger;
+
+	/**
+	 * PEG ne générant aucun évènement, dont seules les exécutions sont comptées (voir {@link PEGStatistics})
+	 */
+	private static class PEGTest extends PrimitiveEventGenerator {
+
+		PEGTest(String name, long msRefreshingRate) {
+			super(name, msRefreshingRate);
+			getStatistics().reset();
+		}
+
+		@Override
+		protected Optional<PrimitiveEvent> processResource(CloudResource cr) {
+			return Optional.empty();
+		}
+
+		long getTickCount() {
+			return getStatistics().getTickCount();
+		}
+
+	}
+
+	/**
+	 * Contexte ignorant les évènements et watermarks émis
+	 */
+	private static class IgnoringContext implements SourceContext<PrimitiveEvent> {
+
+		private final Object lock = new Object();
+
+		@Override
+		public void collect(PrimitiveEvent element) {}
+
+		@Override
+		public void collectWithTimestamp(PrimitiveEvent element, long timestamp) {}
+
+		@Override
+		public void emitWatermark(Watermark mark) {}
+
+		@Override
+		public void markAsTemporarilyIdle() {}
+
+		@Override
+		public Object getCheckpointLock() {
+			return lock;
+		}
+
+		@Override
+		public void close() {}
+
+	}
+
+	/**
+	 * PEG dont chaque exécution dure msExecDuration millisecondes
+	 */
+	private static class SlowPEGTest extends PEGTest {
+
+		private volatile long msExecDuration;
+
+		SlowPEGTest(String name, long msRefreshingRate) {
+			super(name, msRefreshingRate);
+		}
+
+		@Override
+		@SuppressWarnings("rawtypes")
+		boolean execIncremental(SourceContext ctx, CloudResourcesAccess.Snapshot snapshot, long timestamp) {
+			try {
+				Thread.sleep(msExecDuration);
+			} catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return true;
+		}
+
+	}
+
+	/**
+	 * Journal ne conservant que les messages
+	 */
+	private static class MessageLogger extends PerceptionLogger {
+
+		private final List<String> messages = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void logPrimitiveEvent(PrimitiveEvent primitiveEvent, String pegName) {}
+
+		@Override
+		public void logSimpleEvent(SimpleEvent simpleEvent, String segName) {}
+
+		@Override
+		public void logComplexEvent(ComplexEvent complexEvent, String cegName) {}
+
+		@Override
+		public void logMessage(String message) {
+			messages.add(message);
+		}
+
+		@Override
+		public void logError(String error) {}
+
+	}
+
+	@Before
+	public void setUp() {
+		previousLogger = PerceptionRunContext.getPerceptionLogger();
+	}
+
+	private void start(PEGTest peg) {
+		multiplexer = new PEGMultiplexer(Collections.singletonList(peg), 10);
+		runner = new Thread(() -> {
+			try {
+				multiplexer.run(new IgnoringContext());
+			} catch(Exception e) {
+				throw new RuntimeException(e);
+			}
+		});
+		runner.start();
+	}
+
+	@After
+	public void tearDown() throws InterruptedException {
+		if(runner != null) {
+			multiplexer.cancel();
+			runner.join(MS_TIMEOUT);
+			runner = null;
+		}
+		PerceptionRunContext.setPerceptionLogger(previousLogger);
+	}
+
+	private static void await(String message, BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MS_TIMEOUT);
+		while(!condition.getAsBoolean()) {
+			if(System.nanoTime() > deadline) {
+				fail(message);
+			}
+			Thread.sleep(5);
+		}
+	}
+
+	@Test
+	public void testReenabledGeneratorRunsWithoutWaitingForItsPeriod() throws InterruptedException {
+		PEGTest peg = new PEGTest("PEG_Mux_Reenabled", 60000);
+		peg.setHasToGenerateEvents(false);
+		start(peg);
+		Thread.sleep(100);
+		assertEquals("disabled", 0, peg.getTickCount());
+		peg.setHasToGenerateEvents(true);
+		await("reenabled generator executed", () -> peg.getTickCount() == 1);
+		Thread.sleep(100);
+		assertEquals("next execution after the period", 1, peg.getTickCount());
+	}
+
+	@Test
+	public void testCancelledGeneratorStopsTheMultiplexer() throws InterruptedException {
+		PEGTest peg = new PEGTest("PEG_Mux_Cancelled", 60000);
+		start(peg);
+		await("first execution", () -> peg.getTickCount() == 1);
+		peg.cancel();
+		runner.join(MS_TIMEOUT);
+		assertFalse("multiplexer stopped", runner.isAlive());
+		assertTrue("executions", peg.getTickCount() == 1);
+	}
+
+	@Test
+	public void testCancelWakesTheMultiplexer() throws InterruptedException {
+		PEGTest peg = new PEGTest("PEG_Mux_Cancel", 60000);
+		start(peg);
+		await("first execution", () -> peg.getTickCount() == 1);
+		multiplexer.cancel();
+		runner.join(MS_TIMEOUT);
+		assertFalse("multiplexer stopped", runner.isAlive());
+	}
+
+	@Test
+	public void testOverrunLoggedOncePerStreak() throws InterruptedException {
+		MessageLogger logger = new MessageLogger();
+		PerceptionRunContext.setPerceptionLogger(logger);
+		SlowPEGTest peg = new SlowPEGTest("PEG_Mux_Overrun", 10);
+		peg.msExecDuration = 30;
+		start(peg);
+		await("overrunning executions", () -> peg.getStatistics().getOverrunCount() >= 5);
+		assertEquals("first streak", 1, logger.messages.size());
+		peg.msExecDuration = 0;
+		long overruns = peg.getStatistics().getOverrunCount();
+		long ticks = peg.getTickCount();
+		await("executions on time", () -> peg.getTickCount() >= ticks + 5);
+		assertTrue("streak ended", peg.getStatistics().getOverrunCount() < overruns + 5);
+		peg.msExecDuration = 30;
+		await("second streak", () -> logger.messages.size() == 2);
+		long secondStreak = peg.getStatistics().getOverrunCount();
+		await("overrunning executions", () -> peg.getStatistics().getOverrunCount() >= secondStreak + 5);
+		assertEquals("second streak logged once", 2, logger.messages.size());
+	}
+
+	@Test
+	public void testRateChangeReschedulesPendingExecution() throws InterruptedException {
+		PEGTest peg = new PEGTest("PEG_Mux_Rate", 60000);
+		start(peg);
+		await("first execution", () -> peg.getTickCount() == 1);
+		peg.setMsRefreshingRate(50);
+		await("executions at the new rate", () -> peg.getTickCount() >= 4);
+		peg.setMsRefreshingRate(60000);
+		long ticks = peg.getTickCount();
+		Thread.sleep(200);
+		assertTrue("slower rate", peg.getTickCount() <= ticks + 1);
+	}
+
+}
@@ -0,0 +1,161 @@
+package perception.primitive_events_generator;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TimingWheelTest {
+
+	/**
+	 * Avance la roue d'un tick et retourne les éléments expirés
+	 */
+	private static <T> List<T> tick(TimingWheel<T> wheel) {
+		List<T> expired = new ArrayList<>();
+		wheel.advance(wheel.getCurrentTick() + 1, expired::add);
+		return expired;
+	}
+
+	@Test
+	public void testDeadlineWithinOneSlot() {
+		TimingWheel<String> wheel = new TimingWheel<>(10);
+		wheel.schedule("a", 13);
+		wheel.schedule("b", 13);
+		assertEquals("size", 2, wheel.size());
+		assertTrue("tick 11", tick(wheel).isEmpty());
+		assertTrue("tick 12", tick(wheel).isEmpty());
+		List<String> expired = tick(wheel);
+		assertEquals("tick 13", 2, expired.size());
+		assertTrue("expired items", expired.contains("a") && expired.contains("b"));
+		assertEquals("size after expiration", 0, wheel.size());
+	}
+
+	@Test
+	public void testPastDeadlineExpiresOnNextTick() {
+		TimingWheel<String> wheel = new TimingWheel<>(100);
+		wheel.schedule("late", 42);
+		wheel.schedule("now", 100);
+		assertEquals("next tick", 2, tick(wheel).size());
+	}
+
+	@Test
+	public void testDeadlineAcrossCascade() {
+		//L'échéance n'est pas dans le niveau 0 : l'élément redescend lorsque le tick 128 est atteint
+		TimingWheel<String> wheel = new TimingWheel<>(60);
+		wheel.schedule("cascaded", 130);
+		List<String> expired = new ArrayList<>();
+		wheel.advance(129, expired::add);
+		assertTrue("before deadline", expired.isEmpty());
+		assertEquals("still scheduled", 1, wheel.size());
+		assertEquals("at deadline", 1, tick(wheel).size());
+		assertEquals("tick", 130, wheel.getCurrentTick());
+	}
+
+	@Test
+	public void testDeadlineAcrossSeveralLevels() {
+		//L'échéance diffère du tick courant au niveau 6 : l'élément redescend de six niveaux au tick 2^36
+		long boundary = 1L << 36;
+		TimingWheel<String> wheel = new TimingWheel<>(boundary - 3);
+		wheel.schedule("far", boundary + 2);
+		wheel.schedule("near", boundary);
+		List<String> expired = new ArrayList<>();
+		wheel.advance(boundary, expired::add);
+		assertEquals("at boundary", 1, expired.size());
+		assertEquals("near first", "near", expired.get(0));
+		wheel.advance(boundary + 1, expired::add);
+		assertEquals("before deadline", 1, expired.size());
+		wheel.advance(boundary + 2, expired::add);
+		assertEquals("at deadline", 2, expired.size());
+		assertEquals("far last", "far", expired.get(1));
+	}
+
+	@Test
+	public void testDeadlineBeyondTopLevel() {
+		//Les niveaux couvrent l'ensemble des ticks : une échéance au-delà du dernier niveau complet reste planifiée
+		TimingWheel<String> wheel = new TimingWheel<>(0);
+		wheel.schedule("never", Long.MAX_VALUE);
+		wheel.advance(1 << 14, item -> { throw new AssertionError("expired " + item); });
+		assertEquals("still scheduled", 1, wheel.size());
+
+		TimingWheel<String> last = new TimingWheel<>(Long.MAX_VALUE - 5);
+		last.schedule("last", Long.MAX_VALUE);
+		List<String> expired = new ArrayList<>();
+		last.advance(Long.MAX_VALUE - 1, expired::add);
+		assertTrue("before deadline", expired.isEmpty());
+		last.advance(Long.MAX_VALUE, expired::add);
+		assertEquals("at deadline", 1, expired.size());
+	}
+
+	@Test
+	public void testEachItemExpiresAtItsDeadline() {
+		Random random = new Random(42);
+		TimingWheel<Long> wheel = new TimingWheel<>(1000);
+		for(int i = 0; i < 500; i++) {
+			wheel.schedule(1001 + (long) random.nextInt(10000), 0);
+		}
+		for(int i = 0; i < 500; i++) {
+			long deadline = 1001 + (long) random.nextInt(10000);
+			wheel.schedule(deadline, deadline);
+		}
+		//Les premiers éléments, d'échéance dépassée, expirent au premier tick
+		assertEquals("first tick", 500, tick(wheel).size());
+		int expiredCount = 500;
+		while(wheel.size() > 0) {
+			long current = wheel.getCurrentTick() + 1;
+			for(long item : tick(wheel)) {
+				assertEquals("deadline", current, item);
+				expiredCount++;
+			}
+		}
+		assertEquals("expired", 1000, expiredCount);
+	}
+
+	@Test
+	public void testNextDeadline() {
+		TimingWheel<String> wheel = new TimingWheel<>(10);
+		assertEquals("empty", Long.MAX_VALUE, wheel.getNextDeadlineTick());
+		wheel.schedule("far", 5000);
+		wheel.schedule("cascaded", 130);
+		wheel.schedule("second", 129);
+		assertEquals("higher levels", 129, wheel.getNextDeadlineTick());
+		wheel.schedule("near", 13);
+		assertEquals("level 0", 13, wheel.getNextDeadlineTick());
+		assertEquals("expired", 1, advance(wheel, 13).size());
+		assertEquals("after expiration", 129, wheel.getNextDeadlineTick());
+		assertEquals("expired after cascade", 1, advance(wheel, 129).size());
+		assertEquals("after cascade", 130, wheel.getNextDeadlineTick());
+		assertEquals("expired cascaded", 1, advance(wheel, 130).size());
+		assertEquals("last", 5000, wheel.getNextDeadlineTick());
+	}
+
+	@Test
+	public void testRemove() {
+		TimingWheel<String> wheel = new TimingWheel<>(60);
+		long deadline = wheel.schedule("a", 100);
+		wheel.schedule("b", 100);
+		assertEquals("past deadline", 61, wheel.schedule("late", 20));
+		assertTrue("removed", wheel.remove("a", deadline));
+		assertFalse("already removed", wheel.remove("a", deadline));
+		assertFalse("other deadline", wheel.remove("b", 101));
+		assertTrue("late removed", wheel.remove("late", 61));
+		assertEquals("size", 1, wheel.size());
+		//L'élément est retrouvé après être redescendu d'un niveau
+		long cascaded = wheel.schedule("cascaded", 130);
+		assertEquals("before cascade", 1, advance(wheel, 128).size());
+		assertTrue("removed after cascade", wheel.remove("cascaded", cascaded));
+		assertEquals("empty", 0, wheel.size());
+		assertTrue("nothing expires", advance(wheel, 200).isEmpty());
+	}
+
+	private static <T> List<T> advance(TimingWheel<T> wheel, long targetTick) {
+		List<T> expired = new ArrayList<>();
+		wheel.advance(targetTick, expired::add);
+		return expired;
+	}
+
+}